@@ -11,6 +11,7 @@ public class AllSamples {
         
         samples.runCompleteSamples();
         samples.runIncompleteSamples();
+        samples.runBenchmarks();
     }
     
     
@@ -38,7 +39,16 @@ public class AllSamples {
         Swap.class, 
         DiscreteHedging.class, 
         CoxRossWithHullWhite.class, 
-        SobolChartSample.class
+        SobolChartSample.class,
+    };
+
+    private static final Class<?> benchmarks[] = {
+        RiskStatisticsBenchmark.class, 
+        BatchBlackBenchmark.class, 
+        ImpliedVolatilityBenchmark.class, 
+        MertonJumpDiffusionBenchmark.class, 
+        LocalVolGridBenchmark.class, 
+        PathEvolutionBenchmark.class, 
     };
     
 
@@ -51,7 +61,11 @@ public class AllSamples {
     }
     
     public void runPendingSamples() {
-        testSamples(complete);
+        testSamples(pending);
+    }
+
+    public void runBenchmarks() {
+        testSamples(benchmarks);
     }
 
     private void testSamples(final Class<?> klasses[]) {
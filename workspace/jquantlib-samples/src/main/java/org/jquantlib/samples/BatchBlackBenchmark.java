@@ -0,0 +1,146 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.samples;
+
+import java.util.EnumSet;
+import java.util.Random;
+
+import org.jquantlib.QL;
+import org.jquantlib.Settings;
+import org.jquantlib.daycounters.Actual365Fixed;
+import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.exercise.EuropeanExercise;
+import org.jquantlib.instruments.EuropeanOption;
+import org.jquantlib.instruments.Option;
+import org.jquantlib.instruments.PlainVanillaPayoff;
+import org.jquantlib.instruments.VanillaOption;
+import org.jquantlib.pricingengines.AnalyticEuropeanEngine;
+import org.jquantlib.pricingengines.BatchBlackCalculator;
+import org.jquantlib.pricingengines.BatchBlackCalculator.Output;
+import org.jquantlib.processes.BlackScholesMertonProcess;
+import org.jquantlib.quotes.Handle;
+import org.jquantlib.quotes.Quote;
+import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.samples.util.StopClock;
+import org.jquantlib.termstructures.BlackVolTermStructure;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.termstructures.volatilities.BlackConstantVol;
+import org.jquantlib.termstructures.yieldcurves.FlatForward;
+import org.jquantlib.time.Date;
+import org.jquantlib.time.calendars.Target;
+import org.jquantlib.util.Concurrency;
+
+/**
+ * Compares European options priced one at a time by {@link AnalyticEuropeanEngine} against batches priced by
+ * {@link BatchBlackCalculator}, calculating value, delta and vega.
+ * <p>
+ * The number of options priced in batches can be passed as the first argument and defaults to 5 million; the
+ * per-instrument engine prices a sample of 100 thousand options.
+ *
+ * @author agent
+ */
+public class BatchBlackBenchmark implements Runnable {
+
+    private static final int engineOptions = 100000;
+
+    private final int batchOptions;
+
+    public static void main(final String[] args) {
+        new BatchBlackBenchmark(args.length > 0 ? Integer.parseInt(args[0]) : 5000000).run();
+    }
+
+    public BatchBlackBenchmark() {
+        this(5000000);
+    }
+
+    public BatchBlackBenchmark(final int batchOptions) {
+        this.batchOptions = batchOptions;
+    }
+
+    @Override
+    public void run() {
+        QL.info("::::: " + getClass().getSimpleName() + " :::::");
+
+        final Date today = new Settings().evaluationDate();
+        final DayCounter dc = new Actual365Fixed();
+        final double spot = 100.0, q = 0.01, r = 0.04, vol = 0.25;
+        final Random random = new Random(42);
+
+        // per-instrument engine
+        final BlackScholesMertonProcess process = new BlackScholesMertonProcess(
+                new Handle<Quote>(new SimpleQuote(spot)),
+                new Handle<YieldTermStructure>(new FlatForward(today, q, dc)),
+                new Handle<YieldTermStructure>(new FlatForward(today, r, dc)),
+                new Handle<BlackVolTermStructure>(new BlackConstantVol(today, new Target(), vol, dc)));
+        final AnalyticEuropeanEngine engine = new AnalyticEuropeanEngine(process);
+        final VanillaOption[] options = new VanillaOption[engineOptions];
+        for (int i = 0; i < engineOptions; i++) {
+            final Option.Type type = random.nextBoolean() ? Option.Type.Call : Option.Type.Put;
+            final Date maturity = today.add(30 + random.nextInt(720));
+            options[i] = new EuropeanOption(new PlainVanillaPayoff(type, 50.0 + 100.0 * random.nextDouble()), new EuropeanExercise(maturity));
+            options[i].setPricingEngine(engine);
+        }
+        final StopClock clock = new StopClock(StopClock.Unit.ns);
+        clock.startClock();
+        double sum = 0.0;
+        for (final VanillaOption option : options) {
+            sum += option.NPV() + option.delta() + option.vega();
+        }
+        clock.stopClock();
+        final double engineTime = (double) clock.getElapsedTime() / engineOptions;
+        QL.info("AnalyticEuropeanEngine: " + engineOptions + " options, " + (long) engineTime + " ns per option (checksum " + sum + ")");
+
+        // batches
+        final double[] forward = new double[batchOptions];
+        final double[] strike = new double[batchOptions];
+        final double[] stdDev = new double[batchOptions];
+        final double[] discount = new double[batchOptions];
+        final double[] spots = new double[batchOptions];
+        final double[] time = new double[batchOptions];
+        final boolean[] call = new boolean[batchOptions];
+        for (int i = 0; i < batchOptions; i++) {
+            time[i] = (30 + random.nextInt(720)) / 365.0;
+            spots[i] = spot;
+            discount[i] = Math.exp(-r * time[i]);
+            forward[i] = spot * Math.exp((r - q) * time[i]);
+            strike[i] = 50.0 + 100.0 * random.nextDouble();
+            stdDev[i] = vol * Math.sqrt(time[i]);
+            call[i] = random.nextBoolean();
+        }
+        final EnumSet<Output> outputs = EnumSet.of(Output.Value, Output.Delta, Output.Vega);
+        final BatchBlackCalculator.Results results = new BatchBlackCalculator.Results(outputs, batchOptions);
+        for (final boolean concurrent : new boolean[] { false, true }) {
+            final BatchBlackCalculator calculator = new BatchBlackCalculator(concurrent ? Concurrency.defaultExecutor() : null);
+            // once for warming up, once for timing
+            calculator.calculate(forward, strike, stdDev, discount, call, spots, time, results);
+            clock.reset();
+            clock.startClock();
+            calculator.calculate(forward, strike, stdDev, discount, call, spots, time, results);
+            clock.stopClock();
+            final double batchTime = (double) clock.getElapsedTime() / batchOptions;
+            QL.info("BatchBlackCalculator" + (concurrent ? " (concurrent): " : ": ") + batchOptions + " options, "
+                    + batchTime + " ns per option, speedup " + engineTime / batchTime);
+        }
+    }
+
+}
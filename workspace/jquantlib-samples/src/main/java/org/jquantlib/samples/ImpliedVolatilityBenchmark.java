@@ -0,0 +1,117 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.samples;
+
+import java.util.Random;
+
+import org.jquantlib.QL;
+import org.jquantlib.instruments.Option;
+import org.jquantlib.pricingengines.BlackFormula;
+import org.jquantlib.pricingengines.BlackImpliedStdDevCalculator;
+import org.jquantlib.samples.util.StopClock;
+import org.jquantlib.util.Concurrency;
+
+/**
+ * Compares implied standard deviations obtained by {@link BlackFormula#blackFormulaImpliedStdDev(Option.Type, double, double, double, double)}
+ * against batches inverted by {@link BlackImpliedStdDevCalculator}.
+ * <p>
+ * The number of quotes inverted in batches can be passed as the first argument and defaults to 2 million; the
+ * generic solver inverts a sample of 100 thousand quotes.
+ *
+ * @author agent
+ */
+public class ImpliedVolatilityBenchmark implements Runnable {
+
+    private static final int solverQuotes = 100000;
+
+    private final int batchQuotes;
+
+    public static void main(final String[] args) {
+        new ImpliedVolatilityBenchmark(args.length > 0 ? Integer.parseInt(args[0]) : 2000000).run();
+    }
+
+    public ImpliedVolatilityBenchmark() {
+        this(2000000);
+    }
+
+    public ImpliedVolatilityBenchmark(final int batchQuotes) {
+        this.batchQuotes = batchQuotes;
+    }
+
+    @Override
+    public void run() {
+        QL.info("::::: " + getClass().getSimpleName() + " :::::");
+
+        final Random random = new Random(42);
+        final double[] forward = new double[batchQuotes];
+        final double[] strike = new double[batchQuotes];
+        final double[] price = new double[batchQuotes];
+        final double[] discount = new double[batchQuotes];
+        final boolean[] call = new boolean[batchQuotes];
+        final double[] stdDev = new double[batchQuotes];
+        for (int i = 0; i < batchQuotes; i++) {
+            final double time = 0.05 + 5.0 * random.nextDouble();
+            final double s = (0.05 + 0.75 * random.nextDouble()) * Math.sqrt(time);
+            forward[i] = 100.0;
+            strike[i] = 100.0 * Math.exp(0.5 * s * random.nextGaussian());
+            discount[i] = Math.exp(-0.03 * time);
+            call[i] = random.nextBoolean();
+            price[i] = BlackFormula.blackFormula(call[i] ? Option.Type.Call : Option.Type.Put, strike[i], forward[i], s, discount[i]);
+            stdDev[i] = s;
+        }
+
+        final StopClock clock = new StopClock(StopClock.Unit.ns);
+
+        // generic solver, one quote at a time
+        double error = 0.0;
+        clock.startClock();
+        for (int i = 0; i < solverQuotes; i++) {
+            final double s = BlackFormula.blackFormulaImpliedStdDev(
+                    call[i] ? Option.Type.Call : Option.Type.Put, strike[i], forward[i], price[i], discount[i]);
+            error = Math.max(error, Math.abs(s - stdDev[i]));
+        }
+        clock.stopClock();
+        final double solverTime = (double) clock.getElapsedTime() / solverQuotes;
+        QL.info("BlackFormula: " + solverQuotes + " quotes, " + (long) solverTime + " ns per quote, max error " + error);
+
+        // batches
+        final double[] implied = new double[batchQuotes];
+        for (final boolean concurrent : new boolean[] { false, true }) {
+            final BlackImpliedStdDevCalculator calculator = new BlackImpliedStdDevCalculator(concurrent ? Concurrency.defaultExecutor() : null);
+            // once for warming up, once for timing
+            calculator.calculate(forward, strike, price, discount, call, implied);
+            clock.reset();
+            clock.startClock();
+            calculator.calculate(forward, strike, price, discount, call, implied);
+            clock.stopClock();
+            error = 0.0;
+            for (int i = 0; i < batchQuotes; i++) {
+                error = Math.max(error, Math.abs(implied[i] - stdDev[i]));
+            }
+            final double batchTime = (double) clock.getElapsedTime() / batchQuotes;
+            QL.info("BlackImpliedStdDevCalculator" + (concurrent ? " (concurrent): " : ": ") + batchQuotes + " quotes, "
+                    + batchTime + " ns per quote, max error " + error + ", speedup " + solverTime / batchTime);
+        }
+    }
+
+}
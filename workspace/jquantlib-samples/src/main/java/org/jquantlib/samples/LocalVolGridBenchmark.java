@@ -0,0 +1,184 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.samples;
+
+import java.util.Random;
+
+import org.jquantlib.QL;
+import org.jquantlib.Settings;
+import org.jquantlib.daycounters.Actual365Fixed;
+import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.math.matrixutilities.Array;
+import org.jquantlib.quotes.Handle;
+import org.jquantlib.quotes.Quote;
+import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.samples.util.StopClock;
+import org.jquantlib.termstructures.BlackVarianceTermStructure;
+import org.jquantlib.termstructures.BlackVolTermStructure;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.termstructures.volatilities.LocalVolSurface;
+import org.jquantlib.termstructures.volatilities.LocalVolSurface.GridInterpolation;
+import org.jquantlib.termstructures.yieldcurves.FlatForward;
+import org.jquantlib.time.Date;
+
+/**
+ * Compares local volatilities obtained from Dupire's formula on every call against local volatilities interpolated on
+ * a grid tabulated by {@link LocalVolSurface#enableGrid(Array, Array, GridInterpolation)}.
+ * <p>
+ * The number of lookups can be passed as the first argument and defaults to 1 million.
+ *
+ * @author agent
+ */
+public class LocalVolGridBenchmark implements Runnable {
+
+    private final int lookups;
+
+    public static void main(final String[] args) {
+        new LocalVolGridBenchmark(args.length > 0 ? Integer.parseInt(args[0]) : 1000000).run();
+    }
+
+    public LocalVolGridBenchmark() {
+        this(1000000);
+    }
+
+    public LocalVolGridBenchmark(final int lookups) {
+        this.lookups = lookups;
+    }
+
+    @Override
+    public void run() {
+        QL.info("::::: " + getClass().getSimpleName() + " :::::");
+
+        final Date today = new Settings().evaluationDate();
+        final DayCounter dc = new Actual365Fixed();
+        final Handle<BlackVolTermStructure> blackTS = new Handle<BlackVolTermStructure>(new SmileSurface(today, dc));
+        final Handle<YieldTermStructure> riskFreeTS = new Handle<YieldTermStructure>(new FlatForward(today, 0.04, dc));
+        final Handle<YieldTermStructure> dividendTS = new Handle<YieldTermStructure>(new FlatForward(today, 0.01, dc));
+        final Handle<Quote> spot = new Handle<Quote>(new SimpleQuote(100.0));
+
+        // points of a local volatility Monte Carlo, away from the forward where Dupire's formula is too noisy;
+        // lookups extrapolate as GeneralizedBlackScholesProcess does, which skips range checks
+        final Random random = new Random(42);
+        final double[] times = new double[lookups];
+        final double[] levels = new double[lookups];
+        for (int i = 0; i < lookups; i++) {
+            times[i] = 0.05 + 1.95 * random.nextDouble();
+            final double y = (random.nextBoolean() ? 1.0 : -1.0) * (0.05 + 0.35 * random.nextDouble());
+            levels[i] = 100.0 * Math.exp(0.03 * times[i] + y);
+        }
+
+        final LocalVolSurface direct = new LocalVolSurface(blackTS, riskFreeTS, dividendTS, spot);
+        final StopClock clock = new StopClock(StopClock.Unit.ns);
+        final double[] expected = new double[lookups];
+        // once for warming up, once for timing
+        for (int pass = 0; pass < 2; pass++) {
+            clock.reset();
+            clock.startClock();
+            for (int i = 0; i < lookups; i++) {
+                expected[i] = direct.localVol(times[i], levels[i], true);
+            }
+            clock.stopClock();
+        }
+        final double directTime = (double) clock.getElapsedTime() / lookups;
+        QL.info("Dupire's formula: " + lookups + " lookups, " + (long) directTime + " ns per lookup");
+
+        final GridInterpolation[] interpolations = { GridInterpolation.Bilinear, GridInterpolation.Lagrange };
+        final int[] sizes = { 101, 21 };
+        for (int n = 0; n < interpolations.length; n++) {
+            final LocalVolSurface cached = new LocalVolSurface(blackTS, riskFreeTS, dividendTS, spot);
+            cached.enableGrid(grid(0.05, 2.0, sizes[n]), grid(-0.5, 0.5, sizes[n]), interpolations[n]);
+            clock.reset();
+            clock.startClock();
+            cached.localVol(1.0, 100.0, true);
+            clock.stopClock();
+            final long buildTime = clock.getElapsedTime();
+
+            double maxError = 0.0;
+            for (int pass = 0; pass < 2; pass++) {
+                clock.reset();
+                clock.startClock();
+                for (int i = 0; i < lookups; i++) {
+                    maxError = Math.max(maxError, Math.abs(cached.localVol(times[i], levels[i], true) - expected[i]));
+                }
+                clock.stopClock();
+            }
+            final double gridTime = (double) clock.getElapsedTime() / lookups;
+            QL.info(interpolations[n] + " grid " + sizes[n] + "x" + sizes[n]
+                    + ": built in " + buildTime / 1000000 + " ms, " + (long) gridTime + " ns per lookup, max error "
+                    + maxError + ", speedup " + directTime / gridTime);
+        }
+    }
+
+    private static Array grid(final double first, final double last, final int size) {
+        final Array grid = new Array(size);
+        for (int i = 0; i < size; i++) {
+            grid.set(i, first + (last - first) * i / (size - 1));
+        }
+        return grid;
+    }
+
+
+    //
+    // private inner classes
+    //
+
+    /**
+     * Smooth smile whose skew and convexity flatten with time
+     */
+    private static class SmileSurface extends BlackVarianceTermStructure {
+        private final DayCounter dc;
+
+        public SmileSurface(final Date referenceDate, final DayCounter dc) {
+            super(referenceDate);
+            this.dc = dc;
+        }
+
+        @Override
+        public DayCounter dayCounter() {
+            return dc;
+        }
+
+        @Override
+        public Date maxDate() {
+            return Date.maxDate();
+        }
+
+        @Override
+        public double minStrike() {
+            return 0.0;
+        }
+
+        @Override
+        public double maxStrike() {
+            return Double.MAX_VALUE;
+        }
+
+        @Override
+        protected double blackVarianceImpl(final double t, final double strike) {
+            final double m = Math.log(strike / 100.0) / Math.sqrt(1.0 + t);
+            final double vol = 0.20 - 0.10 * m + 0.15 * m * m;
+            return vol * vol * t;
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.samples;
+
+import org.jquantlib.QL;
+import org.jquantlib.Settings;
+import org.jquantlib.daycounters.Actual365Fixed;
+import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.exercise.EuropeanExercise;
+import org.jquantlib.instruments.EuropeanOption;
+import org.jquantlib.instruments.Option;
+import org.jquantlib.instruments.PlainVanillaPayoff;
+import org.jquantlib.instruments.VanillaOption;
+import org.jquantlib.pricingengines.vanilla.JumpDiffusionEngine;
+import org.jquantlib.processes.Merton76Process;
+import org.jquantlib.quotes.Handle;
+import org.jquantlib.quotes.Quote;
+import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.samples.util.StopClock;
+import org.jquantlib.termstructures.BlackVolTermStructure;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.termstructures.volatilities.BlackConstantVol;
+import org.jquantlib.termstructures.yieldcurves.FlatForward;
+import org.jquantlib.time.Date;
+import org.jquantlib.time.calendars.Target;
+
+/**
+ * Compares European options priced one at a time by {@link JumpDiffusionEngine} against a strip of strikes priced at
+ * once by {@link JumpDiffusionEngine#values(Option.Type, Date, double[])}.
+ * <p>
+ * The number of strikes can be passed as the first argument and defaults to 10 thousand.
+ *
+ * @author agent
+ */
+public class MertonJumpDiffusionBenchmark implements Runnable {
+
+    private final int strikes;
+
+    public static void main(final String[] args) {
+        new MertonJumpDiffusionBenchmark(args.length > 0 ? Integer.parseInt(args[0]) : 10000).run();
+    }
+
+    public MertonJumpDiffusionBenchmark() {
+        this(10000);
+    }
+
+    public MertonJumpDiffusionBenchmark(final int strikes) {
+        this.strikes = strikes;
+    }
+
+    @Override
+    public void run() {
+        QL.info("::::: " + getClass().getSimpleName() + " :::::");
+
+        final Date today = new Settings().evaluationDate();
+        final DayCounter dc = new Actual365Fixed();
+        final Merton76Process process = new Merton76Process(
+                new Handle<Quote>(new SimpleQuote(100.0)),
+                new Handle<YieldTermStructure>(new FlatForward(today, 0.01, dc)),
+                new Handle<YieldTermStructure>(new FlatForward(today, 0.04, dc)),
+                new Handle<BlackVolTermStructure>(new BlackConstantVol(today, new Target(), 0.20, dc)),
+                new Handle<Quote>(new SimpleQuote(1.0)),
+                new Handle<Quote>(new SimpleQuote(-0.10)),
+                new Handle<Quote>(new SimpleQuote(0.25)));
+        final JumpDiffusionEngine engine = new JumpDiffusionEngine(process, 1e-8);
+
+        final Date maturity = today.add(365);
+        final double[] strike = new double[strikes];
+        final VanillaOption[] options = new VanillaOption[strikes];
+        for (int i = 0; i < strikes; i++) {
+            strike[i] = 50.0 + 100.0 * i / strikes;
+            options[i] = new EuropeanOption(new PlainVanillaPayoff(Option.Type.Call, strike[i]), new EuropeanExercise(maturity));
+            options[i].setPricingEngine(engine);
+        }
+
+        // per-instrument engine
+        final StopClock clock = new StopClock(StopClock.Unit.ns);
+        clock.startClock();
+        double sum = 0.0;
+        for (final VanillaOption option : options) {
+            sum += option.NPV();
+        }
+        clock.stopClock();
+        final double engineTime = (double) clock.getElapsedTime() / strikes;
+        QL.info("JumpDiffusionEngine: " + strikes + " options, " + (long) engineTime + " ns per option (checksum " + sum + ")");
+
+        // strip of strikes, once for warming up, once for timing
+        engine.values(Option.Type.Call, maturity, strike);
+        clock.reset();
+        clock.startClock();
+        final double[] values = engine.values(Option.Type.Call, maturity, strike);
+        clock.stopClock();
+        final double stripTime = (double) clock.getElapsedTime() / strikes;
+        double checksum = 0.0;
+        for (final double value : values) {
+            checksum += value;
+        }
+        QL.info("JumpDiffusionEngine.values: " + strikes + " options, " + (long) stripTime
+                + " ns per option (checksum " + checksum + "), speedup " + engineTime / stripTime);
+    }
+
+}
@@ -0,0 +1,195 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+
+package org.jquantlib.samples;
+
+import java.util.Random;
+
+import org.jquantlib.QL;
+import org.jquantlib.Settings;
+import org.jquantlib.daycounters.Actual365Fixed;
+import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.math.matrixutilities.Array;
+import org.jquantlib.processes.BlackScholesMertonProcess;
+import org.jquantlib.processes.HestonProcess;
+import org.jquantlib.processes.StochasticProcess;
+import org.jquantlib.processes.StochasticProcess1D;
+import org.jquantlib.quotes.Handle;
+import org.jquantlib.quotes.Quote;
+import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.samples.util.StopClock;
+import org.jquantlib.termstructures.BlackVolTermStructure;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.termstructures.volatilities.BlackConstantVol;
+import org.jquantlib.termstructures.yieldcurves.FlatForward;
+import org.jquantlib.time.Date;
+import org.jquantlib.time.TimeGrid;
+import org.jquantlib.time.calendars.NullCalendar;
+
+/**
+ * Compares paths evolved step by step through {@link StochasticProcess#evolve(double, Array, double, Array)} against
+ * paths evolved by a {@link StochasticProcess.TimeGridEvolver}, which calculates forward rates once per time grid,
+ * either returning new arrays or evolving the state in place.
+ * <p>
+ * The number of paths can be passed as the first argument and defaults to 20 thousand.
+ *
+ * @author agent
+ */
+public class PathEvolutionBenchmark implements Runnable {
+
+    private static final int steps = 100;
+
+    private final int paths;
+
+    public static void main(final String[] args) {
+        new PathEvolutionBenchmark(args.length > 0 ? Integer.parseInt(args[0]) : 20000).run();
+    }
+
+    public PathEvolutionBenchmark() {
+        this(20000);
+    }
+
+    public PathEvolutionBenchmark(final int paths) {
+        this.paths = paths;
+    }
+
+    @Override
+    public void run() {
+        QL.info("::::: " + getClass().getSimpleName() + " :::::");
+        System.setProperty("EXPERIMENTAL", "true");
+
+        final Date today = new Settings().evaluationDate();
+        final DayCounter dc = new Actual365Fixed();
+        final Handle<Quote> spot = new Handle<Quote>(new SimpleQuote(100.0));
+        final Handle<YieldTermStructure> riskFreeTS = new Handle<YieldTermStructure>(new FlatForward(today, 0.04, dc));
+        final Handle<YieldTermStructure> dividendTS = new Handle<YieldTermStructure>(new FlatForward(today, 0.01, dc));
+        final Handle<BlackVolTermStructure> volTS =
+            new Handle<BlackVolTermStructure>(new BlackConstantVol(today, new NullCalendar(), 0.25, dc));
+        final TimeGrid grid = new TimeGrid(1.0, steps);
+
+        final Random random = new Random(42);
+        final double[] dw = new double[2 * steps];
+        for (int i = 0; i < dw.length; i++) {
+            dw[i] = random.nextGaussian();
+        }
+
+        final StopClock clock = new StopClock(StopClock.Unit.ms);
+
+        final BlackScholesMertonProcess bsm = new BlackScholesMertonProcess(spot, dividendTS, riskFreeTS, volTS);
+        double direct = 0.0, cached = 0.0;
+        // once for warming up, once for timing
+        for (int pass = 0; pass < 2; pass++) {
+            clock.reset();
+            clock.startClock();
+            direct = 0.0;
+            for (int p = 0; p < paths; p++) {
+                double x = bsm.x0();
+                for (int i = 0; i < steps; i++) {
+                    x = bsm.evolve(grid.get(i), x, grid.dt(i), dw[(p + i) % dw.length]);
+                }
+                direct += x;
+            }
+            clock.stopClock();
+        }
+        final long bsmDirect = clock.getElapsedTime();
+        for (int pass = 0; pass < 2; pass++) {
+            clock.reset();
+            clock.startClock();
+            cached = 0.0;
+            final StochasticProcess1D.TimeGridEvolver1D evolver = bsm.timeGridEvolver(grid);
+            for (int p = 0; p < paths; p++) {
+                double x = bsm.x0();
+                for (int i = 0; i < steps; i++) {
+                    x = evolver.evolve(i, x, dw[(p + i) % dw.length]);
+                }
+                cached += x;
+            }
+            clock.stopClock();
+        }
+        final long bsmCached = clock.getElapsedTime();
+        QL.info("Black-Scholes: step by step " + bsmDirect + " ms, time grid evolver " + bsmCached + " ms, speedup "
+                + (double) bsmDirect / Math.max(bsmCached, 1L) + ", same results: " + (direct == cached));
+
+        final HestonProcess heston = new HestonProcess(riskFreeTS, dividendTS, spot, 0.04, 1.5, 0.05, 0.4, -0.6);
+        for (int pass = 0; pass < 2; pass++) {
+            clock.reset();
+            clock.startClock();
+            direct = 0.0;
+            for (int p = 0; p < paths; p++) {
+                Array x = heston.initialValues();
+                for (int i = 0; i < steps; i++) {
+                    x = heston.evolve(grid.get(i), x, grid.dt(i), increments(dw, p + i));
+                }
+                direct += x.get(0);
+            }
+            clock.stopClock();
+        }
+        final long hestonDirect = clock.getElapsedTime();
+        for (int pass = 0; pass < 2; pass++) {
+            clock.reset();
+            clock.startClock();
+            cached = 0.0;
+            final StochasticProcess.TimeGridEvolver evolver = heston.timeGridEvolver(grid);
+            for (int p = 0; p < paths; p++) {
+                Array x = heston.initialValues();
+                for (int i = 0; i < steps; i++) {
+                    x = evolver.evolve(i, x, increments(dw, p + i));
+                }
+                cached += x.get(0);
+            }
+            clock.stopClock();
+        }
+        final long hestonCached = clock.getElapsedTime();
+        QL.info("Heston: step by step " + hestonDirect + " ms, time grid evolver " + hestonCached + " ms, speedup "
+                + (double) hestonDirect / Math.max(hestonCached, 1L) + ", same results: " + (direct == cached));
+
+        final Array initialValues = heston.initialValues();
+        final double[] x = new double[2];
+        final double[] increments = new double[2];
+        for (int pass = 0; pass < 2; pass++) {
+            clock.reset();
+            clock.startClock();
+            cached = 0.0;
+            final StochasticProcess.TimeGridEvolver evolver = heston.timeGridEvolver(grid);
+            for (int p = 0; p < paths; p++) {
+                x[0] = initialValues.get(0);
+                x[1] = initialValues.get(1);
+                for (int i = 0; i < steps; i++) {
+                    increments[0] = dw[(2 * (p + i)) % dw.length];
+                    increments[1] = dw[(2 * (p + i) + 1) % dw.length];
+                    evolver.evolveInto(i, x, increments, x);
+                }
+                cached += x[0];
+            }
+            clock.stopClock();
+        }
+        final long hestonInPlace = clock.getElapsedTime();
+        QL.info("Heston: time grid evolver in place " + hestonInPlace + " ms, speedup "
+                + (double) hestonDirect / Math.max(hestonInPlace, 1L) + ", same results: " + (direct == cached));
+    }
+
+    private static Array increments(final double[] dw, final int i) {
+        return new Array(new double[] { dw[(2 * i) % dw.length], dw[(2 * i + 1) % dw.length] });
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.samples;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.jquantlib.QL;
+import org.jquantlib.math.Ops;
+import org.jquantlib.math.functions.Bind2nd;
+import org.jquantlib.math.functions.Bind2ndPredicate;
+import org.jquantlib.math.functions.Expression;
+import org.jquantlib.math.functions.Identity;
+import org.jquantlib.math.functions.LessThanPredicate;
+import org.jquantlib.math.functions.Minus;
+import org.jquantlib.math.functions.Square;
+import org.jquantlib.math.statistics.GenericRiskStatistics;
+import org.jquantlib.math.statistics.RiskStatistics;
+import org.jquantlib.samples.util.StopClock;
+import org.jquantlib.util.Pair;
+
+/**
+ * Compares risk measures calculated through composed functors against the single-pass kernels of
+ * {@link GenericRiskStatistics}.
+ * <p>
+ * The number of samples can be passed as the first argument and defaults to 10 million.
+ *
+ * @author agent
+ */
+public class RiskStatisticsBenchmark implements Runnable {
+
+    private static final double centile = 0.99;
+    private static final double target = -0.01;
+
+    private final int samples;
+
+    public static void main(final String[] args) {
+        new RiskStatisticsBenchmark(args.length > 0 ? Integer.parseInt(args[0]) : 10000000).run();
+    }
+
+    public RiskStatisticsBenchmark() {
+        this(10000000);
+    }
+
+    public RiskStatisticsBenchmark(final int samples) {
+        this.samples = samples;
+    }
+
+    @Override
+    public void run() {
+        QL.info("::::: " + getClass().getSimpleName() + " :::::");
+
+        final Random random = new Random(42);
+        final double[] values = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            values[i] = random.nextGaussian() * 0.02 + 0.0005;
+        }
+        final RiskStatistics stats = new RiskStatistics();
+        stats.addSequence(values);
+        // sorts the samples once, so that both paths see the same state
+        stats.percentile(0.5);
+
+        final StopClock clock = new StopClock(StopClock.Unit.ms);
+
+        // functors, one pass per measure
+        clock.startClock();
+        final double var = stats.valueAtRisk(centile);
+        final Ops.DoublePredicate belowVaR = new Bind2ndPredicate(new LessThanPredicate(), -var);
+        final Pair<Double, Integer> es = stats.expectationValue(new Identity(), belowVaR);
+        final List<Ops.DoubleOp> functions = new ArrayList<Ops.DoubleOp>();
+        functions.add(new Bind2nd(new Minus(), target));
+        functions.add(new Square());
+        final Ops.DoublePredicate belowTarget = new Bind2ndPredicate(new LessThanPredicate(), target);
+        final Pair<Double, Integer> regret = stats.expectationValue(new Expression(functions), belowTarget);
+        clock.stopClock();
+        final long functors = clock.getElapsedTime();
+        QL.info("functors:      VaR=" + var + "  ES=" + -Math.min(es.first(), 0.0)
+                + "  regret=" + regret.first() * regret.second() / (regret.second() - 1.0) + "  " + clock);
+
+        // primitive loops, one pass per measure
+        clock.reset();
+        clock.startClock();
+        final double var2 = stats.valueAtRisk(centile);
+        final double es2 = stats.expectedShortfall(centile);
+        final double regret2 = stats.regret(target);
+        clock.stopClock();
+        final long kernels = clock.getElapsedTime();
+        QL.info("kernels:       VaR=" + var2 + "  ES=" + es2 + "  regret=" + regret2 + "  " + clock);
+
+        // primitive loop, one pass for all measures
+        clock.reset();
+        clock.startClock();
+        final GenericRiskStatistics.RiskMeasures measures = stats.riskMeasures(centile, target);
+        clock.stopClock();
+        final long fused = clock.getElapsedTime();
+        QL.info("fused:         VaR=" + measures.valueAtRisk + "  ES=" + measures.expectedShortfall
+                + "  regret=" + measures.regret + "  " + clock);
+
+        QL.info("speedup of kernels over functors: " + (double) functors / Math.max(kernels, 1L));
+        QL.info("speedup of fused pass over functors: " + (double) functors / Math.max(fused, 1L));
+    }
+
+}
@@ -26,7 +26,6 @@ package org.jquantlib.cashflow;
 import org.jquantlib.QL;
 import org.jquantlib.Settings;
 import org.jquantlib.daycounters.DayCounter;
-import org.jquantlib.lang.exceptions.LibraryException;
 import org.jquantlib.math.Constants;
 import org.jquantlib.math.Ops;
 import org.jquantlib.math.solvers1D.Brent;
@@ -37,8 +36,6 @@ import org.jquantlib.termstructures.YieldTermStructure;
 import org.jquantlib.termstructures.yieldcurves.FlatForward;
 import org.jquantlib.time.Date;
 import org.jquantlib.time.Frequency;
-import org.jquantlib.util.PolymorphicVisitor;
-import org.jquantlib.util.Visitor;
 
 /**
  * Cashflow-analysis functions
@@ -58,14 +55,8 @@ public class CashFlows {
 
     private final String not_enough_information_available = "not enough information available";
     private final String no_cashflows = "no cashflows";
-    private final String unsupported_compounding_type = "unsupported compounding type";
-    private final String compounded_rate_required = "compounded rate required";
-    private final String unsupported_frequency = "unsupported frequency";
-    private final String unknown_duration_type = "unsupported duration type";
     private final String infeasible_cashflow = "the given cash flows cannot result in the given market price due to their sign";
 
-    private static double basisPoint_ = 1.0e-4;
-
     /**
      * Singleton instance for the whole application.
      * <p>
@@ -158,22 +149,7 @@ public class CashFlows {
             final Date npvDate,
             final int exDividendDays) {
 
-        Date date = settlementDate;
-        if (date.isNull()) {
-            date = discountCurve.currentLink().referenceDate();
-        }
-
-        double totalNPV = 0.0;
-        for (int i = 0; i < cashflows.size(); ++i) {
-            if (!cashflows.get(i).hasOccurred(date.add(exDividendDays))) {
-                totalNPV += cashflows.get(i).amount() * discountCurve.currentLink().discount(cashflows.get(i).date());
-            }
-        }
-
-        if (npvDate.isNull())
-            return totalNPV;
-        else
-            return totalNPV / discountCurve.currentLink().discount(npvDate);
+        return cashflows.compiled().npv(discountCurve.currentLink(), settlementDate, npvDate, exDividendDays);
     }
 
     public double npv(
@@ -196,8 +172,8 @@ public class CashFlows {
             date = new Settings().evaluationDate();
         }
 
-        final YieldTermStructure flatRate = new FlatForward(date, irr.rate(), irr.dayCounter(), irr.compounding(), irr.frequency());
-        return npv(cashflows, new Handle<YieldTermStructure>(flatRate), date, date, 0);
+        // equivalent to discounting on a flat forward curve with reference date on the settlement date
+        return cashflows.compiled().npv(irr, date);
     }
 
     public double npv(final Leg leg, final InterestRate interestRate) {
@@ -246,18 +222,7 @@ public class CashFlows {
     public double bps(final Leg cashflows, final Handle<YieldTermStructure> discountCurve,
                       final Date settlementDate, final Date npvDate, final int exDividendDays) {
 
-        Date date = settlementDate;
-        if (date.isNull()) {
-            date = discountCurve.currentLink().referenceDate();
-        }
-
-        final BPSCalculator calc = new BPSCalculator(discountCurve, npvDate);
-        for (int i = 0; i < cashflows.size(); ++i) {
-            if (!cashflows.get(i).hasOccurred(date.add(exDividendDays))) {
-                cashflows.get(i).accept(calc);
-            }
-        }
-        return basisPoint_ * calc.result();
+        return cashflows.compiled().bps(discountCurve.currentLink(), settlementDate, npvDate, exDividendDays);
     }
 
     /**
@@ -287,11 +252,7 @@ public class CashFlows {
      */
     public double atmRate(final Leg leg, final Handle<YieldTermStructure> discountCurve, final Date settlementDate,
             final Date npvDate, final int exDividendDays, double npv) {
-        final double bps = bps(leg, discountCurve, settlementDate, npvDate, exDividendDays);
-        if (npv == 0) {
-            npv = npv(leg, discountCurve, settlementDate, npvDate, exDividendDays);
-        }
-        return basisPoint_ * npv / bps;
+        return leg.compiled().atmRate(discountCurve.currentLink(), settlementDate, npvDate, exDividendDays, npv);
     }
 
     public double atmRate(final Leg leg, final Handle<YieldTermStructure> discountCurve) {
@@ -382,16 +343,7 @@ public class CashFlows {
             date = new Settings().evaluationDate();
         }
 
-        switch (duration) {
-        case Simple:
-            return simpleDuration(leg, y, date);
-        case Modified:
-            return modifiedDuration(leg, y, date);
-        case Macaulay:
-            return macaulayDuration(leg, y, date);
-        default:
-            throw new LibraryException(unknown_duration_type); // QA:[RG]::verified
-        }
+        return leg.compiled().duration(y, duration, date);
     }
 
     public double duration(final Leg leg, final InterestRate y) {
@@ -411,40 +363,7 @@ public class CashFlows {
             date = new Settings().evaluationDate();
         }
 
-        final DayCounter dayCounter = rate.dayCounter();
-
-        double P = 0.0;
-        double d2Pdy2 = 0.0;
-        final double y = rate.rate();
-        final int N = rate.frequency().toInteger();
-
-        for (int i = 0; i < cashFlows.size(); ++i) {
-            if (!cashFlows.get(i).hasOccurred(date)) {
-                final double t = dayCounter.yearFraction(date, cashFlows.get(i).date());
-                final double c = cashFlows.get(i).amount();
-                final double B = rate.discountFactor(t);
-
-                P += c * B;
-                switch (rate.compounding()) {
-                case Simple:
-                    d2Pdy2 += c * 2.0 * B * B * B * t * t;
-                    break;
-                case Compounded:
-                    d2Pdy2 += c * B * t * (N * t + 1) / (N * (1 + y / N) * (1 + y / N));
-                    break;
-                case Continuous:
-                    d2Pdy2 += c * B * t * t;
-                    break;
-                case SimpleThenCompounded:
-                default:
-                    throw new LibraryException(unsupported_compounding_type); // QA:[RG]::verified
-                }
-            }
-        }
-
-        if (P == 0.0)
-            return 0.0; // no cashflows
-        return d2Pdy2 / P;
+        return cashFlows.compiled().convexity(rate, date);
     }
 
     public double convexity(final Leg leg, final InterestRate y) {
@@ -458,75 +377,6 @@ public class CashFlows {
 
 
 
-    private double simpleDuration(final Leg cashflows, final InterestRate rate, final Date settlementDate) {
-
-        double P = 0.0;
-        double tP = 0.0;
-
-        for (int i = 0; i < cashflows.size(); ++i) {
-            if (!cashflows.get(i).hasOccurred(settlementDate)) {
-                final double t = rate.dayCounter().yearFraction(settlementDate, cashflows.get(i).date());
-                final double c = cashflows.get(i).amount();
-                final double B = rate.discountFactor(t);
-
-                P += c * B;
-                tP += t * c * B;
-            }
-        }
-
-        if (P == 0.0)
-            // no cashflows
-            return 0.0;
-
-        return tP / P;
-    }
-
-    private double modifiedDuration(final Leg cashflows, final InterestRate rate, final Date settlementDate) {
-
-        double P = 0.0;
-        double dPdy = 0.0;
-        final double y = rate.rate();
-        final int N = rate.frequency().toInteger();
-
-        for (int i = 0; i < cashflows.size(); ++i) {
-            if (!cashflows.get(i).hasOccurred(settlementDate)) {
-                final double t = rate.dayCounter().yearFraction(settlementDate, cashflows.get(i).date());
-                final double c = cashflows.get(i).amount();
-                final double B = rate.discountFactor(t);
-
-                P += c * B;
-                switch (rate.compounding()) {
-                case Simple:
-                    dPdy -= c * B * B * t;
-                    break;
-                case Compounded:
-                    dPdy -= c * B * t / (1 + y / N);
-                    break;
-                case Continuous:
-                    dPdy -= c * B * t;
-                    break;
-                case SimpleThenCompounded:
-                default:
-                    throw new LibraryException(unsupported_compounding_type); // QA:[RG]::verified
-                }
-            }
-        }
-
-        if (P == 0.0)
-            // no cashflows
-            return 0.0;
-        return -dPdy / P;
-    }
-
-    private double macaulayDuration(final Leg cashflows, final InterestRate rate, final Date settlementDate) {
-
-        final double y = rate.rate();
-        final int N = rate.frequency().toInteger();
-        QL.require(rate.compounding().equals(Compounding.Compounded), compounded_rate_required);
-        QL.require(N>=1, unsupported_frequency);
-        return (1 + y / N) * modifiedDuration(cashflows, rate, settlementDate);
-    }
-
     private int sign(final double x) {
         if (x == 0)
             return 0;
@@ -750,64 +600,4 @@ public class CashFlows {
             return marketPrice_ - NPV;
         }
     }
-
-    private class BPSCalculator implements PolymorphicVisitor {
-
-        private static final String UNKNOWN_VISITABLE = "unknow visitable object";
-
-        private final Handle<YieldTermStructure> termStructure;
-        private final Date npvDate;
-
-        private double result;
-
-        public BPSCalculator(final Handle<YieldTermStructure> termStructure, final Date npvDate) {
-            this.termStructure = termStructure;
-            this.npvDate = npvDate;
-            this.result = 0.0;
-        }
-
-        public double result() {
-            if (npvDate.isNull())
-                return result;
-            else
-                return result / termStructure.currentLink().discount(npvDate);
-        }
-
-        //
-        // private inner classes
-        //
-
-        private class CashFlowVisitor implements Visitor<CashFlow> {
-            @Override
-            public void visit(final CashFlow o) {
-                // nothing
-            }
-        }
-
-        private class CouponVisitor implements Visitor<CashFlow> {
-            @Override
-            public void visit(final CashFlow o) {
-                final Coupon c = (Coupon) o;
-                result += c.accrualPeriod() * c.nominal() * termStructure.currentLink().discount(c.date());
-            }
-        }
-
-        //
-        // implements PolymorphicVisitor
-        //
-
-        @Override
-        public <CashFlow> Visitor<CashFlow> visitor(final Class<? extends CashFlow> klass) {
-
-            //FIXME
-            // Coupon is a CashFlow, therefore any Coupon types will never get to the CashFlowVisitor.
-            // This may be fine for now, but could become problematic if other types are introduced.
-
-            if (Coupon.class.isAssignableFrom (klass))
-                return (Visitor<CashFlow>) new CouponVisitor();
-            if (org.jquantlib.cashflow.CashFlow.class.isAssignableFrom (klass))
-                return (Visitor<CashFlow>) new CashFlowVisitor();
-            throw new LibraryException(UNKNOWN_VISITABLE); // QA:[RG]::verified
-        }
-    }
 }
@@ -0,0 +1,441 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.cashflow;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jquantlib.QL;
+import org.jquantlib.Settings;
+import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.lang.exceptions.LibraryException;
+import org.jquantlib.termstructures.Compounding;
+import org.jquantlib.termstructures.InterestRate;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.time.Calendar;
+import org.jquantlib.time.Date;
+import org.jquantlib.util.Observer;
+
+/**
+ * Columnar representation of a {@link Leg}
+ * <p>
+ * Payment dates and the kind of each cash flow are copied into parallel arrays once, so that cash-flow analysis
+ * functions run as tight loops instead of calling virtual methods of every cash flow.
+ * <p>
+ * Amounts are obtained from cash flows the first time they are needed and kept until a cash flow notifies a change,
+ * e.g. when the forecasting curve of a floating rate coupon moves. Amounts of cash flows which already occurred are
+ * never requested, like in {@link CashFlows}; the amounts of all other cash flows are obtained together, in a single
+ * pass. Times of payment dates are kept for the last term structure and for the
+ * last day counter, together with the reference date they were calculated for. Amounts, accrual factors and times
+ * are discarded when a calendar holiday set changes, because some day counters count business days.
+ * <p>
+ * Instances are safe for concurrent use: cached values are fully calculated before being published as snapshots,
+ * which are never modified afterwards, and recalculated when needed.
+ *
+ * @see Leg#compiled()
+ * @see Calendar#holidaysVersion()
+ *
+ * @author agent
+ */
+public class CompiledLeg implements Observer {
+
+    private static final String unsupported_compounding_type = "unsupported compounding type";
+    private static final double basisPoint = 1.0e-4;
+
+    private final CashFlow[] flows;
+    private final int size;
+    private final Date[] dates;
+    private final long[] serials;
+    private final boolean[] coupons;
+
+    // incremented whenever a cash flow notifies a change
+    private final AtomicInteger notifications = new AtomicInteger();
+    private volatile Values amounts;
+    private volatile Values accruals;
+    private volatile Times curveTimes;
+    private volatile Times rateTimes;
+
+
+    //
+    // public constructors
+    //
+
+    public CompiledLeg(final Leg leg) {
+        this.size = leg.size();
+        this.flows = leg.toArray(new CashFlow[size]);
+        this.dates = new Date[size];
+        this.serials = new long[size];
+        this.coupons = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            final CashFlow cf = flows[i];
+            dates[i] = cf.date();
+            serials[i] = dates[i].serialNumber();
+            coupons[i] = cf instanceof Coupon;
+            cf.addObserver(this);
+        }
+    }
+
+
+    //
+    // public methods
+    //
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @see CashFlows#npv(Leg, org.jquantlib.quotes.Handle, Date, Date, int)
+     */
+    public double npv(
+            final YieldTermStructure discountCurve,
+            final Date settlementDate,
+            final Date npvDate,
+            final int exDividendDays) {
+        final Date date = settlementDate.isNull() ? discountCurve.referenceDate() : settlementDate;
+        final long reference = date.add(exDividendDays).serialNumber();
+        final boolean includeToday = new Settings().isTodaysPayments();
+        final double[] t = times(discountCurve);
+        final double[] a = amounts(reference, includeToday);
+        double totalNPV = 0.0;
+        for (int i = 0; i < size; i++) {
+            if (!occurred(i, reference, includeToday)) {
+                totalNPV += a[i] * discountCurve.discount(t[i]);
+            }
+        }
+        return npvDate.isNull() ? totalNPV : totalNPV / discountCurve.discount(npvDate);
+    }
+
+    /**
+     * @see CashFlows#bps(Leg, org.jquantlib.quotes.Handle, Date, Date, int)
+     */
+    public double bps(
+            final YieldTermStructure discountCurve,
+            final Date settlementDate,
+            final Date npvDate,
+            final int exDividendDays) {
+        final Date date = settlementDate.isNull() ? discountCurve.referenceDate() : settlementDate;
+        final long reference = date.add(exDividendDays).serialNumber();
+        final boolean includeToday = new Settings().isTodaysPayments();
+        final double[] t = times(discountCurve);
+        final double[] a = accruals();
+        double result = 0.0;
+        for (int i = 0; i < size; i++) {
+            if (coupons[i] && !occurred(i, reference, includeToday)) {
+                result += a[i] * discountCurve.discount(t[i]);
+            }
+        }
+        if (!npvDate.isNull()) {
+            result /= discountCurve.discount(npvDate);
+        }
+        return basisPoint * result;
+    }
+
+    /**
+     * @param npv is the required NPV, or zero for using the NPV of the leg
+     *
+     * @see CashFlows#atmRate(Leg, org.jquantlib.quotes.Handle, Date, Date, int, double)
+     */
+    public double atmRate(
+            final YieldTermStructure discountCurve,
+            final Date settlementDate,
+            final Date npvDate,
+            final int exDividendDays,
+            final double npv) {
+        final double bps = bps(discountCurve, settlementDate, npvDate, exDividendDays);
+        final double value = (npv == 0) ? npv(discountCurve, settlementDate, npvDate, exDividendDays) : npv;
+        return basisPoint * value / bps;
+    }
+
+    /**
+     * NPV of the cash flows discounted at a constant interest rate from the settlement date.
+     *
+     * @see CashFlows#npv(Leg, InterestRate, Date)
+     */
+    public double npv(final InterestRate rate, final Date settlementDate) {
+        final long reference = settlementDate.serialNumber();
+        final boolean includeToday = new Settings().isTodaysPayments();
+        final double[] t = times(rate.dayCounter(), settlementDate);
+        final double[] a = amounts(reference, includeToday);
+        double totalNPV = 0.0;
+        for (int i = 0; i < size; i++) {
+            if (!occurred(i, reference, includeToday)) {
+                totalNPV += a[i] * rate.discountFactor(t[i]);
+            }
+        }
+        return totalNPV;
+    }
+
+    /**
+     * @see CashFlows#duration(Leg, InterestRate, CashFlows.Duration, Date)
+     */
+    public double duration(final InterestRate rate, final CashFlows.Duration type, final Date settlementDate) {
+        final long reference = settlementDate.serialNumber();
+        final boolean includeToday = new Settings().isTodaysPayments();
+        final double[] t = times(rate.dayCounter(), settlementDate);
+        final double[] a = amounts(reference, includeToday);
+        final double y = rate.rate();
+        final int N = rate.frequency().toInteger();
+
+        if (type == CashFlows.Duration.Macaulay) {
+            QL.require(rate.compounding() == Compounding.Compounded, "compounded rate required");
+            QL.require(N >= 1, "unsupported frequency");
+        }
+
+        double P = 0.0;
+        double tP = 0.0;
+        double dPdy = 0.0;
+        for (int i = 0; i < size; i++) {
+            if (!occurred(i, reference, includeToday)) {
+                final double c = a[i];
+                final double B = rate.discountFactor(t[i]);
+                P += c * B;
+                if (type == CashFlows.Duration.Simple) {
+                    tP += t[i] * c * B;
+                } else {
+                    switch (rate.compounding()) {
+                    case Simple:
+                        dPdy -= c * B * B * t[i];
+                        break;
+                    case Compounded:
+                        dPdy -= c * B * t[i] / (1 + y / N);
+                        break;
+                    case Continuous:
+                        dPdy -= c * B * t[i];
+                        break;
+                    case SimpleThenCompounded:
+                    default:
+                        throw new LibraryException(unsupported_compounding_type);
+                    }
+                }
+            }
+        }
+
+        if (P == 0.0)
+            // no cashflows
+            return 0.0;
+        switch (type) {
+        case Simple:
+            return tP / P;
+        case Modified:
+            return -dPdy / P;
+        case Macaulay:
+            return (1 + y / N) * (-dPdy / P);
+        default:
+            throw new LibraryException("unsupported duration type");
+        }
+    }
+
+    /**
+     * @see CashFlows#convexity(Leg, InterestRate, Date)
+     */
+    public double convexity(final InterestRate rate, final Date settlementDate) {
+        final long reference = settlementDate.serialNumber();
+        final boolean includeToday = new Settings().isTodaysPayments();
+        final double[] t = times(rate.dayCounter(), settlementDate);
+        final double[] a = amounts(reference, includeToday);
+        final double y = rate.rate();
+        final int N = rate.frequency().toInteger();
+
+        double P = 0.0;
+        double d2Pdy2 = 0.0;
+        for (int i = 0; i < size; i++) {
+            if (!occurred(i, reference, includeToday)) {
+                final double c = a[i];
+                final double B = rate.discountFactor(t[i]);
+                P += c * B;
+                switch (rate.compounding()) {
+                case Simple:
+                    d2Pdy2 += c * 2.0 * B * B * B * t[i] * t[i];
+                    break;
+                case Compounded:
+                    d2Pdy2 += c * B * t[i] * (N * t[i] + 1) / (N * (1 + y / N) * (1 + y / N));
+                    break;
+                case Continuous:
+                    d2Pdy2 += c * B * t[i] * t[i];
+                    break;
+                case SimpleThenCompounded:
+                default:
+                    throw new LibraryException(unsupported_compounding_type);
+                }
+            }
+        }
+
+        if (P == 0.0)
+            return 0.0; // no cashflows
+        return d2Pdy2 / P;
+    }
+
+
+    //
+    // implements Observer
+    //
+
+    @Override
+    public void update() {
+        notifications.incrementAndGet();
+    }
+
+
+    //
+    // package private methods
+    //
+
+    /**
+     * Stops observing the cash flows of this leg, once the owning {@link Leg} has discarded it.
+     */
+    void release() {
+        for (final CashFlow cf : flows) {
+            cf.deleteObserver(this);
+        }
+    }
+
+
+    //
+    // private methods
+    //
+
+    /**
+     * @return the amounts of all cash flows which did not occur at the reference date; other amounts may be missing
+     */
+    private double[] amounts(final long reference, final boolean includeToday) {
+        final int version = Calendar.holidaysVersion();
+        final int stamp = notifications.get();
+        final Values snapshot = amounts;
+        final double[] known = (snapshot != null && snapshot.version == version && snapshot.stamp == stamp)
+                ? snapshot.values : null;
+        if (known != null) {
+            boolean complete = true;
+            for (int i = 0; complete && i < size; i++) {
+                complete = occurred(i, reference, includeToday) || !Double.isNaN(known[i]);
+            }
+            if (complete)
+                return known;
+        }
+        final double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            if (known != null && !Double.isNaN(known[i])) {
+                values[i] = known[i];
+            } else if (!occurred(i, reference, includeToday)) {
+                values[i] = flows[i].amount();
+            } else {
+                values[i] = Double.NaN;
+            }
+        }
+        amounts = new Values(version, stamp, values);
+        return values;
+    }
+
+    private double[] accruals() {
+        final int version = Calendar.holidaysVersion();
+        final Values snapshot = accruals;
+        if (snapshot != null && snapshot.version == version)
+            return snapshot.values;
+        final double[] a = new double[size];
+        for (int i = 0; i < size; i++) {
+            if (coupons[i]) {
+                final Coupon c = (Coupon) flows[i];
+                a[i] = c.accrualPeriod() * c.nominal();
+            }
+        }
+        accruals = new Values(version, 0, a);
+        return a;
+    }
+
+    /**
+     * @see Event#hasOccurred(Date, boolean)
+     */
+    private boolean occurred(final int i, final long reference, final boolean includeToday) {
+        return includeToday ? serials[i] < reference : serials[i] <= reference;
+    }
+
+    private double[] times(final YieldTermStructure curve) {
+        final Date referenceDate = curve.referenceDate();
+        final int version = Calendar.holidaysVersion();
+        final Times snapshot = curveTimes;
+        if (snapshot != null && snapshot.matches(curve, referenceDate, version))
+            return snapshot.t;
+        final double[] t = new double[size];
+        for (int i = 0; i < size; i++) {
+            t[i] = curve.timeFromReference(dates[i]);
+        }
+        curveTimes = new Times(curve, referenceDate.serialNumber(), version, t);
+        return t;
+    }
+
+    private double[] times(final DayCounter dayCounter, final Date referenceDate) {
+        final int version = Calendar.holidaysVersion();
+        final Times snapshot = rateTimes;
+        if (snapshot != null && snapshot.matches(dayCounter, referenceDate, version))
+            return snapshot.t;
+        final double[] t = new double[size];
+        for (int i = 0; i < size; i++) {
+            t[i] = dayCounter.yearFraction(referenceDate, dates[i]);
+        }
+        rateTimes = new Times(dayCounter, referenceDate.serialNumber(), version, t);
+        return t;
+    }
+
+
+    //
+    // private inner classes
+    //
+
+    /**
+     * Times of payment dates, measured from a reference date by the day counter of a term structure or by a given
+     * day counter
+     */
+    private static final class Times {
+        private final Object owner;
+        private final long reference;
+        private final int version;
+        private final double[] t;
+
+        private Times(final Object owner, final long reference, final int version, final double[] t) {
+            this.owner = owner;
+            this.reference = reference;
+            this.version = version;
+            this.t = t;
+        }
+
+        private boolean matches(final Object owner, final Date referenceDate, final int version) {
+            return this.owner == owner && this.reference == referenceDate.serialNumber() && this.version == version;
+        }
+    }
+
+    /**
+     * Values per cash flow, valid while calendar holiday sets do not change and, for amounts, until a cash flow
+     * notifies a change
+     */
+    private static final class Values {
+        private final int version;
+        private final int stamp;
+        private final double[] values;
+
+        private Values(final int version, final int stamp, final double[] values) {
+            this.version = version;
+            this.stamp = stamp;
+            this.values = values;
+        }
+    }
+
+}
@@ -24,6 +24,7 @@
 package org.jquantlib.cashflow;
 
 import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.time.Calendar;
 import org.jquantlib.time.Date;
 import org.jquantlib.util.PolymorphicVisitor;
 import org.jquantlib.util.Visitor;
@@ -52,6 +53,13 @@ public abstract class Coupon extends CashFlow {
     protected Date refPeriodEnd_;
 
 
+    //
+    // private fields
+    //
+
+    private volatile AccrualPeriod accrualPeriod_;
+
+
     //
     // public constructors
     //
@@ -113,11 +121,25 @@ public abstract class Coupon extends CashFlow {
         return refPeriodEnd_;
     }
 
+    /**
+     * Returns the accrual fraction of this coupon.
+     * <p>
+     * The year fraction is calculated once and kept until a calendar holiday set changes, because some day counters
+     * (like {@link org.jquantlib.daycounters.Business252}) count business days.
+     *
+     * @see Calendar#holidaysVersion()
+     */
     public double accrualPeriod() {
-        return dayCounter().yearFraction(accrualStartDate_,
-                accrualEndDate_,
-                refPeriodStart_,
-                refPeriodEnd_);
+        final int version = Calendar.holidaysVersion();
+        AccrualPeriod cached = accrualPeriod_;
+        if (cached == null || cached.version != version) {
+            cached = new AccrualPeriod(version, dayCounter().yearFraction(accrualStartDate_,
+                    accrualEndDate_,
+                    refPeriodStart_,
+                    refPeriodEnd_));
+            accrualPeriod_ = cached;
+        }
+        return cached.value;
     }
 
     public long accrualDays() {
@@ -150,4 +172,19 @@ public abstract class Coupon extends CashFlow {
         }
     }
 
+
+    //
+    // private inner classes
+    //
+
+    private static final class AccrualPeriod {
+        private final int version;
+        private final double value;
+
+        private AccrualPeriod(final int version, final double value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+
 }
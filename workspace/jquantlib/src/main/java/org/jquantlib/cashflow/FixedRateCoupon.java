@@ -27,6 +27,7 @@ package org.jquantlib.cashflow;
 import org.jquantlib.daycounters.DayCounter;
 import org.jquantlib.termstructures.Compounding;
 import org.jquantlib.termstructures.InterestRate;
+import org.jquantlib.time.Calendar;
 import org.jquantlib.time.Date;
 import org.jquantlib.util.PolymorphicVisitor;
 import org.jquantlib.util.Visitor;
@@ -41,6 +42,7 @@ public class FixedRateCoupon extends Coupon {
 
 	private final InterestRate rate;
 	private final DayCounter dayCounter;
+	private volatile Amount amount_;
 
 	//
 	// constructors
@@ -120,11 +122,22 @@ public class FixedRateCoupon extends Coupon {
 	// Overrides CashFlow
 	//
 
+	/**
+	 * The amount is calculated once and kept until a calendar holiday set changes.
+	 *
+	 * @see Calendar#holidaysVersion()
+	 */
 	@Override
 	public double amount() {
-		return nominal()
-				* (rate.compoundFactor(accrualStartDate_, accrualEndDate_,
-						refPeriodStart_, refPeriodEnd_) - 1.0);
+		final int version = Calendar.holidaysVersion();
+		Amount cached = amount_;
+		if (cached == null || cached.version != version) {
+			cached = new Amount(version, nominal()
+					* (rate.compoundFactor(accrualStartDate_, accrualEndDate_,
+							refPeriodStart_, refPeriodEnd_) - 1.0));
+			amount_ = cached;
+		}
+		return cached.value;
 	}
 
 
@@ -141,4 +154,20 @@ public class FixedRateCoupon extends Coupon {
             super.accept(pv);
         }
 	}
+
+
+	//
+	// private inner classes
+	//
+
+	private static final class Amount {
+		private final int version;
+		private final double value;
+
+		private Amount(final int version, final double value) {
+			this.version = version;
+			this.value = value;
+		}
+	}
+
 }
@@ -51,6 +51,7 @@ import org.jquantlib.indexes.InterestRateIndex;
 import org.jquantlib.quotes.Handle;
 import org.jquantlib.termstructures.YieldTermStructure;
 import org.jquantlib.time.BusinessDayConvention;
+import org.jquantlib.time.Calendar;
 import org.jquantlib.time.Date;
 import org.jquantlib.time.Period;
 import org.jquantlib.time.TimeUnit;
@@ -73,6 +74,8 @@ public class FloatingRateCoupon extends Coupon implements Observer {
     protected boolean isInArrears_;
     protected FloatingRateCouponPricer pricer_;
 
+    private volatile Fixing fixing_;
+
     public FloatingRateCoupon(
             final Date paymentDate,
             final double nominal,
@@ -153,10 +156,25 @@ public class FloatingRateCoupon extends Coupon implements Observer {
         return fixingDays_;
     }
 
+    /**
+     * Returns the fixing date of this coupon.
+     * <p>
+     * The fixing date is calculated once and kept until the holiday set of the fixing calendar changes.
+     *
+     * @see Calendar#holidaysVersion()
+     */
     public Date fixingDate() {
-        // if isInArrears_ fix at the end of period
-        Date refDate = isInArrears_ ? accrualEndDate_ : accrualStartDate_;
-        return index_.fixingCalendar().advance(refDate, new Period(-fixingDays_, TimeUnit.Days), BusinessDayConvention.Preceding);
+        final Calendar calendar = index_.fixingCalendar();
+        final int version = Calendar.holidaysVersion();
+        Fixing cached = fixing_;
+        if (cached == null || cached.version != version || cached.calendar != calendar) {
+            // if isInArrears_ fix at the end of period
+            final Date refDate = isInArrears_ ? accrualEndDate_ : accrualStartDate_;
+            cached = new Fixing(calendar, version,
+                    calendar.advance(refDate, new Period(-fixingDays_, TimeUnit.Days), BusinessDayConvention.Preceding));
+            fixing_ = cached;
+        }
+        return cached.date.clone();
     }
 
 
@@ -210,4 +228,22 @@ public class FloatingRateCoupon extends Coupon implements Observer {
             super.accept(pv);
         }
     }
+
+
+    //
+    // private inner classes
+    //
+
+    private static final class Fixing {
+        private final Calendar calendar;
+        private final int version;
+        private final Date date;
+
+        private Fixing(final Calendar calendar, final int version, final Date date) {
+            this.calendar = calendar;
+            this.version = version;
+            this.date = date;
+        }
+    }
+
 }
@@ -47,6 +47,7 @@ import org.jquantlib.indexes.IborIndex;
 import org.jquantlib.indexes.IndexManager;
 import org.jquantlib.quotes.Handle;
 import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.time.Calendar;
 import org.jquantlib.time.Date;
 import org.jquantlib.time.TimeUnit;
 import org.jquantlib.util.PolymorphicVisitor;
@@ -62,6 +63,8 @@ public class IborCoupon extends FloatingRateCoupon {
 
     private final static String NULL_TERM_STRUCTURE = "null term structure set to par coupon";
 
+    private volatile ForecastDates forecastDates_;
+
     public IborCoupon(final Date paymentDate,
                       final double nominal,
                       final Date startDate,
@@ -173,24 +176,40 @@ public class IborCoupon extends FloatingRateCoupon {
                 }
             }
 
-            // start discount
-            final Date fixingValueDate = index_.fixingCalendar()
-                .advance(fixing_date, index_.fixingDays(), TimeUnit.Days);
-            final double startDiscount = termStructure.currentLink().discount(fixingValueDate);
+            final ForecastDates dates = forecastDates(fixing_date);
+            final double startDiscount = termStructure.currentLink().discount(dates.fixingValueDate);
+            final double endDiscount = termStructure.currentLink().discount(dates.nextFixingValueDate);
+            final double spanningTime = dates.spanningTime;
+            // implied fixing
+            return (startDiscount / endDiscount - 1.0) / spanningTime;
+        }
+    }
 
-            // end discount
-            final Date nextFixingDate = index_.fixingCalendar()
-                .advance(accrualEndDate_, -(fixingDays()), TimeUnit.Days);
-            final Date nextFixingValueDate = index_.fixingCalendar()
-                .advance (nextFixingDate, index_.fixingDays(), TimeUnit.Days);
-            final double endDiscount = termStructure.currentLink().discount(nextFixingValueDate);
 
+    //
+    // private methods
+    //
+
+    /**
+     * Returns the value dates and the spanning time used for forecasting the fixing, which only depend on the
+     * schedule and on the fixing calendar and are kept until a holiday set changes.
+     */
+    private ForecastDates forecastDates(final Date fixingDate) {
+        final Calendar calendar = index_.fixingCalendar();
+        final int version = Calendar.holidaysVersion();
+        ForecastDates cached = forecastDates_;
+        if (cached == null || cached.version != version || cached.calendar != calendar) {
+            // start discount
+            final Date fixingValueDate = calendar.advance(fixingDate, index_.fixingDays(), TimeUnit.Days);
+            // end discount
+            final Date nextFixingDate = calendar.advance(accrualEndDate_, -(fixingDays()), TimeUnit.Days);
+            final Date nextFixingValueDate = calendar.advance(nextFixingDate, index_.fixingDays(), TimeUnit.Days);
             // spanning time
-            final double spanningTime = index_.dayCounter()
-                .yearFraction (fixingValueDate, nextFixingValueDate);
-            // implied fixing
-            return (startDiscount / endDiscount - 1.0) / spanningTime;
+            final double spanningTime = index_.dayCounter().yearFraction(fixingValueDate, nextFixingValueDate);
+            cached = new ForecastDates(calendar, version, fixingValueDate, nextFixingValueDate, spanningTime);
+            forecastDates_ = cached;
         }
+        return cached;
     }
 
 
@@ -208,4 +227,31 @@ public class IborCoupon extends FloatingRateCoupon {
         }
     }
 
+
+
+    //
+    // private inner classes
+    //
+
+    private static final class ForecastDates {
+        private final Calendar calendar;
+        private final int version;
+        private final Date fixingValueDate;
+        private final Date nextFixingValueDate;
+        private final double spanningTime;
+
+        private ForecastDates(
+                final Calendar calendar,
+                final int version,
+                final Date fixingValueDate,
+                final Date nextFixingValueDate,
+                final double spanningTime) {
+            this.calendar = calendar;
+            this.version = version;
+            this.fixingValueDate = fixingValueDate;
+            this.nextFixingValueDate = nextFixingValueDate;
+            this.spanningTime = spanningTime;
+        }
+    }
+
 }
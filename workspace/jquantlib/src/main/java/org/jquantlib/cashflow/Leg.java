@@ -32,6 +32,9 @@ import org.jquantlib.QL;
 // TODO: code review :: license, class comments, comments for access modifiers, comments for @Override
 public class Leg extends ArrayList<CashFlow> implements Cloneable {
 
+    private transient CompiledLeg compiled;
+    private transient int compiledModCount;
+
     //
     // public constructors
     //
@@ -54,9 +57,46 @@ public class Leg extends ArrayList<CashFlow> implements Cloneable {
         return this.get(this.size()-1);
     }
 
+    /**
+     * Returns the columnar representation of this leg, which is built when first needed and rebuilt whenever cash
+     * flows are added, removed or replaced. A discarded representation stops observing the cash flows.
+     *
+     * @see CompiledLeg
+     */
+    public CompiledLeg compiled() {
+        CompiledLeg result = compiled;
+        if (result == null || compiledModCount != modCount) {
+            discardCompiled();
+            result = new CompiledLeg(this);
+            compiled = result;
+            compiledModCount = modCount;
+        }
+        return result;
+    }
+
+    @Override
+    public CashFlow set(final int index, final CashFlow element) {
+        discardCompiled();
+        return super.set(index, element);
+    }
+
     @Override
     public Object clone() {
-    	return (Leg)super.clone();
+    	final Leg leg = (Leg)super.clone();
+    	leg.compiled = null;
+    	return leg;
+    }
+
+
+    //
+    // private methods
+    //
+
+    private void discardCompiled() {
+        if (compiled != null) {
+            compiled.release();
+            compiled = null;
+        }
     }
 
 }
@@ -181,7 +181,7 @@ public abstract class InterestRateIndex extends Index implements Observer {
     }
 
     public Date fixingDate(final Date valueDate) {
-        final Date fixingDate = fixingCalendar().advance(valueDate, fixingDays, TimeUnit.Days);
+        final Date fixingDate = fixingCalendar().advance(valueDate, -fixingDays, TimeUnit.Days);
         QL.ensure(isValidFixingDate(fixingDate) , "fixing date " + fixingDate + " is not valid"); 
         return fixingDate;
     }
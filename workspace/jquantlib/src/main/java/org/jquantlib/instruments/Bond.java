@@ -55,12 +55,12 @@ import org.jquantlib.cashflow.Coupon;
 import org.jquantlib.cashflow.Leg;
 import org.jquantlib.cashflow.SimpleCashFlow;
 import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.instruments.bonds.CompiledBond;
 import org.jquantlib.lang.iterators.Iterables;
 import org.jquantlib.lang.reflect.ReflectConstants;
 import org.jquantlib.math.Closeness;
 import org.jquantlib.math.Constants;
 import org.jquantlib.math.Ops.DoubleOp;
-import org.jquantlib.math.solvers1D.Brent;
 import org.jquantlib.pricingengines.GenericEngine;
 import org.jquantlib.pricingengines.PricingEngine;
 import org.jquantlib.pricingengines.bond.DiscountingBondEngine;
@@ -400,13 +400,7 @@ public class Bond extends Instrument {
     		                      final /* Real */double accuracy,
     		                      final /* Size */int maxEvaluations) {
     	
-        final Brent solver = new Brent();
-        solver.setMaxEvaluations(maxEvaluations);
-        final YieldFinder objective = new YieldFinder(notional(settlementDate()), cashflows_,
-                dirtyPrice(),
-                dc, comp, freq,
-                settlementDate());
-        return solver.solve(objective, accuracy, 0.02, 0.0, 1.0);
+        return compiled(dc, comp, freq, settlementDate()).yield(dirtyPrice(), accuracy, maxEvaluations);
     }
 
     public/* @Rate */double yield(final DayCounter dc, 
@@ -509,13 +503,26 @@ public class Bond extends Instrument {
             settlementDate = settlementDate();
         }
 
-        final Brent solver = new Brent();
-        solver.setMaxEvaluations(maxEvaluations);
         final double dirtyPrice = cleanPrice + accruedAmount(settlementDate);
-        final YieldFinder objective = new YieldFinder(notional(settlementDate),
-                							this.cashflows_,dirtyPrice,
-                							dc, comp, freq,	settlementDate);
-        return solver.solve(objective, accuracy, 0.02, 0.0, 1.0);
+        return compiled(dc, comp, freq, settlementDate).yield(dirtyPrice, accuracy, maxEvaluations);
+    }
+
+    /**
+     * Compiles the cash flows of this bond for fast price/yield conversions at a given settlement date.
+     * <p>
+     * The result is a snapshot: it must be compiled again when the settlement date or the amounts of the
+     * cash flows change.
+     *
+     * @see CompiledBond
+     */
+    public CompiledBond compiled(final DayCounter dc,
+                                 final Compounding comp,
+                                 final Frequency freq,
+                                 Date settlementDate) {
+        if (settlementDate.isNull()) {
+            settlementDate = settlementDate();
+        }
+        return new CompiledBond(notional(settlementDate), cashflows_, dc, comp, freq, settlementDate);
     }
 
     /**
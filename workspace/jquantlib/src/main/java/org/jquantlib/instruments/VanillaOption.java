@@ -44,11 +44,14 @@ import org.jquantlib.QL;
 import org.jquantlib.exercise.Exercise;
 import org.jquantlib.lang.exceptions.LibraryException;
 import org.jquantlib.pricingengines.AnalyticEuropeanEngine;
+import org.jquantlib.pricingengines.BlackImpliedStdDevCalculator;
 import org.jquantlib.pricingengines.PricingEngine;
 import org.jquantlib.pricingengines.vanilla.finitedifferences.FDAmericanEngine;
 import org.jquantlib.pricingengines.vanilla.finitedifferences.FDBermudanEngine;
 import org.jquantlib.processes.GeneralizedBlackScholesProcess;
 import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.termstructures.BlackVolTermStructure;
+import org.jquantlib.time.Date;
 
 /**
  * Vanilla option (no discrete dividends, no barriers) on a single asset
@@ -145,6 +148,10 @@ public class VanillaOption extends OneAssetOption {
      * volatility. In these cases, the calculation can fail and the result (if any) is almost meaningless. Another possible
      * source of failure is to have a target value that is not attainable with any volatility, e.g., a target value lower
      * than the intrinsic value in the case of American options.
+     * <p>
+     * The implied volatility of European plain vanilla options is obtained by {@link BlackImpliedStdDevCalculator},
+     * without building a pricing engine; the solver below is only employed when such volatility is not found in the
+     * interval given by <code>minVol</code> and <code>maxVol</code>.
      */
     public /*@Volatility*/ double impliedVolatility(
             final /*@Real*/ double price,
@@ -155,6 +162,12 @@ public class VanillaOption extends OneAssetOption {
             final /*@Volatility*/ double maxVol) /* @ReadOnly */ {
 
         QL.require(!isExpired(), "option expired");
+
+        if (exercise.type() == Exercise.Type.European && payoff instanceof PlainVanillaPayoff) {
+            final /*@Volatility*/ double vol = blackImpliedVolatility(price, process);
+            if (vol >= minVol && vol <= maxVol) return vol;
+        }
+
         final SimpleQuote volQuote = new SimpleQuote();
         final GeneralizedBlackScholesProcess newProcess = ImpliedVolatilityHelper.clone(process, volQuote);
 
@@ -184,6 +197,34 @@ public class VanillaOption extends OneAssetOption {
     }
 
 
+    //
+    // private methods
+    //
+
+    /**
+     * Black-Scholes implied volatility of a European plain vanilla option, or <code>Double.NaN</code> when it cannot
+     * be obtained analytically
+     */
+    private /*@Volatility*/ double blackImpliedVolatility(
+            final /*@Real*/ double price,
+            final GeneralizedBlackScholesProcess process) /* @ReadOnly */ {
+        final PlainVanillaPayoff vanillaPayoff = (PlainVanillaPayoff) payoff;
+        final Date maturity = exercise.lastDate();
+        final BlackVolTermStructure volTS = process.blackVolatility().currentLink();
+        final /*@Time*/ double t = volTS.dayCounter().yearFraction(volTS.referenceDate(), maturity);
+        final /*@Real*/ double spot = process.stateVariable().currentLink().value();
+        if (!(price >= 0.0 && spot > 0.0 && vanillaPayoff.strike() > 0.0 && t > 0.0)) return Double.NaN;
+
+        // same forward and discount as AnalyticEuropeanEngine
+        final /*@DiscountFactor*/ double dividendDiscount = process.dividendYield().currentLink().discount(maturity);
+        final /*@DiscountFactor*/ double riskFreeDiscount = process.riskFreeRate().currentLink().discount(maturity);
+        final /*@Real*/ double forward = spot * dividendDiscount / riskFreeDiscount;
+        final /*@StdDev*/ double stdDev = BlackImpliedStdDevCalculator.impliedStdDev(
+                vanillaPayoff.optionType(), vanillaPayoff.strike(), forward, price, riskFreeDiscount);
+        return stdDev / Math.sqrt(t);
+    }
+
+
 
     //
     // public interfaces
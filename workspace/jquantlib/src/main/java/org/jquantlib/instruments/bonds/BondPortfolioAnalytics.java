@@ -0,0 +1,305 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.instruments.bonds;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import org.jquantlib.QL;
+import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.instruments.Bond;
+import org.jquantlib.termstructures.Compounding;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.time.Date;
+import org.jquantlib.time.Frequency;
+import org.jquantlib.util.Concurrency;
+
+/**
+ * Price, yield and risk figures of a portfolio of bonds
+ * <p>
+ * Bonds are grouped by discount curve. For each curve, the payment dates of all bonds of the group and their
+ * settlement dates are merged into a single date grid and discount factors are looked up once per grid date, instead
+ * of once per cash flow of every bond. Prices are obtained from the grid as {@link org.jquantlib.pricingengines.bond.DiscountingBondEngine}
+ * would do; yields, durations and convexities are calculated from {@link CompiledBond}s.
+ * <p>
+ * Cash flow amounts, accrued amounts and discount factors are obtained on the calling thread, since coupon pricers
+ * and lazily bootstrapped term structures are not meant to be shared amongst threads. The numerical work which
+ * follows, i.e: pricing on the grid and solving yields, only reads primitive arrays and is split in chunks which are
+ * executed by the given executor.
+ * <p>
+ * Yields which cannot be solved are reported as <code>Double.NaN</code>, as well as durations and convexities which
+ * depend on them.
+ *
+ * @see Bond#compiled(DayCounter, Compounding, Frequency, Date)
+ *
+ * @author agent
+ */
+public class BondPortfolioAnalytics {
+
+    private static final int minBondsPerTask = 64;
+
+    private final DayCounter dayCounter;
+    private final Compounding compounding;
+    private final Frequency frequency;
+    private final double accuracy;
+    private final int maxEvaluations;
+    private final ExecutorService executor;
+
+
+    //
+    // public constructors
+    //
+
+    /**
+     * @param dayCounter is the day counter of yields
+     * @param compounding is the compounding of yields
+     * @param frequency is the frequency of yields
+     * @param executor runs the numerical work; when <code>null</code>, everything runs on the calling thread
+     */
+    public BondPortfolioAnalytics(
+            final DayCounter dayCounter,
+            final Compounding compounding,
+            final Frequency frequency,
+            final ExecutorService executor) {
+        this(dayCounter, compounding, frequency, 1.0e-8, 100, executor);
+    }
+
+    /**
+     * @param dayCounter is the day counter of yields
+     * @param compounding is the compounding of yields
+     * @param frequency is the frequency of yields
+     * @param accuracy is the accuracy on yields
+     * @param maxEvaluations is the maximum number of price evaluations per yield
+     * @param executor runs the numerical work; when <code>null</code>, everything runs on the calling thread
+     */
+    public BondPortfolioAnalytics(
+            final DayCounter dayCounter,
+            final Compounding compounding,
+            final Frequency frequency,
+            final double accuracy,
+            final int maxEvaluations,
+            final ExecutorService executor) {
+        QL.require(accuracy > 0.0, "accuracy must be positive");
+        this.dayCounter = dayCounter;
+        this.compounding = compounding;
+        this.frequency = frequency;
+        this.accuracy = accuracy;
+        this.maxEvaluations = maxEvaluations;
+        this.executor = executor;
+    }
+
+
+    //
+    // public methods
+    //
+
+    /**
+     * Calculates analytics of bonds which are all discounted by the same curve
+     */
+    public Results calculate(final List<? extends Bond> bonds, final YieldTermStructure discountCurve) {
+        return calculate(bonds, Collections.nCopies(bonds.size(), discountCurve));
+    }
+
+    /**
+     * Calculates analytics of bonds
+     *
+     * @param bonds are the bonds of the portfolio
+     * @param discountCurves are the discount curves of the bonds, in the same order of the bonds
+     * @return a table containing one row per bond, in the same order of the bonds
+     */
+    public Results calculate(final List<? extends Bond> bonds, final List<? extends YieldTermStructure> discountCurves) {
+        QL.require(bonds.size() == discountCurves.size(), "bonds and curves mismatch");
+        final int size = bonds.size();
+        final Results results = new Results(size);
+
+        // cash flows are compiled on the calling thread
+        final CompiledBond[] compiled = new CompiledBond[size];
+        for (int i = 0; i < size; i++) {
+            final Bond bond = bonds.get(i);
+            final Date settlement = bond.settlementDate();
+            compiled[i] = bond.compiled(dayCounter, compounding, frequency, settlement);
+            results.settlementDates[i] = settlement;
+            results.notionals[i] = compiled[i].faceAmount();
+            results.accruedAmounts[i] = bond.accruedAmount(settlement);
+        }
+
+        // one date grid per curve
+        final Map<YieldTermStructure, List<Integer>> groups = new IdentityHashMap<YieldTermStructure, List<Integer>>();
+        for (int i = 0; i < size; i++) {
+            final YieldTermStructure curve = discountCurves.get(i);
+            QL.require(curve != null, "no discounting term structure set");
+            List<Integer> group = groups.get(curve);
+            if (group == null) {
+                group = new ArrayList<Integer>();
+                groups.put(curve, group);
+            }
+            group.add(i);
+        }
+        final DateGrid[] grids = new DateGrid[size];
+        for (final Map.Entry<YieldTermStructure, List<Integer>> entry : groups.entrySet()) {
+            final DateGrid grid = new DateGrid(entry.getKey(), entry.getValue(), compiled, results.settlementDates);
+            for (final int i : entry.getValue()) {
+                grids[i] = grid;
+            }
+        }
+
+        // numerical work is done concurrently
+        Concurrency.forEachChunk(executor, size, minBondsPerTask, new Concurrency.RangeTask() {
+            @Override
+            public void run(final int from, final int to) {
+                for (int i = from; i < to; i++) {
+                    calculate(i, compiled[i], grids[i], results);
+                }
+            }
+        });
+        return results;
+    }
+
+
+    //
+    // private methods
+    //
+
+    private void calculate(final int i, final CompiledBond bond, final DateGrid grid, final Results results) {
+        double value = 0.0;
+        for (int k = 0; k < bond.size(); k++) {
+            value += bond.amount(k) * grid.discount(bond.date(k));
+        }
+        final double dirtyPrice = value / grid.discount(results.settlementDates[i]) / bond.faceAmount() * 100.0;
+        results.dirtyPrices[i] = dirtyPrice;
+        results.cleanPrices[i] = dirtyPrice - results.accruedAmounts[i];
+
+        double yield;
+        try {
+            yield = bond.yield(dirtyPrice, accuracy, maxEvaluations);
+        } catch (final RuntimeException e) {
+            yield = Double.NaN;
+        }
+        results.yields[i] = yield;
+        results.durations[i] = Double.isNaN(yield) ? Double.NaN : bond.modifiedDuration(yield);
+        results.convexities[i] = Double.isNaN(yield) ? Double.NaN : bond.convexity(yield);
+    }
+
+
+    //
+    // public inner classes
+    //
+
+    /**
+     * Columnar table of analytics, where row <i>i</i> of every column refers to the <i>i</i>-th bond of the portfolio.
+     * <p>
+     * Prices are given in percentage of the notional at the settlement date; durations are modified durations.
+     */
+    public static class Results {
+        public final Date[] settlementDates;
+        public final double[] notionals;
+        public final double[] cleanPrices;
+        public final double[] dirtyPrices;
+        public final double[] accruedAmounts;
+        public final double[] yields;
+        public final double[] durations;
+        public final double[] convexities;
+
+        private Results(final int size) {
+            this.settlementDates = new Date[size];
+            this.notionals = new double[size];
+            this.cleanPrices = new double[size];
+            this.dirtyPrices = new double[size];
+            this.accruedAmounts = new double[size];
+            this.yields = new double[size];
+            this.durations = new double[size];
+            this.convexities = new double[size];
+        }
+
+        public int size() {
+            return yields.length;
+        }
+    }
+
+
+    //
+    // private inner classes
+    //
+
+    /**
+     * Sorted payment and settlement dates of the bonds discounted by a curve, and their discount factors
+     */
+    private static final class DateGrid {
+        private final long[] serials;
+        private final double[] discounts;
+
+        private DateGrid(
+                final YieldTermStructure curve,
+                final List<Integer> bonds,
+                final CompiledBond[] compiled,
+                final Date[] settlementDates) {
+            int count = 0;
+            for (final int i : bonds) {
+                count += compiled[i].size() + 1;
+            }
+            final long[] all = new long[count];
+            final Date[] dates = new Date[count];
+            int n = 0;
+            for (final int i : bonds) {
+                for (int k = 0; k < compiled[i].size(); k++) {
+                    dates[n] = compiled[i].date(k);
+                    all[n] = dates[n].serialNumber();
+                    n++;
+                }
+                dates[n] = settlementDates[i];
+                all[n] = dates[n].serialNumber();
+                n++;
+            }
+
+            // unique serial numbers, keeping one date per serial number
+            final long[] sorted = all.clone();
+            Arrays.sort(sorted);
+            int unique = 0;
+            for (int j = 0; j < sorted.length; j++) {
+                if (j == 0 || sorted[j] != sorted[j - 1]) {
+                    sorted[unique++] = sorted[j];
+                }
+            }
+            this.serials = Arrays.copyOf(sorted, unique);
+            this.discounts = new double[unique];
+            final boolean[] done = new boolean[unique];
+            for (int j = 0; j < count; j++) {
+                final int index = Arrays.binarySearch(serials, all[j]);
+                if (!done[index]) {
+                    discounts[index] = curve.discount(dates[j]);
+                    done[index] = true;
+                }
+            }
+        }
+
+        private double discount(final Date date) {
+            return discounts[Arrays.binarySearch(serials, date.serialNumber())];
+        }
+    }
+
+}
@@ -0,0 +1,384 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.instruments.bonds;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import org.jquantlib.QL;
+import org.jquantlib.cashflow.CashFlow;
+import org.jquantlib.cashflow.Coupon;
+import org.jquantlib.cashflow.Leg;
+import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.instruments.Bond;
+import org.jquantlib.lang.exceptions.LibraryException;
+import org.jquantlib.math.distributions.Derivative;
+import org.jquantlib.math.solvers1D.NewtonSafe;
+import org.jquantlib.termstructures.Compounding;
+import org.jquantlib.time.Date;
+import org.jquantlib.time.Frequency;
+import org.jquantlib.time.Period;
+import org.jquantlib.time.TimeUnit;
+import org.jquantlib.util.Concurrency;
+
+/**
+ * Bond cash flows compiled for price/yield conversions at a given settlement date
+ * <p>
+ * Amounts of cash flows which did not occur at the settlement date and the year fractions of the periods between
+ * consecutive payments are calculated once, at construction, so that prices and yields are obtained by tight loops
+ * over primitive arrays, without creating interest rates, cloning dates or calling day counters.
+ * <p>
+ * Prices follow the conventions of {@link Bond#dirtyPriceFromYield(double, Leg, double, DayCounter, Compounding, Frequency, Date)}:
+ * the yield compounds over each period between consecutive payments. Yields are solved by {@link NewtonSafe}
+ * using the analytic derivative of the price, which is calculated in the same pass as the price.
+ * <p>
+ * Amounts are taken as they are at construction time, which means that instances must be rebuilt when amounts of
+ * floating rate coupons change.
+ *
+ * @author agent
+ */
+public class CompiledBond {
+
+    private static final String unsupported_compounding_type = "unsupported compounding type";
+    private static final int minBondsPerTask = 64;
+
+    private final double faceAmount;
+    private final Compounding compounding;
+    private final int frequency;
+    private final Date[] dates;
+    private final double[] amounts;
+    private final double[] periods;
+
+
+    //
+    // public constructors
+    //
+
+    /**
+     * @param faceAmount is the notional at the settlement date
+     * @param cashflows are the cash flows of the bond
+     * @param dayCounter is the day counter of the yield
+     * @param compounding is the compounding of the yield
+     * @param frequency is the frequency of the yield; {@link Frequency#NoFrequency} and {@link Frequency#Once} are
+     *        taken as {@link Frequency#Annual}
+     * @param settlement is the settlement date
+     */
+    public CompiledBond(
+            final double faceAmount,
+            final Leg cashflows,
+            final DayCounter dayCounter,
+            final Compounding compounding,
+            final Frequency frequency,
+            final Date settlement) {
+        this.faceAmount = faceAmount;
+        this.compounding = compounding;
+        this.frequency = (frequency == Frequency.NoFrequency || frequency == Frequency.Once)
+            ? Frequency.Annual.toInteger() : frequency.toInteger();
+
+        int size = 0;
+        for (int i = 0; i < cashflows.size(); i++) {
+            if (!cashflows.get(i).hasOccurred(settlement)) {
+                size++;
+            }
+        }
+        this.dates = new Date[size];
+        this.amounts = new double[size];
+        this.periods = new double[size];
+
+        Date lastDate = null;
+        int k = 0;
+        for (int i = 0; i < cashflows.size(); i++) {
+            final CashFlow cf = cashflows.get(i);
+            if (cf.hasOccurred(settlement)) {
+                continue;
+            }
+            final Date couponDate = cf.date();
+            dates[k] = couponDate;
+            amounts[k] = cf.amount();
+            if (lastDate == null) {
+                // first not-expired coupon
+                final Date refStart;
+                if (i > 0) {
+                    refStart = cashflows.get(i - 1).date();
+                } else if (cf instanceof Coupon) {
+                    refStart = ((Coupon) cf).accrualStartDate();
+                } else {
+                    refStart = couponDate.sub(new Period(1, TimeUnit.Years));
+                }
+                periods[k] = dayCounter.yearFraction(settlement, couponDate, refStart, couponDate);
+            } else {
+                periods[k] = dayCounter.yearFraction(lastDate, couponDate, new Date(), new Date());
+            }
+            QL.require(periods[k] >= 0.0, "negative time not allowed");
+            lastDate = couponDate;
+            k++;
+        }
+    }
+
+
+    //
+    // public methods
+    //
+
+    /**
+     * @return the number of cash flows which did not occur at the settlement date
+     */
+    public int size() {
+        return amounts.length;
+    }
+
+    /**
+     * @return the dirty price, in percentage of the face amount, given a yield
+     *
+     * @see Bond#dirtyPriceFromYield(double, Leg, double, DayCounter, Compounding, Frequency, Date)
+     */
+    public double dirtyPrice(final double yield) {
+        final double[] result = new double[3];
+        evaluate(yield, result);
+        return result[0];
+    }
+
+    /**
+     * @return the derivative of the dirty price with respect to the yield
+     */
+    public double dirtyPriceDerivative(final double yield) {
+        final double[] result = new double[3];
+        evaluate(yield, result);
+        return result[1];
+    }
+
+    /**
+     * @return the modified duration given a yield, i.e: {@latex$ -\frac{1}{P} \frac{dP}{dy} }
+     */
+    public double modifiedDuration(final double yield) {
+        final double[] result = new double[3];
+        evaluate(yield, result);
+        return result[0] == 0.0 ? 0.0 : -result[1] / result[0];
+    }
+
+    /**
+     * @return the convexity given a yield, i.e: {@latex$ \frac{1}{P} \frac{d^2P}{dy^2} }
+     */
+    public double convexity(final double yield) {
+        final double[] result = new double[3];
+        evaluate(yield, result);
+        return result[0] == 0.0 ? 0.0 : result[2] / result[0];
+    }
+
+    /**
+     * Yield given a dirty price, searched in the range [0, 1] starting from 2%, like {@link Bond#yield(double, DayCounter, Compounding, Frequency, Date, double, int)}
+     */
+    public double yield(final double dirtyPrice, final double accuracy, final int maxEvaluations) {
+        return this.yield(dirtyPrice, accuracy, maxEvaluations, 0.02, 0.0, 1.0);
+    }
+
+    /**
+     * Yield given a dirty price, solved by {@link NewtonSafe} with the analytic derivative of the price
+     *
+     * @param dirtyPrice is the dirty price, in percentage of the face amount
+     * @param accuracy is the accuracy on the yield
+     * @param maxEvaluations is the maximum number of price evaluations
+     * @param guess is the initial guess, which must lie inside the bracket
+     * @param yMin is the lower bound of the bracket
+     * @param yMax is the upper bound of the bracket
+     */
+    public double yield(
+            final double dirtyPrice,
+            final double accuracy,
+            final int maxEvaluations,
+            final double guess,
+            final double yMin,
+            final double yMax) {
+        final NewtonSafe solver = new NewtonSafe();
+        solver.setMaxEvaluations(maxEvaluations);
+        return solver.solve(new YieldFinder(dirtyPrice), accuracy, guess, yMin, yMax);
+    }
+
+
+    //
+    // public static methods
+    //
+
+    /**
+     * Solves the yields of many bonds concurrently.
+     * <p>
+     * Bonds are split in contiguous chunks, one per available processor, so that small batches are solved on the
+     * calling thread.
+     *
+     * @param bonds are the compiled bonds
+     * @param dirtyPrices are the dirty prices of the bonds, in percentage of their face amounts
+     * @param accuracy is the accuracy on the yields
+     * @param maxEvaluations is the maximum number of price evaluations per bond
+     * @param executor runs the chunks; when <code>null</code>, yields are solved on the calling thread
+     * @return the yields, in the same order as the bonds
+     */
+    public static double[] yields(
+            final List<CompiledBond> bonds,
+            final double[] dirtyPrices,
+            final double accuracy,
+            final int maxEvaluations,
+            final ExecutorService executor) {
+        QL.require(bonds.size() == dirtyPrices.length, "bonds and prices mismatch");
+        final double[] result = new double[dirtyPrices.length];
+        Concurrency.forEachChunk(executor, result.length, minBondsPerTask, new Concurrency.RangeTask() {
+            @Override
+            public void run(final int from, final int to) {
+                for (int i = from; i < to; i++) {
+                    result[i] = bonds.get(i).yield(dirtyPrices[i], accuracy, maxEvaluations);
+                }
+            }
+        });
+        return result;
+    }
+
+
+    //
+    // package private methods
+    //
+
+    /**
+     * @return the payment date of the alive cash flow <i>k</i>
+     */
+    Date date(final int k) {
+        return dates[k];
+    }
+
+    /**
+     * @return the amount of the alive cash flow <i>k</i>
+     */
+    double amount(final int k) {
+        return amounts[k];
+    }
+
+    double faceAmount() {
+        return faceAmount;
+    }
+
+
+    //
+    // private methods
+    //
+
+    /**
+     * Calculates the dirty price and its first and second derivatives with respect to the yield in a single pass.
+     * <p>
+     * Discount factors are chained over periods, hence the logarithmic derivatives of the discount factor of each
+     * payment are the sums of the logarithmic derivatives of the discount factors of all periods up to the payment;
+     * the per-period derivatives are the ones used by {@link org.jquantlib.cashflow.CashFlows#duration} and
+     * {@link org.jquantlib.cashflow.CashFlows#convexity}.
+     *
+     * @param result receives the dirty price at index 0, its first derivative at index 1 and its second derivative
+     *        at index 2
+     */
+    private void evaluate(final double yield, final double[] result) {
+        final double f = frequency;
+        final double logCompounded = Math.log(1.0 + yield / f);
+        final double compoundedSlope = 1.0 / (1.0 + yield / f);
+
+        double price = 0.0;
+        double dPdy = 0.0;
+        double d2Pdy2 = 0.0;
+        double discount = 1.0;
+        double dlog = 0.0;
+        double d2log = 0.0;
+        for (int k = 0; k < amounts.length; k++) {
+            final double t = periods[k];
+            switch (compounding) {
+            case Simple:
+                discount /= (1.0 + yield * t);
+                dlog -= t / (1.0 + yield * t);
+                d2log += t * t / ((1.0 + yield * t) * (1.0 + yield * t));
+                break;
+            case Compounded:
+                discount *= Math.exp(-f * t * logCompounded);
+                dlog -= t * compoundedSlope;
+                d2log += t * compoundedSlope * compoundedSlope / f;
+                break;
+            case Continuous:
+                discount *= Math.exp(-yield * t);
+                dlog -= t;
+                break;
+            case SimpleThenCompounded:
+                if (t < 1.0 / f) {
+                    discount /= (1.0 + yield * t);
+                    dlog -= t / (1.0 + yield * t);
+                    d2log += t * t / ((1.0 + yield * t) * (1.0 + yield * t));
+                } else {
+                    discount *= Math.exp(-f * t * logCompounded);
+                    dlog -= t * compoundedSlope;
+                    d2log += t * compoundedSlope * compoundedSlope / f;
+                }
+                break;
+            default:
+                throw new LibraryException(unsupported_compounding_type);
+            }
+            final double value = amounts[k] * discount;
+            price += value;
+            dPdy += value * dlog;
+            d2Pdy2 += value * (dlog * dlog + d2log);
+        }
+        result[0] = price / faceAmount * 100.0;
+        result[1] = dPdy / faceAmount * 100.0;
+        result[2] = d2Pdy2 / faceAmount * 100.0;
+    }
+
+
+    //
+    // private inner classes
+    //
+
+    /**
+     * Difference between the price given a yield and the target dirty price, together with its derivative.
+     * <p>
+     * Price and derivative are calculated in the same pass, so that the derivative requested by {@link NewtonSafe}
+     * right after the price at the same yield is not calculated again.
+     */
+    private final class YieldFinder implements Derivative {
+        private final double dirtyPrice;
+        private final double[] result = new double[3];
+        private double yield = Double.NaN;
+
+        private YieldFinder(final double dirtyPrice) {
+            this.dirtyPrice = dirtyPrice;
+        }
+
+        @Override
+        public double op(final double y) {
+            return evaluateAt(y)[0] - dirtyPrice;
+        }
+
+        @Override
+        public double derivative(final double y) {
+            return evaluateAt(y)[1];
+        }
+
+        private double[] evaluateAt(final double y) {
+            if (y != yield) {
+                evaluate(y, result);
+                yield = y;
+            }
+            return result;
+        }
+    }
+
+}
@@ -0,0 +1,306 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.instruments.scenarios;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import org.jquantlib.QL;
+import org.jquantlib.instruments.Instrument;
+import org.jquantlib.math.statistics.RiskStatistics;
+import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.util.Concurrency;
+
+/**
+ * Full revaluation historical simulation
+ * <p>
+ * Each scenario is a vector of shifts, one per quote of the {@link Market}, which are applied to the base values of
+ * the quotes. All quotes of a scenario are set before any instrument is repriced: term structures and instruments
+ * are lazy objects, which forward a notification only once until they are recalculated, so that each scenario
+ * causes a single recalculation of each object of the graph, whatever the number of quotes.
+ * <p>
+ * Scenarios are split in contiguous chunks which are executed by the given executor. Each chunk builds its own
+ * market graph from the {@link Market.Factory}, takes base values from it and reprices all its scenarios on it.
+ * Profits and losses of the portfolio are fed into {@link RiskStatistics}.
+ *
+ * @author agent
+ */
+public class HistoricalSimulation {
+
+    private static final String SCENARIO_SIZE_MISMATCH = "scenario size mismatch";
+    private static final String PORTFOLIO_SIZE_MISMATCH = "portfolio size mismatch";
+
+    private static final int minScenariosPerTask = 16;
+
+    private final Market.Factory factory;
+    private final ShiftType[] shiftTypes;
+    private final double[] quantities;
+    private final ExecutorService executor;
+
+
+    //
+    // public constructors
+    //
+
+    /**
+     * @param factory builds market graphs
+     * @param shiftTypes tells how the shift of each quote is applied
+     * @param executor runs the scenarios; when <code>null</code>, everything runs on the calling thread
+     */
+    public HistoricalSimulation(
+            final Market.Factory factory,
+            final ShiftType[] shiftTypes,
+            final ExecutorService executor) {
+        this(factory, shiftTypes, null, executor);
+    }
+
+    /**
+     * @param factory builds market graphs
+     * @param shiftTypes tells how the shift of each quote is applied
+     * @param quantities are the quantities held of each instrument; <code>null</code> means one unit of each
+     * @param executor runs the scenarios; when <code>null</code>, everything runs on the calling thread
+     */
+    public HistoricalSimulation(
+            final Market.Factory factory,
+            final ShiftType[] shiftTypes,
+            final double[] quantities,
+            final ExecutorService executor) {
+        QL.require(factory != null, "null market factory");
+        this.factory = factory;
+        this.shiftTypes = shiftTypes.clone();
+        this.quantities = (quantities == null) ? null : quantities.clone();
+        this.executor = executor;
+    }
+
+
+    //
+    // public methods
+    //
+
+    /**
+     * Reprices the portfolio under each scenario
+     *
+     * @param scenarios contains one row of shifts per scenario and one column per quote
+     * @return profits and losses of each instrument under each scenario
+     */
+    public Results calculate(final double[][] scenarios) {
+        final int size = scenarios.length;
+        for (int s = 0; s < size; s++) {
+            QL.require(scenarios[s].length == shiftTypes.length, SCENARIO_SIZE_MISMATCH);
+        }
+
+        final Results results = new Results(size);
+        final long start = System.nanoTime();
+        Concurrency.forEachChunk(executor, size, minScenariosPerTask, new Concurrency.RangeTask() {
+            @Override
+            public void run(final int from, final int to) {
+                simulate(from, to, scenarios, results);
+            }
+        });
+        results.elapsedTime = System.nanoTime() - start;
+        return results;
+    }
+
+
+    //
+    // public static methods
+    //
+
+    /**
+     * Builds scenarios from historical quote values
+     * <p>
+     * Scenario <i>k</i> holds the changes of quote values from date <i>k</i> to date <i>k+horizon</i>, as differences
+     * or returns depending on the shift type of each quote.
+     *
+     * @param history contains one row of quote values per historical date, in chronological order
+     * @param horizon is the number of dates between the beginning and the end of each change
+     * @param shiftTypes tells how changes of each quote are measured
+     */
+    public static double[][] scenarios(final double[][] history, final int horizon, final ShiftType[] shiftTypes) {
+        QL.require(horizon > 0, "horizon must be positive");
+        final int size = Math.max(0, history.length - horizon);
+        final double[][] result = new double[size][shiftTypes.length];
+        for (int k = 0; k < size; k++) {
+            final double[] begin = history[k];
+            final double[] end = history[k + horizon];
+            QL.require(begin.length == shiftTypes.length && end.length == shiftTypes.length, SCENARIO_SIZE_MISMATCH);
+            for (int q = 0; q < shiftTypes.length; q++) {
+                result[k][q] = (shiftTypes[q] == ShiftType.Relative) ? end[q] / begin[q] - 1.0 : end[q] - begin[q];
+            }
+        }
+        return result;
+    }
+
+
+    //
+    // private methods
+    //
+
+    private void simulate(final int from, final int to, final double[][] scenarios, final Results results) {
+        final Market market = factory.create();
+        final List<SimpleQuote> quotes = market.quotes();
+        final List<? extends Instrument> instruments = market.instruments();
+        QL.require(quotes.size() == shiftTypes.length, SCENARIO_SIZE_MISMATCH);
+        QL.require(quantities == null || instruments.size() == quantities.length, PORTFOLIO_SIZE_MISMATCH);
+
+        final int nq = quotes.size();
+        final int ni = instruments.size();
+        final SimpleQuote[] q = quotes.toArray(new SimpleQuote[nq]);
+        final Instrument[] instrument = instruments.toArray(new Instrument[ni]);
+        final double[] baseQuotes = new double[nq];
+        for (int j = 0; j < nq; j++) {
+            baseQuotes[j] = q[j].value();
+        }
+        final double[] baseValues = new double[ni];
+        for (int i = 0; i < ni; i++) {
+            baseValues[i] = instrument[i].NPV() * quantity(i);
+        }
+
+        for (int s = from; s < to; s++) {
+            final double[] shifts = scenarios[s];
+            for (int j = 0; j < nq; j++) {
+                final double base = baseQuotes[j];
+                q[j].setValue(shiftTypes[j] == ShiftType.Relative ? base * (1.0 + shifts[j]) : base + shifts[j]);
+            }
+            final double[] pnl = new double[ni];
+            double total = 0.0;
+            for (int i = 0; i < ni; i++) {
+                pnl[i] = instrument[i].NPV() * quantity(i) - baseValues[i];
+                total += pnl[i];
+            }
+            results.profitAndLoss[s] = pnl;
+            results.portfolioProfitAndLoss[s] = total;
+        }
+
+        if (from == 0) {
+            results.baseValues = baseValues;
+        }
+    }
+
+    private double quantity(final int i) {
+        return (quantities == null) ? 1.0 : quantities[i];
+    }
+
+
+    //
+    // public inner classes
+    //
+
+    /**
+     * Tells how a shift is applied to the base value of a quote
+     */
+    public enum ShiftType {
+        /**
+         * the shift is added to the base value
+         */
+        Absolute,
+
+        /**
+         * the base value is multiplied by one plus the shift
+         */
+        Relative
+    }
+
+    /**
+     * Profits and losses under each scenario, relative to the values of instruments on the base market
+     */
+    public static class Results {
+        private final double[][] profitAndLoss;
+        private final double[] portfolioProfitAndLoss;
+        private volatile double[] baseValues;
+        private volatile long elapsedTime;
+
+        private Results(final int size) {
+            this.profitAndLoss = new double[size][];
+            this.portfolioProfitAndLoss = new double[size];
+        }
+
+        public int size() {
+            return portfolioProfitAndLoss.length;
+        }
+
+        /**
+         * @return the values of the instruments, times their quantities, on the base market
+         */
+        public double[] baseValues() {
+            return (baseValues == null) ? new double[0] : baseValues.clone();
+        }
+
+        /**
+         * @return the profit or loss of instrument <i>i</i>, times its quantity, under scenario <i>s</i>
+         */
+        public double profitAndLoss(final int s, final int i) {
+            return profitAndLoss[s][i];
+        }
+
+        /**
+         * @return the profits and losses of the portfolio under each scenario
+         */
+        public double[] portfolioProfitAndLoss() {
+            return portfolioProfitAndLoss.clone();
+        }
+
+        /**
+         * @return statistics of the profits and losses of the portfolio
+         */
+        public RiskStatistics statistics() {
+            final RiskStatistics result = new RiskStatistics();
+            result.addSequence(portfolioProfitAndLoss);
+            return result;
+        }
+
+        /**
+         * @return statistics of the profits and losses of instrument <i>i</i>
+         */
+        public RiskStatistics statistics(final int i) {
+            final RiskStatistics result = new RiskStatistics();
+            for (int s = 0; s < profitAndLoss.length; s++) {
+                result.add(profitAndLoss[s][i]);
+            }
+            return result;
+        }
+
+        /**
+         * @return the wall clock time taken by the simulation, in nanoseconds
+         */
+        public long elapsedTime() {
+            return elapsedTime;
+        }
+
+        /**
+         * @return the number of scenarios simulated per second
+         */
+        public double scenariosPerSecond() {
+            return size() * 1.0e9 / Math.max(elapsedTime, 1L);
+        }
+
+        /**
+         * @return the number of instrument revaluations per second
+         */
+        public double revaluationsPerSecond() {
+            final int instruments = (baseValues == null) ? 0 : baseValues.length;
+            return scenariosPerSecond() * instruments;
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.instruments.scenarios;
+
+import java.util.List;
+
+import org.jquantlib.instruments.Instrument;
+import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.util.LazyObject;
+
+/**
+ * A market graph, i.e: risk factors given as quotes, the term structures and pricing engines which observe them and
+ * the instruments priced by those engines.
+ * <p>
+ * Scenario engines change quote values and reprice instruments. Since term structures and instruments cache their
+ * results and are notified by the quotes they depend on, a graph must not be shared amongst threads whilst it is
+ * being repriced; a {@link Factory} builds an independent graph for each thread instead.
+ *
+ * @author agent
+ */
+public interface Market {
+
+    /**
+     * @return the risk factors, in a fixed order which is the same for all graphs built by the same factory
+     */
+    public List<SimpleQuote> quotes();
+
+    /**
+     * @return the instruments of the portfolio, in a fixed order which is the same for all graphs built by the same factory
+     */
+    public List<? extends Instrument> instruments();
+
+    /**
+     * @return the lazy term structures built from the quotes, typically bootstrapped curves, which may be empty
+     */
+    public List<? extends LazyObject> curves();
+
+
+    /**
+     * Builds market graphs
+     * <p>
+     * Each call must return a new graph, which shares no quote, term structure, pricing engine or instrument with
+     * graphs returned by previous calls. Calls may happen concurrently from different threads.
+     */
+    public interface Factory {
+        public Market create();
+    }
+
+}
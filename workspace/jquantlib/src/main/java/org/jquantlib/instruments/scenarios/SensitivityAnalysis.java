@@ -0,0 +1,286 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.instruments.scenarios;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import org.jquantlib.QL;
+import org.jquantlib.instruments.Instrument;
+import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.util.Concurrency;
+import org.jquantlib.util.LazyObject;
+
+/**
+ * Bump and reprice sensitivities of a portfolio to each quote of a {@link Market}
+ * <p>
+ * Quotes are typically the pillars of bootstrapped curves, i.e: the quotes of the rate helpers of a
+ * {@link org.jquantlib.termstructures.yieldcurves.PiecewiseYieldCurve}, so that sensitivities are bucketed by pillar.
+ * <p>
+ * Pillars are split in contiguous chunks which are executed by the given executor. Each chunk builds its own market
+ * graph from the {@link Market.Factory} and prices the portfolio on the unbumped market first. Pillars of the chunk
+ * are then bumped one after the other on the same graph. After each bump the quote is restored and the
+ * {@link Market#curves() curves} of the market are recalculated, so that the graph holds the unbumped curves before
+ * the next bump. Each bumped curve is therefore bootstrapped starting from the unbumped solution (see
+ * {@link org.jquantlib.termstructures.IterativeBootstrap}), which lies a single bump away, instead of starting from
+ * scratch. Restoring costs one extra bootstrap per bump, but no extra repricing of the portfolio.
+ *
+ * @author agent
+ */
+public class SensitivityAnalysis {
+
+    private static final String PORTFOLIO_SIZE_MISMATCH = "portfolio size mismatch";
+
+    private static final int minPillarsPerTask = 1;
+
+    private final Market.Factory factory;
+    private final double shift;
+    private final boolean centered;
+    private final double[] quantities;
+    private final ExecutorService executor;
+
+
+    //
+    // public constructors
+    //
+
+    /**
+     * Sensitivities are estimated by forward differences over one basis point bumps
+     *
+     * @param factory builds market graphs
+     * @param executor bumps and reprices; when <code>null</code>, everything runs on the calling thread
+     */
+    public SensitivityAnalysis(final Market.Factory factory, final ExecutorService executor) {
+        this(factory, 1.0e-4, false, null, executor);
+    }
+
+    /**
+     * @param factory builds market graphs
+     * @param shift is the amount added to a quote when it is bumped
+     * @param centered tells if sensitivities are estimated by central differences, which requires two repricings per pillar
+     * @param quantities are the quantities held of each instrument; <code>null</code> means one unit of each
+     * @param executor bumps and reprices; when <code>null</code>, everything runs on the calling thread
+     */
+    public SensitivityAnalysis(
+            final Market.Factory factory,
+            final double shift,
+            final boolean centered,
+            final double[] quantities,
+            final ExecutorService executor) {
+        QL.require(factory != null, "null market factory");
+        QL.require(shift != 0.0, "null shift");
+        this.factory = factory;
+        this.shift = shift;
+        this.centered = centered;
+        this.quantities = (quantities == null) ? null : quantities.clone();
+        this.executor = executor;
+    }
+
+
+    //
+    // public methods
+    //
+
+    /**
+     * Calculates sensitivities to all quotes of the market
+     */
+    public Results calculate() {
+        final Market market = factory.create();
+        final int[] pillars = new int[market.quotes().size()];
+        for (int p = 0; p < pillars.length; p++) {
+            pillars[p] = p;
+        }
+        return calculate(pillars, market);
+    }
+
+    /**
+     * Calculates sensitivities to some quotes of the market
+     *
+     * @param pillars are the positions of the bumped quotes in {@link Market#quotes()}
+     * @return a pillar by instrument table of sensitivities
+     */
+    public Results calculate(final int[] pillars) {
+        return calculate(pillars, null);
+    }
+
+
+    //
+    // private methods
+    //
+
+    /**
+     * @param first is a market already built, which is used by the first chunk, or <code>null</code>
+     */
+    private Results calculate(final int[] pillars, final Market first) {
+        final int size = pillars.length;
+        final Results results = new Results(pillars);
+        final long start = System.nanoTime();
+        Concurrency.forEachChunk(executor, size, minPillarsPerTask, new Concurrency.RangeTask() {
+            @Override
+            public void run(final int from, final int to) {
+                bump((from == 0 && first != null) ? first : factory.create(), from, to, results);
+            }
+        });
+        results.elapsedTime = System.nanoTime() - start;
+        return results;
+    }
+
+    private void bump(final Market market, final int from, final int to, final Results results) {
+        final List<SimpleQuote> quotes = market.quotes();
+        final List<? extends Instrument> instruments = market.instruments();
+        final List<? extends LazyObject> curves = market.curves();
+        QL.require(quantities == null || instruments.size() == quantities.length, PORTFOLIO_SIZE_MISMATCH);
+
+        final int ni = instruments.size();
+        final Instrument[] instrument = instruments.toArray(new Instrument[ni]);
+        final double[] baseValues = new double[ni];
+        for (int i = 0; i < ni; i++) {
+            baseValues[i] = instrument[i].NPV() * quantity(i);
+        }
+
+        for (int p = from; p < to; p++) {
+            final SimpleQuote quote = quotes.get(results.pillars[p]);
+            final double base = quote.value();
+            final double[] sensitivities = new double[ni];
+
+            quote.setValue(base + shift);
+            for (int i = 0; i < ni; i++) {
+                sensitivities[i] = instrument[i].NPV() * quantity(i);
+            }
+            restore(quote, base, curves);
+            if (centered) {
+                quote.setValue(base - shift);
+                for (int i = 0; i < ni; i++) {
+                    sensitivities[i] = (sensitivities[i] - instrument[i].NPV() * quantity(i)) / (2.0 * shift);
+                }
+                restore(quote, base, curves);
+            } else {
+                for (int i = 0; i < ni; i++) {
+                    sensitivities[i] = (sensitivities[i] - baseValues[i]) / shift;
+                }
+            }
+
+            double total = 0.0;
+            for (int i = 0; i < ni; i++) {
+                total += sensitivities[i];
+            }
+            results.sensitivities[p] = sensitivities;
+            results.portfolioSensitivities[p] = total;
+        }
+
+        if (from == 0) {
+            results.baseValues = baseValues;
+        }
+    }
+
+    /**
+     * Restores the base value of a quote and recalculates the curves, because restoring the value only marks them
+     * as dirty: the next bootstrap would otherwise start from the bumped solution.
+     */
+    private void restore(final SimpleQuote quote, final double base, final List<? extends LazyObject> curves) {
+        quote.setValue(base);
+        for (final LazyObject curve : curves) {
+            curve.recalculate();
+        }
+    }
+
+    private double quantity(final int i) {
+        return (quantities == null) ? 1.0 : quantities[i];
+    }
+
+
+    //
+    // public inner classes
+    //
+
+    /**
+     * Sensitivities of instrument values, times their quantities, to each bumped quote, per unit of quote
+     */
+    public static class Results {
+        private final int[] pillars;
+        private final double[][] sensitivities;
+        private final double[] portfolioSensitivities;
+        private volatile double[] baseValues;
+        private volatile long elapsedTime;
+
+        private Results(final int[] pillars) {
+            this.pillars = pillars.clone();
+            this.sensitivities = new double[pillars.length][];
+            this.portfolioSensitivities = new double[pillars.length];
+        }
+
+        /**
+         * @return the number of bumped quotes
+         */
+        public int size() {
+            return pillars.length;
+        }
+
+        /**
+         * @return the position of the <i>p</i>-th bumped quote in {@link Market#quotes()}
+         */
+        public int pillar(final int p) {
+            return pillars[p];
+        }
+
+        /**
+         * @return the values of the instruments, times their quantities, on the unbumped market
+         */
+        public double[] baseValues() {
+            return (baseValues == null) ? new double[0] : baseValues.clone();
+        }
+
+        /**
+         * @return the sensitivity of instrument <i>i</i> to the <i>p</i>-th bumped quote
+         */
+        public double sensitivity(final int p, final int i) {
+            return sensitivities[p][i];
+        }
+
+        /**
+         * @return a copy of the sensitivities, with one row per bumped quote and one column per instrument
+         */
+        public double[][] matrix() {
+            final double[][] result = new double[sensitivities.length][];
+            for (int p = 0; p < result.length; p++) {
+                result[p] = sensitivities[p].clone();
+            }
+            return result;
+        }
+
+        /**
+         * @return the sensitivities of the portfolio to each bumped quote
+         */
+        public double[] portfolioSensitivities() {
+            return portfolioSensitivities.clone();
+        }
+
+        /**
+         * @return the wall clock time taken by the analysis, in nanoseconds
+         */
+        public long elapsedTime() {
+            return elapsedTime;
+        }
+    }
+
+}
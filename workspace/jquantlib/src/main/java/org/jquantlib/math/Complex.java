@@ -0,0 +1,168 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.math;
+
+/**
+ * Immutable complex number
+ * <p>
+ * Only the operations needed by characteristic function methods are provided. Principal branches are used for
+ * {@link #log()} and {@link #sqrt()}.
+ *
+ * @author agent
+ */
+public final class Complex {
+
+    public static final Complex ZERO = new Complex(0.0, 0.0);
+    public static final Complex ONE  = new Complex(1.0, 0.0);
+    public static final Complex I    = new Complex(0.0, 1.0);
+
+    private final double re;
+    private final double im;
+
+
+    //
+    // public constructors
+    //
+
+    public Complex(final double re, final double im) {
+        this.re = re;
+        this.im = im;
+    }
+
+
+    //
+    // public methods
+    //
+
+    public double real() {
+        return re;
+    }
+
+    public double imag() {
+        return im;
+    }
+
+    public double abs() {
+        return Math.hypot(re, im);
+    }
+
+    public double arg() {
+        return Math.atan2(im, re);
+    }
+
+    public Complex add(final Complex c) {
+        return new Complex(re + c.re, im + c.im);
+    }
+
+    public Complex add(final double x) {
+        return new Complex(re + x, im);
+    }
+
+    public Complex sub(final Complex c) {
+        return new Complex(re - c.re, im - c.im);
+    }
+
+    public Complex sub(final double x) {
+        return new Complex(re - x, im);
+    }
+
+    public Complex mul(final Complex c) {
+        return new Complex(re * c.re - im * c.im, re * c.im + im * c.re);
+    }
+
+    public Complex mul(final double x) {
+        return new Complex(re * x, im * x);
+    }
+
+    public Complex div(final Complex c) {
+        // Smith's algorithm avoids unnecessary overflow
+        if (Math.abs(c.re) >= Math.abs(c.im)) {
+            final double ratio = c.im / c.re;
+            final double denominator = c.re + c.im * ratio;
+            return new Complex((re + im * ratio) / denominator, (im - re * ratio) / denominator);
+        } else {
+            final double ratio = c.re / c.im;
+            final double denominator = c.re * ratio + c.im;
+            return new Complex((re * ratio + im) / denominator, (im * ratio - re) / denominator);
+        }
+    }
+
+    public Complex div(final double x) {
+        return new Complex(re / x, im / x);
+    }
+
+    public Complex negate() {
+        return new Complex(-re, -im);
+    }
+
+    public Complex conjugate() {
+        return new Complex(re, -im);
+    }
+
+    public Complex exp() {
+        final double modulus = Math.exp(re);
+        return new Complex(modulus * Math.cos(im), modulus * Math.sin(im));
+    }
+
+    public Complex log() {
+        return new Complex(Math.log(abs()), arg());
+    }
+
+    public Complex sqrt() {
+        if (re == 0.0 && im == 0.0)
+            return ZERO;
+        final double t = Math.sqrt(0.5 * (Math.abs(re) + abs()));
+        if (re >= 0.0)
+            return new Complex(t, 0.5 * im / t);
+        else
+            return new Complex(0.5 * Math.abs(im) / t, im >= 0.0 ? t : -t);
+    }
+
+
+    //
+    // overrides Object
+    //
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof Complex))
+            return false;
+        final Complex other = (Complex) obj;
+        return Double.doubleToLongBits(re) == Double.doubleToLongBits(other.re)
+            && Double.doubleToLongBits(im) == Double.doubleToLongBits(other.im);
+    }
+
+    @Override
+    public int hashCode() {
+        final long bits = Double.doubleToLongBits(re) * 31 + Double.doubleToLongBits(im);
+        return (int) (bits ^ (bits >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "(" + re + "," + im + ")";
+    }
+
+}
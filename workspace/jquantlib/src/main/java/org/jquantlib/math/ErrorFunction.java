@@ -258,4 +258,91 @@ public class ErrorFunction implements Ops.DoubleOp {
         r = Math.exp( -ax*ax-0.5625 +R/S);
         if(x>=0) return one-r/ax; else return  r/ax-one;
     }
+
+    /**
+     * Complementary error function, i.e: <code>1-erf(x)</code>, calculated without cancellation for positive
+     * arguments
+     */
+    public double erfc(final double x) {
+
+        double R,S,P,Q,s,y,z,r, ax;
+
+        ax = Math.abs(x);
+
+        if(ax < 0.84375) {      /* |x|<0.84375 */
+            if(ax < 1.38777878078144567553e-17) /* |x|<2**-56 */
+                return one-x;
+            z = x*x;
+            r = pp0+z*(pp1+z*(pp2+z*(pp3+z*pp4)));
+            s = one+z*(qq1+z*(qq2+z*(qq3+z*(qq4+z*qq5))));
+            y = r/s;
+            if(x < 0.25) {      /* x<1/4 */
+                return one-(x+x*y);
+            }
+            r = x*y;
+            r += (x-0.5);
+            return 0.5 - r;
+        }
+        if(ax < 1.25) {     /* 0.84375 <= |x| < 1.25 */
+            s = ax-one;
+            P = pa0+s*(pa1+s*(pa2+s*(pa3+s*(pa4+s*(pa5+s*pa6)))));
+            Q = one+s*(qa1+s*(qa2+s*(qa3+s*(qa4+s*(qa5+s*qa6)))));
+            if(x>=0) return one-erx-P/Q; else return one+(erx+P/Q);
+        }
+        if (ax < 28) {      /* |x|<28 */
+            if(x < -6) return 2.0-tiny;
+            s = one/(ax*ax);
+            if(ax < 2.85714285714285) { /* |x| < 1/0.35 */
+                R = ra0+s*(ra1+s*(ra2+s*(ra3+s*(ra4+s*(ra5+s*(ra6+s*ra7))))));
+                S=one+s*(sa1+s*(sa2+s*(sa3+s*(sa4+s*(sa5+s*(sa6+s*(sa7+s*sa8)))))));
+            } else {    /* |x| >= 1/0.35 */
+                R=rb0+s*(rb1+s*(rb2+s*(rb3+s*(rb4+s*(rb5+s*rb6)))));
+                S=one+s*(sb1+s*(sb2+s*(sb3+s*(sb4+s*(sb5+s*(sb6+s*sb7))))));
+            }
+            // z is ax with its lower 32 bits cleared, so that z*z is exact
+            z = Double.longBitsToDouble(Double.doubleToRawLongBits(ax) & 0xffffffff00000000L);
+            r = Math.exp(-z*z-0.5625)*Math.exp((z-ax)*(z+ax)+R/S);
+            if(x>0) return r/ax; else return 2.0-r/ax;
+        }
+        if(x>0) return 0.0; else return 2.0;
+    }
+
+    /**
+     * Scaled complementary error function, i.e: <code>exp(x*x)*erfc(x)</code>, calculated without overflow nor
+     * underflow for positive arguments
+     */
+    public double erfcx(final double x) {
+
+        double R,S,s,z;
+
+        if(x < 0.0) {
+            // erfcx(x) = 2*exp(x*x)-erfcx(-x), where z is x with its lower 32 bits cleared, so that z*z is exact
+            z = Double.longBitsToDouble(Double.doubleToRawLongBits(x) & 0xffffffff00000000L);
+            return 2.0*Math.exp(z*z)*Math.exp((x-z)*(x+z)) - erfcx(-x);
+        }
+        if(x < 1.25) {
+            return Math.exp(x*x)*erfc(x);
+        }
+        if(x < 28) {
+            // same rational approximations of erfc, without the exponential factor
+            s = one/(x*x);
+            if(x < 2.85714285714285) { /* x < 1/0.35 */
+                R = ra0+s*(ra1+s*(ra2+s*(ra3+s*(ra4+s*(ra5+s*(ra6+s*ra7))))));
+                S=one+s*(sa1+s*(sa2+s*(sa3+s*(sa4+s*(sa5+s*(sa6+s*(sa7+s*sa8)))))));
+            } else {    /* x >= 1/0.35 */
+                R=rb0+s*(rb1+s*(rb2+s*(rb3+s*(rb4+s*(rb5+s*rb6)))));
+                S=one+s*(sb1+s*(sb2+s*(sb3+s*(sb4+s*(sb5+s*(sb6+s*sb7))))));
+            }
+            return Math.exp(-0.5625+R/S)/x;
+        }
+        // asymptotic expansion: erfcx(x) ~ 1/(x*sqrt(pi)) * (1 - 1/(2x^2) + 3/(2x^2)^2 - 15/(2x^2)^3 + ...)
+        s = 0.5/(x*x);
+        double term = one, sum = one;
+        for (int k = 1; Math.abs(term) > Constants.QL_EPSILON*sum; k++) {
+            term *= -(2*k-1)*s;
+            sum += term;
+        }
+        return Constants.M_1_SQRTPI*sum/x;
+    }
+
 }
@@ -0,0 +1,159 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.math;
+
+import org.jquantlib.QL;
+
+/**
+ * Radix-2 fast Fourier transform
+ * <p>
+ * Transforms sequences of length {@latex$ N = 2^{order} } in place. Complex numbers are kept in two separate arrays
+ * of real and imaginary parts, so that repeated transforms do not allocate.
+ * <p>
+ * The forward transform computes {@latex$ X_k = \sum_j x_j e^{-2 \pi i j k / N} }; the inverse transform uses the
+ * opposite sign and, as in QuantLib, is not normalized by <i>1/N</i>.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ *
+ * @author agent
+ */
+public class FastFourierTransform {
+
+    private final int order;
+    private final int size;
+    private final int[] bitReversal;
+    private final double[] cos;
+    private final double[] sin;
+
+
+    //
+    // public constructors
+    //
+
+    public FastFourierTransform(final int order) {
+        QL.require(order >= 0 && order < 31, "invalid order");
+        this.order = order;
+        this.size = 1 << order;
+
+        this.bitReversal = new int[size];
+        for (int i = 0; i < size; i++) {
+            int reversed = 0;
+            for (int bit = 0; bit < order; bit++) {
+                reversed |= ((i >>> bit) & 1) << (order - 1 - bit);
+            }
+            bitReversal[i] = reversed;
+        }
+
+        // twiddle factors exp(-2 pi i k / N) for k < N/2
+        final int half = size / 2;
+        this.cos = new double[half];
+        this.sin = new double[half];
+        for (int k = 0; k < half; k++) {
+            final double angle = 2.0 * Math.PI * k / size;
+            cos[k] = Math.cos(angle);
+            sin[k] = -Math.sin(angle);
+        }
+    }
+
+
+    //
+    // public static methods
+    //
+
+    /**
+     * @return the smallest order of a transform able to take <code>inputSize</code> values
+     */
+    public static int minOrder(final int inputSize) {
+        QL.require(inputSize > 0, "input size must be positive");
+        int order = 0;
+        while ((1 << order) < inputSize) {
+            order++;
+        }
+        return order;
+    }
+
+
+    //
+    // public methods
+    //
+
+    public int order() {
+        return order;
+    }
+
+    public int outputSize() {
+        return size;
+    }
+
+    /**
+     * Forward transform, performed in place
+     */
+    public void transform(final double[] re, final double[] im) {
+        transform(re, im, false);
+    }
+
+    /**
+     * Inverse transform, performed in place and not normalized
+     */
+    public void inverseTransform(final double[] re, final double[] im) {
+        transform(re, im, true);
+    }
+
+
+    //
+    // private methods
+    //
+
+    private void transform(final double[] re, final double[] im, final boolean inverse) {
+        QL.require(re.length == size && im.length == size, "input size does not match transform size");
+
+        for (int i = 0; i < size; i++) {
+            final int j = bitReversal[i];
+            if (j > i) {
+                double tmp = re[i]; re[i] = re[j]; re[j] = tmp;
+                tmp = im[i]; im[i] = im[j]; im[j] = tmp;
+            }
+        }
+
+        final double sign = inverse ? -1.0 : 1.0;
+        for (int length = 2; length <= size; length <<= 1) {
+            final int half = length >>> 1;
+            final int stride = size / length;
+            for (int start = 0; start < size; start += length) {
+                for (int k = 0; k < half; k++) {
+                    final double wr = cos[k * stride];
+                    final double wi = sign * sin[k * stride];
+                    final int a = start + k;
+                    final int b = a + half;
+                    final double tr = wr * re[b] - wi * im[b];
+                    final double ti = wr * im[b] + wi * re[b];
+                    re[b] = re[a] - tr;
+                    im[b] = im[a] - ti;
+                    re[a] += tr;
+                    im[a] += ti;
+                }
+            }
+        }
+    }
+
+}
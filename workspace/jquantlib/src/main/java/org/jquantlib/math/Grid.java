@@ -39,6 +39,7 @@
 
 package org.jquantlib.math;
 
+import org.jquantlib.QL;
 import org.jquantlib.math.matrixutilities.Array;
 
 
@@ -82,4 +83,65 @@ public final class Grid {
         return result;
     }
 
+    /**
+     * Returns a grid between <code>xMin</code> and <code>xMax</code> whose points are concentrated around
+     * <code>center</code> by means of a sinh transformation.
+     * <p>
+     * The parameter <code>density</code> is the width of the concentration region as a fraction of the
+     * whole interval: small values concentrate points tightly around <code>center</code>, whilst large values
+     * give an almost uniform grid. The point <code>center</code> is always part of the grid.
+     */
+    final static public Array ConcentratedGrid(
+            final double xMin, final double xMax, final int steps, final double center, final double density) {
+        QL.require(xMin < xMax, "invalid grid limits");
+        QL.require(center >= xMin && center <= xMax, "concentration point out of grid limits");
+        QL.require(density > 0.0, "density must be positive");
+
+        final double alpha = density * (xMax - xMin);
+        final double c1 = asinh((xMin - center) / alpha);
+        final double c2 = asinh((xMax - center) / alpha);
+
+        final Array result = new Array(steps + 1);
+        result.set(0, xMin);
+        for (int i = 1; i < steps; i++) {
+            result.set(i, center + alpha * Math.sinh(c1 + i * (c2 - c1) / steps));
+        }
+        result.set(steps, xMax);
+
+        // move the closest interior point onto the center, so that it is part of the grid
+        if (center > xMin && center < xMax && steps > 1) {
+            int closest = 1;
+            for (int i = 2; i < steps; i++) {
+                if (Math.abs(result.get(i) - center) < Math.abs(result.get(closest) - center)) {
+                    closest = i;
+                }
+            }
+            result.set(closest, center);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a grid between <code>xMin</code> and <code>xMax</code> which is concentrated around
+     * <code>center</code> in logarithmic coordinates.
+     *
+     * @see #ConcentratedGrid(double, double, int, double, double)
+     */
+    final static public Array ConcentratedLogGrid(
+            final double xMin, final double xMax, final int steps, final double center, final double density) {
+        QL.require(xMin > 0.0, "invalid grid limits");
+        final Array result = ConcentratedGrid(Math.log(xMin), Math.log(xMax), steps, Math.log(center), density);
+        for (int i = 0; i < steps + 1; i++) {
+            result.set(i, Math.exp(result.get(i)));
+        }
+        // avoid round-off at the boundaries
+        result.set(0, xMin);
+        result.set(steps, xMax);
+        return result;
+    }
+
+    private static double asinh(final double x) {
+        return Math.log(x + Math.sqrt(x * x + 1.0));
+    }
+
 }
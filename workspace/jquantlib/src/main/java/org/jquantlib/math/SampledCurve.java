@@ -148,6 +148,10 @@ public class SampledCurve implements Cloneable {
         setGrid(Grid.BoundedLogGrid(min, max, size() - 1));
     }
 
+    public void setConcentratedLogGrid(final double min, final double max, final double center, final double density) {
+        setGrid(Grid.ConcentratedLogGrid(min, max, size() - 1, center, density));
+    }
+
     public <T extends Ops.DoubleOp> void sample(final T func) {
         for (int i = 0; i < this.grid.size(); i++) {
             final double v = func.op(grid.get(i));
@@ -197,6 +201,30 @@ public class SampledCurve implements Cloneable {
         }
     }
 
+    /**
+     * Returns the value at <code>x</code>, obtained by quadratic interpolation on the closest grid points.
+     * <p>
+     * Unlike {@link #valueAtCenter()}, this method does not require the grid to be uniform nor <code>x</code>
+     * to be at the center of the grid.
+     */
+    public double valueAt(final double x) /* @Readonly */{
+        return lagrange(x, 0);
+    }
+
+    /**
+     * Returns the first derivative at <code>x</code>, obtained by quadratic interpolation on the closest grid points.
+     */
+    public double firstDerivativeAt(final double x) /* @Readonly */{
+        return lagrange(x, 1);
+    }
+
+    /**
+     * Returns the second derivative at <code>x</code>, obtained by quadratic interpolation on the closest grid points.
+     */
+    public double secondDerivativeAt(final double x) /* @Readonly */{
+        return lagrange(x, 2);
+    }
+
     public void regrid(final Array newGrid) {
         regrid(newGrid, new Identity());
     }
@@ -230,4 +258,29 @@ public class SampledCurve implements Cloneable {
         this.values.swap(newValues);
     }
 
+
+    //
+    // private methods
+    //
+
+    private double lagrange(final double x, final int order) /* @Readonly */{
+        QL.require(size() >= 3 , "the size of the curve must be at least 3");
+        int i = 1;
+        while (i < size() - 2 && Math.abs(grid.get(i + 1) - x) < Math.abs(grid.get(i) - x)) {
+            i++;
+        }
+        final double x0 = grid.get(i - 1), x1 = grid.get(i), x2 = grid.get(i + 1);
+        final double w0 = values.get(i - 1) / ((x0 - x1) * (x0 - x2));
+        final double w1 = values.get(i)     / ((x1 - x0) * (x1 - x2));
+        final double w2 = values.get(i + 1) / ((x2 - x0) * (x2 - x1));
+        switch (order) {
+        case 0:
+            return w0 * (x - x1) * (x - x2) + w1 * (x - x0) * (x - x2) + w2 * (x - x0) * (x - x1);
+        case 1:
+            return w0 * (2.0 * x - x1 - x2) + w1 * (2.0 * x - x0 - x2) + w2 * (2.0 * x - x0 - x1);
+        default:
+            return 2.0 * (w0 + w1 + w2);
+        }
+    }
+
 }
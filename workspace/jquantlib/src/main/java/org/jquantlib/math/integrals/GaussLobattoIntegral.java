@@ -0,0 +1,195 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+/*
+ Copyright (C) 2008 Klaus Spanderen
+
+ This file is part of QuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://quantlib.org/
+
+ QuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the QuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <quantlib-dev@lists.sf.net>. The license is also available online at
+ <http://quantlib.org/license.shtml>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+*/
+
+package org.jquantlib.math.integrals;
+
+import org.jquantlib.QL;
+import org.jquantlib.math.Constants;
+import org.jquantlib.math.Ops;
+
+/**
+ * Integral of a one-dimensional function using the adaptive Gauss-Lobatto integral
+ * <p>
+ * References:
+ * <li>W. Gander and W. Gautschi, <i>Adaptive Quadrature - Revisited</i>, BIT 40 (2000) 84-101</li>
+ *
+ * @author agent
+ */
+public class GaussLobattoIntegral extends Integrator {
+
+    private static final double alpha = Math.sqrt(2.0 / 3.0);
+    private static final double beta  = 1.0 / Math.sqrt(5.0);
+    private static final double x1    = 0.94288241569547971906;
+    private static final double x2    = 0.64185334234578130578;
+    private static final double x3    = 0.23638319966214988028;
+
+    private final double relativeAccuracy;
+    private final boolean useConvergenceEstimate;
+
+
+    //
+    // public constructors
+    //
+
+    public GaussLobattoIntegral(final int maxEvaluations, final double absoluteAccuracy) {
+        this(maxEvaluations, absoluteAccuracy, Double.NaN, true);
+    }
+
+    /**
+     * @param relativeAccuracy is ignored when <code>Double.NaN</code>
+     */
+    public GaussLobattoIntegral(
+            final int maxEvaluations,
+            final double absoluteAccuracy,
+            final double relativeAccuracy,
+            final boolean useConvergenceEstimate) {
+        super(absoluteAccuracy, maxEvaluations);
+        this.relativeAccuracy = relativeAccuracy;
+        this.useConvergenceEstimate = useConvergenceEstimate;
+    }
+
+
+    //
+    // overrides Integrator
+    //
+
+    @Override
+    protected double integrate(final Ops.DoubleOp f, final double a, final double b) {
+        setNumberOfEvaluations(0);
+        final double tolerance = calculateAbsTolerance(f, a, b);
+        increaseNumberOfEvaluations(2);
+        return adaptiveGaussLobattoStep(f, a, b, f.op(a), f.op(b), tolerance);
+    }
+
+
+    //
+    // private methods
+    //
+
+    private double calculateAbsTolerance(final Ops.DoubleOp f, final double a, final double b) {
+        final double relTol = Double.isNaN(relativeAccuracy)
+            ? Constants.QL_EPSILON : Math.max(relativeAccuracy, Constants.QL_EPSILON);
+
+        final double m = (a + b) / 2;
+        final double h = (b - a) / 2;
+        final double y1 = f.op(a);
+        final double y3 = f.op(m - alpha * h);
+        final double y5 = f.op(m - beta * h);
+        final double y7 = f.op(m);
+        final double y9 = f.op(m + beta * h);
+        final double y11 = f.op(m + alpha * h);
+        final double y13 = f.op(b);
+
+        final double f1 = f.op(m - x1 * h);
+        final double f2 = f.op(m + x1 * h);
+        final double f3 = f.op(m - x2 * h);
+        final double f4 = f.op(m + x2 * h);
+        final double f5 = f.op(m - x3 * h);
+        final double f6 = f.op(m + x3 * h);
+
+        final double acc = h * (0.0158271919734801831 * (y1 + y13)
+                        + 0.0942738402188500455 * (f1 + f2)
+                        + 0.1550719873365853963 * (y3 + y11)
+                        + 0.1888215739601824544 * (f3 + f4)
+                        + 0.1997734052268585268 * (y5 + y9)
+                        + 0.2249264653333395270 * (f5 + f6)
+                        + 0.2426110719014077338 * y7);
+
+        increaseNumberOfEvaluations(13);
+        QL.require(acc != 0.0 || (f1 == 0.0 && f2 == 0.0 && f3 == 0.0 && f4 == 0.0 && f5 == 0.0 && f6 == 0.0),
+                "can not calculate absolute accuracy from relative accuracy");
+
+        double r = 1.0;
+        if (useConvergenceEstimate) {
+            final double integral2 = (h / 6) * (y1 + y13 + 5 * (y5 + y9));
+            final double integral1 = (h / 1470) * (77 * (y1 + y13) + 432 * (y3 + y11) + 625 * (y5 + y9) + 672 * y7);
+            if (Math.abs(integral2 - acc) != 0.0) {
+                r = Math.abs(integral1 - acc) / Math.abs(integral2 - acc);
+            }
+            if (r == 0.0 || r > 1.0) {
+                r = 1.0;
+            }
+        }
+
+        if (!Double.isNaN(relativeAccuracy))
+            return Math.min(absoluteAccuracy(), Math.abs(acc) * relTol) / (r * Constants.QL_EPSILON);
+        else
+            return absoluteAccuracy() / (r * Constants.QL_EPSILON);
+    }
+
+    private double adaptiveGaussLobattoStep(
+            final Ops.DoubleOp f,
+            final double a, final double b,
+            final double fa, final double fb,
+            final double acc) {
+        QL.require(numberOfEvaluations() < maxEvaluations(), "max number of iterations reached");
+
+        final double h = (b - a) / 2;
+        final double m = (a + b) / 2;
+
+        final double mll = m - alpha * h;
+        final double ml  = m - beta * h;
+        final double mr  = m + beta * h;
+        final double mrr = m + alpha * h;
+
+        final double fmll = f.op(mll);
+        final double fml  = f.op(ml);
+        final double fm   = f.op(m);
+        final double fmr  = f.op(mr);
+        final double fmrr = f.op(mrr);
+        increaseNumberOfEvaluations(5);
+
+        final double integral2 = (h / 6) * (fa + fb + 5 * (fml + fmr));
+        final double integral1 = (h / 1470) * (77 * (fa + fb) + 432 * (fmll + fmrr) + 625 * (fml + fmr) + 672 * fm);
+
+        final double dist = acc + (integral1 - integral2);
+        if (dist == acc || mll <= a || b <= mrr) {
+            QL.require(m > a && b > m, "Interval contains no more machine number");
+            return integral1;
+        } else {
+            return adaptiveGaussLobattoStep(f, a, mll, fa, fmll, acc)
+                 + adaptiveGaussLobattoStep(f, mll, ml, fmll, fml, acc)
+                 + adaptiveGaussLobattoStep(f, ml, m, fml, fm, acc)
+                 + adaptiveGaussLobattoStep(f, m, mr, fm, fmr, acc)
+                 + adaptiveGaussLobattoStep(f, mr, mrr, fmr, fmrr, acc)
+                 + adaptiveGaussLobattoStep(f, mrr, b, fmrr, fb, acc);
+        }
+    }
+
+}
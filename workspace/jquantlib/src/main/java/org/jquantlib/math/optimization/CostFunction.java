@@ -42,6 +42,7 @@ import org.jquantlib.lang.annotation.QualityAssurance;
 import org.jquantlib.lang.annotation.QualityAssurance.Quality;
 import org.jquantlib.lang.annotation.QualityAssurance.Version;
 import org.jquantlib.math.matrixutilities.Array;
+import org.jquantlib.math.matrixutilities.Matrix;
 
 /**
  * Cost function abstract class for optimization problem.
@@ -84,6 +85,43 @@ public abstract class CostFunction {
         return value(x);
     }
 
+    /**
+     * Method to overload to compute the Jacobian of the cost function values with respect to {@latex$ x }, i.e:
+     * <code>jac(i,j)</code> is the derivative of <code>values(x)[i]</code> with respect to <code>x[j]</code>
+     */
+    public void jacobian(final Matrix jac, final Array x) /* @ReadOnly */ {
+        final double eps = finiteDifferenceEpsilon();
+        final Array xx = x.clone();
+        for (int j=0; j<x.size(); j++) {
+            xx.set(j, x.get(j) + eps);
+            final Array fp = values(xx);
+            xx.set(j, x.get(j) - eps);
+            final Array fm = values(xx);
+            for (int i=0; i<fp.size(); i++) {
+                jac.set(i, j, 0.5 * (fp.get(i) - fm.get(i)) / eps);
+            }
+            xx.set(j, x.get(j));
+        }
+    }
+
+    /**
+     * Tells if {@link #value(Array)}, {@link #values(Array)} and {@link #jacobian(Matrix, Array)} may be called
+     * concurrently by several threads. Optimization methods evaluate cost functions which are not thread safe on a
+     * single thread, whatever executor they are given.
+     */
+    public boolean isThreadSafe() /* @ReadOnly */ {
+        return false;
+    }
+
+    /**
+     * Tells if {@link #jacobian(Matrix, Array)} is overridden by an analytic Jacobian, which counts as a single
+     * function evaluation; otherwise the central differences cost two evaluations of {@link #values(Array)} per
+     * parameter.
+     */
+    public boolean hasAnalyticJacobian() /* @ReadOnly */ {
+        return false;
+    }
+
     /**
      * {@link Default} epsilon for finite difference method
      */
@@ -21,13 +21,26 @@
  */
 package org.jquantlib.math.optimization;
 
+import java.util.concurrent.ExecutorService;
+
+import org.jquantlib.QL;
 import org.jquantlib.math.matrixutilities.Array;
+import org.jquantlib.math.matrixutilities.Matrix;
 import org.jquantlib.math.optimization.EndCriteria.Type;
 
 /**
  * Levenberg-Marquardt optimization method
  * <p>
  * This implementation is based on MINPACK
+ * <p>
+ * By default, the Jacobian is approximated by forward differences, which requires one evaluation of
+ * {@link CostFunction#values(Array)} per parameter and per iteration. These evaluations are independent from each
+ * other and are performed concurrently when an executor is given by {@link #setExecutor(ExecutorService)} and the
+ * cost function declares itself safe for concurrent use by {@link CostFunction#isThreadSafe()}; other cost functions
+ * are always evaluated on the calling thread. The constraint must be free of side effects.
+ * <p>
+ * Alternatively, the Jacobian given by {@link CostFunction#jacobian(Matrix, Array)} can be used instead.
+ *
  * @see http://www.netlib.org/minpack
  * @see http://www.netlib.org/cephes/linalg.tgz
  *
@@ -36,155 +49,179 @@ import org.jquantlib.math.optimization.EndCriteria.Type;
 public class LevenbergMarquardt extends OptimizationMethod {
 
     private final double epsfcn_, xtol_, gtol_;
-    private Integer info_;
+    private final boolean useCostFunctionsJacobian_;
+    private ExecutorService executor_;
+    private int info_;
+
+
+    //
+    // public constructors
+    //
 
     public LevenbergMarquardt() {
-        if (System.getProperty("EXPERIMENTAL") == null)
-            throw new UnsupportedOperationException("Work in progress");
-        this.epsfcn_ = 1.0e-8;
-        this.xtol_ = 1.0e-8;
-        this.gtol_ = 1.0e-8;
+        this(1.0e-8, 1.0e-8, 1.0e-8);
     }
 
-    public LevenbergMarquardt(final double epsfcn, final double xtol, final double gtol){
-        if (System.getProperty("EXPERIMENTAL") == null)
-            throw new UnsupportedOperationException("Work in progress");
+    public LevenbergMarquardt(final double epsfcn, final double xtol, final double gtol) {
+        this(epsfcn, xtol, gtol, false);
+    }
+
+    /**
+     * @param useCostFunctionsJacobian tells if the Jacobian is given by {@link CostFunction#jacobian(Matrix, Array)}
+     * instead of being approximated by forward differences
+     */
+    public LevenbergMarquardt(final double epsfcn, final double xtol, final double gtol, final boolean useCostFunctionsJacobian) {
         this.epsfcn_ = epsfcn;
         this.xtol_ = xtol;
         this.gtol_ = gtol;
+        this.useCostFunctionsJacobian_ = useCostFunctionsJacobian;
+        this.executor_ = null;
+        this.info_ = 0;
+    }
+
+
+    //
+    // public methods
+    //
 
+    /**
+     * @param executor evaluates columns of the forward-difference Jacobian concurrently, or <code>null</code> for
+     * evaluating them on the calling thread; it is ignored when the cost function is not thread safe
+     *
+     * @see CostFunction#isThreadSafe()
+     */
+    public void setExecutor(final ExecutorService executor) {
+        this.executor_ = executor;
     }
 
+    public ExecutorService executor() {
+        return executor_;
+    }
+
+    /**
+     * @return the MINPACK termination code of the last minimization
+     */
+    public int getInfo() {
+        return info_;
+    }
+
+
+    //
+    // overrides OptimizationMethod
+    //
+
     @Override
     public Type minimize(final Problem P, final EndCriteria endCriteria) {
-        final EndCriteria.Type ecType = EndCriteria.Type.None;
+        EndCriteria.Type ecType = EndCriteria.Type.None;
         P.reset();
         final Array x_ = P.currentValue();
-        // TODO: this is probably incorrect, check the consequences
-        ProblemData.getProblemData().setProblem(P);
-        ProblemData.getProblemData().setInitCostValues(P.costFunction().values(x_));
+        final CostFunction costFunction = P.costFunction();
+        final Constraint constraint = P.constraint();
+        final Array initCostValues = costFunction.values(x_);
 
-        final int m = ProblemData.getProblemData().initCostValues_.size();
+        final int m = initCostValues.size();
         final int n = x_.size();
+        QL.require(n > 0, "no variables given");
+        QL.require(m >= n, "less functions than parameters");
 
-        final Array  xx = new Array(0);
-        //TODO: correct?
-        xx.addAssign(x_);
-
-        final Array fvec;
-        final Array diag;
-
+        final double[] xx = new double[n];
+        copy(x_, xx);
+        final double[] fvec = new double[m];
+        final double[] diag = new double[n];
         final int mode = 1;
-        final double factor = 1;
-        final int nprint = 0;
-        final int info = 0;
-        final int nfev = 0;
-
-        final Array fjac = new Array(0);//ZH Just removed compilation error, code not as per QL097
-        final int ldfjac = m;
-
-        //TODO: to be completed....
-        /*
-        boost::scoped_array<int> ipvt(new int[n]);
-        boost::scoped_array<double> qtf(new double[n]);
-        boost::scoped_array<double> wa1(new double[n]);
-        boost::scoped_array<double> wa2(new double[n]);
-        boost::scoped_array<double> wa3(new double[n]);
-        boost::scoped_array<double> wa4(new double[m]);
-        // call lmdif to minimize the sum of the squares of m functions
-        // in n variables by the Levenberg-Marquardt algorithm.
-        QuantLib::MINPACK::lmdif(m, n, xx.get(), fvec.get(),
-                                 static_cast<double>(endCriteria.functionEpsilon()),
-                                 static_cast<double>(xtol_),
-                                 static_cast<double>(gtol_),
-                                 static_cast<int>(endCriteria.maxIterations()),
-                                 static_cast<double>(epsfcn_),
-                                 diag.get(), mode, factor,
-                                 nprint, &info, &nfev, fjac.get(),
-                                 ldfjac, ipvt.get(), qtf.get(),
-                                 wa1.get(), wa2.get(), wa3.get(), wa4.get());
-        info_ = info;
-        // check requirements & endCriteria evaluation
-        QL_REQUIRE(info != 0, "MINPACK: improper input parameters");
-        //QL_REQUIRE(info != 6, "MINPACK: ftol is too small. no further "
-        //                               "reduction in the sum of squares "
-        //                               "is possible.");
-        if (info != 6) ecType = QuantLib::EndCriteria::StationaryFunctionValue;
-        //QL_REQUIRE(info != 5, "MINPACK: number of calls to fcn has "
-        //                               "reached or exceeded maxfev.");
-        endCriteria.checkMaxIterations(nfev, ecType);
-        QL_REQUIRE(info != 7, "MINPACK: xtol is too small. no further "
-                                       "improvement in the approximate "
-                                       "solution x is possible.");
-        QL_REQUIRE(info != 8, "MINPACK: gtol is too small. fvec is "
-                                       "orthogonal to the columns of the "
-                                       "jacobian to machine precision.");
-        // set problem
-        std::copy(xx.get(), xx.get()+n, x_.begin());
-        P.setCurrentValue(x_);
-
-        return ecType;
-        */
-        return ecType;
-    }
+        final double factor = 1.0;
+        final int[] nfev = new int[1];
+        final double[] fjac = new double[m*n];
+        final int[] ipvt = new int[n];
+        final double[] qtf = new double[n];
+        final double[] wa1 = new double[n];
+        final double[] wa2 = new double[n];
+        final double[] wa3 = new double[n];
+        final double[] wa4 = new double[m];
 
-    public void fcn(final int x1, final int n, final double x2, final double fvec, final int x3) {
-        /*
-        void LevenbergMarquardt::fcn(int, int n, double* x, double* fvec, int*) {
-        Array xt(n);
-        std::copy(x, x+n, xt.begin());
         // constraint handling needs some improvement in the future:
         // starting point should not be close to a constraint violation
-        if (ProblemData::instance().problem()->constraint().test(xt)) {
-            const Array& tmp = ProblemData::instance().problem()->values(xt);
-            std::copy(tmp.begin(), tmp.end(), fvec);
-        } else {
-            std::copy(ProblemData::instance().initCostValues().begin(),
-                      ProblemData::instance().initCostValues().end(), fvec);
-        }
-        */
-    }
-
-    // TODO: this class is no longer used in newer releases, it seems there's a
-    // better approach to do this... to be investigated...
-    // class is needed to make the Levenberg-Marquardt
-    // algorithm sessionId() safe (or multi threading safe).
-    /*
-    class ProblemData : public Singleton<ProblemData> {
-      public:
-        Problem* & problem() { return thisP_; }
-        Array& initCostValues()    { return initCostValues_; }
-      private:
-        Problem* thisP_;
-        Array initCostValues_;
-    };
-    */
-    private static class ProblemData{
-
-        static ProblemData p = null;
-        public static ProblemData getProblemData(){
-            if(p == null){
-                p = new ProblemData();
+        final Minpack.LmdifCostFunction fcn = new Minpack.LmdifCostFunction() {
+            @Override
+            public void fcn(final int m, final int n, final double[] x, final double[] fvec) {
+                final Array xt = new Array(x.clone());
+                copy(constraint.test(xt) ? costFunction.values(xt) : initCostValues, fvec);
             }
-            return p;
+        };
+
+        final int info;
+        if (useCostFunctionsJacobian_) {
+            // as for the cost function values, the Jacobian at the starting point stands in for infeasible points
+            final Matrix initJacobian = new Matrix(m, n);
+            costFunction.jacobian(initJacobian, x_);
+            // central differences cost two evaluations per parameter
+            final int jacobianEvaluations = costFunction.hasAnalyticJacobian() ? 1 : 2*n;
+            final Minpack.LmdifJacobian jacobian = new Minpack.LmdifJacobian() {
+                @Override
+                public int jacobian(final int m, final int n, final double[] x, final double[] fvec, final double[] fjac) {
+                    final Array xt = new Array(x.clone());
+                    final Matrix jac;
+                    final int evaluations;
+                    if (constraint.test(xt)) {
+                        jac = new Matrix(m, n);
+                        costFunction.jacobian(jac, xt);
+                        evaluations = jacobianEvaluations;
+                    } else {
+                        jac = initJacobian;
+                        evaluations = 0;
+                    }
+                    for (int j = 0; j < n; j++) {
+                        for (int i = 0; i < m; i++) {
+                            fjac[i + m*j] = jac.get(i, j);
+                        }
+                    }
+                    return evaluations;
+                }
+            };
+            // call lmder to minimize the sum of the squares of m functions
+            // in n variables by the Levenberg-Marquardt algorithm.
+            info = Minpack.lmder(m, n, xx, fvec,
+                                 endCriteria.getFunctionEpsilon(), xtol_, gtol_, endCriteria.getMaxIterations(),
+                                 diag, mode, factor, nfev, fjac, ipvt, qtf, wa1, wa2, wa3, wa4,
+                                 fcn, jacobian);
+        } else {
+            // call lmdif to minimize the sum of the squares of m functions
+            // in n variables by the Levenberg-Marquardt algorithm.
+            info = Minpack.lmdif(m, n, xx, fvec,
+                                 endCriteria.getFunctionEpsilon(), xtol_, gtol_, endCriteria.getMaxIterations(), epsfcn_,
+                                 diag, mode, factor, nfev, fjac, ipvt, qtf, wa1, wa2, wa3, wa4,
+                                 fcn, costFunction.isThreadSafe() ? executor_ : null);
         }
+        info_ = info;
 
-        public Problem problem(){
-            return thisP_;
-        }
-        public Array initCostValues(){
-            return initCostValues_;
-        }
-        public void setProblem(final Problem problem){
-             this.thisP_ = problem;
+        // check requirements & endCriteria evaluation
+        QL.require(info != 0, "MINPACK: improper input parameters");
+        if (info != 6) {
+            ecType = EndCriteria.Type.StationaryFunctionValue;
         }
-        public void setInitCostValues(final Array initCostValues){
-            this.initCostValues_ = initCostValues;
+        if (nfev[0] >= endCriteria.getMaxIterations()) {
+            ecType = EndCriteria.Type.MaxIterations;
         }
+        QL.require(info != 7, "MINPACK: xtol is too small. no further improvement in the approximate solution x is possible.");
+        QL.require(info != 8, "MINPACK: gtol is too small. fvec is orthogonal to the columns of the jacobian to machine precision.");
+
+        // set problem
+        final Array x = new Array(xx);
+        P.setCurrentValue(x);
+        P.setFunctionValue(costFunction.value(x));
+
+        return ecType;
+    }
 
 
-        private Problem thisP_;
-        private Array initCostValues_;
+    //
+    // private methods
+    //
 
+    private static void copy(final Array from, final double[] to) {
+        for (int i = 0; i < to.length; i++) {
+            to[i] = from.get(i);
+        }
     }
+
 }
@@ -82,9 +82,15 @@ or guarantee.
 
 package org.jquantlib.math.optimization;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
 import org.jquantlib.math.matrixutilities.Array;
 import org.jquantlib.math.matrixutilities.Matrix;
 import org.jquantlib.math.matrixutilities.internal.Address;
+import org.jquantlib.util.Concurrency;
 
 
 /**
@@ -107,6 +113,27 @@ import org.jquantlib.math.matrixutilities.internal.Address;
  */
 public class Minpack {
 
+    /**
+     * Calculates the functions at <code>x</code> and stores them in <code>fvec</code>.
+     * <p>
+     * Implementations must not retain nor modify <code>x</code>. When the Jacobian is evaluated concurrently,
+     * implementations are called from several threads at once.
+     */
+    public interface LmdifCostFunction {
+        public void fcn(int m, int n, double[] x, double[] fvec);
+    }
+
+    /**
+     * Calculates the Jacobian at <code>x</code>, given the function values <code>fvec</code> at that point, and
+     * stores it in <code>fjac</code> in column-major order, i.e: <code>fjac[i+m*j] = dfvec[i]/dx[j]</code>.
+     */
+    public interface LmdifJacobian {
+        /**
+         * @return the number of function evaluations spent
+         */
+        public int jacobian(int m, int n, double[] x, double[] fvec, double[] fjac);
+    }
+
 
     public static void qrfac(
             final int m,
@@ -121,6 +148,104 @@ public class Minpack {
         MinpackC.qrfac(m, n, a.$, pivot?1:0, ipvt, rdiag.$, acnorm.$, wa.$);
     }
 
+    /**
+     * Forward-difference approximation of the Jacobian.
+     * <p>
+     * Each column requires one evaluation of <code>fcn</code> on its own perturbed copy of <code>x</code>, so that
+     * columns are computed concurrently when an <code>executor</code> is given.
+     *
+     * @param fjac receives the m by n Jacobian in column-major order
+     * @param executor computes columns concurrently, or <code>null</code> for computing them on the calling thread
+     */
+    public static void fdjac2(
+            final int m,
+            final int n,
+            final double[] x,
+            final double[] fvec,
+            final double[] fjac,
+            final double epsfcn,
+            final LmdifCostFunction fcn,
+            final ExecutorService executor) {
+
+        MinpackC.fdjac2(m, n, x, fvec, fjac, epsfcn, fcn, executor);
+    }
+
+    /**
+     * Minimizes the sum of the squares of <code>m</code> functions in <code>n</code> variables by the
+     * Levenberg-Marquardt algorithm, approximating the Jacobian by forward differences.
+     *
+     * @return <code>info</code>, as documented by MINPACK
+     *
+     * @see #fdjac2(int, int, double[], double[], double[], double, LmdifCostFunction, ExecutorService)
+     */
+    public static int lmdif(
+            final int m,
+            final int n,
+            final double[] x,
+            final double[] fvec,
+            final double ftol,
+            final double xtol,
+            final double gtol,
+            final int maxfev,
+            final double epsfcn,
+            final double[] diag,
+            final int mode,
+            final double factor,
+            final int[] nfev,
+            final double[] fjac,
+            final int[] ipvt,
+            final double[] qtf,
+            final double[] wa1,
+            final double[] wa2,
+            final double[] wa3,
+            final double[] wa4,
+            final LmdifCostFunction fcn,
+            final ExecutorService executor) {
+
+        final LmdifJacobian jacobian = new LmdifJacobian() {
+            @Override
+            public int jacobian(final int m, final int n, final double[] x, final double[] fvec, final double[] fjac) {
+                MinpackC.fdjac2(m, n, x, fvec, fjac, epsfcn, fcn, executor);
+                return n;
+            }
+        };
+        return MinpackC.lmdif(m, n, x, fvec, ftol, xtol, gtol, maxfev, diag, mode, factor, nfev,
+                              fjac, ipvt, qtf, wa1, wa2, wa3, wa4, fcn, jacobian);
+    }
+
+    /**
+     * Minimizes the sum of the squares of <code>m</code> functions in <code>n</code> variables by the
+     * Levenberg-Marquardt algorithm, using a user supplied Jacobian.
+     *
+     * @return <code>info</code>, as documented by MINPACK
+     */
+    public static int lmder(
+            final int m,
+            final int n,
+            final double[] x,
+            final double[] fvec,
+            final double ftol,
+            final double xtol,
+            final double gtol,
+            final int maxfev,
+            final double[] diag,
+            final int mode,
+            final double factor,
+            final int[] nfev,
+            final double[] fjac,
+            final int[] ipvt,
+            final double[] qtf,
+            final double[] wa1,
+            final double[] wa2,
+            final double[] wa3,
+            final double[] wa4,
+            final LmdifCostFunction fcn,
+            final LmdifJacobian jacobian) {
+
+        return MinpackC.lmdif(m, n, x, fvec, ftol, xtol, gtol, maxfev, diag, mode, factor, nfev,
+                              fjac, ipvt, qtf, wa1, wa2, wa3, wa4, fcn, jacobian);
+    }
+
 
     private static class MinpackC {
 
@@ -265,117 +390,126 @@ public class Minpack {
         }
 
 
-//        void
-//        fdjac2(final int m,final int n,double* x,double* fvec,double* fjac,int,
-//               int* iflag,double epsfcn,double* wa,
-//               const QuantLib::MINPACK::LmdifCostFunction& fcn)
-//        {
-//        /*
-//        *     **********
-//        *
-//        *     subroutine fdjac2
-//        *
-//        *     this subroutine computes a forward-difference approximation
-//        *     to the m by n jacobian matrix associated with a specified
-//        *     problem of m functions in n variables.
-//        *
-//        *     the subroutine statement is
-//        *
-//        *   subroutine fdjac2(fcn,m,n,x,fvec,fjac,ldfjac,iflag,epsfcn,wa)
-//        *
-//        *     where
-//        *
-//        *   fcn is the name of the user-supplied subroutine which
-//        *     calculates the functions. fcn must be declared
-//        *     in an external statement in the user calling
-//        *     program, and should be written as follows.
-//        *
-//        *     subroutine fcn(m,n,x,fvec,iflag)
-//        *     integer m,n,iflag
-//        *     double precision x(n),fvec(m)
-//        *     ----------
-//        *     calculate the functions at x and
-//        *     return this vector in fvec.
-//        *     ----------
-//        *     return
-//        *     end
-//        *
-//        *     the value of iflag should not be changed by fcn unless
-//        *     the user wants to terminate execution of fdjac2.
-//        *     in this case set iflag to a negative integer.
-//        *
-//        *   m is a positive integer input variable set to the number
-//        *     of functions.
-//        *
-//        *   n is a positive integer input variable set to the number
-//        *     of variables. n must not exceed m.
-//        *
-//        *   x is an input array of length n.
-//        *
-//        *   fvec is an input array of length m which must contain the
-//        *     functions evaluated at x.
-//        *
-//        *   fjac is an output m by n array which contains the
-//        *     approximation to the jacobian matrix evaluated at x.
-//        *
-//        *   ldfjac is a positive integer input variable not less than m
-//        *     which specifies the leading dimension of the array fjac.
-//        *
-//        *   iflag is an integer variable which can be used to terminate
-//        *     the execution of fdjac2. see description of fcn.
-//        *
-//        *   epsfcn is an input variable used in determining a suitable
-//        *     step length for the forward-difference approximation. this
-//        *     approximation assumes that the relative errors in the
-//        *     functions are of the order of epsfcn. if epsfcn is less
-//        *     than the machine precision, it is assumed that the relative
-//        *     errors in the functions are of the order of the machine
-//        *     precision.
-//        *
-//        *   wa is a work array of length m.
-//        *
-//        *     subprograms called
-//        *
-//        *   user-supplied ...... fcn
-//        *
-//        *   minpack-supplied ... dpmpar
-//        *
-//        *   fortran-supplied ... dabs,dmax1,dsqrt
-//        *
-//        *     argonne national laboratory. minpack project. march 1980.
-//        *     burton s. garbow, kenneth e. hillstrom, jorge j. more
-//        *
-//              **********
-//        */
-//        int i,j,ij;
-//        double eps,h,temp;
-//        static double zero = 0.0;
-    //
-    //
-//        temp = dmax1(final epsfcn,MACHEP);
-//        eps = Math.sqrt(temp);
-//        ij = 0;
-//        for( j=0; j<n; j++ )
-//            {
-//            temp = x[j];
-//            h = eps * Math.fabs(temp);
-//            if(h == zero)
-//                h = eps;
-//            x[j] = temp + h;
-//            fcn(m,n,x,wa,iflag);
-//            if( *iflag < 0)
-//                return;
-//            x[j] = temp;
-//            for( i=0; i<m; i++ )
-//                {
-//                fjac[ij] = (wa[i] - fvec[i])/h;
-//                ij += 1;    /* fjac[i+m*j] */
-//                }
-//            }
-//        /*
-//        *     last card of subroutine fdjac2.
-//        */
-//        }
+        public static void fdjac2(
+                final int m,
+                final int n,
+                final double[] x,
+                final double[] fvec,
+                final double[] fjac,
+                final double epsfcn,
+                final LmdifCostFunction fcn,
+                final ExecutorService executor)
+        {
+        /*
+        *     **********
+        *
+        *     subroutine fdjac2
+        *
+        *     this subroutine computes a forward-difference approximation
+        *     to the m by n jacobian matrix associated with a specified
+        *     problem of m functions in n variables.
+        *
+        *     the subroutine statement is
+        *
+        *   subroutine fdjac2(fcn,m,n,x,fvec,fjac,ldfjac,iflag,epsfcn,wa)
+        *
+        *     where
+        *
+        *   fcn is the name of the user-supplied subroutine which
+        *     calculates the functions. fcn must be declared
+        *     in an external statement in the user calling
+        *     program, and should be written as follows.
+        *
+        *     subroutine fcn(m,n,x,fvec,iflag)
+        *     integer m,n,iflag
+        *     double precision x(n),fvec(m)
+        *     ----------
+        *     calculate the functions at x and
+        *     return this vector in fvec.
+        *     ----------
+        *     return
+        *     end
+        *
+        *     the value of iflag should not be changed by fcn unless
+        *     the user wants to terminate execution of fdjac2.
+        *     in this case set iflag to a negative integer.
+        *
+        *   m is a positive integer input variable set to the number
+        *     of functions.
+        *
+        *   n is a positive integer input variable set to the number
+        *     of variables. n must not exceed m.
+        *
+        *   x is an input array of length n.
+        *
+        *   fvec is an input array of length m which must contain the
+        *     functions evaluated at x.
+        *
+        *   fjac is an output m by n array which contains the
+        *     approximation to the jacobian matrix evaluated at x.
+        *
+        *   ldfjac is a positive integer input variable not less than m
+        *     which specifies the leading dimension of the array fjac.
+        *
+        *   iflag is an integer variable which can be used to terminate
+        *     the execution of fdjac2. see description of fcn.
+        *
+        *   epsfcn is an input variable used in determining a suitable
+        *     step length for the forward-difference approximation. this
+        *     approximation assumes that the relative errors in the
+        *     functions are of the order of epsfcn. if epsfcn is less
+        *     than the machine precision, it is assumed that the relative
+        *     errors in the functions are of the order of the machine
+        *     precision.
+        *
+        *   wa is a work array of length m.
+        *
+        *     subprograms called
+        *
+        *   user-supplied ...... fcn
+        *
+        *   minpack-supplied ... dpmpar
+        *
+        *   fortran-supplied ... dabs,dmax1,dsqrt
+        *
+        *     argonne national laboratory. minpack project. march 1980.
+        *     burton s. garbow, kenneth e. hillstrom, jorge j. more
+        *
+              **********
+        */
+        /*
+        *     columns are independent: each one is computed on its own copy of x,
+        *     concurrently when an executor is given.
+        */
+        final double eps = Math.sqrt(dmax1(epsfcn, MACHEP));
+        final List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(n);
+        for(int j=0; j<n; j++ )
+            {
+            final int col = j;
+            tasks.add(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    final double[] xx = x.clone();
+                    final double[] wa = new double[m];
+                    final double temp = xx[col];
+                    double h = eps * Math.abs(temp);
+                    if(h == zero) {
+                        h = eps;
+                    }
+                    xx[col] = temp + h;
+                    fcn.fcn(m, n, xx, wa);
+                    int ij = m*col;
+                    for(int i=0; i<m; i++ )
+                        {
+                        fjac[ij] = (wa[i] - fvec[i])/h;
+                        ij += 1;    /* fjac[i+m*j] */
+                        }
+                    return null;
+                }
+            });
+            }
+        Concurrency.invokeAll(executor, tasks);
+        }
 
 
 
@@ -827,864 +961,837 @@ public class Minpack {
         }
 
 
-    //
-    //
-//        void
-//        lmpar(final int n,double* r,int ldr,int* ipvt,double* diag,
-//              double* qtb,double delta,double* par,double* x,double* sdiag,
-//              double* wa1,double* wa2)
-//        {
-//        /*     **********
-//        *
-//        *     subroutine lmpar
-//        *
-//        *     given an m by n matrix a, an n by n nonsingular diagonal
-//        *     matrix d, an m-vector b, and a positive number delta,
-//        *     the problem is to determine a value for the parameter
-//        *     par such that if x solves the system
-//        *
-//        *       a*x = b ,     sqrt(par)*d*x = 0 ,
-//        *
-//        *     in the least squares sense, and dxnorm is the euclidean
-//        *     norm of d*x, then either par is zero and
-//        *
-//        *       (dxnorm-delta) .le. 0.1*delta ,
-//        *
-//        *     or par is positive and
-//        *
-//        *       abs(dxnorm-delta) .le. 0.1*delta .
-//        *
-//        *     this subroutine completes the solution of the problem
-//        *     if it is provided with the necessary information from the
-//        *     qr factorization, with column pivoting, of a. that is, if
-//        *     a*p = q*r, where p is a permutation matrix, q has orthogonal
-//        *     columns, and r is an upper triangular matrix with diagonal
-//        *     elements of nonincreasing magnitude, then lmpar expects
-//        *     the full upper triangle of r, the permutation matrix p,
-//        *     and the first n components of (q transpose)*b. on output
-//        *     lmpar also provides an upper triangular matrix s such that
-//        *
-//        *        t   t           t
-//        *       p *(a *a + par*d*d)*p = s *s .
-//        *
-//        *     s is employed within lmpar and may be of separate interest.
-//        *
-//        *     only a few iterations are generally needed for convergence
-//        *     of the algorithm. if, however, the limit of 10 iterations
-//        *     is reached, then the output par will contain the best
-//        *     value obtained so far.
-//        *
-//        *     the subroutine statement is
-//        *
-//        *   subroutine lmpar(n,r,ldr,ipvt,diag,qtb,delta,par,x,sdiag,
-//        *            wa1,wa2)
-//        *
-//        *     where
-//        *
-//        *   n is a positive integer input variable set to the order of r.
-//        *
-//        *   r is an n by n array. on input the full upper triangle
-//        *     must contain the full upper triangle of the matrix r.
-//        *     on output the full upper triangle is unaltered, and the
-//        *     strict lower triangle contains the strict upper triangle
-//        *     (transposed) of the upper triangular matrix s.
-//        *
-//        *   ldr is a positive integer input variable not less than n
-//        *     which specifies the leading dimension of the array r.
-//        *
-//        *   ipvt is an integer input array of length n which defines the
-//        *     permutation matrix p such that a*p = q*r. column j of p
-//        *     is column ipvt(j) of the identity matrix.
-//        *
-//        *   diag is an input array of length n which must contain the
-//        *     diagonal elements of the matrix d.
-//        *
-//        *   qtb is an input array of length n which must contain the first
-//        *     n elements of the vector (q transpose)*b.
-//        *
-//        *   delta is a positive input variable which specifies an upper
-//        *     bound on the euclidean norm of d*x.
-//        *
-//        *   par is a nonnegative variable. on input par contains an
-//        *     initial estimate of the levenberg-marquardt parameter.
-//        *     on output par contains the final estimate.
-//        *
-//        *   x is an output array of length n which contains the least
-//        *     squares solution of the system a*x = b, sqrt(par)*d*x = 0,
-//        *     for the output par.
-//        *
-//        *   sdiag is an output array of length n which contains the
-//        *     diagonal elements of the upper triangular matrix s.
-//        *
-//        *   wa1 and wa2 are work arrays of length n.
-//        *
-//        *     subprograms called
-//        *
-//        *   minpack-supplied ... dpmpar,enorm,qrsolv
-//        *
-//        *   fortran-supplied ... dabs,dmax1,dmin1,dsqrt
-//        *
-//        *     argonne national laboratory. minpack project. march 1980.
-//        *     burton s. garbow, kenneth e. hillstrom, jorge j. more
-//        *
-//        *     **********
-//        */
-//        int i;
-//        final int iter;
-//        int ij, jj, j, jm1;
-//        final int jp1;
-//        int k, l, nsing;
-//        final double dxnorm,fp,gnorm,parc,parl,paru;
-//        final double sum;
-//        double temp;
-//        static double zero = 0.0;
-//        static double p1 = 0.1;
-//        static double p001 = 0.001;
-    //
-//        extern double DWARF;
-    //
-//        /*
-//        *     compute and store in x the gauss-newton direction. if the
-//        *     jacobian is rank-deficient, obtain a least squares solution.
-//        */
-//        nsing = n;
-//        jj = 0;
-//        for( j=0; j<n; j++ )
-//            {
-//            wa1[j] = qtb[j];
-//            if( (r[jj] == zero) && (nsing == n) ) {
-//                nsing = j;
-//            }
-//            if(nsing < n) {
-//                wa1[j] = zero;
-//            }
-//            jj += ldr+1; /* [j+ldr*j] */
-//            }
-//        if(nsing >= 1)
-//            {
-//            for( k=0; k<nsing; k++ )
-//                {
-//                j = nsing - k - 1;
-//                wa1[j] = wa1[j]/r[j+ldr*j];
-//                temp = wa1[j];
-//                jm1 = j - 1;
-//                if(jm1 >= 0)
-//                    {
-//                    ij = ldr * j;
-//                    for( i=0; i<=jm1; i++ )
-//                        {
-//                        wa1[i] -= r[ij]*temp;
-//                        ij += 1;
-//                        }
-//                    }
-//                }
-//            }
-    //
-//        for( j=0; j<n; j++ )
-//            {
-//            l = ipvt[j];
-//            x[l] = wa1[j];
-//            }
-//        /*
-//        *     initialize the iteration counter.
-//        *     evaluate the function at the origin, and test
-//        *     for acceptance of the gauss-newton direction.
-//        */
-//        iter = 0;
-//        for( j=0; j<n; j++ )
-//            wa2[j] = diag[j]*x[j];
-//        dxnorm = enorm(final n,wa2);
-//        fp = dxnorm - delta;
-//        if(fp <= p1*delta)
-//            {
-//            goto L220;
-//            }
-//        /*
-//        *     if the jacobian is not rank deficient, the newton
-//        *     step provides a lower bound, parl, for the zero of
-//        *     the function. otherwise set this bound to zero.
-//        */
-//        parl = zero;
-//        if(nsing >= n)
-//            {
-//            for( j=0; j<n; j++ )
-//                {
-//                l = ipvt[j];
-//                wa1[j] = diag[l]*(wa2[l]/dxnorm);
-//                }
-//            jj = 0;
-//            for( j=0; j<n; j++ )
-//                {
-//                sum = zero;
-//                jm1 = j - 1;
-//                if(jm1 >= 0)
-//                    {
-//                    ij = jj;
-//                    for( i=0; i<=jm1; i++ )
-//                        {
-//                        sum += r[ij]*wa1[i];
-//                        ij += 1;
-//                        }
-//                    }
-//                wa1[j] = (wa1[j] - sum)/r[j+ldr*j];
-//                jj += ldr; /* [i+ldr*j] */
-//                }
-//            temp = enorm(n,wa1);
-//            parl = ((fp/delta)/temp)/temp;
-//            }
-//        /*
-//        *     calculate an upper bound, paru, for the zero of the function.
-//        */
-//        jj = 0;
-//        for( j=0; j<n; j++ )
-//            {
-//            sum = zero;
-//            ij = jj;
-//            for( i=0; i<=j; i++ )
-//                {
-//                sum += r[ij]*qtb[i];
-//                ij += 1;
-//                }
-//            l = ipvt[j];
-//            wa1[j] = sum/diag[l];
-//            jj += ldr; /* [i+ldr*j] */
-//            }
-//        gnorm = enorm(n,wa1);
-//        paru = gnorm/delta;
-//        if(paru == zero)
-//            paru = DWARF/dmin1(delta,p1);
-//        /*
-//        *     if the input par lies outside of the interval (parl,paru),
-//        *     set par to the closer endpoint.
-//        */
-//        *par = dmax1( *par,parl);
-//        *par = dmin1( *par,paru);
-//        if( *par == zero)
-//            *par = gnorm/dxnorm;
-//        /*
-//        *     beginning of an iteration.
-//        */
-//        L150:
-//        iter += 1;
-//        /*
-//        *    evaluate the function at the current value of par.
-//        */
-//        if( *par == zero)
-//            *par = dmax1(DWARF,p001*paru);
-//        temp = Math.sqrt( *par );
-//        for( j=0; j<n; j++ )
-//            wa1[j] = temp*diag[j];
-//        qrsolv(n,r,ldr,ipvt,wa1,qtb,x,sdiag,wa2);
-//        for( j=0; j<n; j++ )
-//            wa2[j] = diag[j]*x[j];
-//        dxnorm = enorm(n,wa2);
-//        temp = fp;
-//        fp = dxnorm - delta;
-//        /*
-//        *    if the function is small enough, accept the current value
-//        *    of par. also test for the exceptional cases where parl
-//        *    is zero or the number of iterations has reached 10.
-//        */
-//        if( (Math.fabs(fp) <= p1*delta)
-//         || ((parl == zero) && (fp <= temp) && (temp < zero))
-//         || (iter == 10) )
-//            goto L220;
-//        /*
-//        *    compute the newton correction.
-//        */
-//        for( j=0; j<n; j++ )
-//            {
-//            l = ipvt[j];
-//            wa1[j] = diag[l]*(wa2[l]/dxnorm);
-//            }
-//        jj = 0;
-//        for( j=0; j<n; j++ )
-//            {
-//            wa1[j] = wa1[j]/sdiag[j];
-//            temp = wa1[j];
-//            jp1 = j + 1;
-//            if(jp1 < n)
-//                {
-//                ij = jp1 + jj;
-//                for( i=jp1; i<n; i++ )
-//                    {
-//                    wa1[i] -= r[ij]*temp;
-//                    ij += 1; /* [i+ldr*j] */
-//                    }
-//                }
-//            jj += ldr; /* ldr*j */
-//            }
-//        temp = enorm(n,wa1);
-//        parc = ((fp/delta)/temp)/temp;
-//        /*
-//        *    depending on the sign of the function, update parl or paru.
-//        */
-//        if(fp > zero)
-//            parl = dmax1(parl, *par);
-//        if(fp < zero)
-//            paru = dmin1(paru, *par);
-//        /*
-//        *    compute an improved estimate for par.
-//        */
-//        *par = dmax1(parl, *par + parc);
-//        /*
-//        *    end of an iteration.
-//        */
-//        goto L150;
-    //
-//        L220:
-//        /*
-//        *     termination.
-//        */
-//        if(iter == 0)
-//            *par = zero;
-//        /*
-//        *     last card of subroutine lmpar.
-//        */
-//        }
-    //
+        private static double lmpar(
+                final int n,
+                final double[] r,
+                final int ldr,
+                final int[] ipvt,
+                final double[] diag,
+                final double[] qtb,
+                final double delta,
+                double par,
+                final double[] x,
+                final double[] sdiag,
+                final double[] wa1,
+                final double[] wa2)
+        {
+        /*     **********
+        *
+        *     subroutine lmpar
+        *
+        *     given an m by n matrix a, an n by n nonsingular diagonal
+        *     matrix d, an m-vector b, and a positive number delta,
+        *     the problem is to determine a value for the parameter
+        *     par such that if x solves the system
+        *
+        *       a*x = b ,     sqrt(par)*d*x = 0 ,
+        *
+        *     in the least squares sense, and dxnorm is the euclidean
+        *     norm of d*x, then either par is zero and
+        *
+        *       (dxnorm-delta) .le. 0.1*delta ,
+        *
+        *     or par is positive and
+        *
+        *       abs(dxnorm-delta) .le. 0.1*delta .
+        *
+        *     this subroutine completes the solution of the problem
+        *     if it is provided with the necessary information from the
+        *     qr factorization, with column pivoting, of a. that is, if
+        *     a*p = q*r, where p is a permutation matrix, q has orthogonal
+        *     columns, and r is an upper triangular matrix with diagonal
+        *     elements of nonincreasing magnitude, then lmpar expects
+        *     the full upper triangle of r, the permutation matrix p,
+        *     and the first n components of (q transpose)*b. on output
+        *     lmpar also provides an upper triangular matrix s such that
+        *
+        *        t   t           t
+        *       p *(a *a + par*d*d)*p = s *s .
+        *
+        *     s is employed within lmpar and may be of separate interest.
+        *
+        *     only a few iterations are generally needed for convergence
+        *     of the algorithm. if, however, the limit of 10 iterations
+        *     is reached, then the output par will contain the best
+        *     value obtained so far.
+        *
+        *     the subroutine statement is
+        *
+        *   subroutine lmpar(n,r,ldr,ipvt,diag,qtb,delta,par,x,sdiag,
+        *            wa1,wa2)
+        *
+        *     where
+        *
+        *   n is a positive integer input variable set to the order of r.
+        *
+        *   r is an n by n array. on input the full upper triangle
+        *     must contain the full upper triangle of the matrix r.
+        *     on output the full upper triangle is unaltered, and the
+        *     strict lower triangle contains the strict upper triangle
+        *     (transposed) of the upper triangular matrix s.
+        *
+        *   ldr is a positive integer input variable not less than n
+        *     which specifies the leading dimension of the array r.
+        *
+        *   ipvt is an integer input array of length n which defines the
+        *     permutation matrix p such that a*p = q*r. column j of p
+        *     is column ipvt(j) of the identity matrix.
+        *
+        *   diag is an input array of length n which must contain the
+        *     diagonal elements of the matrix d.
+        *
+        *   qtb is an input array of length n which must contain the first
+        *     n elements of the vector (q transpose)*b.
+        *
+        *   delta is a positive input variable which specifies an upper
+        *     bound on the euclidean norm of d*x.
+        *
+        *   par is a nonnegative variable. on input par contains an
+        *     initial estimate of the levenberg-marquardt parameter.
+        *     on output par contains the final estimate.
+        *
+        *   x is an output array of length n which contains the least
+        *     squares solution of the system a*x = b, sqrt(par)*d*x = 0,
+        *     for the output par.
+        *
+        *   sdiag is an output array of length n which contains the
+        *     diagonal elements of the upper triangular matrix s.
+        *
+        *   wa1 and wa2 are work arrays of length n.
+        *
+        *     subprograms called
+        *
+        *   minpack-supplied ... dpmpar,enorm,qrsolv
+        *
+        *   fortran-supplied ... dabs,dmax1,dmin1,dsqrt
+        *
+        *     argonne national laboratory. minpack project. march 1980.
+        *     burton s. garbow, kenneth e. hillstrom, jorge j. more
+        *
+        *     **********
+        */
+        int i,iter,ij,jj,j,jm1,jp1,k,l,nsing;
+        double dxnorm,fp,gnorm,parc,parl,paru;
+        double sum,temp;
+        final double p1 = 0.1;
+        final double p001 = 0.001;
 
+        /*
+        *     compute and store in x the gauss-newton direction. if the
+        *     jacobian is rank-deficient, obtain a least squares solution.
+        */
+        nsing = n;
+        jj = 0;
+        for( j=0; j<n; j++ )
+            {
+            wa1[j] = qtb[j];
+            if( (r[jj] == zero) && (nsing == n) ) {
+                nsing = j;
+            }
+            if(nsing < n) {
+                wa1[j] = zero;
+            }
+            jj += ldr+1; /* [j+ldr*j] */
+            }
+        if(nsing >= 1)
+            {
+            for( k=0; k<nsing; k++ )
+                {
+                j = nsing - k - 1;
+                wa1[j] = wa1[j]/r[j+ldr*j];
+                temp = wa1[j];
+                jm1 = j - 1;
+                if(jm1 >= 0)
+                    {
+                    ij = ldr * j;
+                    for( i=0; i<=jm1; i++ )
+                        {
+                        wa1[i] -= r[ij]*temp;
+                        ij += 1;
+                        }
+                    }
+                }
+            }
 
+        for( j=0; j<n; j++ )
+            {
+            l = ipvt[j];
+            x[l] = wa1[j];
+            }
+        /*
+        *     initialize the iteration counter.
+        *     evaluate the function at the origin, and test
+        *     for acceptance of the gauss-newton direction.
+        */
+        iter = 0;
+        for( j=0; j<n; j++ ) {
+            wa2[j] = diag[j]*x[j];
+        }
+        dxnorm = enorm(n, wa2, 0);
+        fp = dxnorm - delta;
+        if(fp <= p1*delta)
+            {
+            /*
+            *     termination.
+            */
+            return zero;
+            }
+        /*
+        *     if the jacobian is not rank deficient, the newton
+        *     step provides a lower bound, parl, for the zero of
+        *     the function. otherwise set this bound to zero.
+        */
+        parl = zero;
+        if(nsing >= n)
+            {
+            for( j=0; j<n; j++ )
+                {
+                l = ipvt[j];
+                wa1[j] = diag[l]*(wa2[l]/dxnorm);
+                }
+            jj = 0;
+            for( j=0; j<n; j++ )
+                {
+                sum = zero;
+                jm1 = j - 1;
+                if(jm1 >= 0)
+                    {
+                    ij = jj;
+                    for( i=0; i<=jm1; i++ )
+                        {
+                        sum += r[ij]*wa1[i];
+                        ij += 1;
+                        }
+                    }
+                wa1[j] = (wa1[j] - sum)/r[j+ldr*j];
+                jj += ldr; /* [i+ldr*j] */
+                }
+            temp = enorm(n, wa1, 0);
+            parl = ((fp/delta)/temp)/temp;
+            }
+        /*
+        *     calculate an upper bound, paru, for the zero of the function.
+        */
+        jj = 0;
+        for( j=0; j<n; j++ )
+            {
+            sum = zero;
+            ij = jj;
+            for( i=0; i<=j; i++ )
+                {
+                sum += r[ij]*qtb[i];
+                ij += 1;
+                }
+            l = ipvt[j];
+            wa1[j] = sum/diag[l];
+            jj += ldr; /* [i+ldr*j] */
+            }
+        gnorm = enorm(n, wa1, 0);
+        paru = gnorm/delta;
+        if(paru == zero) {
+            paru = DWARF/dmin1(delta,p1);
+        }
+        /*
+        *     if the input par lies outside of the interval (parl,paru),
+        *     set par to the closer endpoint.
+        */
+        par = dmax1(par,parl);
+        par = dmin1(par,paru);
+        if(par == zero) {
+            par = gnorm/dxnorm;
+        }
+        /*
+        *     beginning of an iteration.
+        */
+        for(;;)
+            {
+            iter += 1;
+            /*
+            *    evaluate the function at the current value of par.
+            */
+            if(par == zero) {
+                par = dmax1(DWARF,p001*paru);
+            }
+            temp = Math.sqrt(par);
+            for( j=0; j<n; j++ ) {
+                wa1[j] = temp*diag[j];
+            }
+            qrsolv(n,r,ldr,ipvt,wa1,qtb,x,sdiag,wa2);
+            for( j=0; j<n; j++ ) {
+                wa2[j] = diag[j]*x[j];
+            }
+            dxnorm = enorm(n, wa2, 0);
+            temp = fp;
+            fp = dxnorm - delta;
+            /*
+            *    if the function is small enough, accept the current value
+            *    of par. also test for the exceptional cases where parl
+            *    is zero or the number of iterations has reached 10.
+            */
+            if( (Math.abs(fp) <= p1*delta)
+             || ((parl == zero) && (fp <= temp) && (temp < zero))
+             || (iter == 10) ) {
+                return par;
+            }
+            /*
+            *    compute the newton correction.
+            */
+            for( j=0; j<n; j++ )
+                {
+                l = ipvt[j];
+                wa1[j] = diag[l]*(wa2[l]/dxnorm);
+                }
+            jj = 0;
+            for( j=0; j<n; j++ )
+                {
+                wa1[j] = wa1[j]/sdiag[j];
+                temp = wa1[j];
+                jp1 = j + 1;
+                if(jp1 < n)
+                    {
+                    ij = jp1 + jj;
+                    for( i=jp1; i<n; i++ )
+                        {
+                        wa1[i] -= r[ij]*temp;
+                        ij += 1; /* [i+ldr*j] */
+                        }
+                    }
+                jj += ldr; /* ldr*j */
+                }
+            temp = enorm(n, wa1, 0);
+            parc = ((fp/delta)/temp)/temp;
+            /*
+            *    depending on the sign of the function, update parl or paru.
+            */
+            if(fp > zero) {
+                parl = dmax1(parl,par);
+            }
+            if(fp < zero) {
+                paru = dmin1(paru,par);
+            }
+            /*
+            *    compute an improved estimate for par.
+            */
+            par = dmax1(parl,par+parc);
+            }
+        }
+
+
+        public static int lmdif(
+                final int m,
+                final int n,
+                final double[] x,
+                final double[] fvec,
+                final double ftol,
+                final double xtol,
+                final double gtol,
+                final int maxfev,
+                final double[] diag,
+                final int mode,
+                final double factor,
+                final int[] nfev,
+                final double[] fjac,
+                final int[] ipvt,
+                final double[] qtf,
+                final double[] wa1,
+                final double[] wa2,
+                final double[] wa3,
+                final double[] wa4,
+                final LmdifCostFunction fcn,
+                final LmdifJacobian jacobian)
+        {
+        /*
+        *     **********
+        *
+        *     subroutine lmdif
+        *
+        *     the purpose of lmdif is to minimize the sum of the squares of
+        *     m nonlinear functions in n variables by a modification of
+        *     the levenberg-marquardt algorithm. the user must provide a
+        *     subroutine which calculates the functions. the jacobian is
+        *     then calculated by a forward-difference approximation.
+        *
+        *     the subroutine statement is
+        *
+        *   subroutine lmdif(fcn,m,n,x,fvec,ftol,xtol,gtol,maxfev,epsfcn,
+        *            diag,mode,factor,nprint,info,nfev,fjac,
+        *            ldfjac,ipvt,qtf,wa1,wa2,wa3,wa4)
+        *
+        *     where
+        *
+        *   fcn is the name of the user-supplied subroutine which
+        *     calculates the functions. fcn must be declared
+        *     in an external statement in the user calling
+        *     program, and should be written as follows.
+        *
+        *     subroutine fcn(m,n,x,fvec,iflag)
+        *     integer m,n,iflag
+        *     double precision x(n),fvec(m)
+        *     ----------
+        *     calculate the functions at x and
+        *     return this vector in fvec.
+        *     ----------
+        *     return
+        *     end
+        *
+        *     the value of iflag should not be changed by fcn unless
+        *     the user wants to terminate execution of lmdif.
+        *     in this case set iflag to a negative integer.
+        *
+        *   m is a positive integer input variable set to the number
+        *     of functions.
+        *
+        *   n is a positive integer input variable set to the number
+        *     of variables. n must not exceed m.
+        *
+        *   x is an array of length n. on input x must contain
+        *     an initial estimate of the solution vector. on output x
+        *     contains the final estimate of the solution vector.
+        *
+        *   fvec is an output array of length m which contains
+        *     the functions evaluated at the output x.
+        *
+        *   ftol is a nonnegative input variable. termination
+        *     occurs when both the actual and predicted relative
+        *     reductions in the sum of squares are at most ftol.
+        *     therefore, ftol measures the relative error desired
+        *     in the sum of squares.
+        *
+        *   xtol is a nonnegative input variable. termination
+        *     occurs when the relative error between two consecutive
+        *     iterates is at most xtol. therefore, xtol measures the
+        *     relative error desired in the approximate solution.
+        *
+        *   gtol is a nonnegative input variable. termination
+        *     occurs when the cosine of the angle between fvec and
+        *     any column of the jacobian is at most gtol in absolute
+        *     value. therefore, gtol measures the orthogonality
+        *     desired between the function vector and the columns
+        *     of the jacobian.
+        *
+        *   maxfev is a positive integer input variable. termination
+        *     occurs when the number of calls to fcn is at least
+        *     maxfev by the end of an iteration.
+        *
+        *   epsfcn is an input variable used in determining a suitable
+        *     step length for the forward-difference approximation. this
+        *     approximation assumes that the relative errors in the
+        *     functions are of the order of epsfcn. if epsfcn is less
+        *     than the machine precision, it is assumed that the relative
+        *     errors in the functions are of the order of the machine
+        *     precision.
+        *
+        *   diag is an array of length n. if mode = 1 (see
+        *     below), diag is internally set. if mode = 2, diag
+        *     must contain positive entries that serve as
+        *     multiplicative scale factors for the variables.
+        *
+        *   mode is an integer input variable. if mode = 1, the
+        *     variables will be scaled internally. if mode = 2,
+        *     the scaling is specified by the input diag. other
+        *     values of mode are equivalent to mode = 1.
+        *
+        *   factor is a positive input variable used in determining the
+        *     initial step bound. this bound is set to the product of
+        *     factor and the euclidean norm of diag*x if nonzero, or else
+        *     to factor itself. in most cases factor should lie in the
+        *     interval (.1,100.). 100. is a generally recommended value.
+        *
+        *   nprint is an integer input variable that enables controlled
+        *     printing of iterates if it is positive. in this case,
+        *     fcn is called with iflag = 0 at the beginning of the first
+        *     iteration and every nprint iterations thereafter and
+        *     immediately prior to return, with x and fvec available
+        *     for printing. if nprint is not positive, no special calls
+        *     of fcn with iflag = 0 are made.
+        *
+        *   info is an integer output variable. if the user has
+        *     terminated execution, info is set to the (negative)
+        *     value of iflag. see description of fcn. otherwise,
+        *     info is set as follows.
+        *
+        *     info = 0  improper input parameters.
+        *
+        *     info = 1  both actual and predicted relative reductions
+        *           in the sum of squares are at most ftol.
+        *
+        *     info = 2  relative error between two consecutive iterates
+        *           is at most xtol.
+        *
+        *     info = 3  conditions for info = 1 and info = 2 both hold.
+        *
+        *     info = 4  the cosine of the angle between fvec and any
+        *           column of the jacobian is at most gtol in
+        *           absolute value.
+        *
+        *     info = 5  number of calls to fcn has reached or
+        *           exceeded maxfev.
+        *
+        *     info = 6  ftol is too small. no further reduction in
+        *           the sum of squares is possible.
+        *
+        *     info = 7  xtol is too small. no further improvement in
+        *           the approximate solution x is possible.
+        *
+        *     info = 8  gtol is too small. fvec is orthogonal to the
+        *           columns of the jacobian to machine precision.
+        *
+        *   nfev is an integer output variable set to the number of
+        *     calls to fcn.
+        *
+        *   fjac is an output m by n array. the upper n by n submatrix
+        *     of fjac contains an upper triangular matrix r with
+        *     diagonal elements of nonincreasing magnitude such that
+        *
+        *        t     t       t
+        *       p *(jac *jac)*p = r *r,
+        *
+        *     where p is a permutation matrix and jac is the final
+        *     calculated jacobian. column j of p is column ipvt(j)
+        *     (see below) of the identity matrix. the lower trapezoidal
+        *     part of fjac contains information generated during
+        *     the computation of r.
+        *
+        *   ldfjac is a positive integer input variable not less than m
+        *     which specifies the leading dimension of the array fjac.
+        *
+        *   ipvt is an integer output array of length n. ipvt
+        *     defines a permutation matrix p such that jac*p = q*r,
+        *     where jac is the final calculated jacobian, q is
+        *     orthogonal (not stored), and r is upper triangular
+        *     with diagonal elements of nonincreasing magnitude.
+        *     column j of p is column ipvt(j) of the identity matrix.
+        *
+        *   qtf is an output array of length n which contains
+        *     the first n elements of the vector (q transpose)*fvec.
+        *
+        *   wa1, wa2, and wa3 are work arrays of length n.
+        *
+        *   wa4 is a work array of length m.
+        *
+        *     subprograms called
+        *
+        *   user-supplied ...... fcn
+        *
+        *   minpack-supplied ... dpmpar,enorm,fdjac2,lmpar,qrfac
+        *
+        *   fortran-supplied ... dabs,dmax1,dmin1,dsqrt,mod
+        *
+        *     argonne national laboratory. minpack project. march 1980.
+        *     burton s. garbow, kenneth e. hillstrom, jorge j. more
+        *
+        *     **********
+        */
+        int i,ij,jj,iter,j,l;
+        double actred,delta=0,dirder,fnorm,fnorm1,gnorm;
+        double par,pnorm,prered,ratio;
+        double sum,temp,temp1,temp2,temp3,xnorm=0;
+        final double p1 = 0.1;
+        final double p75 = 0.75;
+        final double p0001 = 1.0e-4;
 
-    //
-    //
-    //
-    //
-//        void lmdif(final int m,final int n,double* x,double* fvec,double ftol,
-//              double xtol,double gtol,int maxfev,double epsfcn,
-//              double* diag, int mode, double factor,
-//              int nprint, int* info,int* nfev,double* fjac,
-//              int ldfjac,int* ipvt,double* qtf,
-//              double* wa1,double* wa2,double* wa3,double* wa4,
-//              const QuantLib::MINPACK::LmdifCostFunction& fcn)
-//        {
-//        /*
-//        *     **********
-//        *
-//        *     subroutine lmdif
-//        *
-//        *     the purpose of lmdif is to minimize the sum of the squares of
-//        *     m nonlinear functions in n variables by a modification of
-//        *     the levenberg-marquardt algorithm. the user must provide a
-//        *     subroutine which calculates the functions. the jacobian is
-//        *     then calculated by a forward-difference approximation.
-//        *
-//        *     the subroutine statement is
-//        *
-//        *   subroutine lmdif(fcn,m,n,x,fvec,ftol,xtol,gtol,maxfev,epsfcn,
-//        *            diag,mode,factor,nprint,info,nfev,fjac,
-//        *            ldfjac,ipvt,qtf,wa1,wa2,wa3,wa4)
-//        *
-//        *     where
-//        *
-//        *   fcn is the name of the user-supplied subroutine which
-//        *     calculates the functions. fcn must be declared
-//        *     in an external statement in the user calling
-//        *     program, and should be written as follows.
-//        *
-//        *     subroutine fcn(m,n,x,fvec,iflag)
-//        *     integer m,n,iflag
-//        *     double precision x(n),fvec(m)
-//        *     ----------
-//        *     calculate the functions at x and
-//        *     return this vector in fvec.
-//        *     ----------
-//        *     return
-//        *     end
-//        *
-//        *     the value of iflag should not be changed by fcn unless
-//        *     the user wants to terminate execution of lmdif.
-//        *     in this case set iflag to a negative integer.
-//        *
-//        *   m is a positive integer input variable set to the number
-//        *     of functions.
-//        *
-//        *   n is a positive integer input variable set to the number
-//        *     of variables. n must not exceed m.
-//        *
-//        *   x is an array of length n. on input x must contain
-//        *     an initial estimate of the solution vector. on output x
-//        *     contains the final estimate of the solution vector.
-//        *
-//        *   fvec is an output array of length m which contains
-//        *     the functions evaluated at the output x.
-//        *
-//        *   ftol is a nonnegative input variable. termination
-//        *     occurs when both the actual and predicted relative
-//        *     reductions in the sum of squares are at most ftol.
-//        *     therefore, ftol measures the relative error desired
-//        *     in the sum of squares.
-//        *
-//        *   xtol is a nonnegative input variable. termination
-//        *     occurs when the relative error between two consecutive
-//        *     iterates is at most xtol. therefore, xtol measures the
-//        *     relative error desired in the approximate solution.
-//        *
-//        *   gtol is a nonnegative input variable. termination
-//        *     occurs when the cosine of the angle between fvec and
-//        *     any column of the jacobian is at most gtol in absolute
-//        *     value. therefore, gtol measures the orthogonality
-//        *     desired between the function vector and the columns
-//        *     of the jacobian.
-//        *
-//        *   maxfev is a positive integer input variable. termination
-//        *     occurs when the number of calls to fcn is at least
-//        *     maxfev by the end of an iteration.
-//        *
-//        *   epsfcn is an input variable used in determining a suitable
-//        *     step length for the forward-difference approximation. this
-//        *     approximation assumes that the relative errors in the
-//        *     functions are of the order of epsfcn. if epsfcn is less
-//        *     than the machine precision, it is assumed that the relative
-//        *     errors in the functions are of the order of the machine
-//        *     precision.
-//        *
-//        *   diag is an array of length n. if mode = 1 (see
-//        *     below), diag is internally set. if mode = 2, diag
-//        *     must contain positive entries that serve as
-//        *     multiplicative scale factors for the variables.
-//        *
-//        *   mode is an integer input variable. if mode = 1, the
-//        *     variables will be scaled internally. if mode = 2,
-//        *     the scaling is specified by the input diag. other
-//        *     values of mode are equivalent to mode = 1.
-//        *
-//        *   factor is a positive input variable used in determining the
-//        *     initial step bound. this bound is set to the product of
-//        *     factor and the euclidean norm of diag*x if nonzero, or else
-//        *     to factor itself. in most cases factor should lie in the
-//        *     interval (.1,100.). 100. is a generally recommended value.
-//        *
-//        *   nprint is an integer input variable that enables controlled
-//        *     printing of iterates if it is positive. in this case,
-//        *     fcn is called with iflag = 0 at the beginning of the first
-//        *     iteration and every nprint iterations thereafter and
-//        *     immediately prior to return, with x and fvec available
-//        *     for printing. if nprint is not positive, no special calls
-//        *     of fcn with iflag = 0 are made.
-//        *
-//        *   info is an integer output variable. if the user has
-//        *     terminated execution, info is set to the (negative)
-//        *     value of iflag. see description of fcn. otherwise,
-//        *     info is set as follows.
-//        *
-//        *     info = 0  improper input parameters.
-//        *
-//        *     info = 1  both actual and predicted relative reductions
-//        *           in the sum of squares are at most ftol.
-//        *
-//        *     info = 2  relative error between two consecutive iterates
-//        *           is at most xtol.
-//        *
-//        *     info = 3  conditions for info = 1 and info = 2 both hold.
-//        *
-//        *     info = 4  the cosine of the angle between fvec and any
-//        *           column of the jacobian is at most gtol in
-//        *           absolute value.
-//        *
-//        *     info = 5  number of calls to fcn has reached or
-//        *           exceeded maxfev.
-//        *
-//        *     info = 6  ftol is too small. no further reduction in
-//        *           the sum of squares is possible.
-//        *
-//        *     info = 7  xtol is too small. no further improvement in
-//        *           the approximate solution x is possible.
-//        *
-//        *     info = 8  gtol is too small. fvec is orthogonal to the
-//        *           columns of the jacobian to machine precision.
-//        *
-//        *   nfev is an integer output variable set to the number of
-//        *     calls to fcn.
-//        *
-//        *   fjac is an output m by n array. the upper n by n submatrix
-//        *     of fjac contains an upper triangular matrix r with
-//        *     diagonal elements of nonincreasing magnitude such that
-//        *
-//        *        t     t       t
-//        *       p *(jac *jac)*p = r *r,
-//        *
-//        *     where p is a permutation matrix and jac is the final
-//        *     calculated jacobian. column j of p is column ipvt(j)
-//        *     (see below) of the identity matrix. the lower trapezoidal
-//        *     part of fjac contains information generated during
-//        *     the computation of r.
-//        *
-//        *   ldfjac is a positive integer input variable not less than m
-//        *     which specifies the leading dimension of the array fjac.
-//        *
-//        *   ipvt is an integer output array of length n. ipvt
-//        *     defines a permutation matrix p such that jac*p = q*r,
-//        *     where jac is the final calculated jacobian, q is
-//        *     orthogonal (not stored), and r is upper triangular
-//        *     with diagonal elements of nonincreasing magnitude.
-//        *     column j of p is column ipvt(j) of the identity matrix.
-//        *
-//        *   qtf is an output array of length n which contains
-//        *     the first n elements of the vector (q transpose)*fvec.
-//        *
-//        *   wa1, wa2, and wa3 are work arrays of length n.
-//        *
-//        *   wa4 is a work array of length m.
-//        *
-//        *     subprograms called
-//        *
-//        *   user-supplied ...... fcn
-//        *
-//        *   minpack-supplied ... dpmpar,enorm,fdjac2,lmpar,qrfac
-//        *
-//        *   fortran-supplied ... dabs,dmax1,dmin1,dsqrt,mod
-//        *
-//        *     argonne national laboratory. minpack project. march 1980.
-//        *     burton s. garbow, kenneth e. hillstrom, jorge j. more
-//        *
-//        *     **********
-//        */
-//        int i,iflag,ij,jj,iter,j,l;
-//        double actred,delta=0,dirder,fnorm,fnorm1,gnorm;
-//        double par,pnorm,prered,ratio;
-//        double sum,temp,temp1,temp2,temp3,xnorm=0;
-//        static double one = 1.0;
-//        static double p1 = 0.1;
-//        static double p5 = 0.5;
-//        static double p25 = 0.25;
-//        static double p75 = 0.75;
-//        static double p0001 = 1.0e-4;
-//        static double zero = 0.0;
-    //
-//        *info = 0;
-//        iflag = 0;
-//        *nfev = 0;
-//        /*
-//        *     check the input parameters for errors.
-//        */
-//        if( (n <= 0) || (m < n) || (ldfjac < m) || (ftol < zero)
-//            || (xtol < zero) || (gtol < zero) || (maxfev <= 0)
-//            || (factor <= zero) )
-//            goto L300;
-    //
-//        if( mode == 2 )
-//            { /* scaling by diag[] */
-//            for( j=0; j<n; j++ )
-//                {
-//                if( diag[j] <= 0.0 )
-//                    goto L300;
-//                }
-//            }
-//        /*
-//        *     evaluate the function at the starting point
-//        *     and calculate its norm.
-//        */
-//        iflag = 1;
-//        fcn(m,n,x,fvec,&iflag);
-//        *nfev = 1;
-//        if(iflag < 0)
-//            goto L300;
-//        fnorm = enorm(m,fvec);
-//        /*
-//        *     initialize levenberg-marquardt parameter and iteration counter.
-//        */
-//        par = zero;
-//        iter = 1;
-//        /*
-//        *     beginning of the outer loop.
-//        */
-    //
-//        L30:
-    //
-//        /*
-//        *    calculate the jacobian matrix.
-//        */
-//        iflag = 2;
-//        fdjac2(m,n,x,fvec,fjac,ldfjac,&iflag,epsfcn,wa4, fcn);
-//        *nfev += n;
-//        if(iflag < 0)
-//            goto L300;
-//        /*
-//        *    if requested, call fcn to enable printing of iterates.
-//        */
-//        if( nprint > 0 )
-//            {
-//            iflag = 0;
-//            if(mod(iter-1,nprint) == 0)
-//                {
-//                fcn(m,n,x,fvec,&iflag);
-//                if(iflag < 0)
-//                    goto L300;
-//                }
-//            }
-//        /*
-//        *    compute the qr factorization of the jacobian.
-//        */
-//        qrfac(m,n,fjac,ldfjac,1,ipvt,n,wa1,wa2,wa3);
-//        /*
-//        *    on the first iteration and if mode is 1, scale according
-//        *    to the norms of the columns of the initial jacobian.
-//        */
-//        if(iter == 1)
-//            {
-//            if(mode != 2)
-//                {
-//                for( j=0; j<n; j++ )
-//                    {
-//                    diag[j] = wa2[j];
-//                    if( wa2[j] == zero )
-//                        diag[j] = one;
-//                    }
-//                }
-    //
-//        /*
-//        *    on the first iteration, calculate the norm of the scaled x
-//        *    and initialize the step bound delta.
-//        */
-//            for( j=0; j<n; j++ )
-//                wa3[j] = diag[j] * x[j];
-    //
-//            xnorm = enorm(n,wa3);
-//            delta = factor*xnorm;
-//            if(delta == zero)
-//                delta = factor;
-//            }
-    //
-//        /*
-//        *    form (q transpose)*fvec and store the first n components in
-//        *    qtf.
-//        */
-//        for( i=0; i<m; i++ )
-//            wa4[i] = fvec[i];
-//        jj = 0;
-//        for( j=0; j<n; j++ )
-//            {
-//            temp3 = fjac[jj];
-//            if(temp3 != zero)
-//                {
-//                sum = zero;
-//                ij = jj;
-//                for( i=j; i<m; i++ )
-//                    {
-//                    sum += fjac[ij] * wa4[i];
-//                    ij += 1;    /* fjac[i+m*j] */
-//                    }
-//                temp = -sum / temp3;
-//                ij = jj;
-//                for( i=j; i<m; i++ )
-//                    {
-//                    wa4[i] += fjac[ij] * temp;
-//                    ij += 1;    /* fjac[i+m*j] */
-//                    }
-//                }
-//            fjac[jj] = wa1[j];
-//            jj += m+1;  /* fjac[j+m*j] */
-//            qtf[j] = wa4[j];
-//            }
-    //
-//        /*
-//        *    compute the norm of the scaled gradient.
-//        */
-//         gnorm = zero;
-//         if(fnorm != zero)
-//            {
-//            jj = 0;
-//            for( j=0; j<n; j++ )
-//                {
-//                l = ipvt[j];
-//                if(wa2[l] != zero)
-//                    {
-//                    sum = zero;
-//                    ij = jj;
-//                    for( i=0; i<=j; i++ )
-//                        {
-//                        sum += fjac[ij]*(qtf[i]/fnorm);
-//                        ij += 1; /* fjac[i+m*j] */
-//                        }
-//                    gnorm = dmax1(gnorm,Math.fabs(sum/wa2[l]));
-//                    }
-//                jj += m;
-//                }
-//            }
-    //
-//        /*
-//        *    test for convergence of the gradient norm.
-//        */
-//         if(gnorm <= gtol)
-//            *info = 4;
-//         if( *info != 0)
-//            goto L300;
-//        /*
-//        *    rescale if necessary.
-//        */
-//         if(mode != 2)
-//            {
-//            for( j=0; j<n; j++ )
-//                diag[j] = dmax1(diag[j],wa2[j]);
-//            }
-    //
-//        /*
-//        *    beginning of the inner loop.
-//        */
-//        L200:
-//        /*
-//        *       determine the levenberg-marquardt parameter.
-//        */
-//        lmpar(n,fjac,ldfjac,ipvt,diag,qtf,delta,&par,wa1,wa2,wa3,wa4);
-//        /*
-//        *       store the direction p and x + p. calculate the norm of p.
-//        */
-//        for( j=0; j<n; j++ )
-//            {
-//               wa1[j] = -wa1[j];
-//               wa2[j] = x[j] + wa1[j];
-//               wa3[j] = diag[j]*wa1[j];
-//            }
-//        pnorm = enorm(n,wa3);
-//        /*
-//        *       on the first iteration, adjust the initial step bound.
-//        */
-//        if(iter == 1)
-//            delta = dmin1(delta,pnorm);
-//        /*
-//        *       evaluate the function at x + p and calculate its norm.
-//        */
-//        iflag = 1;
-//        fcn(m,n,wa2,wa4,&iflag);
-//        *nfev += 1;
-//        if(iflag < 0)
-//            goto L300;
-//        fnorm1 = enorm(m,wa4);
-//        /*
-//        *       compute the scaled actual reduction.
-//        */
-//        actred = -one;
-//        if( (p1*fnorm1) < fnorm)
-//            {
-//            temp = fnorm1/fnorm;
-//            actred = one - temp * temp;
-//            }
-//        /*
-//        *       compute the scaled predicted reduction and
-//        *       the scaled directional derivative.
-//        */
-//        jj = 0;
-//        for( j=0; j<n; j++ )
-//            {
-//            wa3[j] = zero;
-//            l = ipvt[j];
-//            temp = wa1[l];
-//            ij = jj;
-//            for( i=0; i<=j; i++ )
-//                {
-//                wa3[i] += fjac[ij]*temp;
-//                ij += 1; /* fjac[i+m*j] */
-//                }
-//            jj += m;
-//            }
-//        temp1 = enorm(n,wa3)/fnorm;
-//        temp2 = (Math.sqrt(par)*pnorm)/fnorm;
-//        prered = temp1*temp1 + (temp2*temp2)/p5;
-//        dirder = -(temp1*temp1 + temp2*temp2);
-//        /*
-//        *       compute the ratio of the actual to the predicted
-//        *       reduction.
-//        */
-//        ratio = zero;
-//        if(prered != zero)
-//            ratio = actred/prered;
-//        /*
-//        *       update the step bound.
-//        */
-//        if(ratio <= p25)
-//            {
-//            if(actred >= zero)
-//                temp = p5;
-//            else
-//                temp = p5*dirder/(dirder + p5*actred);
-//            if( ((p1*fnorm1) >= fnorm)
-//            || (temp < p1) )
-//                temp = p1;
-//               delta = temp*dmin1(delta,pnorm/p1);
-//               par = par/temp;
-//            }
-//        else
-//            {
-//            if( (par == zero) || (ratio >= p75) )
-//                {
-//                delta = pnorm/p5;
-//                par = p5*par;
-//                }
-//            }
-//        /*
-//        *       test for successful iteration.
-//        */
-//        if(ratio >= p0001)
-//            {
-//        /*
-//        *       successful iteration. update x, fvec, and their norms.
-//        */
-//            for( j=0; j<n; j++ )
-//                {
-//                x[j] = wa2[j];
-//                wa2[j] = diag[j]*x[j];
-//                }
-//            for( i=0; i<m; i++ )
-//                fvec[i] = wa4[i];
-//            xnorm = enorm(n,wa2);
-//            fnorm = fnorm1;
-//            iter += 1;
-//            }
-//        /*
-//        *       tests for convergence.
-//        */
-//        if( (Math.fabs(actred) <= ftol)
-//          && (prered <= ftol)
-//          && (p5*ratio <= one) )
-//            *info = 1;
-//        if(delta <= xtol*xnorm)
-//            *info = 2;
-//        if( (Math.fabs(actred) <= ftol)
-//          && (prered <= ftol)
-//          && (p5*ratio <= one)
-//          && ( *info == 2) )
-//            *info = 3;
-//        if( *info != 0)
-//            goto L300;
-//        /*
-//        *       tests for termination and stringent tolerances.
-//        */
-//        if( *nfev >= maxfev)
-//            *info = 5;
-//        if( (Math.fabs(actred) <= MACHEP)
-//          && (prered <= MACHEP)
-//          && (p5*ratio <= one) )
-//            *info = 6;
-//        if(delta <= MACHEP*xnorm)
-//            *info = 7;
-//        if(gnorm <= MACHEP)
-//            *info = 8;
-//        if( *info != 0)
-//            goto L300;
-//        /*
-//        *       end of the inner loop. repeat if iteration unsuccessful.
-//        */
-//        if(ratio < p0001)
-//            goto L200;
-//        /*
-//        *    end of the outer loop.
-//        */
-//        goto L30;
-    //
-//        L300:
-//        /*
-//        *     termination, either normal or user imposed.
-//        */
-//        if(iflag < 0)
-//            *info = iflag;
-//        iflag = 0;
-//        if(nprint > 0)
-//            fcn(m,n,x,fvec,&iflag);
-//        /*
-//              last card of subroutine lmdif.
-//        */
-//    }
+        int info = 0;
+        nfev[0] = 0;
+        /*
+        *     check the input parameters for errors.
+        */
+        if( (n <= 0) || (m < n) || (ftol < zero)
+            || (xtol < zero) || (gtol < zero) || (maxfev <= 0)
+            || (factor <= zero) ) {
+            return info;
+        }
+        if( mode == 2 )
+            { /* scaling by diag[] */
+            for( j=0; j<n; j++ )
+                {
+                if( diag[j] <= 0.0 ) {
+                    return info;
+                }
+                }
+            }
+        /*
+        *     evaluate the function at the starting point
+        *     and calculate its norm.
+        */
+        fcn.fcn(m,n,x,fvec);
+        nfev[0] = 1;
+        fnorm = enorm(m, fvec, 0);
+        /*
+        *     initialize levenberg-marquardt parameter and iteration counter.
+        */
+        par = zero;
+        iter = 1;
+        /*
+        *     beginning of the outer loop.
+        */
+        for(;;)
+        {
+        /*
+        *    calculate the jacobian matrix.
+        */
+        nfev[0] += jacobian.jacobian(m,n,x,fvec,fjac);
+        /*
+        *    compute the qr factorization of the jacobian.
+        */
+        qrfac(m,n,fjac,1,ipvt,wa1,wa2,wa3);
+        /*
+        *    on the first iteration and if mode is 1, scale according
+        *    to the norms of the columns of the initial jacobian.
+        */
+        if(iter == 1)
+            {
+            if(mode != 2)
+                {
+                for( j=0; j<n; j++ )
+                    {
+                    diag[j] = wa2[j];
+                    if( wa2[j] == zero ) {
+                        diag[j] = one;
+                    }
+                    }
+                }
+        /*
+        *    on the first iteration, calculate the norm of the scaled x
+        *    and initialize the step bound delta.
+        */
+            for( j=0; j<n; j++ ) {
+                wa3[j] = diag[j] * x[j];
+            }
+            xnorm = enorm(n, wa3, 0);
+            delta = factor*xnorm;
+            if(delta == zero) {
+                delta = factor;
+            }
+            }
+        /*
+        *    form (q transpose)*fvec and store the first n components in
+        *    qtf.
+        */
+        for( i=0; i<m; i++ ) {
+            wa4[i] = fvec[i];
+        }
+        jj = 0;
+        for( j=0; j<n; j++ )
+            {
+            temp3 = fjac[jj];
+            if(temp3 != zero)
+                {
+                sum = zero;
+                ij = jj;
+                for( i=j; i<m; i++ )
+                    {
+                    sum += fjac[ij] * wa4[i];
+                    ij += 1;    /* fjac[i+m*j] */
+                    }
+                temp = -sum / temp3;
+                ij = jj;
+                for( i=j; i<m; i++ )
+                    {
+                    wa4[i] += fjac[ij] * temp;
+                    ij += 1;    /* fjac[i+m*j] */
+                    }
+                }
+            fjac[jj] = wa1[j];
+            jj += m+1;  /* fjac[j+m*j] */
+            qtf[j] = wa4[j];
+            }
+        /*
+        *    compute the norm of the scaled gradient.
+        */
+        gnorm = zero;
+        if(fnorm != zero)
+            {
+            jj = 0;
+            for( j=0; j<n; j++ )
+                {
+                l = ipvt[j];
+                if(wa2[l] != zero)
+                    {
+                    sum = zero;
+                    ij = jj;
+                    for( i=0; i<=j; i++ )
+                        {
+                        sum += fjac[ij]*(qtf[i]/fnorm);
+                        ij += 1; /* fjac[i+m*j] */
+                        }
+                    gnorm = dmax1(gnorm,Math.abs(sum/wa2[l]));
+                    }
+                jj += m;
+                }
+            }
+        /*
+        *    test for convergence of the gradient norm.
+        */
+        if(gnorm <= gtol) {
+            info = 4;
+        }
+        if( info != 0) {
+            return info;
+        }
+        /*
+        *    rescale if necessary.
+        */
+        if(mode != 2)
+            {
+            for( j=0; j<n; j++ ) {
+                diag[j] = dmax1(diag[j],wa2[j]);
+            }
+            }
+        /*
+        *    beginning of the inner loop.
+        */
+        do {
+        /*
+        *       determine the levenberg-marquardt parameter.
+        */
+            par = lmpar(n,fjac,m,ipvt,diag,qtf,delta,par,wa1,wa2,wa3,wa4);
+        /*
+        *       store the direction p and x + p. calculate the norm of p.
+        */
+            for( j=0; j<n; j++ )
+                {
+                wa1[j] = -wa1[j];
+                wa2[j] = x[j] + wa1[j];
+                wa3[j] = diag[j]*wa1[j];
+                }
+            pnorm = enorm(n, wa3, 0);
+        /*
+        *       on the first iteration, adjust the initial step bound.
+        */
+            if(iter == 1) {
+                delta = dmin1(delta,pnorm);
+            }
+        /*
+        *       evaluate the function at x + p and calculate its norm.
+        */
+            fcn.fcn(m,n,wa2,wa4);
+            nfev[0] += 1;
+            fnorm1 = enorm(m, wa4, 0);
+        /*
+        *       compute the scaled actual reduction.
+        */
+            actred = -one;
+            if( (p1*fnorm1) < fnorm)
+                {
+                temp = fnorm1/fnorm;
+                actred = one - temp * temp;
+                }
+        /*
+        *       compute the scaled predicted reduction and
+        *       the scaled directional derivative.
+        */
+            jj = 0;
+            for( j=0; j<n; j++ )
+                {
+                wa3[j] = zero;
+                l = ipvt[j];
+                temp = wa1[l];
+                ij = jj;
+                for( i=0; i<=j; i++ )
+                    {
+                    wa3[i] += fjac[ij]*temp;
+                    ij += 1; /* fjac[i+m*j] */
+                    }
+                jj += m;
+                }
+            temp1 = enorm(n, wa3, 0)/fnorm;
+            temp2 = (Math.sqrt(par)*pnorm)/fnorm;
+            prered = temp1*temp1 + (temp2*temp2)/p5;
+            dirder = -(temp1*temp1 + temp2*temp2);
+        /*
+        *       compute the ratio of the actual to the predicted
+        *       reduction.
+        */
+            ratio = zero;
+            if(prered != zero) {
+                ratio = actred/prered;
+            }
+        /*
+        *       update the step bound.
+        */
+            if(ratio <= p25)
+                {
+                if(actred >= zero) {
+                    temp = p5;
+                } else {
+                    temp = p5*dirder/(dirder + p5*actred);
+                }
+                if( ((p1*fnorm1) >= fnorm) || (temp < p1) ) {
+                    temp = p1;
+                }
+                delta = temp * dmin1(delta,pnorm/p1);
+                par = par/temp;
+                }
+            else
+                {
+                if( (par == zero) || (ratio >= p75) )
+                    {
+                    delta = pnorm/p5;
+                    par = p5*par;
+                    }
+                }
+        /*
+        *       test for successful iteration.
+        */
+            if(ratio >= p0001)
+                {
+        /*
+        *       successful iteration. update x, fvec, and their norms.
+        */
+                for( j=0; j<n; j++ )
+                    {
+                    x[j] = wa2[j];
+                    wa2[j] = diag[j]*x[j];
+                    }
+                for( i=0; i<m; i++ ) {
+                    fvec[i] = wa4[i];
+                }
+                xnorm = enorm(n, wa2, 0);
+                fnorm = fnorm1;
+                iter += 1;
+                }
+        /*
+        *       tests for convergence.
+        */
+            if( (Math.abs(actred) <= ftol) && (prered <= ftol) && (p5*ratio <= one) ) {
+                info = 1;
+            }
+            if(delta <= xtol*xnorm) {
+                info = 2;
+            }
+            if( (Math.abs(actred) <= ftol) && (prered <= ftol) && (p5*ratio <= one) && (info == 2) ) {
+                info = 3;
+            }
+            if(info != 0) {
+                return info;
+            }
+        /*
+        *       tests for termination and stringent tolerances.
+        */
+            if(nfev[0] >= maxfev) {
+                info = 5;
+            }
+            if( (Math.abs(actred) <= MACHEP) && (prered <= MACHEP) && (p5*ratio <= one) ) {
+                info = 6;
+            }
+            if(delta <= MACHEP*xnorm) {
+                info = 7;
+            }
+            if(gnorm <= MACHEP) {
+                info = 8;
+            }
+            if(info != 0) {
+                return info;
+            }
+        /*
+        *       end of the inner loop. repeat if iteration unsuccessful.
+        */
+        } while(ratio < p0001);
+        /*
+        *    end of the outer loop.
+        */
+        }
+        }
 
 
 
@@ -1696,7 +1803,7 @@ public class Minpack {
             return(b);
         }
 
-        private double dmin1(final double a,final double b)
+        private static double dmin1(final double a,final double b)
         {
         if( a <= b )
             return(a);
@@ -41,8 +41,8 @@
 
 package org.jquantlib.math.statistics;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.jquantlib.QL;
@@ -74,6 +74,10 @@ import org.jquantlib.util.Pair;
  * It doesn't suffer the numerical instability problem of
  * IncrementalStatistics. The downside is that it stores all
  * samples, thus increasing the memory requirements.
+ * <p>
+ * Values and weights are kept in parallel arrays of primitives which grow
+ * geometrically. When all samples have unit weight, percentiles are obtained
+ * by selection in linear expected time instead of sorting the whole data set.
  * 
  * @author Praneet Tiwari
  * @author Richard Gomes
@@ -81,8 +85,13 @@ import org.jquantlib.util.Pair;
 @QualityAssurance(quality = Quality.Q4_UNIT, reviewers = { "Richard Gomes" }, version = Version.V097)
 public abstract class GeneralStatistics {
 	
-    private List<ComparablePair<Double, Double>> samples;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private double[] values;
+    private double[] weights;
+    private int size;
     private boolean sorted;
+    private boolean unweighted;
         
     private static final String EMPTY_SAMPLE_SET = "empty sample set";
     private static final String NEGATIVE_WEIGHT_NOT_ALLOWED = "negative weight not allowed";
@@ -144,8 +153,11 @@ public abstract class GeneralStatistics {
      * resets the data to a null set
      */
     public void reset() {
-    	samples = new ArrayList<ComparablePair<Double, Double>>();
+        values = new double[INITIAL_CAPACITY];
+        weights = new double[INITIAL_CAPACITY];
+        size = 0;
         sorted = true;
+        unweighted = true;
     }
 
     /**
@@ -153,23 +165,67 @@ public abstract class GeneralStatistics {
      */
     public void sort() /*@ReadOnly*/ {
         if (!sorted) {
-            Collections.sort(samples);
+            if (unweighted) {
+                Arrays.sort(values, 0, size);
+            } else {
+                sort(values, weights, 0, size - 1);
+            }
             sorted = true;
         }
     }
     
     public /*@Size*/ int samples() /*@ReadOnly*/ {
-        return samples.size();
+        return size;
     }
 
+    /**
+     * Returns a read-only view of the samples as pairs of value and weight.
+     * <p>
+     * Pairs are created on demand; use {@link #values()} and {@link #weights()} for bulk access.
+     */
     public List<ComparablePair<Double, Double>> data() /*@ReadOnly*/ {
-    	return Collections.unmodifiableList(samples);
+        return new AbstractList<ComparablePair<Double, Double>>() {
+            @Override
+            public ComparablePair<Double, Double> get(final int index) {
+                if (index < 0 || index >= size)
+                    throw new IndexOutOfBoundsException();
+                return new ComparablePair<Double, Double>(values[index], weights[index]);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * @return a copy of the values of the samples
+     */
+    public double[] values() /*@ReadOnly*/ {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * @return a copy of the weights of the samples
+     */
+    public double[] weights() /*@ReadOnly*/ {
+        return Arrays.copyOf(weights, size);
+    }
+
+    /**
+     * @return <code>true</code> if all samples have unit weight
+     */
+    public boolean isUnweighted() /*@ReadOnly*/ {
+        return unweighted;
     }
 
     public /*@Real*/ double weightSum() /*@ReadOnly*/ {
+        if (unweighted)
+            return size;
         /*@Real*/ double result = 0.0;
-        for (final ComparablePair<Double, Double> it : samples) {
-        	result += it.second();
+        for (int i = 0; i < size; i++) {
+        	result += weights[i];
         }
         return result;
     }
@@ -235,21 +291,37 @@ public abstract class GeneralStatistics {
 
     public /*@Real*/ double min() /*@ReadOnly*/ {
         QL.require(samples()>0, EMPTY_SAMPLE_SET);
-        return Collections.min(samples).first();
+        if (sorted)
+            return values[0];
+        double result = values[0];
+        for (int i = 1; i < size; i++) {
+            if (values[i] < result) {
+                result = values[i];
+            }
+        }
+        return result;
     }
 
     public /*@Real*/ double max() /*@ReadOnly*/ {
         QL.require(samples()>0, EMPTY_SAMPLE_SET);
-        return Collections.max(samples).first();
+        if (sorted)
+            return values[size-1];
+        double result = values[0];
+        for (int i = 1; i < size; i++) {
+            if (values[i] > result) {
+                result = values[i];
+            }
+        }
+        return result;
     }
 
     public final Pair<Double, Integer> expectationValue(final Ops.DoubleOp f, final Ops.DoublePredicate inRange) {
         double num = 0.0;
         double den = 0.0;
         int n = 0;
-        for (final ComparablePair<Double, Double> element : samples) {
-            final double x = element.first();
-            final double w = element.second();
+        for (int i = 0; i < size; i++) {
+            final double x = values[i];
+            final double w = weights[i];
             if (inRange.op(x)) {
                 num += f.op(x) * w;
                 den += w;
@@ -267,19 +339,24 @@ public abstract class GeneralStatistics {
         /*@Real*/ final double sampleWeight = weightSum();
         QL.require(sampleWeight>0.0, "empty sample set");
 
+        /*@Real*/ final double target = percent*sampleWeight;
+
+        if (unweighted)
+            // the k-th smallest sample is the first one where the cumulated weight (k+1) reaches the target
+            return order(Math.min(size-1, Math.max(0, (int) Math.ceil(target) - 1)));
+
         sort();
 
-        int k = 0; final int l = samples.size()-1;
+        int k = 0; final int l = size-1;
         
         /* the sum of weight is non null, therefore there's at least one sample */
-        /*@Real*/ double integral = samples.get(k).second();
-        /*@Real*/ final double target = percent*sampleWeight;
+        /*@Real*/ double integral = weights[k];
         
         while (integral < target && k != l) {
         	k++;
-            integral += samples.get(k).second();
+            integral += weights[k];
         }
-        return samples.get(k).first();
+        return values[k];
     }
 
     public /*@Real*/ double topPercentile(final /*@Real*/ double percent) /*@ReadOnly*/ {
@@ -287,19 +364,23 @@ public abstract class GeneralStatistics {
         /*@Real*/ final double sampleWeight = weightSum();
         QL.require(sampleWeight > 0.0, "empty sample set");
 
+        /*@Real*/ final double target = percent*sampleWeight;
+
+        if (unweighted)
+            return order(size-1 - Math.min(size-1, Math.max(0, (int) Math.ceil(target) - 1)));
+
         sort();
 
-        int k = samples.size()-1; final int l = 0;
+        int k = size-1; final int l = 0;
         
         /* the sum of weight is non null, therefore there's at least one sample */
-        /*@Real*/ double integral = samples.get(k).second();
-        /*@Real*/ final double target = percent*sampleWeight;
+        /*@Real*/ double integral = weights[k];
         
         while (integral < target && k != l) {
         	k--;
-            integral += samples.get(k).second();
+            integral += weights[k];
         }
-        return samples.get(k).first();
+        return values[k];
     }
     
     public void add(/*@Real*/ final double value) {
@@ -308,8 +389,161 @@ public abstract class GeneralStatistics {
     
     public void add(/*@Real*/ final double value, /*@Real*/ final double weight) {
         QL.require(weight>=0.0, NEGATIVE_WEIGHT_NOT_ALLOWED);
-        samples.add(new ComparablePair<Double, Double>(value, weight));
+        if (size == values.length) {
+            final int capacity = size + (size >> 1) + 1;
+            values = Arrays.copyOf(values, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        values[size] = value;
+        weights[size] = weight;
+        size++;
         sorted = false;
+        unweighted &= (weight == 1.0);
     }
-    
+
+    /**
+     * adds the samples of another statistics tool to the set
+     * <p>
+     * <code>other</code> is not modified.
+     */
+    public void merge(final GeneralStatistics other) {
+        final int n = other.samples();
+        if (n == 0)
+            return;
+        final double[] otherValues = other.sampleValues();
+        final double[] otherWeights = other.sampleWeights();
+        final boolean otherUnweighted = other.isUnweighted();
+        if (size + n > values.length) {
+            final int capacity = Math.max(size + n, size + (size >> 1) + 1);
+            values = Arrays.copyOf(values, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        System.arraycopy(otherValues, 0, values, size, n);
+        System.arraycopy(otherWeights, 0, weights, size, n);
+        size += n;
+        sorted = false;
+        unweighted &= otherUnweighted;
+    }
+
+
+    //
+    // protected methods
+    //
+
+    /**
+     * Gives extended classes direct access to the values of the samples, without copying.
+     * <p>
+     * Only the first {@link #samples()} elements are meaningful and the array must not be modified.
+     */
+    protected final double[] sampleValues() /*@ReadOnly*/ {
+        return values;
+    }
+
+    /**
+     * Gives extended classes direct access to the weights of the samples, without copying.
+     * <p>
+     * Only the first {@link #samples()} elements are meaningful and the array must not be modified.
+     */
+    protected final double[] sampleWeights() /*@ReadOnly*/ {
+        return weights;
+    }
+
+
+    //
+    // private methods
+    //
+
+    /**
+     * Returns the k-th smallest value, partially reordering samples by quickselect when they are not sorted.
+     * <p>
+     * This method is only meant to be used when all samples have unit weight, so that samples can be freely reordered.
+     */
+    private double order(final int k) {
+        if (sorted)
+            return values[k];
+        final double[] a = values;
+        int lo = 0;
+        int hi = size-1;
+        while (hi > lo) {
+            // median of three
+            final int mid = (lo + hi) >>> 1;
+            if (a[mid] < a[lo]) swap(a, mid, lo);
+            if (a[hi] < a[lo]) swap(a, hi, lo);
+            if (a[hi] < a[mid]) swap(a, hi, mid);
+            final double pivot = a[mid];
+
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (a[i] < pivot) i++;
+                while (a[j] > pivot) j--;
+                if (i <= j) {
+                    swap(a, i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else
+                return a[k];
+        }
+        return a[k];
+    }
+
+    private static void swap(final double[] a, final int i, final int j) {
+        final double tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+
+    /**
+     * Sorts values in increasing order in the closed range [lo, hi], moving weights together with their values
+     */
+    private static void sort(final double[] v, final double[] w, int lo, int hi) {
+        while (hi - lo > 16) {
+            final int mid = (lo + hi) >>> 1;
+            if (v[mid] < v[lo]) { swap(v, mid, lo); swap(w, mid, lo); }
+            if (v[hi] < v[lo]) { swap(v, hi, lo); swap(w, hi, lo); }
+            if (v[hi] < v[mid]) { swap(v, hi, mid); swap(w, hi, mid); }
+            final double pivot = v[mid];
+
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (v[i] < pivot) i++;
+                while (v[j] > pivot) j--;
+                if (i <= j) {
+                    swap(v, i, j);
+                    swap(w, i, j);
+                    i++;
+                    j--;
+                }
+            }
+            // recurse on the smaller partition, iterate on the larger one
+            if (j - lo < hi - i) {
+                sort(v, w, lo, j);
+                lo = i;
+            } else {
+                sort(v, w, i, hi);
+                hi = j;
+            }
+        }
+        // insertion sort for small ranges
+        for (int i = lo + 1; i <= hi; i++) {
+            final double x = v[i];
+            final double y = w[i];
+            int j = i - 1;
+            while (j >= lo && v[j] > x) {
+                v[j + 1] = v[j];
+                w[j + 1] = w[j];
+                j--;
+            }
+            v[j + 1] = x;
+            w[j + 1] = y;
+        }
+    }
+
 }
@@ -40,27 +40,10 @@
 
 package org.jquantlib.math.statistics;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.jquantlib.QL;
 import org.jquantlib.lang.annotation.QualityAssurance;
 import org.jquantlib.lang.annotation.QualityAssurance.Quality;
 import org.jquantlib.lang.annotation.QualityAssurance.Version;
-import org.jquantlib.math.Ops;
-import org.jquantlib.math.functions.Bind1st;
-import org.jquantlib.math.functions.Bind1stPredicate;
-import org.jquantlib.math.functions.Bind2nd;
-import org.jquantlib.math.functions.Bind2ndPredicate;
-import org.jquantlib.math.functions.Clipped;
-import org.jquantlib.math.functions.Constant;
-import org.jquantlib.math.functions.Expression;
-import org.jquantlib.math.functions.Identity;
-import org.jquantlib.math.functions.LessThanPredicate;
-import org.jquantlib.math.functions.Minus;
-import org.jquantlib.math.functions.Square;
-import org.jquantlib.math.functions.TruePredicate;
-import org.jquantlib.util.Pair;
 
 /**
  * empirical-distribution risk measures
@@ -70,6 +53,10 @@ import org.jquantlib.util.Pair;
  * shortfall, etc.) based on the data distribution as reported by
  * the underlying statistic tool.
  * <p>
+ * Measures are calculated by single loops over the values and weights stored
+ * by {@link GeneralStatistics}; {@link #riskMeasures(double, double)} obtains
+ * several of them from the same pass.
+ * <p>
  * @todo add historical annualized volatility
  * 
  * @author Ueli Hofstetter
@@ -139,19 +126,23 @@ public class GenericRiskStatistics extends GaussianStatistics {
 	 */
 	public /*@Real*/ double regret(final /*@Real*/ double target) /*@ReadOnly*/ {
 		// average over the range below the target
-
-		final List<Ops.DoubleOp> functions = new ArrayList<Ops.DoubleOp>();
-		functions.add(new Square());
-		functions.add(new Bind2nd(new Minus(), target));
-		final Expression comp = new Expression(functions);
-		final Ops.DoublePredicate less = new Bind2ndPredicate(new LessThanPredicate(), target);
-
-		final Pair<Double, Integer> result = expectationValue(comp, less);
-		final double x = result.first();
-
-		final int n = result.second().intValue();
+		final double[] v = sampleValues();
+		final double[] w = sampleWeights();
+		final int size = samples();
+		double num = 0.0;
+		double den = 0.0;
+		int n = 0;
+		for (int i = 0; i < size; i++) {
+			final double x = v[i];
+			if (x < target) {
+				final double d = x - target;
+				num += d * d * w[i];
+				den += w[i];
+				n++;
+			}
+		}
 		QL.require(n >= 2 , UNSUFFICIENT_SAMPLES_UNDER_TARGET);
-		return (n/(n-1.0))*x;
+		return (n/(n-1.0))*(num/den);
 	}
 
 	/**
@@ -190,16 +181,24 @@ public class GenericRiskStatistics extends GaussianStatistics {
 		
 		final double target = -valueAtRisk(centile);
 
-		final Ops.DoublePredicate less = new Bind2ndPredicate(new LessThanPredicate(), target);
-		final Pair<Double, Integer> result = expectationValue(new Identity(), less);
-
-		final double x = result.first();
-		final Integer N = result.second();
-
-		QL.ensure(N != 0, NO_DATA_BELOW_THE_TARGET);
+		final double[] v = sampleValues();
+		final double[] w = sampleWeights();
+		final int size = samples();
+		double num = 0.0;
+		double den = 0.0;
+		int n = 0;
+		for (int i = 0; i < size; i++) {
+			final double x = v[i];
+			if (x < target) {
+				num += x * w[i];
+				den += w[i];
+				n++;
+			}
+		}
+
+		QL.ensure(n != 0, NO_DATA_BELOW_THE_TARGET);
 		// must be a loss, i.e., capped at 0.0 and negated
-		return -Math.min(x, 0.0);
-
+		return -Math.min(num/den, 0.0);
 	}
 
 	/**
@@ -216,8 +215,18 @@ public class GenericRiskStatistics extends GaussianStatistics {
 	public /*@Real*/ double shortfall(final /*@Real*/ double target) /*@ReadOnly*/ {
 		QL.ensure(samples() != 0, EMPTY_SAMPLE_SET);
 
-		final Ops.DoublePredicate less = new Bind2ndPredicate(new LessThanPredicate(), target);
-		return expectationValue(new Clipped(less, new Constant(1.0)), new TruePredicate()).first();
+		final double[] v = sampleValues();
+		final double[] w = sampleWeights();
+		final int size = samples();
+		double num = 0.0;
+		double den = 0.0;
+		for (int i = 0; i < size; i++) {
+			if (v[i] < target) {
+				num += w[i];
+			}
+			den += w[i];
+		}
+		return num/den;
 	}
 
 	/**
@@ -225,15 +234,99 @@ public class GenericRiskStatistics extends GaussianStatistics {
 	 * {@latex[ \mathrm{E}\left[ t-x \;|\; x<t \right] }
 	 */
 	public /*@Real*/ double averageShortfall(final /*@Real*/ double target) /*@ReadOnly*/ {
+		final double[] v = sampleValues();
+		final double[] w = sampleWeights();
+		final int size = samples();
+		double num = 0.0;
+		double den = 0.0;
+		int n = 0;
+		for (int i = 0; i < size; i++) {
+			final double x = v[i];
+			if (x < target) {
+				num += (target - x) * w[i];
+				den += w[i];
+				n++;
+			}
+		}
+		QL.ensure(n != 0, NO_DATA_BELOW_THE_TARGET);
+		return num/den;
+	}
+
+	/**
+	 * Calculates value-at-risk and expected shortfall at a given percentile, together with regret, shortfall
+	 * and averaged shortfallness below a given target, by a single selection and a single pass over the samples.
+	 * <p>
+	 * Measures which are not defined for the data set, e.g: regret when less than two samples lie below the target,
+	 * are returned as <code>Double.NaN</code> instead of throwing an exception.
+	 *
+	 * @param centile is the percentile of value-at-risk and expected shortfall
+	 * @param target is the target of regret, shortfall and averaged shortfallness
+	 */
+	public RiskMeasures riskMeasures(final /*@Real*/ double centile, final /*@Real*/ double target) /*@ReadOnly*/ {
+		QL.require(centile>=0.9 && centile<1.0, "percentile out of range [0.9, 1.0)");
+		QL.ensure(samples() != 0, EMPTY_SAMPLE_SET);
+
+		final double valueAtRisk = valueAtRisk(centile);
+		final double esTarget = -valueAtRisk;
+
+		final double[] v = sampleValues();
+		final double[] w = sampleWeights();
+		final int size = samples();
+		double esNum = 0.0, esDen = 0.0;
+		double regretNum = 0.0, shortfallNum = 0.0, belowDen = 0.0;
+		int below = 0;
+		double weightSum = 0.0;
+		for (int i = 0; i < size; i++) {
+			final double x = v[i];
+			final double wi = w[i];
+			weightSum += wi;
+			if (x < esTarget) {
+				esNum += x * wi;
+				esDen += wi;
+			}
+			if (x < target) {
+				final double d = target - x;
+				regretNum += d * d * wi;
+				shortfallNum += d * wi;
+				belowDen += wi;
+				below++;
+			}
+		}
+
+		final double expectedShortfall = (esDen == 0.0) ? Double.NaN : -Math.min(esNum/esDen, 0.0);
+		final double regret = (below < 2) ? Double.NaN : (below/(below-1.0))*(regretNum/belowDen);
+		final double shortfall = belowDen/weightSum;
+		final double averageShortfall = (below == 0) ? Double.NaN : shortfallNum/belowDen;
+		return new RiskMeasures(valueAtRisk, expectedShortfall, regret, shortfall, averageShortfall);
+	}
 
-		final Ops.DoubleOp minus = new Bind1st(target, new Minus());
-		final Ops.DoublePredicate less = new Bind1stPredicate(target, new LessThanPredicate());
-		final Pair<Double, Integer> result = expectationValue(minus, less);
 
-		final double x = result.first();
-		final Integer N = result.second();
-		QL.ensure(N != 0, NO_DATA_BELOW_THE_TARGET);
-		return x;
+	//
+	// public inner classes
+	//
+
+	/**
+	 * Risk measures calculated together by {@link GenericRiskStatistics#riskMeasures(double, double)}
+	 */
+	public static class RiskMeasures {
+		public final double valueAtRisk;
+		public final double expectedShortfall;
+		public final double regret;
+		public final double shortfall;
+		public final double averageShortfall;
+
+		public RiskMeasures(
+				final double valueAtRisk,
+				final double expectedShortfall,
+				final double regret,
+				final double shortfall,
+				final double averageShortfall) {
+			this.valueAtRisk = valueAtRisk;
+			this.expectedShortfall = expectedShortfall;
+			this.regret = regret;
+			this.shortfall = shortfall;
+			this.averageShortfall = averageShortfall;
+		}
 	}
 
 }
@@ -54,6 +54,12 @@ import org.jquantlib.math.matrixutilities.Matrix;
  * N-dimensional (sequence) statistics (e.g. mean,
  * variance, skewness, kurtosis, etc.) with one component for each
  * dimension of the sample space.
+ * <p>
+ * Covariances are obtained from the weighted sums of products of deviations
+ * from the means, which are accumulated online in a packed upper-triangular
+ * array. Blocks of samples added by {@link #addSequences(double[][], double[])}
+ * are combined by a rank-<i>k</i> update, performed on tiles of rows of the
+ * packed array which fit in cache.
  * 
  * @author Ueli Hofstetter
  * @author Richard Gomes
@@ -65,11 +71,20 @@ public class GenericSequenceStatistics {
 	private static final String UNSUFFICIENT_SAMPLE_NUMBER = "sample number <=1, unsufficient";
 	private static final String NULL_DIMENSION			 = "sample error: null dimension";
 	private static final String SAMPLE_SIZE_MISMATCH	   = "sample size mismatch";
+	private static final String INCOMPATIBLE_ARRAY_SIZES   = "incompatible array sizes";
+
+	// number of elements of the packed array updated by each tile of a rank-k update
+	private static final int TILE_SIZE = 8192;
 
 	protected /*@Size*/ int dimension_;
 	protected Statistics[] stats;
-	protected Matrix quadraticSum;
 	private /*@Real*/ double[] results;
+
+	// packed upper triangle, row by row, of the weighted sums of products of deviations from the means
+	private /*@Real*/ double[] comoments;
+	private /*@Real*/ double[] means;
+	private /*@Real*/ double weight;
+	private /*@Real*/ double[] deviations;
 	
 	
 	public GenericSequenceStatistics() {
@@ -102,13 +117,16 @@ public class GenericSequenceStatistics {
 		final /*@Real*/ double sampleNumber = samples();
 		QL.require(sampleNumber > 1.0, UNSUFFICIENT_SAMPLE_NUMBER);
 
-		final Array m = mean();
-		final /*@Real*/ double inv = 1.0/sampleWeight;
-
-		final Matrix result = quadraticSum.mul(inv);
-		result.subAssign(m.outerProduct(m));
-
-		result.mulAssign( sampleNumber/(sampleNumber-1.0) );
+		final /*@Real*/ double factor = sampleNumber/(sampleNumber-1.0)/weight;
+		final Matrix result = new Matrix(dimension_, dimension_);
+		int p = 0;
+		for (/*@Size*/ int i=0; i<dimension_; i++) {
+			for (/*@Size*/ int j=i; j<dimension_; j++) {
+				final /*@Real*/ double c = comoments[p++]*factor;
+				result.set(i, j, c);
+				result.set(j, i, c);
+			}
+		}
 		return result;
 	}
 
@@ -339,12 +357,38 @@ public class GenericSequenceStatistics {
 				}
 				results = new double[dimension];
 			}
-			quadraticSum = new Matrix(dimension_, dimension_);
+			comoments = new double[dimension_*(dimension_+1)/2];
+			means = new double[dimension_];
+			deviations = new double[dimension_];
+			weight = 0.0;
 		} else {
 			dimension_ = dimension;
 		}
 	}
 
+	/**
+	 * adds the data accumulated by another instance to the set
+	 * <p>
+	 * Statistics of each dimension and covariances are merged, so that each thread
+	 * may accumulate its own samples and results are combined afterwards.
+	 * <code>other</code> is not modified.
+	 */
+	public void merge(final GenericSequenceStatistics other) {
+		if (other.dimension_ == 0 || other.samples() == 0)
+			return;
+		if (dimension_ == 0) {
+			reset(other.dimension_);
+		}
+		QL.require(other.dimension_ == dimension_, SAMPLE_SIZE_MISMATCH);
+		for (/* @Size */int i = 0; i < dimension_; i++) {
+			stats[i].merge(other.stats[i]);
+		}
+		for (int p = 0; p < comoments.length; p++) {
+			comoments[p] += other.comoments[p];
+		}
+		combine(other.weight, other.means);
+	}
+
     /**
      * adds a sequence of data to the set, with default weight
      */
@@ -363,11 +407,120 @@ public class GenericSequenceStatistics {
 			reset(/* @Size */dimension);
 		}
 		QL.require(datum.length == dimension_, SAMPLE_SIZE_MISMATCH);
-		final Array array = new Array(datum);
-		quadraticSum.addAssign(array.outerProduct(array).mulAssign(weight));
 		for (/* @Size */int i = 0; i < dimension_; i++) {
 			stats[i].add(datum[i], weight);
 		}
+		if (weight == 0.0)
+			return;
+
+		// rank-1 update: C += w (1-w/W) d d', where d are deviations from the previous means
+		this.weight += weight;
+		final /*@Real*/ double r = weight/this.weight;
+		for (/* @Size */int i = 0; i < dimension_; i++) {
+			deviations[i] = datum[i] - means[i];
+			means[i] += deviations[i]*r;
+		}
+		update(deviations, weight*(1.0-r));
+	}
+
+	/**
+	 * adds a block of sequences of data to the set, with default weight
+	 */
+	public void addSequences(final double[][] data) {
+		addSequences(data, null);
+	}
+
+	/**
+	 * adds a block of sequences of data to the set, each with its weight
+	 * <p>
+	 * The contribution of the block to covariances is obtained by a rank-<i>k</i>
+	 * update on its deviations from its own means, which are then merged with the
+	 * accumulated ones.
+	 *
+	 * @param data contains one sequence of data per row
+	 * @param weights are the weights of the sequences; <code>null</code> means default weight
+	 */
+	public void addSequences(final double[][] data, final double[] weights) {
+		final int k = data.length;
+		if (k == 0)
+			return;
+		QL.require(weights == null || weights.length == k, INCOMPATIBLE_ARRAY_SIZES);
+		if (dimension_ == 0) {
+			// stat wasn't initialized yet
+			final /*@Integer*/ int dimension = data[0].length;
+			QL.require(dimension > 0, NULL_DIMENSION);
+			reset(/* @Size */dimension);
+		}
+		final int n = dimension_;
+		for (int r = 0; r < k; r++) {
+			QL.require(data[r].length == n, SAMPLE_SIZE_MISMATCH);
+		}
+
+		// one-dimensional statistics and means of the block
+		final /*@Real*/ double[] blockMeans = new double[n];
+		/*@Real*/ double blockWeight = 0.0;
+		for (int r = 0; r < k; r++) {
+			final double[] x = data[r];
+			final /*@Real*/ double w = (weights == null) ? 1.0 : weights[r];
+			for (/* @Size */int i = 0; i < n; i++) {
+				stats[i].add(x[i], w);
+				blockMeans[i] += w*x[i];
+			}
+			blockWeight += w;
+		}
+		if (blockWeight == 0.0)
+			return;
+		for (/* @Size */int i = 0; i < n; i++) {
+			blockMeans[i] /= blockWeight;
+		}
+
+		// deviations from the means of the block, one row per sequence
+		final /*@Real*/ double[] y = new double[k*n];
+		for (int r = 0, base = 0; r < k; r++, base += n) {
+			final double[] x = data[r];
+			for (/* @Size */int i = 0; i < n; i++) {
+				y[base+i] = x[i] - blockMeans[i];
+			}
+		}
+
+		// rank-k update, tile by tile, so that each tile stays in cache while all rows of the block are applied;
+		// rows are applied four at a time, so that each element of the tile is loaded and stored once per four rows
+		final int rowsPerTile = Math.max(1, TILE_SIZE/n);
+		for (int i0 = 0; i0 < n; i0 += rowsPerTile) {
+			final int i1 = Math.min(n, i0 + rowsPerTile);
+			final int p0 = offset(i0);
+			int r = 0;
+			for (; r + 4 <= k; r += 4) {
+				final int b0 = r*n, b1 = b0+n, b2 = b1+n, b3 = b2+n;
+				final /*@Real*/ double w0 = (weights == null) ? 1.0 : weights[r];
+				final /*@Real*/ double w1 = (weights == null) ? 1.0 : weights[r+1];
+				final /*@Real*/ double w2 = (weights == null) ? 1.0 : weights[r+2];
+				final /*@Real*/ double w3 = (weights == null) ? 1.0 : weights[r+3];
+				int p = p0;
+				for (int i = i0; i < i1; i++) {
+					final /*@Real*/ double a0 = w0*y[b0+i];
+					final /*@Real*/ double a1 = w1*y[b1+i];
+					final /*@Real*/ double a2 = w2*y[b2+i];
+					final /*@Real*/ double a3 = w3*y[b3+i];
+					for (int j = i; j < n; j++) {
+						comoments[p++] += a0*y[b0+j] + a1*y[b1+j] + a2*y[b2+j] + a3*y[b3+j];
+					}
+				}
+			}
+			for (; r < k; r++) {
+				final int base = r*n;
+				final /*@Real*/ double w = (weights == null) ? 1.0 : weights[r];
+				int p = p0;
+				for (int i = i0; i < i1; i++) {
+					final /*@Real*/ double a = w*y[base+i];
+					for (int j = i; j < n; j++) {
+						comoments[p++] += a*y[base+j];
+					}
+				}
+			}
+		}
+
+		combine(blockWeight, blockMeans);
 	}
 
     /**
@@ -388,10 +541,53 @@ public class GenericSequenceStatistics {
 			reset(/* @Size */dimension);
 		}
 		QL.require(datum.size() == dimension_, SAMPLE_SIZE_MISMATCH);
-		quadraticSum.addAssign(datum.outerProduct(datum).mulAssign(weight));
+		final /*@Real*/ double[] x = new double[dimension_];
+		for (/* @Size */int i = 0; i < dimension_; i++) {
+			x[i] = datum.$[datum._(i)];
+		}
+		add(x, weight);
+	}
+
+
+	//
+	// private methods
+	//
+
+	/**
+	 * @return the position of the diagonal element of row <i>i</i> in the packed array
+	 */
+	private int offset(final int i) {
+		return i*dimension_ - i*(i-1)/2;
+	}
+
+	/**
+	 * Adds {@latex$ f \, d d^T } to the packed array
+	 */
+	private void update(final /*@Real*/ double[] d, final /*@Real*/ double f) {
+		int p = 0;
+		for (/* @Size */int i = 0; i < dimension_; i++) {
+			final /*@Real*/ double a = f*d[i];
+			for (/* @Size */int j = i; j < dimension_; j++) {
+				comoments[p++] += a*d[j];
+			}
+		}
+	}
+
+	/**
+	 * Combines means with the means of another set of data, whose sums of products of deviations
+	 * were already added to the packed array, correcting covariances for the difference of means.
+	 */
+	private void combine(final /*@Real*/ double otherWeight, final /*@Real*/ double[] otherMeans) {
+		if (otherWeight == 0.0)
+			return;
+		final /*@Real*/ double w = weight + otherWeight;
+		final /*@Real*/ double r = otherWeight/w;
 		for (/* @Size */int i = 0; i < dimension_; i++) {
-			stats[i].add(datum.$[datum._(i)], weight);
+			deviations[i] = otherMeans[i] - means[i];
+			means[i] += deviations[i]*r;
 		}
+		update(deviations, weight*r);
+		weight = w;
 	}
 
 }
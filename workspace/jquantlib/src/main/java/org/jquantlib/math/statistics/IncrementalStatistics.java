@@ -54,9 +54,18 @@ import org.jquantlib.math.matrixutilities.Array;
  * It can accumulate a set of data and return statistics (e.g: mean,
  * variance, skewness, kurtosis, error estimation, etc.)
  * <p>
- * @warning high moments are numerically unstable for high
- *          average/standardDeviation ratios.
- *          
+ * Moments are accumulated about the running mean, so that high moments remain
+ * accurate for high average/standardDeviation ratios. Instances which
+ * accumulated different sets of data can be combined by {@link #merge(IncrementalStatistics)},
+ * which allows each thread to accumulate its own samples without locking and
+ * results to be combined afterwards.
+ *
+ * @see Chan, Golub and LeVeque, "Updating Formulae and a Pairwise Algorithm for
+ *      Computing Sample Variances", Stanford CS Technical Report (1979)
+ * @see Pebay, "Formulas for Robust, One-Pass Parallel Computation of Covariances
+ *      and Arbitrary-Order Statistical Moments", Sandia Report (2008)
+ *
+
  * @author Ueli Hofstetter
  * @author Richard Gomes
  */
@@ -76,8 +85,10 @@ public class IncrementalStatistics extends GenericRiskStatistics {
     protected /*@Size*/ int sampleNumber_;
     protected /*@Size*/ int downsideSampleNumber_;
     protected /*@Real*/ double sampleWeight_, downsideSampleWeight_;
-    protected /*@Real*/ double sum_, quadraticSum_, downsideQuadraticSum_;
-    protected /*@Real*/ double cubicSum_, fourthPowerSum_;
+    protected /*@Real*/ double downsideQuadraticSum_;
+    protected /*@Real*/ double mean_;
+    // weighted sums of the powers of the deviations from mean_
+    protected /*@Real*/ double centralQuadraticSum_, centralCubicSum_, centralFourthPowerSum_;
     protected /*@Real*/ double min_, max_;
 
 
@@ -114,7 +125,7 @@ public class IncrementalStatistics extends GenericRiskStatistics {
     @Override
     public /*@Real*/ double mean() /*@ReadOnly*/ {
         QL.require(sampleWeight_>0.0, UNSUFFICIENT_SAMPLE_WEIGHT);
-        return sum_/sampleWeight_;
+        return mean_;
     }
 
     /**
@@ -127,9 +138,7 @@ public class IncrementalStatistics extends GenericRiskStatistics {
         QL.require(sampleWeight_>0.0, UNSUFFICIENT_SAMPLE_WEIGHT);
         QL.require(sampleNumber_>1, UNSUFFICIENT_SAMPLE_NUMBER);
 
-        /*@Real*/ double m = mean();
-        /*@Real*/ double v = quadraticSum_/sampleWeight_;
-        v -= m*m;
+        /*@Real*/ double v = centralQuadraticSum_/sampleWeight_;
         v *= sampleNumber_/(sampleNumber_-1.0);
 
         QL.ensure(v >= 0.0, NEGATIVE_VARIANCE);
@@ -201,10 +210,7 @@ public class IncrementalStatistics extends GenericRiskStatistics {
 
         if (s==0.0) return 0.0;
 
-        /*@Real*/ double m = mean();
-        /*@Real*/ double result = cubicSum_/sampleWeight_;
-        result -= 3.0*m*(quadraticSum_/sampleWeight_);
-        result += 2.0*m*m*m;
+        /*@Real*/ double result = centralCubicSum_/sampleWeight_;
         result /= s*s*s;
         result *= sampleNumber_/(sampleNumber_-1.0);
         result *= sampleNumber_/(sampleNumber_-2.0);
@@ -223,7 +229,6 @@ public class IncrementalStatistics extends GenericRiskStatistics {
     public /*@Real*/ double kurtosis() /*@ReadOnly*/ {
         QL.require(sampleNumber_>3, UNSUFFICIENT_SAMPLE_NUMBER_3);
 
-        /*@Real*/ double m = mean();
         /*@Real*/ double v = variance();
 
         /*@Real*/ double c = (sampleNumber_-1.0)/(sampleNumber_-2.0);
@@ -232,10 +237,7 @@ public class IncrementalStatistics extends GenericRiskStatistics {
 
         if (v==0) return c;
 
-        /*@Real*/ double result = fourthPowerSum_/sampleWeight_;
-        result -= 4.0*m*(cubicSum_/sampleWeight_);
-        result += 6.0*m*m*(quadraticSum_/sampleWeight_);
-        result -= 3.0*m*m*m*m;
+        /*@Real*/ double result = centralFourthPowerSum_/sampleWeight_;
         result /= v*v;
         result *= sampleNumber_/(sampleNumber_-1.0);
         result *= sampleNumber_/(sampleNumber_-2.0);
@@ -329,21 +331,12 @@ public class IncrementalStatistics extends GenericRiskStatistics {
         sampleNumber_++;
         QL.ensure(sampleNumber_ > oldSamples, MAX_NUMBER_OF_SAMPLES_REACHED);
 
-        sampleWeight_ += weight;
-
-        /*@Real*/ double temp = weight*value;
-        sum_ += temp;
-        temp *= value;
-        quadraticSum_ += temp;
+        combine(weight, value, 0.0, 0.0, 0.0);
         if (value<0.0) {
-            downsideQuadraticSum_ += temp;
+            downsideQuadraticSum_ += weight*value*value;
             downsideSampleNumber_++;
             downsideSampleWeight_ += weight;
         }
-        temp *= value;
-        cubicSum_ += temp;
-        temp *= value;
-        fourthPowerSum_ += temp;
         if (oldSamples == 0) {
             min_ = max_ = value;
         } else {
@@ -351,9 +344,51 @@ public class IncrementalStatistics extends GenericRiskStatistics {
             max_ = Math.max(value, max_);
         }
     }
-        
-        
-        
+
+    /**
+     * adds the data accumulated by another instance to the set
+     * <p>
+     * The result is the same, up to rounding, as if the data added to
+     * <code>other</code> had been added to this instance. <code>other</code>
+     * is not modified.
+     */
+    public void merge(final IncrementalStatistics other) {
+        if (other.sampleNumber_ == 0)
+            return;
+
+        /*@Size*/ final int oldSamples = sampleNumber_;
+        sampleNumber_ += other.sampleNumber_;
+        QL.ensure(sampleNumber_ > oldSamples, MAX_NUMBER_OF_SAMPLES_REACHED);
+
+        combine(other.sampleWeight_, other.mean_,
+                other.centralQuadraticSum_, other.centralCubicSum_, other.centralFourthPowerSum_);
+        downsideQuadraticSum_ += other.downsideQuadraticSum_;
+        downsideSampleNumber_ += other.downsideSampleNumber_;
+        downsideSampleWeight_ += other.downsideSampleWeight_;
+        if (oldSamples == 0) {
+            min_ = other.min_;
+            max_ = other.max_;
+        } else {
+            min_ = Math.min(other.min_, min_);
+            max_ = Math.max(other.max_, max_);
+        }
+    }
+
+    /**
+     * adds the data of another statistics tool to the set
+     * <p>
+     * Samples stored by <code>other</code> are added one by one, unless it is an
+     * {@link IncrementalStatistics}, in which case its accumulated moments are merged.
+     */
+    @Override
+    public void merge(final GeneralStatistics other) {
+        if (other instanceof IncrementalStatistics) {
+            merge((IncrementalStatistics) other);
+        } else {
+            addSequence(other.values(), other.weights());
+        }
+    }
+
     /**
      * resets the data to a null set
      */
@@ -365,11 +400,52 @@ public class IncrementalStatistics extends GenericRiskStatistics {
         downsideSampleNumber_ = 0;
         sampleWeight_ = 0.0;
         downsideSampleWeight_ = 0.0;
-        sum_ = 0.0;
-        quadraticSum_ = 0.0;
+        mean_ = 0.0;
+        centralQuadraticSum_ = 0.0;
         downsideQuadraticSum_ = 0.0;
-        cubicSum_ = 0.0;
-        fourthPowerSum_ = 0.0;
+        centralCubicSum_ = 0.0;
+        centralFourthPowerSum_ = 0.0;
+    }
+
+
+    //
+    // private methods
+    //
+
+    /**
+     * Combines the accumulated moments with the moments of another set of data,
+     * given its weight, mean and weighted sums of powers of deviations from its mean.
+     * <p>
+     * A single sample is a set with null central sums.
+     */
+    private void combine(
+            final /*@Real*/ double weight,
+            final /*@Real*/ double mean,
+            final /*@Real*/ double quadraticSum,
+            final /*@Real*/ double cubicSum,
+            final /*@Real*/ double fourthPowerSum) {
+        if (weight == 0.0)
+            return;
+
+        final /*@Real*/ double wa = sampleWeight_;
+        final /*@Real*/ double wb = weight;
+        final /*@Real*/ double w = wa + wb;
+        final /*@Real*/ double delta = mean - mean_;
+        final /*@Real*/ double a = wa/w;
+        final /*@Real*/ double b = wb/w;
+        final /*@Real*/ double d2 = delta*delta;
+
+        // higher moments first, since they depend on the lower ones before the update
+        centralFourthPowerSum_ += fourthPowerSum
+            + d2*d2*wa*b*(a*a - a*b + b*b)
+            + 6.0*d2*(a*a*quadraticSum + b*b*centralQuadraticSum_)
+            + 4.0*delta*(a*cubicSum - b*centralCubicSum_);
+        centralCubicSum_ += cubicSum
+            + d2*delta*wa*b*(a - b)
+            + 3.0*delta*(a*quadraticSum - b*centralQuadraticSum_);
+        centralQuadraticSum_ += quadraticSum + d2*wa*b;
+        mean_ += delta*b;
+        sampleWeight_ = w;
     }
 
 }
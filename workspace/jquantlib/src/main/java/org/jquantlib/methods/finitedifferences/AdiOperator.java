@@ -0,0 +1,72 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.methods.finitedifferences;
+
+/**
+ * Multi-dimensional linear differential operator split for Alternating Direction Implicit schemes.
+ * <p>
+ * The operator is decomposed as {@latex$ L = L_0 + L_1 + \dots + L_d } where {@latex$ L_0 } contains all
+ * mixed derivative terms and {@latex$ L_k } contains all terms in direction <i>k</i>, so that
+ * {@latex$ I - a L_k } can be inverted by independent tridiagonal solves along each line of the grid.
+ * <p>
+ * Values are kept in a flat <code>double[]</code>, whose layout is defined by the implementation.
+ *
+ * @see AdiScheme
+ *
+ * @author agent
+ */
+public interface AdiOperator {
+
+    /**
+     * @return the number of grid points
+     */
+    public int size();
+
+    /**
+     * @return the number of directions which are split
+     */
+    public int directions();
+
+    /**
+     * Sets the time interval the coefficients of the operator refer to.
+     */
+    public void setTime(/* @Time */ double t1, /* @Time */ double t2);
+
+    /**
+     * Stores {@latex$ L_0 u } into <code>result</code>
+     */
+    public void applyMixed(double[] u, double[] result);
+
+    /**
+     * Stores {@latex$ L_k u } into <code>result</code>
+     */
+    public void applyDirection(int direction, double[] u, double[] result);
+
+    /**
+     * Stores into <code>result</code> the solution <i>x</i> of {@latex$ (I - a L_k) x = rhs }
+     * <p>
+     * <code>rhs</code> and <code>result</code> may be the same array.
+     */
+    public void solveSplitting(int direction, double[] rhs, double a, double[] result);
+
+}
@@ -0,0 +1,222 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.methods.finitedifferences;
+
+import org.jquantlib.QL;
+import org.jquantlib.lang.exceptions.LibraryException;
+
+/**
+ * Alternating Direction Implicit schemes for multi-dimensional problems with mixed derivatives.
+ * <p>
+ * A step rolls values back from <i>t</i> to <i>t-dt</i>. All schemes start with a Douglas predictor which treats the
+ * mixed derivative term explicitly and every direction implicitly, one direction at a time. Craig-Sneyd,
+ * Modified Craig-Sneyd and Hundsdorfer-Verwer add a corrector stage which restores second order accuracy in time.
+ * <p>
+ * References:
+ * <li>K. J. in 't Hout, B. D. Welfert, <i>Stability of ADI schemes applied to convection-diffusion equations with
+ * mixed derivative terms</i>, Applied Numerical Mathematics 57 (2007) 19-35</li>
+ *
+ * @see AdiOperator
+ *
+ * @author agent
+ */
+public class AdiScheme {
+
+    /**
+     * Available ADI schemes
+     */
+    public static enum Type {
+        Douglas(0.5),
+        CraigSneyd(0.5),
+        ModifiedCraigSneyd(1.0/3.0),
+        HundsdorferVerwer(0.5 + Math.sqrt(3.0)/6.0);
+
+        private final double theta;
+
+        private Type(final double theta) {
+            this.theta = theta;
+        }
+
+        /**
+         * @return the value of theta recommended in the literature for this scheme
+         */
+        public double defaultTheta() {
+            return theta;
+        }
+    }
+
+    private final Type type;
+    private final double theta;
+
+    // work areas, reused across steps
+    private double[] y0, y, yt, ap, a0u, f0, f1;
+    private double[][] au, ay;
+
+
+    public AdiScheme(final Type type) {
+        this(type, type.defaultTheta());
+    }
+
+    public AdiScheme(final Type type, final double theta) {
+        QL.require(theta >= 0.0 && theta <= 1.0, "theta must be in [0,1]");
+        this.type = type;
+        this.theta = theta;
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    public double theta() {
+        return theta;
+    }
+
+    /**
+     * Rolls <code>u</code> back from <code>t</code> to <code>t-dt</code>, in place.
+     */
+    public void step(final AdiOperator L, final double[] u, /* @Time */ final double t, /* @Time */ final double dt) {
+        final int n = L.size();
+        final int d = L.directions();
+        QL.require(u.length == n, "values do not match the operator size");
+        allocate(n, d);
+
+        L.setTime(t - dt, t);
+
+        // explicit predictor: y0 = u + dt * L u
+        L.applyMixed(u, a0u);
+        for (int i = 0; i < n; i++) {
+            y0[i] = u[i] + dt * a0u[i];
+        }
+        for (int k = 0; k < d; k++) {
+            L.applyDirection(k, u, au[k]);
+            final double[] auk = au[k];
+            for (int i = 0; i < n; i++) {
+                y0[i] += dt * auk[i];
+            }
+        }
+
+        // implicit stages of the Douglas scheme
+        System.arraycopy(y0, 0, y, 0, n);
+        implicitStages(L, y, au, dt);
+
+        switch (type) {
+        case Douglas:
+            break;
+        case CraigSneyd:
+            L.applyMixed(y, ap);
+            for (int i = 0; i < n; i++) {
+                yt[i] = y0[i] + 0.5 * dt * (ap[i] - a0u[i]);
+            }
+            implicitStages(L, yt, au, dt);
+            System.arraycopy(yt, 0, y, 0, n);
+            break;
+        case ModifiedCraigSneyd:
+            L.applyMixed(y, ap);
+            for (int i = 0; i < n; i++) {
+                yt[i] = y0[i] + theta * dt * (ap[i] - a0u[i]);
+            }
+            applyFull(L, y, f1);
+            fullFromParts(n, d, f0);
+            for (int i = 0; i < n; i++) {
+                yt[i] += (0.5 - theta) * dt * (f1[i] - f0[i]);
+            }
+            implicitStages(L, yt, au, dt);
+            System.arraycopy(yt, 0, y, 0, n);
+            break;
+        case HundsdorferVerwer:
+            applyFull(L, y, f1);
+            fullFromParts(n, d, f0);
+            for (int i = 0; i < n; i++) {
+                yt[i] = y0[i] + 0.5 * dt * (f1[i] - f0[i]);
+            }
+            // the corrector stages are relative to the predicted values
+            for (int k = 0; k < d; k++) {
+                L.applyDirection(k, y, ay[k]);
+            }
+            implicitStages(L, yt, ay, dt);
+            System.arraycopy(yt, 0, y, 0, n);
+            break;
+        default:
+            throw new LibraryException("unknown ADI scheme");
+        }
+
+        System.arraycopy(y, 0, u, 0, n);
+    }
+
+
+    //
+    // private methods
+    //
+
+    /**
+     * Performs {@latex$ (I - \theta dt L_k) v = v - \theta dt L_k w } for each direction <i>k</i>, in place,
+     * where <code>lw</code> contains {@latex$ L_k w }.
+     */
+    private void implicitStages(final AdiOperator L, final double[] v, final double[][] lw, final double dt) {
+        final int n = v.length;
+        final double a = theta * dt;
+        for (int k = 0; k < lw.length; k++) {
+            final double[] lwk = lw[k];
+            for (int i = 0; i < n; i++) {
+                v[i] -= a * lwk[i];
+            }
+            L.solveSplitting(k, v, a, v);
+        }
+    }
+
+    private void applyFull(final AdiOperator L, final double[] v, final double[] result) {
+        final int n = v.length;
+        L.applyMixed(v, result);
+        for (int k = 0; k < L.directions(); k++) {
+            L.applyDirection(k, v, ap);
+            for (int i = 0; i < n; i++) {
+                result[i] += ap[i];
+            }
+        }
+    }
+
+    private void fullFromParts(final int n, final int d, final double[] result) {
+        System.arraycopy(a0u, 0, result, 0, n);
+        for (int k = 0; k < d; k++) {
+            final double[] auk = au[k];
+            for (int i = 0; i < n; i++) {
+                result[i] += auk[i];
+            }
+        }
+    }
+
+    private void allocate(final int n, final int d) {
+        if (y0 != null && y0.length == n && au.length == d)
+            return;
+        y0 = new double[n];
+        y = new double[n];
+        yt = new double[n];
+        ap = new double[n];
+        a0u = new double[n];
+        f0 = new double[n];
+        f1 = new double[n];
+        au = new double[d][n];
+        ay = new double[d][n];
+    }
+
+}
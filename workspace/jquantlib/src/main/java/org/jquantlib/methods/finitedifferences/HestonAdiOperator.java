@@ -0,0 +1,384 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.methods.finitedifferences;
+
+import java.util.concurrent.ExecutorService;
+
+import org.jquantlib.QL;
+import org.jquantlib.math.matrixutilities.Array;
+import org.jquantlib.quotes.Handle;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.util.Concurrency;
+
+/**
+ * Heston operator on a non-uniform (log-spot, variance) grid, split for ADI schemes.
+ * <p>
+ * The operator is
+ * {@latex[
+ *     L = \frac{1}{2} v \partial_{xx} + \rho \sigma v \partial_{xv} + \frac{1}{2} \sigma^2 v \partial_{vv}
+ *       + (r - q - \frac{1}{2} v) \partial_x + \kappa (\theta - v) \partial_v - r
+ * }
+ * where <i>x</i> is the logarithm of the spot. The mixed derivative is kept apart from the log-spot direction
+ * (direction 0) and the variance direction (direction 1); the discounting term is shared equally between directions.
+ * <p>
+ * Derivatives are approximated by central differences on the non-uniform grid. At the boundaries, second
+ * derivatives and the mixed derivative are dropped and first derivatives are taken one-sided towards the interior,
+ * which is exact at <i>v=0</i>, where the diffusion terms vanish.
+ * <p>
+ * Values are laid out with the log-spot index running fastest, i.e. node <i>(i,j)</i> is stored at
+ * <code>i + j*nx</code>. Independent lines are solved concurrently, each one by a {@link TridiagonalOperator}.
+ *
+ * @author agent
+ */
+public class HestonAdiOperator implements AdiOperator {
+
+    private static final int minLinesPerTask = 4;
+
+    private final int nx, nv;
+    private final double[] x, v;
+    private final double kappa, theta, sigma, rho;
+    private final Handle<YieldTermStructure> riskFreeRate, dividendYield;
+    private final ExecutorService executor;
+
+    // finite difference weights: [0] lower, [1] diagonal, [2] upper
+    private final double[][] dx, dxx, dv, dvv;
+
+    // rates for the current time interval
+    private double r, q;
+
+    // coefficients for the current rates: one set per variance line in direction 0; a single one in direction 1
+    private final double[][] xLower, xDiag, xUpper;
+    private final double[] vLower, vDiag, vUpper;
+    private boolean coefficientsValid;
+
+    // cached splitting operators: one per variance line in direction 0; a single one in direction 1
+    private TridiagonalOperator[] xOperators;
+    private TridiagonalOperator vOperator;
+    private double xOperatorsFactor = Double.NaN, vOperatorFactor = Double.NaN;
+
+
+    public HestonAdiOperator(
+            final Array logSpotGrid,
+            final Array varianceGrid,
+            final Handle<YieldTermStructure> riskFreeRate,
+            final Handle<YieldTermStructure> dividendYield,
+            final double kappa,
+            final double theta,
+            final double sigma,
+            final double rho,
+            final ExecutorService executor) {
+        QL.require(logSpotGrid.size() >= 3 && varianceGrid.size() >= 3, "at least 3 points are needed in each direction");
+        QL.require(varianceGrid.first() >= 0.0, "negative variance in grid");
+        this.nx = logSpotGrid.size();
+        this.nv = varianceGrid.size();
+        this.x = new double[nx];
+        this.v = new double[nv];
+        for (int i = 0; i < nx; i++) {
+            x[i] = logSpotGrid.get(i);
+        }
+        for (int j = 0; j < nv; j++) {
+            v[j] = varianceGrid.get(j);
+        }
+        this.riskFreeRate = riskFreeRate;
+        this.dividendYield = dividendYield;
+        this.kappa = kappa;
+        this.theta = theta;
+        this.sigma = sigma;
+        this.rho = rho;
+        this.executor = executor;
+
+        this.dx = firstDerivative(x);
+        this.dxx = secondDerivative(x);
+        this.dv = firstDerivative(v);
+        this.dvv = secondDerivative(v);
+
+        this.xLower = new double[nv][nx];
+        this.xDiag = new double[nv][nx];
+        this.xUpper = new double[nv][nx];
+        this.vLower = new double[nv];
+        this.vDiag = new double[nv];
+        this.vUpper = new double[nv];
+    }
+
+
+    //
+    // public methods
+    //
+
+    public int xSize() {
+        return nx;
+    }
+
+    public int vSize() {
+        return nv;
+    }
+
+
+    //
+    // implements AdiOperator
+    //
+
+    @Override
+    public int size() {
+        return nx * nv;
+    }
+
+    @Override
+    public int directions() {
+        return 2;
+    }
+
+    @Override
+    public void setTime(/* @Time */ final double t1, /* @Time */ final double t2) {
+        final double dt = t2 - t1;
+        QL.require(dt > 0.0, "invalid time interval");
+        final double rr = Math.log(riskFreeRate.currentLink().discount(t1) / riskFreeRate.currentLink().discount(t2)) / dt;
+        final double qq = Math.log(dividendYield.currentLink().discount(t1) / dividendYield.currentLink().discount(t2)) / dt;
+        if (rr != r || qq != q) {
+            r = rr;
+            q = qq;
+            coefficientsValid = false;
+            xOperatorsFactor = Double.NaN;
+            vOperatorFactor = Double.NaN;
+        }
+    }
+
+    @Override
+    public void applyMixed(final double[] u, final double[] result) {
+        Concurrency.forEachChunk(executor, nv, minLinesPerTask, new Concurrency.RangeTask() {
+            @Override
+            public void run(final int from, final int to) {
+                for (int j = from; j < to; j++) {
+                    final int row = j * nx;
+                    if (j == 0 || j == nv - 1) {
+                        for (int i = 0; i < nx; i++) {
+                            result[row + i] = 0.0;
+                        }
+                        continue;
+                    }
+                    final double c = rho * sigma * v[j];
+                    final double vl = dv[0][j], vd = dv[1][j], vu = dv[2][j];
+                    result[row] = 0.0;
+                    for (int i = 1; i < nx - 1; i++) {
+                        final int k = row + i;
+                        final double lower = vl * u[k - 1 - nx] + vd * u[k - 1] + vu * u[k - 1 + nx];
+                        final double mid   = vl * u[k - nx]     + vd * u[k]     + vu * u[k + nx];
+                        final double upper = vl * u[k + 1 - nx] + vd * u[k + 1] + vu * u[k + 1 + nx];
+                        result[k] = c * (dx[0][i] * lower + dx[1][i] * mid + dx[2][i] * upper);
+                    }
+                    result[row + nx - 1] = 0.0;
+                }
+            }
+        });
+    }
+
+    @Override
+    public void applyDirection(final int direction, final double[] u, final double[] result) {
+        updateCoefficients();
+        if (direction == 0) {
+            Concurrency.forEachChunk(executor, nv, minLinesPerTask, new Concurrency.RangeTask() {
+                @Override
+                public void run(final int from, final int to) {
+                    for (int j = from; j < to; j++) {
+                        applyLine(xLower[j], xDiag[j], xUpper[j], u, result, j * nx, 1, nx);
+                    }
+                }
+            });
+        } else if (direction == 1) {
+            Concurrency.forEachChunk(executor, nx, minLinesPerTask, new Concurrency.RangeTask() {
+                @Override
+                public void run(final int from, final int to) {
+                    for (int i = from; i < to; i++) {
+                        applyLine(vLower, vDiag, vUpper, u, result, i, nx, nv);
+                    }
+                }
+            });
+        } else
+            throw new IllegalArgumentException("invalid direction");
+    }
+
+    @Override
+    public void solveSplitting(final int direction, final double[] rhs, final double a, final double[] result) {
+        if (direction == 0) {
+            if (a != xOperatorsFactor) {
+                updateCoefficients();
+                xOperators = new TridiagonalOperator[nv];
+                for (int j = 0; j < nv; j++) {
+                    xOperators[j] = splittingOperator(xLower[j], xDiag[j], xUpper[j], a);
+                }
+                xOperatorsFactor = a;
+            }
+            Concurrency.forEachChunk(executor, nv, minLinesPerTask, new Concurrency.RangeTask() {
+                @Override
+                public void run(final int from, final int to) {
+                    final double[] line = new double[nx];
+                    for (int j = from; j < to; j++) {
+                        System.arraycopy(rhs, j * nx, line, 0, nx);
+                        final double[] solution = xOperators[j].solveFor(line);
+                        System.arraycopy(solution, 0, result, j * nx, nx);
+                    }
+                }
+            });
+        } else if (direction == 1) {
+            if (a != vOperatorFactor) {
+                updateCoefficients();
+                vOperator = splittingOperator(vLower, vDiag, vUpper, a);
+                vOperatorFactor = a;
+            }
+            Concurrency.forEachChunk(executor, nx, minLinesPerTask, new Concurrency.RangeTask() {
+                @Override
+                public void run(final int from, final int to) {
+                    final double[] line = new double[nv];
+                    for (int i = from; i < to; i++) {
+                        for (int j = 0; j < nv; j++) {
+                            line[j] = rhs[i + j * nx];
+                        }
+                        final double[] solution = vOperator.solveFor(line);
+                        for (int j = 0; j < nv; j++) {
+                            result[i + j * nx] = solution[j];
+                        }
+                    }
+                }
+            });
+        } else
+            throw new IllegalArgumentException("invalid direction");
+    }
+
+
+    //
+    // private methods
+    //
+
+    /**
+     * Calculates the coefficients of both directions for the current rates, unless already done
+     */
+    private void updateCoefficients() {
+        if (!coefficientsValid) {
+            for (int j = 0; j < nv; j++) {
+                xCoefficients(j, xLower[j], xDiag[j], xUpper[j]);
+            }
+            vCoefficients(vLower, vDiag, vUpper);
+            coefficientsValid = true;
+        }
+    }
+
+    /**
+     * Coefficients of direction 0 on the variance line <code>j</code>
+     */
+    private void xCoefficients(final int j, final double[] lower, final double[] diag, final double[] upper) {
+        final double c2 = 0.5 * v[j];
+        final double c1 = r - q - 0.5 * v[j];
+        for (int i = 0; i < nx; i++) {
+            lower[i] = c2 * dxx[0][i] + c1 * dx[0][i];
+            diag[i]  = c2 * dxx[1][i] + c1 * dx[1][i] - 0.5 * r;
+            upper[i] = c2 * dxx[2][i] + c1 * dx[2][i];
+        }
+    }
+
+    /**
+     * Coefficients of direction 1, which are the same on every log-spot line
+     */
+    private void vCoefficients(final double[] lower, final double[] diag, final double[] upper) {
+        for (int j = 0; j < nv; j++) {
+            final double c2 = 0.5 * sigma * sigma * v[j];
+            final double c1 = kappa * (theta - v[j]);
+            lower[j] = c2 * dvv[0][j] + c1 * dv[0][j];
+            diag[j]  = c2 * dvv[1][j] + c1 * dv[1][j] - 0.5 * r;
+            upper[j] = c2 * dvv[2][j] + c1 * dv[2][j];
+        }
+    }
+
+    private static void applyLine(
+            final double[] lower, final double[] diag, final double[] upper,
+            final double[] u, final double[] result,
+            final int offset, final int stride, final int n) {
+        int k = offset;
+        result[k] = diag[0] * u[k] + upper[0] * u[k + stride];
+        for (int m = 1; m < n - 1; m++) {
+            k += stride;
+            result[k] = lower[m] * u[k - stride] + diag[m] * u[k] + upper[m] * u[k + stride];
+        }
+        k += stride;
+        result[k] = lower[n - 1] * u[k - stride] + diag[n - 1] * u[k];
+    }
+
+    /**
+     * @return the tridiagonal operator {@latex$ I - a L }
+     */
+    private static TridiagonalOperator splittingOperator(
+            final double[] lower, final double[] diag, final double[] upper, final double a) {
+        final int n = diag.length;
+        final Array low = new Array(n - 1);
+        final Array mid = new Array(n);
+        final Array high = new Array(n - 1);
+        for (int m = 0; m < n; m++) {
+            mid.set(m, 1.0 - a * diag[m]);
+            if (m > 0) {
+                low.set(m - 1, -a * lower[m]);
+            }
+            if (m < n - 1) {
+                high.set(m, -a * upper[m]);
+            }
+        }
+        return new TridiagonalOperator(low, mid, high);
+    }
+
+    /**
+     * Central first derivative on a non-uniform grid; one-sided towards the interior at the boundaries
+     */
+    private static double[][] firstDerivative(final double[] g) {
+        final int n = g.length;
+        final double[][] w = new double[3][n];
+        double h = g[1] - g[0];
+        w[1][0] = -1.0 / h;
+        w[2][0] = 1.0 / h;
+        for (int i = 1; i < n - 1; i++) {
+            final double hm = g[i] - g[i - 1];
+            final double hp = g[i + 1] - g[i];
+            w[0][i] = -hp / (hm * (hm + hp));
+            w[1][i] = (hp - hm) / (hm * hp);
+            w[2][i] = hm / (hp * (hm + hp));
+        }
+        h = g[n - 1] - g[n - 2];
+        w[0][n - 1] = -1.0 / h;
+        w[1][n - 1] = 1.0 / h;
+        return w;
+    }
+
+    /**
+     * Central second derivative on a non-uniform grid; dropped at the boundaries
+     */
+    private static double[][] secondDerivative(final double[] g) {
+        final int n = g.length;
+        final double[][] w = new double[3][n];
+        for (int i = 1; i < n - 1; i++) {
+            final double hm = g[i] - g[i - 1];
+            final double hp = g[i + 1] - g[i];
+            w[0][i] = 2.0 / (hm * (hm + hp));
+            w[1][i] = -2.0 / (hm * hp);
+            w[2][i] = 2.0 / (hp * (hm + hp));
+        }
+        return w;
+    }
+
+}
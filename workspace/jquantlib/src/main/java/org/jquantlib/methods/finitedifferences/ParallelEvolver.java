@@ -19,13 +19,28 @@
  */
 package org.jquantlib.methods.finitedifferences;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 import org.jquantlib.lang.exceptions.LibraryException;
 import org.jquantlib.math.matrixutilities.Array;
+import org.jquantlib.util.Concurrency;
 
 /**
+ * Evolves a system of layers, each one by its own {@link MixedScheme}.
+ * <p>
+ * Layers are independent of each other during a time step, which means that they can be evolved concurrently.
+ * Every call to {@link #step(List, double)} submits one task per layer to an {@link ExecutorService} and waits
+ * until all layers are evolved, acting as a barrier between consecutive time steps. Step conditions which couple
+ * layers are applied by the caller after the barrier.
+ * <p>
+ * When no executor is given, layers are evolved sequentially on the calling thread.
+ *
+ * @note Every layer must be given its own operator, because time dependent operators are modified
+ * whilst a layer is evolved.
+ *
  * @author Srinivas Hasti
  *
  */
@@ -34,28 +49,55 @@ import org.jquantlib.math.matrixutilities.Array;
 //a extension class, so making this class abstract to force a type hierarchy
 
 public abstract class ParallelEvolver<S extends Operator, T extends MixedScheme<S>>  {
-	
+
     private final List<T> evolvers;
-    
-    private final Class<? extends Operator>		classS; 
-    private final Class<? extends MixedScheme>	classT; 
+    private final List<LayerStep> tasks;
+    private ExecutorService executor;
+
+    private final Class<? extends Operator>		classS;
+    private final Class<? extends T>	classT;
 
     public ParallelEvolver(
-    	    final Class<? extends Operator>		classS, 
-    	    final Class<? extends MixedScheme>	classT, 
+    	    final Class<? extends Operator>		classS,
+    	    final Class<? extends T>	classT,
     		final List<S> L,
             final BoundaryConditionSet<BoundaryCondition<S>> bcs) {
+        this(classS, classT, L, bcs, null);
+    }
+
+    public ParallelEvolver(
+            final Class<? extends Operator>     classS,
+            final Class<? extends T>  classT,
+            final List<S> L,
+            final BoundaryConditionSet<BoundaryCondition<S>> bcs,
+            final ExecutorService executor) {
     	this.classS = classS;
     	this.classT = classT;
-        evolvers = new Vector<T>(L.size());
-        for (int i = 0; i < L.size(); i++)
+    	this.executor = executor;
+        evolvers = new ArrayList<T>(L.size());
+        tasks = new ArrayList<LayerStep>(L.size());
+        for (int i = 0; i < L.size(); i++) {
             evolvers.add(getEvolver(L.get(i), bcs.get(i)));
+            tasks.add(new LayerStep(i));
+        }
     }
 
+    /**
+     * Evolves all layers by one time step.
+     * <p>
+     * Layers are updated in place, which means that the list passed as argument is returned.
+     */
     public List<Array> step(final List<Array> a, final double t) {
-        for (int i = 0; i < evolvers.size(); i++)
-            a.set(i, evolvers.get(i).step(a.get(i), t));
+        if (executor == null || evolvers.size() < 2) {
+            for (int i = 0; i < evolvers.size(); i++)
+                a.set(i, evolvers.get(i).step(a.get(i), t));
+            return a;
+        }
 
+        // submission to the executor publishes these fields to worker threads
+        for (int i = 0; i < tasks.size(); i++)
+            tasks.get(i).prepare(a, t);
+        Concurrency.invokeAll(executor, tasks);
         return a;
     }
 
@@ -64,13 +106,56 @@ public abstract class ParallelEvolver<S extends Operator, T extends MixedScheme<
             evolvers.get(i).setStep(dt);
     }
 
+    /**
+     * Defines the executor employed for evolving layers concurrently.
+     *
+     * @param executor is an executor or <code>null</code> if layers should be evolved on the calling thread
+     */
+    public void setExecutor(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public ExecutorService executor() {
+        return executor;
+    }
+
     protected T getEvolver(final S l, final List<BoundaryCondition<S>> bcs) {
         try {
 
-            return (T) classT.getConstructor(Operator.class, List.class).newInstance(l, bcs);
+            return classT.getConstructor(Operator.class, List.class).newInstance(l, bcs);
         } catch (final Exception e) {
             throw new LibraryException(e); // QA:[RG]::verified
         }
     }
 
+
+    //
+    // private inner classes
+    //
+
+    /**
+     * Evolves a single layer; instances are reused across time steps.
+     */
+    private final class LayerStep implements Callable<Object> {
+        private final int layer;
+        private List<Array> a;
+        private double t;
+
+        private LayerStep(final int layer) {
+            this.layer = layer;
+        }
+
+        private void prepare(final List<Array> a, final double t) {
+            this.a = a;
+            this.t = t;
+        }
+
+        @Override
+        public Object call() {
+            // distinct indices are written by distinct tasks
+            a.set(layer, evolvers.get(layer).step(a.get(layer), t));
+            return null;
+        }
+    }
+
 }
@@ -38,9 +38,13 @@ public abstract class PdeSecondOrderParabolic implements Pde {
             double r = discount(t, tg.grid(i));
             double sigma2 = sigma * sigma;
 
-            double pd = -(sigma2 / tg.dxm(i) - nu) / tg.dx(i);
-            double pu = -(sigma2 / tg.dxp(i) + nu) / tg.dx(i);
-            double pm = sigma2 / (tg.dxm(i) * tg.dxp(i)) + r;
+            // central differences on non-uniform grids: the drift term is weighted by the ratio
+            // of adjacent spacings so that it remains second order accurate
+            double dxm = tg.dxm(i);
+            double dxp = tg.dxp(i);
+            double pd = -(sigma2 / dxm - nu * dxp / dxm) / tg.dx(i);
+            double pu = -(sigma2 / dxp + nu * dxm / dxp) / tg.dx(i);
+            double pm = (sigma2 - nu * (dxp - dxm)) / (dxm * dxp) + r;
             L.setMidRow(i, pd, pm, pu);
         }
     }
@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import org.jquantlib.math.matrixutilities.Array;
 
@@ -40,10 +41,21 @@ public class StandardSystemFiniteDifferenceModel {
 	//Doing this way so that we can dynamically determine Parameterized types
 	static class StandardSystemFiniteDifferenceModelParallelEvolver extends ParallelEvolver<TridiagonalOperator, CrankNicolson<TridiagonalOperator>> {
 
+		// class literals cannot be parameterized
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private static final Class<CrankNicolson<TridiagonalOperator>> crankNicolson = (Class) CrankNicolson.class;
+
 		public StandardSystemFiniteDifferenceModelParallelEvolver(
 				final List<TridiagonalOperator> L,
 				final BoundaryConditionSet<BoundaryCondition<TridiagonalOperator>> bcs) {
-			super(TridiagonalOperator.class, CrankNicolson.class, L, bcs);
+			this(L, bcs, null);
+		}
+
+		public StandardSystemFiniteDifferenceModelParallelEvolver(
+				final List<TridiagonalOperator> L,
+				final BoundaryConditionSet<BoundaryCondition<TridiagonalOperator>> bcs,
+				final ExecutorService executor) {
+			super(TridiagonalOperator.class, crankNicolson, L, bcs, executor);
 		}
 	}
 
@@ -51,13 +63,7 @@ public class StandardSystemFiniteDifferenceModel {
 			final List<TridiagonalOperator> L,
 			final BoundaryConditionSet<BoundaryCondition<TridiagonalOperator>> bcs,
 			final List<Double> stoppingTimes) {
-		this.evolver = new StandardSystemFiniteDifferenceModelParallelEvolver(
-				L, bcs);
-		// This takes care of removing duplicates
-		final Set<Double> times = new HashSet(stoppingTimes);
-		this.stoppingTimes = new ArrayList<Double>(times);
-		// Now sort
-		Collections.sort(stoppingTimes);
+		this(L, bcs, stoppingTimes, null);
 	}
 
 	public StandardSystemFiniteDifferenceModel(
@@ -66,6 +72,24 @@ public class StandardSystemFiniteDifferenceModel {
 		this(L, bcs, new ArrayList<Double>());
 	}
 
+	/**
+	 * Layers are evolved concurrently by the given executor, or on the calling thread
+	 * if <code>executor</code> is <code>null</code>.
+	 */
+	public StandardSystemFiniteDifferenceModel(
+			final List<TridiagonalOperator> L,
+			final BoundaryConditionSet<BoundaryCondition<TridiagonalOperator>> bcs,
+			final List<Double> stoppingTimes,
+			final ExecutorService executor) {
+		this.evolver = new StandardSystemFiniteDifferenceModelParallelEvolver(
+				L, bcs, executor);
+		// This takes care of removing duplicates
+		final Set<Double> times = new HashSet<Double>(stoppingTimes);
+		this.stoppingTimes = new ArrayList<Double>(times);
+		// Now sort
+		Collections.sort(this.stoppingTimes);
+	}
+
 	public ParallelEvolver<TridiagonalOperator, CrankNicolson<TridiagonalOperator>> getEvolver() {
 		return evolver;
 	}
@@ -122,39 +122,33 @@ public class PathGenerator<RNG extends RandomNumberGenerator, GSG extends Random
         return next(true);
     }
 
+    /**
+     * Generates a path, or its antithetic path.
+     * <p>
+     * Paths are evolved through {@link StochasticProcess1D#timeGridEvolver(TimeGrid)}, so that terms which only depend
+     * on time are calculated once per time grid instead of once per step of every path.
+     */
     public final Sample<Path> next(final boolean antithetic) /* @ReadOnly */ {
+        final Sample<double[]> sequence =
+            antithetic ? generator_.lastSequence()
+                       : generator_.nextSequence();
+
+        if (brownianBridge_) {
+            bb_.transform(sequence.value(), this.temp_);
+        } else {
+            System.arraycopy(sequence.value(), 0, this.temp_, 0, this.dimension_);
+        }
 
-//      
-// TODO :: code review            
-//                 
-//        final Sample<List<Path>> sequence_ =
-//            antithetic ? generator_.lastSequence()
-//                       : generator_.nextSequence();
-//
-//        if (brownianBridge_) {
-//            bb_.transform(sequence_.getValue().getValues_(), this.temp_);
-//        } else {
-//            DoubleArrays.copy(sequence_.getValue().getValues_(), 0, this.dimension_);
-//        }
-//
-//        
-//        // XXX next_.weight = sequence_.weight;
-//        Sample<Path> next_ = new Sample<Path>(new Path(timeGrid_), sequence_.getWeight());
-//      
-//
-//        Path path = next_.getValue();
-//        path.setValues_( 0, process_.x0() );
-//
-//        for (int i=1; i<path.length(); i++) {
-//            /*@Time*/ double  t = timeGrid_.get(i-1);
-//            /*@Time*/ double  dt = timeGrid_.dt(i-1);
-//            double d = process_.evolve(t, path.getValues_(i-1), dt, antithetic ? -temp_[i-1] : temp_[i-1]);
-//            path.setValues_(i, d);
-//        }
-//
-//        return next_;
-        
-        return null;  
+        final Path path = new Path(timeGrid_);
+        final double[] values = path.getValues_();
+        values[0] = process_.x0();
+
+        final StochasticProcess1D.TimeGridEvolver1D evolver = process_.timeGridEvolver(timeGrid_);
+        for (int i = 1; i < values.length; i++) {
+            values[i] = evolver.evolve(i-1, values[i-1], antithetic ? -temp_[i-1] : temp_[i-1]);
+        }
+
+        return new Sample<Path>(path, sequence.weight());
     }
 
 }
@@ -25,6 +25,8 @@ package org.jquantlib.model;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 import org.jquantlib.QL;
 import org.jquantlib.lang.annotation.QualityAssurance;
@@ -37,6 +39,7 @@ import org.jquantlib.math.optimization.CostFunction;
 import org.jquantlib.math.optimization.EndCriteria;
 import org.jquantlib.math.optimization.OptimizationMethod;
 import org.jquantlib.math.optimization.Problem;
+import org.jquantlib.util.Concurrency;
 import org.jquantlib.util.DefaultObservable;
 import org.jquantlib.util.Observable;
 import org.jquantlib.util.Observer;
@@ -63,6 +66,14 @@ public abstract class CalibratedModel implements Observer, Observable {
     protected EndCriteria.Type shortRateEndCriteria_;
 
 
+    //
+    // private fields
+    //
+
+    private ExecutorService executor;
+    private ReplicaFactory replicaFactory;
+
+
     //
     // public methods
     //
@@ -71,6 +82,10 @@ public abstract class CalibratedModel implements Observer, Observable {
         if (System.getProperty("EXPERIMENTAL") == null)
             throw new UnsupportedOperationException("Work in progress");
         this.arguments_ = new ArrayList<Parameter>(nArguments);
+        // derived classes replace these placeholders by their actual parameters
+        for (int i=0; i<nArguments; i++) {
+            arguments_.add(new NullParameter());
+        }
         this.constraint_ = new PrivateConstraint(arguments_);
         this.shortRateEndCriteria_ = EndCriteria.Type.None;
     }
@@ -121,6 +136,29 @@ public abstract class CalibratedModel implements Observer, Observable {
         return f.value(params);
     }
 
+    /**
+     * Evaluates calibration helpers concurrently.
+     * <p>
+     * By default helpers are evaluated on the calling thread. Pricing engines, instruments and lazy term structures
+     * are not thread safe, so concurrent evaluation never touches the helpers given to {@link #calibrate}: helpers
+     * are split in contiguous chunks, one per available processor, and each chunk is priced by its own replica,
+     * i.e: a model and helpers built by the factory. Each replica receives its own copy of the parameters being
+     * evaluated and is used by one task at a time.
+     *
+     * @param executor is the executor which evaluates the helpers, or <code>null</code> for evaluating them on the
+     * calling thread
+     * @param replicaFactory builds the replicas; it is required when an executor is given
+     */
+    public void setExecutor(final ExecutorService executor, final ReplicaFactory replicaFactory) {
+        QL.require(executor == null || replicaFactory != null, "replica factory required");
+        this.executor = executor;
+        this.replicaFactory = replicaFactory;
+    }
+
+    public ExecutorService executor() {
+        return executor;
+    }
+
     public final Constraint constraint() /* @ReadOnly */ {
         return this.constraint_;
     }
@@ -254,15 +292,55 @@ public abstract class CalibratedModel implements Observer, Observable {
     }
 
 
+    //
+    // public inner interfaces
+    //
+
+    /**
+     * Builds replicas of a calibration, which are evaluated concurrently
+     * <p>
+     * A replica is a new model together with helpers which mirror the calibrated helpers, in the same order, and which
+     * are priced on that model. Replicas must not share pricing engines, instruments or lazy term structures with
+     * each other nor with the calibrated model.
+     *
+     * @see CalibratedModel#setExecutor(ExecutorService, ReplicaFactory)
+     */
+    public interface ReplicaFactory {
+
+        /**
+         * @return a new model of the same kind as the calibrated one
+         */
+        CalibratedModel createModel();
+
+        /**
+         * @return new helpers, each one with its own pricing engine on the given model
+         */
+        List<CalibrationHelper> createHelpers(CalibratedModel model);
+    }
+
+
     //
     // private inner classes
     //
 
+    /**
+     * Cost function of the calibration
+     * <p>
+     * Without an executor, model parameters are set on the calibrated model and helpers are evaluated one after the
+     * other. With an executor, chunks of helpers are evaluated concurrently by replicas which are built once, when
+     * first needed, and reused by later evaluations. Errors are stored by position and reduced in the order of the
+     * helpers, so that results do not depend on the order of completion.
+     * <p>
+     * Instances are not thread safe: a single evaluation at a time is allowed.
+     */
     private final class CalibrationFunction extends CostFunction {
 
         private final CalibratedModel model;
         private final List<CalibrationHelper> instruments;
         private final double[] weights;
+        private final ExecutorService executor;
+        private final ReplicaFactory replicaFactory;
+        private List<Replica> replicas;
 
         public CalibrationFunction(
                 final CalibratedModel model,
@@ -271,15 +349,17 @@ public abstract class CalibratedModel implements Observer, Observable {
             this.model = model;
             this.instruments = instruments;
             this.weights = weights.clone();
+            this.executor = model.executor;
+            this.replicaFactory = model.replicaFactory;
         }
 
         @Override
         public double value(final Array  params) /* @ReadOnly */ {
-            model.setParams(params);
+            final double[] errors = calibrationErrors(params);
 
             double value = 0.0;
             for (int i=0; i<instruments.size(); i++) {
-                final double diff = instruments.get(i).calibrationError();
+                final double diff = errors[i];
                 value += diff*diff*weights[i];
             }
 
@@ -291,11 +371,11 @@ public abstract class CalibratedModel implements Observer, Observable {
          */
         @Override
         public Array values(final Array  params) /* @ReadOnly */ {
-            model.setParams(params);
+            final double[] errors = calibrationErrors(params);
 
             final Array values = new Array(instruments.size());
             for (int i=0; i<instruments.size(); i++) {
-                final double value = instruments.get(i).calibrationError() * Math.sqrt(weights[i]);
+                final double value = errors[i] * Math.sqrt(weights[i]);
                 values.set(i, value);
             }
             return values;
@@ -308,6 +388,73 @@ public abstract class CalibratedModel implements Observer, Observable {
         public double finiteDifferenceEpsilon() /* @ReadOnly */ {
             return 1e-6;
         }
+
+
+        //
+        // private methods
+        //
+
+        private double[] calibrationErrors(final Array params) {
+            final int size = instruments.size();
+            final double[] errors = new double[size];
+            if (executor == null) {
+                model.setParams(params);
+                for (int i=0; i<size; i++) {
+                    errors[i] = instruments.get(i).calibrationError();
+                }
+                return errors;
+            }
+
+            final List<Replica> replicas = replicas();
+            final int chunks = replicas.size();
+            final List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(chunks);
+            for (int k=0; k<chunks; k++) {
+                final Replica replica = replicas.get(k);
+                final int from = (int) ((long) size * k / chunks);
+                final int to = (int) ((long) size * (k+1) / chunks);
+                final Array snapshot = params.clone();
+                tasks.add(new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        replica.model.setParams(snapshot);
+                        for (int i=from; i<to; i++) {
+                            errors[i] = replica.helpers.get(i).calibrationError();
+                        }
+                        return null;
+                    }
+                });
+            }
+            Concurrency.invokeAll(executor, tasks);
+            return errors;
+        }
+
+        private List<Replica> replicas() {
+            if (replicas == null) {
+                final int chunks = Math.max(1, Math.min(Concurrency.parallelism(), instruments.size()));
+                replicas = new ArrayList<Replica>(chunks);
+                for (int k=0; k<chunks; k++) {
+                    final CalibratedModel m = replicaFactory.createModel();
+                    final List<CalibrationHelper> helpers = replicaFactory.createHelpers(m);
+                    QL.require(helpers.size() == instruments.size(), "mismatch between number of helpers and replicas");
+                    replicas.add(new Replica(m, helpers));
+                }
+            }
+            return replicas;
+        }
+    }
+
+
+    /**
+     * A model and the helpers priced on it, used by a single task at a time
+     */
+    private static final class Replica {
+        private final CalibratedModel model;
+        private final List<CalibrationHelper> helpers;
+
+        private Replica(final CalibratedModel model, final List<CalibrationHelper> helpers) {
+            this.model = model;
+            this.helpers = helpers;
+        }
     }
 
 
@@ -40,7 +40,20 @@ public class BatesDoubleExpModel extends HestonModel {
     }
 
     public BatesDoubleExpModel(final HestonProcess process, final double lambda, final double nuUp, final double nuDown, final double p) {
-        super(process);
+        this(process, 9, lambda, nuUp, nuDown, p);
+    }
+
+    /**
+     * Allows derived models to reserve room for additional parameters
+     */
+    protected BatesDoubleExpModel(
+            final HestonProcess process,
+            final int nArguments,
+            final double lambda,
+            final double nuUp,
+            final double nuDown,
+            final double p) {
+        super(process, nArguments);
         arguments_.set(5, new ConstantParameter(p, new BoundaryConstraint(0.0, 1.0)));
         arguments_.set(6, new ConstantParameter(nuDown, new PositiveConstraint()));
         arguments_.set(7, new ConstantParameter(nuUp, new PositiveConstraint()));
@@ -70,7 +83,7 @@ public class BatesDoubleExpModel extends HestonModel {
     public static class BatesDoubleExpDetJumpModel extends BatesDoubleExpModel {
         public BatesDoubleExpDetJumpModel(final HestonProcess process, final double lambda, final double nuUp, final double nuDown, final double p,
                 final double kappaLambda, final double thetaLambda) {
-            super(process);
+            super(process, 11, lambda, nuUp, nuDown, p);
             arguments_.set(9, new ConstantParameter(kappaLambda, new PositiveConstraint()));
             arguments_.set(10, new ConstantParameter(thetaLambda, new PositiveConstraint()));
 
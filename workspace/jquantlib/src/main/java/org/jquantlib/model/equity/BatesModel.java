@@ -36,7 +36,23 @@ import org.jquantlib.processes.HestonProcess;
 public class BatesModel extends HestonModel {
 
     public BatesModel(final HestonProcess process, final double lambda, final double nu, final double delta) {
-        super(process);
+        this(process, 8, lambda, nu, delta);
+    }
+
+    public BatesModel(final HestonProcess process) {
+        this(process, 0.1, 0.0, 0.1);
+    }
+
+    /**
+     * Allows derived models to reserve room for additional parameters
+     */
+    protected BatesModel(
+            final HestonProcess process,
+            final int nArguments,
+            final double lambda,
+            final double nu,
+            final double delta) {
+        super(process, nArguments);
         arguments_.set(5, new ConstantParameter(nu, new NoConstraint()));
         arguments_.set(6, new ConstantParameter(delta, new PositiveConstraint()));
         arguments_.set(7, new ConstantParameter(lambda, new PositiveConstraint()));
@@ -46,10 +62,6 @@ public class BatesModel extends HestonModel {
         }
     }
 
-    public BatesModel(final HestonProcess process) {
-        this(process, 0.1, 0.0, 0.1);
-    }
-
 
     public double nu() {
         return arguments_.get(5).get(0.0);
@@ -71,7 +83,7 @@ public class BatesModel extends HestonModel {
 
         public BatesDetJumpModel(final HestonProcess process, final double lambda, final double nu, final double delta, final double kappaLambda,
                 final double thetaLambda) {
-            super(process);
+            super(process, 10, lambda, nu, delta);
             arguments_.set(8, new ConstantParameter(kappaLambda, new PositiveConstraint()));
             arguments_.set(9, new ConstantParameter(thetaLambda, new PositiveConstraint()));
         }
@@ -23,6 +23,7 @@
 package org.jquantlib.model.equity;
 
 import org.jquantlib.math.matrixutilities.Array;
+import org.jquantlib.math.optimization.BoundaryConstraint;
 import org.jquantlib.math.optimization.Constraint;
 import org.jquantlib.math.optimization.PositiveConstraint;
 import org.jquantlib.model.CalibratedModel;
@@ -53,9 +54,18 @@ import org.jquantlib.quotes.SimpleQuote;
 public class HestonModel extends CalibratedModel {
 
     protected RelinkableHandle<Quote> v0_, kappa_, theta_, sigma_, rho_;;
+    protected final HestonProcess process_;
 
     public HestonModel(final HestonProcess process) {
-        super(5);
+        this(process, 5);
+    }
+
+    /**
+     * Allows derived models to reserve room for additional parameters
+     */
+    protected HestonModel(final HestonProcess process, final int nArguments) {
+        super(nArguments);
+        this.process_ = process;
         this.v0_ = process.v0();
         this.kappa_ = process.kappa();
         this.theta_ = process.theta();
@@ -64,7 +74,7 @@ public class HestonModel extends CalibratedModel {
         arguments_.set(0, new ConstantParameter(process.theta().currentLink().value(), new PositiveConstraint()));
         arguments_.set(1, new ConstantParameter(process.kappa().currentLink().value(), new PositiveConstraint()));
         arguments_.set(2, new ConstantParameter(process.sigma().currentLink().value(), new PositiveConstraint()));
-        arguments_.set(3, new ConstantParameter(process.rho().currentLink().value(), new PositiveConstraint()));
+        arguments_.set(3, new ConstantParameter(process.rho().currentLink().value(), new BoundaryConstraint(-1.0, 1.0)));
         arguments_.set(4, new ConstantParameter(process.v0().currentLink().value(), new PositiveConstraint()));
 
         if (System.getProperty("EXPERIMENTAL") == null) {
@@ -74,11 +84,16 @@ public class HestonModel extends CalibratedModel {
 
     @Override
     public void generateArguments() {
-        v0_.linkTo(new SimpleQuote((SimpleQuote) v0_.currentLink()));
-        kappa_.linkTo(new SimpleQuote((SimpleQuote) kappa_.currentLink()));
-        theta_.linkTo(new SimpleQuote((SimpleQuote) theta_.currentLink()));
-        sigma_.linkTo(new SimpleQuote((SimpleQuote) sigma_.currentLink()));
-        rho_.linkTo(new SimpleQuote((SimpleQuote) rho_.currentLink()));
+        // the process follows the current model parameters
+        v0_.linkTo(new SimpleQuote(v0()));
+        kappa_.linkTo(new SimpleQuote(kappa()));
+        theta_.linkTo(new SimpleQuote(theta()));
+        sigma_.linkTo(new SimpleQuote(sigma()));
+        rho_.linkTo(new SimpleQuote(rho()));
+    }
+
+    public HestonProcess process() {
+        return process_;
     }
 
     // variance mean version level
@@ -0,0 +1,156 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+/*
+ Copyright (C) 2005, 2007 Klaus Spanderen
+
+ This file is part of QuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://quantlib.org/
+
+ QuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the QuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <quantlib-dev@lists.sf.net>. The license is also available online at
+ <http://quantlib.org/license.shtml>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+*/
+
+package org.jquantlib.model.equity;
+
+import java.util.ArrayList;
+
+import org.jquantlib.exercise.EuropeanExercise;
+import org.jquantlib.instruments.Option;
+import org.jquantlib.instruments.PlainVanillaPayoff;
+import org.jquantlib.instruments.VanillaOption;
+import org.jquantlib.lang.annotation.Time;
+import org.jquantlib.model.CalibrationHelper;
+import org.jquantlib.pricingengines.BlackFormula;
+import org.jquantlib.quotes.Handle;
+import org.jquantlib.quotes.Quote;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.time.Calendar;
+import org.jquantlib.time.Date;
+import org.jquantlib.time.Period;
+
+/**
+ * Calibration helper for the Heston model and its extensions
+ * <p>
+ * Represents a European call quoted by its Black volatility. Model values are obtained from the pricing engine
+ * given by {@link #setPricingEngine}; when many helpers share one {@link org.jquantlib.pricingengines.vanilla.FFTHestonEngine},
+ * the whole surface is priced by one transform per expiry.
+ *
+ * @author agent
+ */
+public class HestonModelHelper extends CalibrationHelper {
+
+    private final Handle<YieldTermStructure> dividendYield;
+    private final Date exerciseDate;
+    private final /* @Time */ double tau;
+    private final double s0;
+    private final double strikePrice;
+    private final VanillaOption option;
+
+
+    //
+    // public constructors
+    //
+
+    public HestonModelHelper(
+            final Period maturity,
+            final Calendar calendar,
+            final double s0,
+            final double strikePrice,
+            final Handle<Quote> volatility,
+            final Handle<YieldTermStructure> riskFreeRate,
+            final Handle<YieldTermStructure> dividendYield) {
+        this(maturity, calendar, s0, strikePrice, volatility, riskFreeRate, dividendYield, false);
+    }
+
+    public HestonModelHelper(
+            final Period maturity,
+            final Calendar calendar,
+            final double s0,
+            final double strikePrice,
+            final Handle<Quote> volatility,
+            final Handle<YieldTermStructure> riskFreeRate,
+            final Handle<YieldTermStructure> dividendYield,
+            final boolean calibrateVolatility) {
+        super(volatility, riskFreeRate, calibrateVolatility);
+        this.dividendYield = dividendYield;
+        final Date referenceDate = riskFreeRate.currentLink().referenceDate();
+        this.exerciseDate = calendar.advance(referenceDate, maturity);
+        this.tau = riskFreeRate.currentLink().dayCounter().yearFraction(referenceDate, exerciseDate);
+        this.s0 = s0;
+        this.strikePrice = strikePrice;
+        this.option = new VanillaOption(
+                new PlainVanillaPayoff(Option.Type.Call, strikePrice), new EuropeanExercise(exerciseDate));
+        this.marketValue = blackPrice(volatility.currentLink().value());
+    }
+
+
+    //
+    // public methods
+    //
+
+    public Date maturityDate() {
+        return exerciseDate;
+    }
+
+    public /* @Time */ double maturity() {
+        return tau;
+    }
+
+    public double strike() {
+        return strikePrice;
+    }
+
+
+    //
+    // overrides CalibrationHelper
+    //
+
+    @Override
+    public void addTimesTo(final ArrayList<Time> times) {
+        // nothing to do: Heston engines do not need a time grid
+    }
+
+    @Override
+    public double modelValue() {
+        option.setPricingEngine(engine_);
+        return option.NPV();
+    }
+
+    @Override
+    public double blackPrice(final double volatility) {
+        final double stdDev = volatility * Math.sqrt(tau);
+        return BlackFormula.blackFormula(
+                Option.Type.Call,
+                strikePrice * termStructure_.currentLink().discount(tau),
+                s0 * dividendYield.currentLink().discount(tau),
+                stdDev);
+    }
+
+}
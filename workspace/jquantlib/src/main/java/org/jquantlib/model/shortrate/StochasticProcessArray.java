@@ -133,6 +133,23 @@ public class StochasticProcessArray extends StochasticProcess {
         return new Array(tmp);
     }
 
+    /**
+     * Stores the asset values after a time interval into a given array, correlating the Brownian increments
+     * without allocating intermediate objects
+     */
+    @Override
+    public void evolveInto(
+            final /*@Time*/ double t0, final double[] x0, final /*@Time*/double dt, final double[] dw, final double[] out) {
+        final int size = size();
+        for (int i=0; i<size; i++) {
+            double dz = 0.0;
+            for (int j=0; j<dw.length; j++) {
+                dz += sqrtCorrelation_.get(i, j) * dw[j];
+            }
+            out[i] = processes_.get(i).evolve(t0, x0[i], dt, dz);
+        }
+    }
+
     @Override
     public Array apply(final Array x0, final Array dx)  {
         final double [] tmp = new double[size()];
@@ -0,0 +1,56 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.model.volatility;
+
+import java.util.Map;
+
+import org.jquantlib.time.Date;
+import org.jquantlib.time.TimeSeries;
+
+/**
+ * Base class for local volatility estimators which calculate complete series by incorporating one quote at a time.
+ * <p>
+ * Estimators keep the state of the incremental calculation, hence instances must not be shared between threads.
+ *
+ * @author agent
+ */
+public abstract class AbstractLocalEstimator<V> implements LocalVolatilityEstimator<V> {
+
+    //
+    // implements LocalVolatilityEstimator
+    //
+
+    @Override
+    public TimeSeries<Double> calculate(final TimeSeries<V> quotes) {
+        reset();
+        final TimeSeries<Double> retval = new TimeSeries<Double>(Double.class);
+        for (final Map.Entry<Date, V> entry : quotes.entrySet()) {
+            final double value = update(entry.getValue());
+            if (!Double.isNaN(value)) {
+                retval.put(entry.getKey(), value);
+            }
+        }
+        return retval;
+    }
+
+}
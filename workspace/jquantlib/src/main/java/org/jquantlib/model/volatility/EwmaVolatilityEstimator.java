@@ -0,0 +1,93 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.model.volatility;
+
+import org.jquantlib.QL;
+
+/**
+ * Exponentially weighted moving average volatility over a stream of quotes
+ * <p>
+ * Local volatilities are obtained from an underlying {@link LocalVolatilityEstimator} and squared local volatilities
+ * are averaged with decay factor {@latex$ \lambda }, i.e: {@latex$ \sigma_t^2 = \lambda \sigma_{t-1}^2 + (1 - \lambda) s_t^2 }.
+ * The average is initialized with the first squared local volatility.
+ * <p>
+ * Volatilities are assumed to be expressed on an annual basis.
+ *
+ * @author agent
+ */
+public class EwmaVolatilityEstimator<V> extends AbstractLocalEstimator<V> {
+
+    private final LocalVolatilityEstimator<V> estimator;
+    private final double lambda;
+    private double variance;
+
+
+    //
+    // public constructors
+    //
+
+    /**
+     * @param lambda is the decay factor, e.g: 0.94 for daily RiskMetrics estimates
+     */
+    public EwmaVolatilityEstimator(final LocalVolatilityEstimator<V> estimator, final double lambda) {
+        QL.require(lambda >= 0.0 && lambda < 1.0, "decay factor must be in [0,1)");
+        this.estimator = estimator;
+        this.lambda = lambda;
+        this.variance = Double.NaN;
+    }
+
+
+    //
+    // public methods
+    //
+
+    /**
+     * @return the current estimate, or <code>Double.NaN</code> before the first local volatility is available
+     */
+    public double value() {
+        return Math.sqrt(variance);
+    }
+
+
+    //
+    // implements LocalVolatilityEstimator
+    //
+
+    @Override
+    public double update(final V quote) {
+        final double local = estimator.update(quote);
+        if (Double.isNaN(local))
+            return Double.NaN;
+
+        final double x = local * local;
+        variance = Double.isNaN(variance) ? x : lambda * variance + (1.0 - lambda) * x;
+        return Math.sqrt(variance);
+    }
+
+    @Override
+    public void reset() {
+        estimator.reset();
+        variance = Double.NaN;
+    }
+
+}
@@ -39,21 +39,40 @@
 
 package org.jquantlib.model.volatility;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 import org.jquantlib.QL;
-import org.jquantlib.lang.iterators.Iterables;
+import org.jquantlib.math.Constants;
+import org.jquantlib.math.matrixutilities.Array;
+import org.jquantlib.math.optimization.CostFunction;
+import org.jquantlib.math.optimization.EndCriteria;
+import org.jquantlib.math.optimization.LevenbergMarquardt;
+import org.jquantlib.math.optimization.NoConstraint;
+import org.jquantlib.math.optimization.OptimizationMethod;
+import org.jquantlib.math.optimization.Problem;
 import org.jquantlib.time.Date;
 import org.jquantlib.time.TimeSeries;
+import org.jquantlib.util.Concurrency;
 
 /**
  * GARCH Volatility Model
  * <p>
  * Volatilities are assumed to be expressed on an annual basis.
+ * <p>
+ * The conditional variance follows {@latex$ \sigma_t^2 = \omega + \alpha r_{t-1}^2 + \beta \sigma_{t-1}^2 }, where
+ * {@latex$ \omega = (1 - \alpha - \beta) v } and <i>v</i> is the long term variance.
+ * <p>
+ * Calibration maximizes the Gaussian likelihood of the series using variance targeting: <i>v</i> is the sample
+ * variance and only {@latex$ \alpha } and {@latex$ \beta } are optimized, after being mapped to an unconstrained
+ * domain which guarantees {@latex$ \alpha, \beta > 0 } and {@latex$ \alpha + \beta < 1 }.
+ * The series is copied once into a <code>double[]</code>, on which all calculations are performed.
  *
  * @author Rajiv Chauhan
  */
-//TODO : Test cases
 public class Garch11 implements VolatilityCompositor {
 
 	private /* @Real */ double alpha ;
@@ -72,6 +91,34 @@ public class Garch11 implements VolatilityCompositor {
         calibrate(qs);
     }
 
+    public Garch11(final double[] returns) {
+        calibrate(returns);
+    }
+
+
+    //
+    // public methods
+    //
+
+    public double alpha() {
+        return alpha;
+    }
+
+    public double beta() {
+        return beta;
+    }
+
+    public double omega() {
+        return gamma * v;
+    }
+
+    /**
+     * @return the long term variance
+     */
+    public double v() {
+        return v;
+    }
+
 	@Override
 	public TimeSeries<Double> calculate(final TimeSeries<Double> vs) {
 		return calculate(vs, alpha, beta, gamma* v);
@@ -79,38 +126,200 @@ public class Garch11 implements VolatilityCompositor {
 
 	@Override
 	public void calibrate(final TimeSeries<Double> timeSeries) {
-	    // nothing
+	    calibrate(values(timeSeries));
 	}
 
-	protected double costFunction (final TimeSeries<Double> vs, final double alpha, final double beta, final double omega) {
-		final TimeSeries<Double> test = calculate(vs, alpha, beta, omega);
-        QL.require(test.size() == vs.size(), "quote and test values do not match"); // TODO: message
+    public void calibrate(final double[] returns) {
+        calibrate(returns, new LevenbergMarquardt(), new EndCriteria(1000, 100, 1.0e-8, 1.0e-8, 1.0e-8));
+    }
+
+    /**
+     * Calibrates by maximum likelihood using variance targeting.
+     *
+     * @param method is expected to be either {@link LevenbergMarquardt} or {@link org.jquantlib.math.optimization.Simplex}
+     */
+    public void calibrate(final double[] returns, final OptimizationMethod method, final EndCriteria endCriteria) {
+        QL.require(returns.length >= 3, "not enough data points");
+        double sum = 0.0;
+        for (final double r : returns) {
+            sum += r * r;
+        }
+        final double variance = sum / returns.length;
+        QL.require(variance > 0.0, "null variance");
+
+        final LikelihoodFunction function = new LikelihoodFunction(returns, variance);
+        final Problem problem = new Problem(function, new NoConstraint(), toUnconstrained(0.1, 0.8));
+        method.minimize(problem, endCriteria);
+
+        final double[] ab = fromUnconstrained(problem.currentValue());
+        this.alpha = ab[0];
+        this.beta = ab[1];
+        this.v = variance;
+        this.gamma = 1.0 - alpha - beta;
+    }
+
+    /**
+     * Calibrates several series concurrently.
+     *
+     * @param executor calibrates series concurrently, or <code>null</code> for calibrating them on the calling thread
+     * @return calibrated models, in the same order as <code>series</code>
+     */
+    public static List<Garch11> calibrate(final List<double[]> series, final ExecutorService executor) {
+        final List<Callable<Garch11>> tasks = new ArrayList<Callable<Garch11>>(series.size());
+        for (final double[] returns : series) {
+            tasks.add(new Callable<Garch11>() {
+                @Override
+                public Garch11 call() {
+                    return new Garch11(returns);
+                }
+            });
+        }
+        return Concurrency.invokeAll(executor, tasks);
+    }
+
+    /**
+     * Calculates conditional volatilities.
+     * <p>
+     * The recursion starts from the unconditional variance {@latex$ \omega / (1 - \alpha - \beta) }, or from the
+     * first squared return when the process is not stationary.
+     *
+     * @param result receives the volatilities, and can be the same array as <code>returns</code>
+     * @return <code>result</code>
+     */
+    public static double[] calculate(
+            final double[] returns,
+            final double alpha, final double beta, final double omega,
+            final double[] result) {
+        QL.require(result.length >= returns.length, "result array is too small");
+        double sigma2 = initialVariance(returns, alpha, beta, omega);
+        for (int i = 0; i < returns.length; i++) {
+            final double u = returns[i];
+            result[i] = Math.sqrt(sigma2);
+            sigma2 = omega + alpha * u * u + beta * sigma2;
+        }
+        return result;
+    }
+
+    /**
+     * @return the Gaussian negative log-likelihood of <code>returns</code>, up to a factor and a constant, i.e:
+     * {@latex$ \sum_t \log \sigma_t^2 + r_t^2 / \sigma_t^2 }
+     */
+    public static double costFunction(final double[] returns, final double alpha, final double beta, final double omega) {
+        double sigma2 = initialVariance(returns, alpha, beta, omega);
         double retval = 0.0;
-        for (final Date date : Iterables.unmodifiableIterable(test.navigableKeySet())) {
-            double v = test.get(date);
-            double u = vs.get(date);
-            v *= v;
-            u *= u;
-            retval += 2.0 * Math.log(v) + u/(v*v) ;
+        for (int i = 0; i < returns.length; i++) {
+            final double u2 = returns[i] * returns[i];
+            retval += Math.log(sigma2) + u2 / sigma2;
+            sigma2 = omega + alpha * u2 + beta * sigma2;
         }
-		return retval ;
+        return retval;
+    }
+
+
+    //
+    // protected methods
+    //
+
+	protected double costFunction (final TimeSeries<Double> vs, final double alpha, final double beta, final double omega) {
+		return costFunction(values(vs), alpha, beta, omega);
 	}
 
+
+    //
+    // private methods
+    //
+
 	private TimeSeries<Double> calculate(final TimeSeries<Double> vs, final double alpha, final double beta, final double omega) {
+        final double[] volatilities = calculate(values(vs), alpha, beta, omega, new double[vs.size()]);
 		final TimeSeries<Double> retValue = new TimeSeries<Double>(Double.class);
         final Iterator<Date> dates = vs.navigableKeySet().iterator();
-		Date date = dates.next();
-
-		final double zerothDayValue = vs.get(date);
-		retValue.put(date, zerothDayValue) ;
-		double u = 0;
-        double sigma2 = zerothDayValue * zerothDayValue ;
-        while (dates.hasNext()) {
-            date = dates.next();
-            u = vs.get(date);
-            sigma2 = (omega * u * u) + (beta * sigma2) ;
-            retValue.put(date, Math.sqrt(sigma2)) ;
+        for (int i = 0; dates.hasNext(); i++) {
+            retValue.put(dates.next(), volatilities[i]);
         }
 		return retValue ;
 	}
+
+    private static double[] values(final TimeSeries<Double> vs) {
+        final double[] result = new double[vs.size()];
+        int i = 0;
+        for (final Double value : vs.values()) {
+            result[i++] = value;
+        }
+        return result;
+    }
+
+    private static double initialVariance(final double[] returns, final double alpha, final double beta, final double omega) {
+        final double persistence = alpha + beta;
+        return (persistence < 1.0) ? omega / (1.0 - persistence) : returns[0] * returns[0];
+    }
+
+    /**
+     * Maps {@latex$ (\alpha, \beta) } to unconstrained coordinates: the first one is the logit of the persistence
+     * {@latex$ \alpha + \beta }, the second one is the logit of {@latex$ \alpha / (\alpha + \beta) }.
+     */
+    private static Array toUnconstrained(final double alpha, final double beta) {
+        final double persistence = alpha + beta;
+        final double share = alpha / persistence;
+        return new Array(new double[] { Math.log(persistence / (1.0 - persistence)), Math.log(share / (1.0 - share)) });
+    }
+
+    private static double[] fromUnconstrained(final Array x) {
+        final double persistence = 1.0 / (1.0 + Math.exp(-x.get(0)));
+        final double alpha = persistence / (1.0 + Math.exp(-x.get(1)));
+        return new double[] { alpha, persistence - alpha };
+    }
+
+
+    //
+    // private inner classes
+    //
+
+    /**
+     * Negative log-likelihood, written as a sum of squares so that it can be minimized by least squares methods
+     * as well.
+     * <p>
+     * Each term {@latex$ l_t = \log \sigma_t^2 + r_t^2 / \sigma_t^2 } is bounded below by its minimum over
+     * {@latex$ \sigma_t^2 }, which is {@latex$ 1 + \log r_t^2 }; residuals are the square roots of the distances to
+     * these bounds, hence the sum of their squares differs from the likelihood function by a constant only.
+     */
+    private static class LikelihoodFunction extends CostFunction {
+
+        private final double[] returns;
+        private final double[] bounds;
+        private final double variance;
+
+        public LikelihoodFunction(final double[] returns, final double variance) {
+            this.returns = returns;
+            this.variance = variance;
+            this.bounds = new double[returns.length];
+            // null returns have no lower bound; these are floored, and residuals are floored at zero accordingly
+            final double floor = variance * Constants.QL_EPSILON;
+            for (int i = 0; i < returns.length; i++) {
+                bounds[i] = 1.0 + Math.log(Math.max(returns[i] * returns[i], floor));
+            }
+        }
+
+        @Override
+        public Array values(final Array x) {
+            final double[] ab = fromUnconstrained(x);
+            final double alpha = ab[0];
+            final double beta = ab[1];
+            final double omega = (1.0 - alpha - beta) * variance;
+            final double[] residuals = new double[returns.length];
+            double sigma2 = variance;
+            for (int i = 0; i < returns.length; i++) {
+                final double u2 = returns[i] * returns[i];
+                residuals[i] = Math.sqrt(Math.max(Math.log(sigma2) + u2 / sigma2 - bounds[i], 0.0));
+                sigma2 = omega + alpha * u2 + beta * sigma2;
+            }
+            return new Array(residuals);
+        }
+
+        @Override
+        public double value(final Array x) {
+            final Array residuals = values(x);
+            return residuals.dotProduct(residuals);
+        }
+    }
+
 }
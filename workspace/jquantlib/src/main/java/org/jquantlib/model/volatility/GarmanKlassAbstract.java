@@ -39,10 +39,7 @@
 
 package org.jquantlib.model.volatility;
 
-import org.jquantlib.lang.iterators.Iterables;
 import org.jquantlib.math.IntervalPrice;
-import org.jquantlib.time.Date;
-import org.jquantlib.time.TimeSeries;
 
 /**
  * Garman-Klass volatility model
@@ -55,7 +52,7 @@ import org.jquantlib.time.TimeSeries;
  *
  * @author Anand Mani
  */
-public abstract class GarmanKlassAbstract implements LocalVolatilityEstimator<IntervalPrice> {
+public abstract class GarmanKlassAbstract extends AbstractLocalEstimator<IntervalPrice> {
 
 	private final double yearFraction;
 
@@ -64,13 +61,13 @@ public abstract class GarmanKlassAbstract implements LocalVolatilityEstimator<In
 	}
 
 	@Override
-	public TimeSeries<Double> calculate(final TimeSeries<IntervalPrice> quotes) {
-		final TimeSeries<Double> retval = new TimeSeries<Double>(Double.class);
-		for (final Date date : Iterables.unmodifiableIterable(quotes.navigableKeySet())) {
-            final IntervalPrice curr = quotes.get(date);
-            retval.put(date, Math.sqrt(Math.abs(calculatePoint(curr)) / yearFraction) );
-		}
-		return retval;
+	public double update(final IntervalPrice quote) {
+		return Math.sqrt(Math.abs(calculatePoint(quote)) / yearFraction);
+	}
+
+	@Override
+	public void reset() {
+		// estimates depend on the current quote only
 	}
 
 	public double getYearFraction() {
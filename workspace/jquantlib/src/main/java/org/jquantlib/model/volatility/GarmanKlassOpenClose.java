@@ -39,12 +39,8 @@
 
 package org.jquantlib.model.volatility;
 
-import java.util.Iterator;
-
 import org.jquantlib.lang.exceptions.LibraryException;
 import org.jquantlib.math.IntervalPrice;
-import org.jquantlib.time.Date;
-import org.jquantlib.time.TimeSeries;
 
 /**
  * This template factors out common functionality found in classes which rely on the difference between the previous day's close
@@ -53,7 +49,7 @@ import org.jquantlib.time.TimeSeries;
  * @author Anand Mani
  * @author Richard Gomes
  */
-public class GarmanKlassOpenClose<T extends GarmanKlassAbstract> implements LocalVolatilityEstimator<IntervalPrice> {
+public class GarmanKlassOpenClose<T extends GarmanKlassAbstract> extends AbstractLocalEstimator<IntervalPrice> {
 
     //
     // private fields
@@ -62,6 +58,7 @@ public class GarmanKlassOpenClose<T extends GarmanKlassAbstract> implements Loca
     private final double f;
     private final double a;
     private T delegate;
+    private double c0;
 
 	private final Class<? extends GarmanKlassAbstract> classT;
 
@@ -85,6 +82,7 @@ public class GarmanKlassOpenClose<T extends GarmanKlassAbstract> implements Loca
         }
         this.f = marketOpenFraction;
         this.a = a;
+        this.c0 = Double.NaN;
     }
 
     //
@@ -92,21 +90,16 @@ public class GarmanKlassOpenClose<T extends GarmanKlassAbstract> implements Loca
     //
 
     @Override
-    public TimeSeries<Double> calculate(final TimeSeries<IntervalPrice> quotes) {
-        final TimeSeries<Double> retval = new TimeSeries<Double>(Double.class);
-        final Iterator<Date> it = quotes.navigableKeySet().iterator();
-        Date date = it.next();
-        IntervalPrice prev = quotes.get(date);
-        while (it.hasNext()) {
-            date = it.next();
-            final IntervalPrice curr = quotes.get(date);
-            final double c0 = Math.log(prev.close());
-            final double o1 = Math.log(curr.open());
-            final double sigma2 = this.a * (o1 - c0) * (o1 - c0) / this.f + (1 - this.a) * delegate.calculatePoint(curr) / (1 - this.f);
-            retval.put(date, Math.sqrt(sigma2 / delegate.getYearFraction()) );
-            prev = curr;
-        }
-        return retval;
+    public double update(final IntervalPrice curr) {
+        final double o1 = Math.log(curr.open());
+        final double sigma2 = this.a * (o1 - c0) * (o1 - c0) / this.f + (1 - this.a) * delegate.calculatePoint(curr) / (1 - this.f);
+        c0 = Math.log(curr.close());
+        return Math.sqrt(sigma2 / delegate.getYearFraction());
+    }
+
+    @Override
+    public void reset() {
+        c0 = Double.NaN;
     }
 
 }
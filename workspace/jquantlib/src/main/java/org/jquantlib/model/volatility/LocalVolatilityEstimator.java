@@ -50,5 +50,22 @@ import org.jquantlib.time.TimeSeries;
  */
 public interface LocalVolatilityEstimator<V> {
 
+    /**
+     * Calculates local volatilities of a complete series.
+     * <p>
+     * This method restarts the incremental calculation performed by {@link #update(Object)}.
+     */
     TimeSeries<Double> calculate(final TimeSeries<V> quoteSeries) ;
+
+    /**
+     * Incorporates the next quote of a series.
+     *
+     * @return the estimate at the given quote, or <code>Double.NaN</code> when previous quotes are needed
+     */
+    double update(final V quote) ;
+
+    /**
+     * Discards quotes incorporated by {@link #update(Object)}
+     */
+    void reset() ;
 }
@@ -0,0 +1,108 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.model.volatility;
+
+import org.jquantlib.QL;
+
+/**
+ * Rolling window volatility over a stream of quotes
+ * <p>
+ * Local volatilities are obtained from an underlying {@link LocalVolatilityEstimator} and the estimate is the root
+ * mean square of the last <i>size</i> of them. Each update takes constant time: squared local volatilities are kept
+ * in a circular buffer and their sum is updated as they enter and leave the window. The sum is recalculated from
+ * the buffer whenever the buffer wraps around, so that rounding errors do not accumulate.
+ * <p>
+ * Volatilities are assumed to be expressed on an annual basis.
+ *
+ * @author agent
+ */
+public class RollingVolatilityEstimator<V> extends AbstractLocalEstimator<V> {
+
+    private final LocalVolatilityEstimator<V> estimator;
+    private final double[] window;
+    private int count;
+    private int next;
+    private double sum;
+
+
+    //
+    // public constructors
+    //
+
+    public RollingVolatilityEstimator(final LocalVolatilityEstimator<V> estimator, final int size) {
+        QL.require(size > 0, "window size must be positive");
+        this.estimator = estimator;
+        this.window = new double[size];
+        reset();
+    }
+
+
+    //
+    // public methods
+    //
+
+    /**
+     * @return the current estimate, or <code>Double.NaN</code> while the window is not full
+     */
+    public double value() {
+        return (count < window.length) ? Double.NaN : Math.sqrt(sum / count);
+    }
+
+
+    //
+    // implements LocalVolatilityEstimator
+    //
+
+    @Override
+    public double update(final V quote) {
+        final double local = estimator.update(quote);
+        if (Double.isNaN(local))
+            return Double.NaN;
+
+        final double x = local * local;
+        if (count == window.length) {
+            sum -= window[next];
+        } else {
+            count++;
+        }
+        window[next] = x;
+        sum += x;
+        if (++next == window.length) {
+            next = 0;
+            sum = 0.0;
+            for (final double w : window) {
+                sum += w;
+            }
+        }
+        return value();
+    }
+
+    @Override
+    public void reset() {
+        estimator.reset();
+        count = 0;
+        next = 0;
+        sum = 0.0;
+    }
+
+}
@@ -39,11 +39,6 @@
 
 package org.jquantlib.model.volatility;
 
-import java.util.Iterator;
-
-import org.jquantlib.time.Date;
-import org.jquantlib.time.TimeSeries;
-
 /**
  * Simple Local Estimator volatility model
  * <p>
@@ -52,26 +47,31 @@ import org.jquantlib.time.TimeSeries;
  * @author Rajiv Chauhan
  * @author Anand Mani
  */
-public class SimpleLocalEstimator {
+public class SimpleLocalEstimator extends AbstractLocalEstimator<Double> {
 
 	private final /* @Real */ double yearFraction ;
+	private double prev;
 
     public SimpleLocalEstimator(final /*@Real*/ double y) {
         this.yearFraction = y;
+        this.prev = Double.NaN;
+    }
+
+    //
+    // implements LocalVolatilityEstimator
+    //
+
+    @Override
+    public double update(final Double quote) {
+        final double curr = quote;
+        final double value = Math.abs(Math.log(curr/prev))/Math.sqrt(yearFraction) ;
+        prev = curr;
+        return value;
     }
 
-    public TimeSeries<Double> calculate(final TimeSeries<Double> quotes) {
-        final TimeSeries<Double> retval = new TimeSeries<Double>(Double.class);
-        final Iterator<Date> dates = quotes.navigableKeySet().iterator();
-    	double prev = quotes.get(dates.next());
-    	while (dates.hasNext()) {
-    	    final Date date = dates.next();
-            final double curr = quotes.get(date) ;
-            final double value = Math.abs(Math.log(curr/prev))/Math.sqrt(yearFraction) ;
-            retval.put(date, value);
-            prev = curr;
-    	}
-        return retval;
+    @Override
+    public void reset() {
+        prev = Double.NaN;
     }
 
 }
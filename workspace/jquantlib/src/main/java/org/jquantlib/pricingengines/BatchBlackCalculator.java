@@ -0,0 +1,342 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.pricingengines;
+
+import java.util.EnumSet;
+import java.util.concurrent.ExecutorService;
+
+import org.jquantlib.QL;
+import org.jquantlib.math.Constants;
+import org.jquantlib.math.distributions.CumulativeNormalDistribution;
+import org.jquantlib.util.Concurrency;
+
+/**
+ * Black formula calculator for batches of plain vanilla options
+ * <p>
+ * Inputs are given as parallel arrays, one element per option, and each requested output is written to its own
+ * array, so that millions of options can be priced without creating a {@link BlackCalculator}, payoff or term
+ * structure per option. Formulas are the ones of {@link BlackCalculator} for {@link org.jquantlib.instruments.PlainVanillaPayoff}s
+ * and only requested outputs are calculated; unlike {@link AnalyticEuropeanEngine}, theta is reported as
+ * <code>Double.NaN</code> for null maturities without resorting to exceptions.
+ * <p>
+ * Options are split in chunks which are executed by the given executor.
+ *
+ * @see BlackCalculator
+ *
+ * @author agent
+ */
+public class BatchBlackCalculator {
+
+    private static final String INCOMPATIBLE_ARRAY_SIZES = "incompatible array sizes";
+    private static final String SPOTS_REQUIRED = "spot values required";
+    private static final String TIMES_REQUIRED = "times to maturity required";
+
+    private static final int minOptionsPerTask = 4096;
+
+    private final ExecutorService executor;
+
+
+    //
+    // public constructors
+    //
+
+    /**
+     * @param executor runs the calculations; when <code>null</code>, everything runs on the calling thread
+     */
+    public BatchBlackCalculator(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
+
+    //
+    // public methods
+    //
+
+    /**
+     * Calculates the requested outputs of a batch of options
+     *
+     * @param outputs are the requested outputs
+     * @param forward are the forward prices of the underlying
+     * @param strike are the strikes
+     * @param stdDev are the standard deviations of the logarithm of the underlying at maturity
+     * @param discount are the discount factors to maturity
+     * @param call tells if options are calls or puts
+     * @param spot are the spot prices of the underlying, required by {@link Output#Delta}, {@link Output#Gamma} and
+     *        {@link Output#Theta}; possibly <code>null</code> otherwise
+     * @param time are the times to maturity, required by {@link Output#Vega}, {@link Output#Rho},
+     *        {@link Output#DividendRho} and {@link Output#Theta}; possibly <code>null</code> otherwise
+     */
+    public Results calculate(
+            final EnumSet<Output> outputs,
+            final double[] forward,
+            final double[] strike,
+            final double[] stdDev,
+            final double[] discount,
+            final boolean[] call,
+            final double[] spot,
+            final double[] time) {
+        final Results results = new Results(outputs, forward.length);
+        calculate(forward, strike, stdDev, discount, call, spot, time, results);
+        return results;
+    }
+
+    /**
+     * Calculates the outputs of <code>results</code> for a batch of options, overwriting them
+     * <p>
+     * Reusing the same results avoids allocating output arrays for each batch.
+     *
+     * @see #calculate(EnumSet, double[], double[], double[], double[], boolean[], double[], double[])
+     */
+    public void calculate(
+            final double[] forward,
+            final double[] strike,
+            final double[] stdDev,
+            final double[] discount,
+            final boolean[] call,
+            final double[] spot,
+            final double[] time,
+            final Results results) {
+        final int size = forward.length;
+        QL.require(strike.length == size && stdDev.length == size && discount.length == size && call.length == size
+                && results.size() == size, INCOMPATIBLE_ARRAY_SIZES);
+        final int mask = results.mask;
+        if ((mask & (bit(Output.Delta) | bit(Output.Gamma) | bit(Output.Theta))) != 0) {
+            QL.require(spot != null && spot.length == size, SPOTS_REQUIRED);
+        }
+        if ((mask & (bit(Output.Vega) | bit(Output.Rho) | bit(Output.DividendRho) | bit(Output.Theta))) != 0) {
+            QL.require(time != null && time.length == size, TIMES_REQUIRED);
+        }
+
+        Concurrency.forEachChunk(executor, size, minOptionsPerTask, new Concurrency.RangeTask() {
+            @Override
+            public void run(final int from, final int to) {
+                calculate(from, to, forward, strike, stdDev, discount, call, spot, time, results);
+            }
+        });
+    }
+
+
+    //
+    // private methods
+    //
+
+    private static int bit(final Output output) {
+        return 1 << output.ordinal();
+    }
+
+    private static void calculate(
+            final int from,
+            final int to,
+            final double[] forward,
+            final double[] strike,
+            final double[] stdDev,
+            final double[] discount,
+            final boolean[] call,
+            final double[] spot,
+            final double[] time,
+            final Results results) {
+        final CumulativeNormalDistribution f = new CumulativeNormalDistribution();
+        final int mask = results.mask;
+        final boolean needsDelta = (mask & (bit(Output.Delta) | bit(Output.Theta))) != 0;
+        final boolean needsGamma = (mask & (bit(Output.Gamma) | bit(Output.Theta))) != 0;
+        final boolean needsValue = (mask & (bit(Output.Value) | bit(Output.Rho) | bit(Output.Theta))) != 0;
+
+        final double[] value = results.outputs[Output.Value.ordinal()];
+        final double[] delta = results.outputs[Output.Delta.ordinal()];
+        final double[] deltaForward = results.outputs[Output.DeltaForward.ordinal()];
+        final double[] gamma = results.outputs[Output.Gamma.ordinal()];
+        final double[] gammaForward = results.outputs[Output.GammaForward.ordinal()];
+        final double[] vega = results.outputs[Output.Vega.ordinal()];
+        final double[] rho = results.outputs[Output.Rho.ordinal()];
+        final double[] dividendRho = results.outputs[Output.DividendRho.ordinal()];
+        final double[] theta = results.outputs[Output.Theta.ordinal()];
+        final double[] itmCashProbability = results.outputs[Output.ItmCashProbability.ordinal()];
+        final double[] strikeSensitivity = results.outputs[Output.StrikeSensitivity.ordinal()];
+
+        for (int i = from; i < to; i++) {
+            final double F = forward[i];
+            final double K = strike[i];
+            final double s = stdDev[i];
+            final double D = discount[i];
+            QL.require(F > 0.0, "positive forward value required");
+            QL.require(s >= 0.0, "non-negative standard deviation required");
+            QL.require(D > 0.0, "positive discount required");
+
+            // same branches as BlackCalculator
+            double d1 = 0.0, d2 = 0.0;
+            final double cum_d1, cum_d2, n_d1, n_d2;
+            if (s >= Constants.QL_EPSILON) {
+                if (K == 0.0) {
+                    n_d1 = n_d2 = 0.0;
+                    cum_d1 = cum_d2 = 1.0;
+                } else {
+                    d1 = Math.log(F / K) / s + 0.5 * s;
+                    d2 = d1 - s;
+                    cum_d1 = f.op(d1);
+                    cum_d2 = f.op(d2);
+                    n_d1 = f.derivative(d1);
+                    n_d2 = f.derivative(d2);
+                }
+            } else {
+                cum_d1 = cum_d2 = (F > K) ? 1.0 : 0.0;
+                n_d1 = n_d2 = 0.0;
+            }
+            final double alpha, beta;
+            if (call[i]) {
+                alpha = cum_d1;
+                beta = -cum_d2;
+            } else {
+                alpha = -1.0 + cum_d1;
+                beta = 1.0 - cum_d2;
+            }
+            final double dAlpha_dD1 = n_d1;
+            final double dBeta_dD2 = -n_d2;
+
+            double v = 0.0;
+            if (needsValue) {
+                v = D * (F * alpha + K * beta);
+                if (value != null) {
+                    value[i] = v;
+                }
+            }
+
+            double S = 0.0, dS = 0.0, gS = 0.0;
+            if (needsDelta || needsGamma) {
+                S = spot[i];
+                QL.require(S > 0.0, "positive spot value required");
+                final double DforwardDs = F / S;
+                final double temp = s * S;
+                final double DalphaDs = dAlpha_dD1 / temp;
+                final double DbetaDs = dBeta_dD2 / temp;
+                if (needsDelta) {
+                    dS = D * (DalphaDs * F + alpha * DforwardDs + DbetaDs * K);
+                    if (delta != null) {
+                        delta[i] = dS;
+                    }
+                }
+                if (needsGamma) {
+                    final double D2alphaDs2 = -DalphaDs / S * (1 + d1 / s);
+                    final double D2betaDs2 = -DbetaDs / S * (1 + d2 / s);
+                    gS = D * (D2alphaDs2 * F + 2.0 * DalphaDs * DforwardDs + D2betaDs2 * K);
+                    if (gamma != null) {
+                        gamma[i] = gS;
+                    }
+                }
+            }
+
+            if (deltaForward != null || gammaForward != null) {
+                final double temp = s * F;
+                final double DalphaDforward = dAlpha_dD1 / temp;
+                final double DbetaDforward = dBeta_dD2 / temp;
+                if (deltaForward != null) {
+                    deltaForward[i] = D * (DalphaDforward * F + alpha + DbetaDforward * K);
+                }
+                if (gammaForward != null) {
+                    final double D2alphaDforward2 = -DalphaDforward / F * (1 + d1 / s);
+                    final double D2betaDforward2 = -DbetaDforward / F * (1 + d2 / s);
+                    gammaForward[i] = D * (D2alphaDforward2 * F + 2.0 * DalphaDforward + D2betaDforward2 * K);
+                }
+            }
+
+            if (vega != null) {
+                final double T = time[i];
+                QL.require(T >= 0.0, "negative maturity not allowed");
+                final double temp = Math.log(K / F) / (s * s);
+                vega[i] = D * Math.sqrt(T) * (dAlpha_dD1 * (temp + 0.5) * F + dBeta_dD2 * (temp - 0.5) * K);
+            }
+            if (rho != null) {
+                final double T = time[i];
+                QL.require(T >= 0.0, "negative maturity not allowed");
+                rho[i] = T * (D * (dAlpha_dD1 / s * F + alpha * F + dBeta_dD2 / s * K) - v);
+            }
+            if (dividendRho != null) {
+                final double T = time[i];
+                QL.require(T >= 0.0, "negative maturity not allowed");
+                dividendRho[i] = T * D * (-dAlpha_dD1 / s * F - alpha * F - dBeta_dD2 / s * K);
+            }
+            if (theta != null) {
+                final double T = time[i];
+                theta[i] = (T > 0.0)
+                        ? -(Math.log(D) * v + Math.log(F / S) * S * dS + 0.5 * s * s * S * S * gS) / T
+                        : Double.NaN;
+            }
+            if (itmCashProbability != null) {
+                itmCashProbability[i] = cum_d2;
+            }
+            if (strikeSensitivity != null) {
+                final double temp = s * K;
+                strikeSensitivity[i] = D * (-dAlpha_dD1 / temp * F - dBeta_dD2 / temp * K + beta);
+            }
+        }
+    }
+
+
+    //
+    // public inner classes
+    //
+
+    /**
+     * Outputs which can be requested from a {@link BatchBlackCalculator}
+     * <p>
+     * Greeks have the same meaning as the ones returned by {@link BlackCalculator}.
+     */
+    public enum Output {
+        Value, Delta, DeltaForward, Gamma, GammaForward, Vega, Rho, DividendRho, Theta, ItmCashProbability, StrikeSensitivity
+    }
+
+    /**
+     * Output arrays of a batch, one per requested output
+     */
+    public static class Results {
+        private final int size;
+        private final int mask;
+        private final double[][] outputs;
+
+        public Results(final EnumSet<Output> requested, final int size) {
+            this.size = size;
+            this.outputs = new double[Output.values().length][];
+            int m = 0;
+            for (final Output output : requested) {
+                outputs[output.ordinal()] = new double[size];
+                m |= bit(output);
+            }
+            this.mask = m;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean contains(final Output output) {
+            return (mask & bit(output)) != 0;
+        }
+
+        /**
+         * @return the array of the given output, which is not copied; <code>null</code> if it was not requested
+         */
+        public double[] get(final Output output) {
+            return outputs[output.ordinal()];
+        }
+    }
+
+}
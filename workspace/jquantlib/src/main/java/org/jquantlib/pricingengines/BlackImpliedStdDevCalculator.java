@@ -0,0 +1,560 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.pricingengines;
+
+import java.util.concurrent.ExecutorService;
+
+import org.jquantlib.QL;
+import org.jquantlib.instruments.Option;
+import org.jquantlib.math.Constants;
+import org.jquantlib.math.ErrorFunction;
+import org.jquantlib.math.distributions.InverseCumulativeNormal;
+import org.jquantlib.util.Concurrency;
+
+/**
+ * Black 1976 implied standard deviations of plain vanilla options
+ * <p>
+ * Implied standard deviations are obtained as described in P. J&auml;ckel, <i>Let's Be Rational</i>, Wilmott (2015),
+ * pp. 40-53: prices are normalised and mapped to out-of-the-money calls; an initial guess is interpolated by
+ * rational cubic functions on four branches of transformed normalised Black functions; two Householder iterations of
+ * third order on an objective function which depends on the branch bring the guess to machine precision. No generic
+ * solver is involved, so that an implied standard deviation costs a few evaluations of the normalised Black function.
+ * <p>
+ * Batches are given as parallel arrays, one element per option, and are split in chunks which are executed by the
+ * given executor. Prices which are not attainable, i.e: below the intrinsic value or not below the forward price of
+ * calls or the strike of puts, give <code>Double.NaN</code>.
+ *
+ * @see BlackFormula#blackFormulaImpliedStdDev(Option.Type, double, double, double, double)
+ *
+ * @author agent
+ */
+public class BlackImpliedStdDevCalculator {
+
+    private static final String INCOMPATIBLE_ARRAY_SIZES = "incompatible array sizes";
+
+    private static final int minOptionsPerTask = 1024;
+    private static final int maxIterations = 2;
+
+    private static final double DBL_EPSILON = Constants.QL_EPSILON;
+    private static final double DBL_MIN = Double.MIN_NORMAL;
+    private static final double SQRT_DBL_MAX = Math.sqrt(Double.MAX_VALUE);
+    private static final double SQRT_THREE = Math.sqrt(3.0);
+    private static final double SQRT_PI_OVER_TWO = Math.sqrt(0.5 * Constants.M_PI);
+    private static final double TWO_PI_OVER_SQRT_TWENTY_SEVEN = Constants.M_TWOPI / Math.sqrt(27.0);
+    private static final double PI_OVER_SIX = Constants.M_PI / 6.0;
+
+    // thresholds of the branches of the normalised Black function
+    private static final double asymptoticExpansionThreshold = -10.0;
+    private static final double smallTExpansionThreshold = 0.21;
+    private static final double normCdfThreshold = 0.85;
+
+    // limits of the control parameter of rational cubic interpolations
+    private static final double minimumRationalCubicControlParameter = -(1.0 - Math.sqrt(DBL_EPSILON));
+    private static final double maximumRationalCubicControlParameter = 2.0 / (DBL_EPSILON * DBL_EPSILON);
+
+    private static final ErrorFunction errorFunction = new ErrorFunction();
+
+    private final ExecutorService executor;
+
+
+    //
+    // public constructors
+    //
+
+    /**
+     * @param executor runs the calculations; when <code>null</code>, everything runs on the calling thread
+     */
+    public BlackImpliedStdDevCalculator(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
+
+    //
+    // public methods
+    //
+
+    /**
+     * Calculates implied standard deviations of a batch of options
+     *
+     * @param forward are the forward prices of the underlying
+     * @param strike are the strikes
+     * @param price are the discounted prices of the options
+     * @param discount are the discount factors to maturity
+     * @param call tells if options are calls or puts
+     * @return the implied standard deviations, i.e: volatility*sqrt(timeToMaturity)
+     */
+    public double[] calculate(
+            final double[] forward,
+            final double[] strike,
+            final double[] price,
+            final double[] discount,
+            final boolean[] call) {
+        final double[] stdDev = new double[forward.length];
+        calculate(forward, strike, price, discount, call, stdDev);
+        return stdDev;
+    }
+
+    /**
+     * Calculates implied standard deviations of a batch of options, overwriting <code>stdDev</code>
+     * <p>
+     * Reusing the same output array avoids allocating it for each batch.
+     *
+     * @see #calculate(double[], double[], double[], double[], boolean[])
+     */
+    public void calculate(
+            final double[] forward,
+            final double[] strike,
+            final double[] price,
+            final double[] discount,
+            final boolean[] call,
+            final double[] stdDev) {
+        final int size = forward.length;
+        QL.require(strike.length == size && price.length == size && discount.length == size && call.length == size
+                && stdDev.length == size, INCOMPATIBLE_ARRAY_SIZES);
+
+        Concurrency.forEachChunk(executor, size, minOptionsPerTask, new Concurrency.RangeTask() {
+            @Override
+            public void run(final int from, final int to) {
+                final InverseCumulativeNormal inverse = new InverseCumulativeNormal();
+                for (int i = from; i < to; i++) {
+                    final double D = discount[i];
+                    stdDev[i] = D > 0.0 ? impliedStdDev(price[i] / D, forward[i], strike[i], call[i], inverse) : Double.NaN;
+                }
+            }
+        });
+    }
+
+
+    //
+    // public static methods
+    //
+
+    /**
+     * Black 1976 implied standard deviation, i.e. volatility*sqrt(timeToMaturity)
+     *
+     * @return the implied standard deviation, or <code>Double.NaN</code> when the price is not attainable
+     */
+    public static double impliedStdDev(
+            final Option.Type optionType,
+            final double strike,
+            final double forward,
+            final double blackPrice,
+            final double discount) {
+        QL.require(strike > 0.0, "strike must be positive");
+        QL.require(forward > 0.0, "forward must be positive");
+        QL.require(blackPrice >= 0.0, "blackPrice must be non-negative");
+        QL.require(discount > 0.0, "discount must be positive");
+        return impliedStdDev(blackPrice / discount, forward, strike, optionType == Option.Type.Call, new InverseCumulativeNormal());
+    }
+
+
+    //
+    // private static methods
+    //
+
+    private static double impliedStdDev(
+            double price,
+            final double forward,
+            final double strike,
+            final boolean call,
+            final InverseCumulativeNormal inverse) {
+        if (!(forward > 0.0 && strike > 0.0 && price >= 0.0)) return Double.NaN;
+        double theta = call ? 1.0 : -1.0;
+        final double intrinsic = Math.max(theta * (forward - strike), 0.0);
+        if (price < intrinsic || price >= (call ? forward : strike)) return Double.NaN;
+
+        double x = Math.log(forward / strike);
+        // in-the-money options are mapped to out-of-the-money options through put-call parity
+        if (theta * x > 0.0) {
+            price = Math.max(price - intrinsic, 0.0);
+            theta = -theta;
+        }
+        // puts are mapped to calls
+        if (theta < 0.0) {
+            x = -x;
+        }
+        return normalisedImpliedStdDev(price / (Math.sqrt(forward) * Math.sqrt(strike)), x, inverse);
+    }
+
+    /**
+     * Implied standard deviation of an out-of-the-money call, i.e: <code>x&lt;=0</code>, whose normalised price is
+     * <code>beta</code>
+     */
+    private static double normalisedImpliedStdDev(final double beta, final double x, final InverseCumulativeNormal inverse) {
+        if (beta <= 0.0) return 0.0;
+        final double bMax = Math.exp(0.5 * x);
+        if (beta >= bMax) return Double.NaN;
+
+        double s;
+        double sLeft = DBL_MIN, sRight = Double.MAX_VALUE;
+        final double sC = Math.sqrt(Math.abs(2.0 * x));
+        final double bC = normalisedBlack(x, sC);
+        final double vC = normalisedVega(x, sC);
+
+        if (beta < bC) {
+            final double sL = sC - bC / vC;
+            final double bL = normalisedBlack(x, sL);
+            if (beta < bL) {
+                // lowest branch: interpolation of the lower map, then iterations on 1/ln(b(s))-1/ln(beta)
+                final double[] fL = lowerMap(x, sL);
+                final double rLL = convexControlParameterAtRightSide(0.0, bL, 0.0, fL[0], 1.0, fL[1], fL[2], true);
+                double f = rationalCubicInterpolation(beta, 0.0, bL, 0.0, fL[0], 1.0, fL[1], rLL);
+                if (!(f > 0.0)) {
+                    // quadratic interpolation with f(0)=0, f(bL) and f'(0)=1
+                    final double t = beta / bL;
+                    f = (fL[0] * t + bL * (1.0 - t)) * t;
+                }
+                s = inverseLowerMap(x, f, inverse);
+                sRight = sL;
+                double ds = Double.MAX_VALUE;
+                for (int iterations = 0; iterations < maxIterations && Math.abs(ds) > DBL_EPSILON * s; iterations++) {
+                    final double b = normalisedBlack(x, s);
+                    final double bp = normalisedVega(x, s);
+                    if (b > beta && s < sRight) sRight = s;
+                    else if (b < beta && s > sLeft) sLeft = s;
+                    if (b <= 0.0 || bp <= 0.0) {
+                        // underflow: bisection
+                        ds = 0.5 * (sLeft + sRight) - s;
+                    } else {
+                        final double lnB = Math.log(b), lnBeta = Math.log(beta);
+                        final double bpob = bp / b, h = x / s;
+                        final double bHalley = h * h / s - 0.25 * s;
+                        final double newton = (lnBeta - lnB) * lnB / lnBeta / bpob;
+                        final double halley = bHalley - bpob * (1.0 + 2.0 / lnB);
+                        final double bHh3 = bHalley * bHalley - 3.0 * (h / s) * (h / s) - 0.25;
+                        final double hh3 = bHh3 + 2.0 * bpob * bpob * (1.0 + 3.0 / lnB * (1.0 + 1.0 / lnB)) - 3.0 * bHalley * bpob * (1.0 + 2.0 / lnB);
+                        ds = newton * householderFactor(newton, halley, hh3);
+                    }
+                    ds = Math.max(-0.5 * s, ds);
+                    s += ds;
+                }
+                return s;
+            }
+            // lower middle branch
+            final double vL = normalisedVega(x, sL);
+            final double rLM = convexControlParameterAtRightSide(bL, bC, sL, sC, 1.0 / vL, 1.0 / vC, 0.0, false);
+            s = rationalCubicInterpolation(beta, bL, bC, sL, sC, 1.0 / vL, 1.0 / vC, rLM);
+            sLeft = sL;
+            sRight = sC;
+        } else {
+            final double sH = vC > DBL_MIN ? sC + (bMax - bC) / vC : sC;
+            final double bH = normalisedBlack(x, sH);
+            if (beta <= bH) {
+                // upper middle branch
+                final double vH = normalisedVega(x, sH);
+                final double rHM = convexControlParameterAtLeftSide(bC, bH, sC, sH, 1.0 / vC, 1.0 / vH, 0.0, false);
+                s = rationalCubicInterpolation(beta, bC, bH, sC, sH, 1.0 / vC, 1.0 / vH, rHM);
+                sLeft = sC;
+                sRight = sH;
+            } else {
+                // highest branch: interpolation of the upper map, then iterations on ln(bMax-beta)-ln(bMax-b(s))
+                final double[] fH = upperMap(x, sH);
+                double f = 0.0;
+                if (fH[2] > -SQRT_DBL_MAX && fH[2] < SQRT_DBL_MAX) {
+                    final double rHH = convexControlParameterAtLeftSide(bH, bMax, fH[0], 0.0, fH[1], -0.5, fH[2], true);
+                    f = rationalCubicInterpolation(beta, bH, bMax, fH[0], 0.0, fH[1], -0.5, rHH);
+                }
+                if (f <= 0.0) {
+                    // quadratic interpolation with f(bH), f(bMax)=0 and f'(bMax)=-1/2
+                    final double h = bMax - bH, t = (beta - bH) / h;
+                    f = (fH[0] * (1.0 - t) + 0.5 * h * t) * (1.0 - t);
+                }
+                s = -2.0 * inverseCumulativeNormal(f, inverse);
+                sLeft = sH;
+                if (beta > 0.5 * bMax) {
+                    double ds = Double.MAX_VALUE;
+                    for (int iterations = 0; iterations < maxIterations && Math.abs(ds) > DBL_EPSILON * s; iterations++) {
+                        final double b = normalisedBlack(x, s);
+                        final double bp = normalisedVega(x, s);
+                        if (b > beta && s < sRight) sRight = s;
+                        else if (b < beta && s > sLeft) sLeft = s;
+                        if (b >= bMax || bp <= DBL_MIN) {
+                            // no more precision left: bisection
+                            ds = 0.5 * (sLeft + sRight) - s;
+                        } else {
+                            final double bMaxMinusB = bMax - b;
+                            final double g = Math.log((bMax - beta) / bMaxMinusB);
+                            final double gp = bp / bMaxMinusB;
+                            final double bHalley = (x / s) * (x / s) / s - 0.25 * s;
+                            final double bHh3 = bHalley * bHalley - 3.0 * (x / (s * s)) * (x / (s * s)) - 0.25;
+                            final double newton = -g / gp;
+                            final double halley = bHalley + gp;
+                            final double hh3 = bHh3 + gp * (2.0 * gp + 3.0 * bHalley);
+                            ds = newton * householderFactor(newton, halley, hh3);
+                        }
+                        ds = Math.max(-0.5 * s, ds);
+                        s += ds;
+                    }
+                    return s;
+                }
+            }
+        }
+
+        // middle branches: iterations on b(s)-beta
+        double ds = Double.MAX_VALUE;
+        for (int iterations = 0; iterations < maxIterations && Math.abs(ds) > DBL_EPSILON * s; iterations++) {
+            final double b = normalisedBlack(x, s);
+            final double bp = normalisedVega(x, s);
+            if (b > beta && s < sRight) sRight = s;
+            else if (b < beta && s > sLeft) sLeft = s;
+            final double newton = (beta - b) / bp;
+            final double halley = (x / s) * (x / s) / s - 0.25 * s;
+            final double hh3 = halley * halley - 3.0 * (x / (s * s)) * (x / (s * s)) - 0.25;
+            ds = Math.max(-0.5 * s, newton * householderFactor(newton, halley, hh3));
+            s += ds;
+        }
+        return s;
+    }
+
+    private static double householderFactor(final double newton, final double halley, final double hh3) {
+        return (1.0 + 0.5 * halley * newton) / (1.0 + newton * (halley + hh3 * newton / 6.0));
+    }
+
+    /**
+     * Normalised Black call price <code>b(x,s) = &Phi;(x/s+s/2)exp(x/2) - &Phi;(x/s-s/2)exp(-x/2)</code>, evaluated by
+     * one of four expressions which avoid cancellation
+     */
+    private static double normalisedBlack(final double x, final double s) {
+        if (x > 0.0) {
+            // put-call parity
+            return 2.0 * Math.sinh(0.5 * x) + normalisedBlack(-x, s);
+        }
+        if (s <= 0.0) return 0.0;
+        final double h = x / s, t = 0.5 * s;
+        if (h < asymptoticExpansionThreshold && h + t < asymptoticExpansionThreshold + smallTExpansionThreshold) {
+            return asymptoticExpansionOfNormalisedBlack(h, t);
+        }
+        if (t < smallTExpansionThreshold) {
+            return smallTExpansionOfNormalisedBlack(h, t);
+        }
+        if (h + t > normCdfThreshold) {
+            return Math.max(cumulativeNormal(h + t) * Math.exp(0.5 * x) - cumulativeNormal(h - t) * Math.exp(-0.5 * x), 0.0);
+        }
+        // exp(-(h^2+t^2)/2)/2 * (erfcx(-(h+t)/sqrt(2)) - erfcx(-(h-t)/sqrt(2)))
+        final double b = 0.5 * Math.exp(-0.5 * (h * h + t * t))
+                * (errorFunction.erfcx(-Constants.M_SQRT1_2 * (h + t)) - errorFunction.erfcx(-Constants.M_SQRT1_2 * (h - t)));
+        return Math.max(b, 0.0);
+    }
+
+    /**
+     * Normalised Black call price for very negative <code>h+t</code>, where <code>b</code> is written in terms of the
+     * Mills ratio <code>R(z) = &Phi;(-z)/&phi;(z)</code> as <code>&phi;(sqrt(h^2+t^2))(R(-h-t)-R(t-h))</code> and
+     * differences of the terms of the asymptotic expansion of <code>R</code> are calculated without cancellation.
+     */
+    private static double asymptoticExpansionOfNormalisedBlack(final double h, final double t) {
+        final double u = -1.0 / (h + t), v = 1.0 / (t - h);
+        // d_n = u^n - v^n, with d_(n+1) = u d_n + v^n d_1
+        final double d1 = 2.0 * t * u * v;
+        double d = d1, vn = v, factor = 1.0, sum = d1, last = Double.MAX_VALUE;
+        for (int k = 1; ; k++) {
+            d = u * d + vn * d1;
+            vn *= v;
+            d = u * d + vn * d1;
+            vn *= v;
+            factor *= -(2 * k - 1);
+            final double term = factor * d;
+            if (Math.abs(term) >= last || Math.abs(term) <= DBL_EPSILON * sum) break;
+            sum += term;
+            last = Math.abs(term);
+        }
+        final double b = Constants.M_1_SQRT2PI * Math.exp(-0.5 * (h * h + t * t)) * sum;
+        return Math.max(b, 0.0);
+    }
+
+    /**
+     * Normalised Black call price for small <code>t</code>, as a Taylor expansion in <code>t</code> whose coefficients
+     * depend on <code>a = 1+h&Phi;(h)/&phi;(h)</code>
+     */
+    private static double smallTExpansionOfNormalisedBlack(final double h, final double t) {
+        final double a = 1.0 + h * SQRT_PI_OVER_TWO * errorFunction.erfcx(-Constants.M_SQRT1_2 * h);
+        final double w = t * t, h2 = h * h;
+        final double expansion = 2.0 * t * (a + w * ((-1.0 + 3.0 * a + a * h2) / 6.0
+                + w * ((-7.0 + 15.0 * a + h2 * (-1.0 + 10.0 * a + a * h2)) / 120.0
+                + w * ((-57.0 + 105.0 * a + h2 * (-18.0 + 105.0 * a + h2 * (-1.0 + 21.0 * a + a * h2))) / 5040.0
+                + w * ((-561.0 + 945.0 * a + h2 * (-285.0 + 1260.0 * a + h2 * (-33.0 + 378.0 * a + h2 * (-1.0 + 36.0 * a + a * h2)))) / 362880.0
+                + w * ((-6555.0 + 10395.0 * a + h2 * (-4680.0 + 17325.0 * a + h2 * (-840.0 + 6930.0 * a + h2 * (-52.0 + 990.0 * a + h2 * (-1.0 + 55.0 * a + a * h2))))) / 39916800.0
+                + w * ((-89055.0 + 135135.0 * a + h2 * (-82845.0 + 270270.0 * a + h2 * (-20370.0 + 135135.0 * a + h2 * (-1926.0 + 25740.0 * a + h2 * (-75.0 + 2145.0 * a + h2 * (-1.0 + 78.0 * a + a * h2)))))) / 6227020800.0)))))));
+        final double b = Constants.M_1_SQRT2PI * Math.exp(-0.5 * (h2 + w)) * expansion;
+        return Math.max(b, 0.0);
+    }
+
+    /**
+     * Derivative of the normalised Black function with respect to <code>s</code>
+     */
+    private static double normalisedVega(final double x, final double s) {
+        if (x == 0.0) return Constants.M_1_SQRT2PI * Math.exp(-0.125 * s * s);
+        if (s <= 0.0) return 0.0;
+        final double h = x / s;
+        return Constants.M_1_SQRT2PI * Math.exp(-0.5 * (h * h + 0.25 * s * s));
+    }
+
+    /**
+     * Lower map <code>f = 2&pi;/sqrt(27) |x| &Phi;(-|x|/(s sqrt(3)))^3</code> and its first two derivatives with respect
+     * to the normalised price
+     */
+    private static double[] lowerMap(final double x, final double s) {
+        final double ax = Math.abs(x);
+        final double z = ax / (s * SQRT_THREE), y = z * z, s2 = s * s;
+        final double phiMinusZ = cumulativeNormal(-z);
+        final double phiZ = Constants.M_1_SQRT2PI * Math.exp(-0.5 * y);
+        final double fpp = PI_OVER_SIX * y / (s2 * s) * phiMinusZ
+                * (8.0 * SQRT_THREE * s * ax + (3.0 * s2 * (s2 - 8.0) - 8.0 * x * x) * phiMinusZ / phiZ)
+                * Math.exp(2.0 * y + 0.25 * s2);
+        final double fp, f;
+        if (Math.abs(s) < DBL_MIN) {
+            fp = 1.0;
+            f = 0.0;
+        } else {
+            final double phi2 = phiMinusZ * phiMinusZ;
+            fp = Constants.M_TWOPI * y * phi2 * Math.exp(y + 0.125 * s2);
+            f = Math.abs(x) < DBL_MIN ? 0.0 : TWO_PI_OVER_SQRT_TWENTY_SEVEN * ax * phi2 * phiMinusZ;
+        }
+        return new double[] { f, fp, fpp };
+    }
+
+    private static double inverseLowerMap(final double x, final double f, final InverseCumulativeNormal inverse) {
+        if (Math.abs(f) < DBL_MIN) return 0.0;
+        final double p = Math.cbrt(f / (TWO_PI_OVER_SQRT_TWENTY_SEVEN * Math.abs(x)));
+        return Math.abs(x / (SQRT_THREE * inverseCumulativeNormal(p, inverse)));
+    }
+
+    /**
+     * Upper map <code>f = &Phi;(-s/2)</code> and its first two derivatives with respect to the normalised price
+     */
+    private static double[] upperMap(final double x, final double s) {
+        final double f = cumulativeNormal(-0.5 * s);
+        if (Math.abs(x) < DBL_MIN) return new double[] { f, -0.5, 0.0 };
+        final double w = (x / s) * (x / s);
+        final double fp = -0.5 * Math.exp(0.5 * w);
+        final double fpp = SQRT_PI_OVER_TWO * Math.exp(w + 0.125 * s * s) * w / s;
+        return new double[] { f, fp, fpp };
+    }
+
+    /**
+     * Rational cubic interpolation of P. Delbourgo and J. A. Gregory, with control parameter <code>r</code>
+     */
+    private static double rationalCubicInterpolation(
+            final double x,
+            final double xL, final double xR,
+            final double yL, final double yR,
+            final double dL, final double dR,
+            final double r) {
+        final double h = xR - xL;
+        if (Math.abs(h) <= 0.0) return 0.5 * (yL + yR);
+        final double t = (x - xL) / h;
+        if (!(r >= maximumRationalCubicControlParameter)) {
+            final double omt = 1.0 - t, t2 = t * t, omt2 = omt * omt;
+            return (yR * t2 * t + (r * yR - h * dR) * t2 * omt + (r * yL + h * dL) * t * omt2 + yL * omt2 * omt)
+                    / (1.0 + (r - 3.0) * t * omt);
+        }
+        // linear interpolation
+        return yR * t + yL * (1.0 - t);
+    }
+
+    private static double convexControlParameterAtLeftSide(
+            final double xL, final double xR,
+            final double yL, final double yR,
+            final double dL, final double dR,
+            final double secondDerivativeL,
+            final boolean preferShapePreservation) {
+        final double h = xR - xL;
+        final double numerator = 0.5 * h * secondDerivativeL + (dR - dL);
+        final double denominator = (yR - yL) / h - dL;
+        final double r = controlParameter(numerator, denominator);
+        return Math.max(r, minimumControlParameter(dL, dR, (yR - yL) / h, preferShapePreservation));
+    }
+
+    private static double convexControlParameterAtRightSide(
+            final double xL, final double xR,
+            final double yL, final double yR,
+            final double dL, final double dR,
+            final double secondDerivativeR,
+            final boolean preferShapePreservation) {
+        final double h = xR - xL;
+        final double numerator = 0.5 * h * secondDerivativeR + (dR - dL);
+        final double denominator = dR - (yR - yL) / h;
+        final double r = controlParameter(numerator, denominator);
+        return Math.max(r, minimumControlParameter(dL, dR, (yR - yL) / h, preferShapePreservation));
+    }
+
+    private static double controlParameter(final double numerator, final double denominator) {
+        if (isZero(numerator)) return 0.0;
+        if (isZero(denominator)) return numerator > 0.0 ? maximumRationalCubicControlParameter : minimumRationalCubicControlParameter;
+        return numerator / denominator;
+    }
+
+    /**
+     * Smallest control parameter which keeps the interpolation monotonic and convex or concave, when the slopes allow
+     */
+    private static double minimumControlParameter(
+            final double dL,
+            final double dR,
+            final double s,
+            final boolean preferShapePreservation) {
+        final boolean monotonic = dL * s >= 0.0 && dR * s >= 0.0;
+        final boolean convex = dL <= s && s <= dR;
+        final boolean concave = dL >= s && s >= dR;
+        if (!monotonic && !convex && !concave) return minimumRationalCubicControlParameter;
+        final double dRMinusDL = dR - dL, dRMinusS = dR - s, sMinusDL = s - dL;
+        double r1 = -Double.MAX_VALUE, r2 = -Double.MAX_VALUE;
+        if (monotonic) {
+            if (!isZero(s)) {
+                r1 = (dR + dL) / s;
+            } else if (preferShapePreservation) {
+                r1 = maximumRationalCubicControlParameter;
+            }
+        }
+        if (convex || concave) {
+            if (!(isZero(sMinusDL) || isZero(dRMinusS))) {
+                r2 = Math.max(Math.abs(dRMinusDL / dRMinusS), Math.abs(dRMinusDL / sMinusDL));
+            } else if (preferShapePreservation) {
+                r2 = maximumRationalCubicControlParameter;
+            }
+        } else if (monotonic && preferShapePreservation) {
+            r2 = maximumRationalCubicControlParameter;
+        }
+        return Math.max(minimumRationalCubicControlParameter, Math.max(r1, r2));
+    }
+
+    private static boolean isZero(final double x) {
+        return Math.abs(x) < DBL_MIN;
+    }
+
+    private static double cumulativeNormal(final double z) {
+        return 0.5 * errorFunction.erfc(-Constants.M_SQRT1_2 * z);
+    }
+
+    /**
+     * Inverse cumulative normal, refined by one step of Halley's method against {@link #cumulativeNormal(double)}
+     */
+    private static double inverseCumulativeNormal(final double p, final InverseCumulativeNormal inverse) {
+        double z = inverse.op(p);
+        final double phi = Constants.M_1_SQRT2PI * Math.exp(-0.5 * z * z);
+        if (phi > 0.0) {
+            final double r = (cumulativeNormal(z) - p) / phi;
+            z -= r / (1.0 + 0.5 * z * r);
+        }
+        return z;
+    }
+
+}
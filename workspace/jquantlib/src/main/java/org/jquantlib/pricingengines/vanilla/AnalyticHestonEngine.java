@@ -0,0 +1,405 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+/*
+ Copyright (C) 2004, 2005, 2008 Klaus Spanderen
+ Copyright (C) 2007 StatPro Italia srl
+
+ This file is part of QuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://quantlib.org/
+
+ QuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the QuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <quantlib-dev@lists.sf.net>. The license is also available online at
+ <http://quantlib.org/license.shtml>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+*/
+
+package org.jquantlib.pricingengines.vanilla;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jquantlib.QL;
+import org.jquantlib.exercise.Exercise;
+import org.jquantlib.instruments.OneAssetOption;
+import org.jquantlib.instruments.Option;
+import org.jquantlib.instruments.PlainVanillaPayoff;
+import org.jquantlib.math.Complex;
+import org.jquantlib.math.Constants;
+import org.jquantlib.math.Ops;
+import org.jquantlib.math.integrals.GaussLaguerreIntegration;
+import org.jquantlib.math.integrals.GaussLobattoIntegral;
+import org.jquantlib.math.matrixutilities.Array;
+import org.jquantlib.model.equity.HestonModel;
+import org.jquantlib.pricingengines.GenericModelEngine;
+import org.jquantlib.processes.HestonProcess;
+import org.jquantlib.time.Date;
+
+/**
+ * Analytic pricing engine for European vanilla options under the Heston model
+ * <p>
+ * Prices are obtained by integrating the characteristic function of the logarithm of the underlying, which is
+ * computed in the form proposed by Albrecher et al. in order to avoid discontinuities of the complex logarithm.
+ * Two integration schemes are available:
+ * <li>Gauss-Laguerre quadrature: the integration nodes and the characteristic function at the nodes do not depend
+ * on the strike, therefore they are cached per model parameters and expiry. Pricing a whole smile at one expiry
+ * costs little more than pricing one option.</li>
+ * <li>adaptive Gauss-Lobatto quadrature: slower, but the integration error is controlled.</li>
+ * <p>
+ * References:
+ * <li>Heston, Steven L., 1993. <i>A Closed-Form Solution for Options with Stochastic Volatility with Applications
+ * to Bond and Currency Options</i>. The Review of Financial Studies, Volume 6, Issue 2, 327-343.</li>
+ * <li>H. Albrecher, P. Mayer, W. Schoutens and J. Tistaert, <i>The Little Heston Trap</i>, Wilmott Magazine,
+ * January 2007, 83-92.</li>
+ *
+ * @author agent
+ */
+public class AnalyticHestonEngine
+        extends GenericModelEngine<HestonModel, OneAssetOption.Arguments, OneAssetOption.Results>
+        implements OneAssetOption.Engine {
+
+    private static final String NOT_AN_EUROPEAN_OPTION = "not an European option";
+    private static final String NON_PLAIN_PAYOFF_GIVEN = "non plain vanilla payoff given";
+
+    /**
+     * Integration schemes
+     */
+    public enum Integration { GaussLaguerre, GaussLobatto }
+
+    private static final int defaultIntegrationOrder = 144;
+    private static final int maxCachedExpiries = 32;
+
+    // the characteristic function is evaluated at a small positive number instead of zero
+    private static final double minPhi = 1.0e-8;
+
+
+    //
+    // private final fields
+    //
+
+    private final Integration integration;
+    private final GaussLaguerreIntegration laguerre;
+    private final double relTolerance;
+    private final int maxEvaluations;
+
+    // integration data per expiry, valid for the model parameters below
+    private final Map<Double, Slice> slices;
+    private Array parameters;
+
+
+    //
+    // public constructors
+    //
+
+    public AnalyticHestonEngine(final HestonModel model) {
+        this(model, defaultIntegrationOrder);
+    }
+
+    /**
+     * Gauss-Laguerre integration
+     */
+    public AnalyticHestonEngine(final HestonModel model, final int integrationOrder) {
+        super(model, new OneAssetOption.ArgumentsImpl(), new OneAssetOption.ResultsImpl());
+        QL.require(integrationOrder > 0, "integration order must be positive");
+        this.integration = Integration.GaussLaguerre;
+        this.laguerre = new GaussLaguerreIntegration(integrationOrder);
+        this.relTolerance = Double.NaN;
+        this.maxEvaluations = 0;
+        this.slices = newSliceCache();
+    }
+
+    /**
+     * Adaptive Gauss-Lobatto integration
+     */
+    public AnalyticHestonEngine(final HestonModel model, final double relTolerance, final int maxEvaluations) {
+        super(model, new OneAssetOption.ArgumentsImpl(), new OneAssetOption.ResultsImpl());
+        QL.require(relTolerance > Constants.QL_EPSILON, "required tolerance must be > epsilon");
+        this.integration = Integration.GaussLobatto;
+        this.laguerre = null;
+        this.relTolerance = relTolerance;
+        this.maxEvaluations = maxEvaluations;
+        this.slices = newSliceCache();
+    }
+
+
+    //
+    // public methods
+    //
+
+    public Integration integration() {
+        return integration;
+    }
+
+    public HestonModel model() {
+        return model;
+    }
+
+    /**
+     * Returns the characteristic function of {@latex$ \ln(S_t/F_t) } where {@latex$ F_t } is the forward price
+     * <p>
+     * Derived engines may override this method in order to add further terms, e.g. jumps, to the Heston dynamics.
+     * Model parameters which affect the result must be exposed by {@link HestonModel#params()}, as they key the
+     * cache of strike-independent values.
+     *
+     * @see FFTHestonEngine
+     */
+    public Complex characteristicFunction(final Complex u, /* @Time */ final double t) {
+        final double kappa = model.kappa();
+        final double theta = model.theta();
+        final double sigma = model.sigma();
+        final double rho = model.rho();
+        final double v0 = model.v0();
+        final double sigma2 = sigma * sigma;
+
+        // q = u^2 + iu
+        final Complex q = u.mul(u).add(Complex.I.mul(u));
+        // xi = kappa - i rho sigma u
+        final Complex xi = Complex.I.mul(u).mul(-rho * sigma).add(kappa);
+        final Complex d = xi.mul(xi).add(q.mul(sigma2)).sqrt();
+        final Complex xd = xi.add(d);
+
+        // (xi - d) is written as -sigma^2 q / (xi + d), which is well defined when sigma vanishes
+        final Complex g = q.mul(-sigma2).div(xd.mul(xd));
+        final Complex e = d.mul(-t).exp();
+        final Complex oneMinusE = Complex.ONE.sub(e);
+        final Complex oneMinusGE = Complex.ONE.sub(g.mul(e));
+
+        final Complex D = q.negate().div(xd).mul(oneMinusE).div(oneMinusGE);
+        final Complex C;
+        if (sigma2 > 0.0) {
+            // log((1 - g e) / (1 - g)) = log(1 + g (1 - e) / (1 - g))
+            final Complex lg = log1p(g.mul(oneMinusE).div(Complex.ONE.sub(g)));
+            C = q.mul(-t).div(xd).sub(lg.mul(2.0 / sigma2)).mul(kappa * theta);
+        } else {
+            // limit as sigma vanishes: the variance follows its deterministic path
+            C = q.mul(-t).div(xd).sub(oneMinusE.mul(2.0).div(xd.mul(xd)).mul(q.negate())).mul(kappa * theta);
+        }
+        return C.add(D.mul(v0)).exp();
+    }
+
+
+    //
+    // implements PricingEngine
+    //
+
+    @Override
+    public void calculate() {
+        final OneAssetOption.ArgumentsImpl a = (OneAssetOption.ArgumentsImpl) arguments_;
+        final OneAssetOption.ResultsImpl r = (OneAssetOption.ResultsImpl) results_;
+        final Option.GreeksImpl greeks = r.greeks();
+
+        QL.require(a.exercise.type() == Exercise.Type.European, NOT_AN_EUROPEAN_OPTION);
+        QL.require(a.payoff instanceof PlainVanillaPayoff, NON_PLAIN_PAYOFF_GIVEN);
+        final PlainVanillaPayoff payoff = (PlainVanillaPayoff) a.payoff;
+
+        final HestonProcess process = model.process();
+        final Date maturity = a.exercise.lastDate();
+        final double riskFreeDiscount = process.riskFreeRate().currentLink().discount(maturity);
+        final double dividendDiscount = process.dividendYield().currentLink().discount(maturity);
+        final double spot = process.s0().currentLink().value();
+        QL.require(spot > 0.0, "negative or null underlying given");
+        final double strike = payoff.strike();
+        final double forward = spot * dividendDiscount / riskFreeDiscount;
+        final double t = process.time(maturity);
+
+        final double[] p = probabilities(t, Math.log(strike / forward));
+        switch (payoff.optionType()) {
+        case Call:
+            r.value = riskFreeDiscount * (forward * p[0] - strike * p[1]);
+            greeks.delta = dividendDiscount * p[0];
+            break;
+        case Put:
+            r.value = riskFreeDiscount * (strike * (1.0 - p[1]) - forward * (1.0 - p[0]));
+            greeks.delta = dividendDiscount * (p[0] - 1.0);
+            break;
+        default:
+            throw new IllegalArgumentException("unknown option type");
+        }
+    }
+
+
+    //
+    // package private methods
+    //
+
+    static boolean sameParameters(final Array a, final Array b) {
+        if (a == null || b == null || a.size() != b.size())
+            return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (Double.doubleToLongBits(a.get(i)) != Double.doubleToLongBits(b.get(i)))
+                return false;
+        }
+        return true;
+    }
+
+
+    //
+    // private methods
+    //
+
+    /**
+     * @return probabilities of exercise under the share measure and under the forward measure
+     */
+    private double[] probabilities(/* @Time */ final double t, final double logMoneyness) {
+        if (integration == Integration.GaussLaguerre)
+            return slice(t).probabilities(logMoneyness);
+
+        final double c = integrationScale(t);
+        final GaussLobattoIntegral integrator = new GaussLobattoIntegral(maxEvaluations, relTolerance, relTolerance, false);
+        final double p1 = 0.5 + integrator.op(new Integrand(t, logMoneyness, c, 1), 0.0, 1.0) / Math.PI;
+        final double p2 = 0.5 + integrator.op(new Integrand(t, logMoneyness, c, 2), 0.0, 1.0) / Math.PI;
+        return new double[] { p1, p2 };
+    }
+
+    /**
+     * Scale of the transformation {@latex$ u = -\ln(x)/c } which maps {@latex$ [0, \infty) } onto {@latex$ (0, 1] }
+     */
+    private double integrationScale(/* @Time */ final double t) {
+        final double rho = model.rho();
+        final double sigma = model.sigma();
+        return Math.min(10.0, Math.max(0.0001, Math.sqrt(1.0 - rho * rho) / sigma))
+               * (model.v0() + model.kappa() * model.theta() * t);
+    }
+
+    private Slice slice(/* @Time */ final double t) {
+        final Array current = model.params();
+        final Double key = Double.valueOf(t);
+        synchronized (slices) {
+            if (!sameParameters(current, parameters)) {
+                slices.clear();
+                parameters = current;
+            }
+            final Slice slice = slices.get(key);
+            if (slice != null)
+                return slice;
+        }
+        final Slice slice = new Slice(t);
+        synchronized (slices) {
+            if (sameParameters(current, parameters)) {
+                slices.put(key, slice);
+            }
+        }
+        return slice;
+    }
+
+    private static Map<Double, Slice> newSliceCache() {
+        return new LinkedHashMap<Double, Slice>(16, 0.75f, true) {
+            private static final long serialVersionUID = -6180522431880658829L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Double, Slice> eldest) {
+                return size() > maxCachedExpiries;
+            }
+        };
+    }
+
+    /**
+     * Complex logarithm of <code>1+z</code>, accurate for small <code>z</code>
+     */
+    private static Complex log1p(final Complex z) {
+        final double re = z.real();
+        final double im = z.imag();
+        return new Complex(0.5 * Math.log1p(2.0 * re + re * re + im * im), Math.atan2(im, 1.0 + re));
+    }
+
+
+    //
+    // private inner classes
+    //
+
+    /**
+     * Strike independent integration data for one expiry
+     * <p>
+     * Integrands are {@latex$ Im(e^{-iuk} \phi_j(u)) / u }, where <i>k</i> is the log-moneyness; the weights of the
+     * quadrature and the factor <i>1/u</i> are folded into the cached values of {@latex$ \phi_j }.
+     */
+    private final class Slice {
+        private final double[] u;
+        private final double[] re1, im1;
+        private final double[] re2, im2;
+
+        private Slice(/* @Time */ final double t) {
+            final int n = laguerre.order();
+            this.u = new double[n];
+            this.re1 = new double[n];
+            this.im1 = new double[n];
+            this.re2 = new double[n];
+            this.im2 = new double[n];
+            for (int i = 0; i < n; i++) {
+                final double phi = Math.max(laguerre.x(i), minPhi);
+                final double factor = laguerre.weight(i) / phi;
+                final Complex f1 = characteristicFunction(new Complex(phi, -1.0), t);
+                final Complex f2 = characteristicFunction(new Complex(phi, 0.0), t);
+                u[i] = phi;
+                re1[i] = factor * f1.real();
+                im1[i] = factor * f1.imag();
+                re2[i] = factor * f2.real();
+                im2[i] = factor * f2.imag();
+            }
+        }
+
+        private double[] probabilities(final double logMoneyness) {
+            double sum1 = 0.0, sum2 = 0.0;
+            for (int i = u.length - 1; i >= 0; i--) {
+                final double angle = u[i] * logMoneyness;
+                final double cos = Math.cos(angle);
+                final double sin = Math.sin(angle);
+                sum1 += im1[i] * cos - re1[i] * sin;
+                sum2 += im2[i] * cos - re2[i] * sin;
+            }
+            return new double[] { 0.5 + sum1 / Math.PI, 0.5 + sum2 / Math.PI };
+        }
+    }
+
+
+    /**
+     * Integrand of the exercise probabilities on {@latex$ (0, 1] } for adaptive integration
+     */
+    private final class Integrand implements Ops.DoubleOp {
+        private final double t, logMoneyness, scale;
+        private final int j;
+
+        private Integrand(/* @Time */ final double t, final double logMoneyness, final double scale, final int j) {
+            this.t = t;
+            this.logMoneyness = logMoneyness;
+            this.scale = scale;
+            this.j = j;
+        }
+
+        @Override
+        public double op(final double x) {
+            if (x <= 0.0)
+                return 0.0;
+            final double phi = Math.max(-Math.log(x) / scale, minPhi);
+            final Complex f = characteristicFunction(new Complex(phi, j == 1 ? -1.0 : 0.0), t);
+            final double angle = phi * logMoneyness;
+            final double value = f.imag() * Math.cos(angle) - f.real() * Math.sin(angle);
+            return value / (phi * x * scale);
+        }
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+/*
+ Copyright (C) 2004, 2005, 2008 Klaus Spanderen
+ Copyright (C) 2007 StatPro Italia srl
+
+ This file is part of QuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://quantlib.org/
+
+ QuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the QuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <quantlib-dev@lists.sf.net>. The license is also available online at
+ <http://quantlib.org/license.shtml>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+*/
+
+package org.jquantlib.pricingengines.vanilla;
+
+import org.jquantlib.math.Complex;
+import org.jquantlib.math.Constants;
+import org.jquantlib.model.equity.BatesDoubleExpModel;
+
+/**
+ * Analytic pricing engine for European vanilla options under the Bates model with double exponential jumps
+ * <p>
+ * Upward jumps of the logarithm of the underlying are exponentially distributed with mean <i>nuUp</i> and happen
+ * with probability <i>p</i>; downward jumps are exponentially distributed with mean <i>nuDown</i>. When the model
+ * is a {@link BatesDoubleExpModel.BatesDoubleExpDetJumpModel}, the jump intensity mean-reverts deterministically
+ * towards <i>thetaLambda</i> with speed <i>kappaLambda</i>.
+ * <p>
+ * References:
+ * <li>S. G. Kou, <i>A Jump-Diffusion Model for Option Pricing</i>, Management Science, Volume 48, Issue 8,
+ * 1086-1101.</li>
+ *
+ * @author agent
+ */
+public class BatesDoubleExpEngine extends AnalyticHestonEngine {
+
+    private final BatesDoubleExpModel bates;
+
+
+    //
+    // public constructors
+    //
+
+    public BatesDoubleExpEngine(final BatesDoubleExpModel model) {
+        super(model);
+        this.bates = model;
+    }
+
+    public BatesDoubleExpEngine(final BatesDoubleExpModel model, final int integrationOrder) {
+        super(model, integrationOrder);
+        this.bates = model;
+    }
+
+    public BatesDoubleExpEngine(final BatesDoubleExpModel model, final double relTolerance, final int maxEvaluations) {
+        super(model, relTolerance, maxEvaluations);
+        this.bates = model;
+    }
+
+
+    //
+    // overrides AnalyticHestonEngine
+    //
+
+    @Override
+    public Complex characteristicFunction(final Complex u, /* @Time */ final double t) {
+        final double p = bates.p();
+        final double nuUp = bates.nuUp();
+        final double nuDown = bates.nuDown();
+
+        // E[exp(iuJ)] - 1 - iu (E[exp(J)] - 1) for double exponentially distributed J
+        final Complex iu = Complex.I.mul(u);
+        final Complex transform = new Complex(p, 0.0).div(Complex.ONE.sub(iu.mul(nuUp)))
+                .add(new Complex(1.0 - p, 0.0).div(Complex.ONE.add(iu.mul(nuDown))));
+        final double mean = p / (1.0 - nuUp) + (1.0 - p) / (1.0 + nuDown) - 1.0;
+        final Complex jump = transform.sub(1.0).sub(iu.mul(mean));
+        return super.characteristicFunction(u, t).mul(jump.mul(integratedIntensity(t)).exp());
+    }
+
+
+    //
+    // private methods
+    //
+
+    private double integratedIntensity(/* @Time */ final double t) {
+        final double lambda = bates.lambda();
+        if (bates instanceof BatesDoubleExpModel.BatesDoubleExpDetJumpModel) {
+            final BatesDoubleExpModel.BatesDoubleExpDetJumpModel detJump = (BatesDoubleExpModel.BatesDoubleExpDetJumpModel) bates;
+            final double kappaLambda = detJump.kappaLambda();
+            final double thetaLambda = detJump.thetaLambda();
+            // constant intensity when there is no mean reversion
+            if (Math.abs(kappaLambda) < Constants.QL_EPSILON)
+                return lambda * t;
+            return thetaLambda * t - (lambda - thetaLambda) * Math.expm1(-kappaLambda * t) / kappaLambda;
+        }
+        return lambda * t;
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+/*
+ Copyright (C) 2004, 2005, 2008 Klaus Spanderen
+ Copyright (C) 2007 StatPro Italia srl
+
+ This file is part of QuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://quantlib.org/
+
+ QuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the QuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <quantlib-dev@lists.sf.net>. The license is also available online at
+ <http://quantlib.org/license.shtml>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+*/
+
+package org.jquantlib.pricingengines.vanilla;
+
+import org.jquantlib.math.Complex;
+import org.jquantlib.model.equity.BatesModel;
+
+/**
+ * Analytic pricing engine for European vanilla options under the Bates model
+ * <p>
+ * The Heston dynamics are extended by log-normally distributed jumps of the underlying, arriving with constant
+ * intensity; the characteristic function of the Heston model is multiplied by the one of the compensated jump
+ * process.
+ * <p>
+ * References:
+ * <li>D. Bates, <i>Jumps and stochastic volatility: exchange rate processes implicit in Deutsche Mark options</i>,
+ * The Review of Financial Studies, Volume 9, Issue 1, 69-107.</li>
+ *
+ * @author agent
+ */
+public class BatesEngine extends AnalyticHestonEngine {
+
+    private final BatesModel bates;
+
+
+    //
+    // public constructors
+    //
+
+    public BatesEngine(final BatesModel model) {
+        super(model);
+        this.bates = model;
+    }
+
+    public BatesEngine(final BatesModel model, final int integrationOrder) {
+        super(model, integrationOrder);
+        this.bates = model;
+    }
+
+    public BatesEngine(final BatesModel model, final double relTolerance, final int maxEvaluations) {
+        super(model, relTolerance, maxEvaluations);
+        this.bates = model;
+    }
+
+
+    //
+    // overrides AnalyticHestonEngine
+    //
+
+    @Override
+    public Complex characteristicFunction(final Complex u, /* @Time */ final double t) {
+        final double nu = bates.nu();
+        final double delta = bates.delta();
+        final double lambda = bates.lambda();
+
+        // E[exp(iuJ)] - 1 - iu (E[exp(J)] - 1) for J ~ N(nu, delta^2)
+        final Complex iu = Complex.I.mul(u);
+        final Complex jump = iu.mul(nu).add(u.mul(u).mul(-0.5 * delta * delta)).exp().sub(1.0)
+                .sub(iu.mul(Math.exp(nu + 0.5 * delta * delta) - 1.0));
+        return super.characteristicFunction(u, t).mul(jump.mul(lambda * t).exp());
+    }
+
+}
@@ -0,0 +1,257 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.pricingengines.vanilla;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jquantlib.QL;
+import org.jquantlib.exercise.Exercise;
+import org.jquantlib.instruments.OneAssetOption;
+import org.jquantlib.instruments.Option;
+import org.jquantlib.instruments.PlainVanillaPayoff;
+import org.jquantlib.math.Complex;
+import org.jquantlib.math.FastFourierTransform;
+import org.jquantlib.math.matrixutilities.Array;
+import org.jquantlib.model.equity.HestonModel;
+import org.jquantlib.pricingengines.GenericModelEngine;
+import org.jquantlib.processes.HestonProcess;
+import org.jquantlib.time.Date;
+
+/**
+ * FFT pricing engine for European vanilla options under characteristic-function models
+ * <p>
+ * Call prices are computed for a whole grid of log-strikes at once by the method of Carr and Madan, i.e. by a fast
+ * Fourier transform of the damped call price; prices at market strikes are obtained by cubic interpolation on the
+ * grid. Grids depend only on the model parameters and on the expiry, therefore they are cached: once a grid has been
+ * computed, pricing further strikes at the same expiry costs one interpolation. This makes the engine well suited as
+ * the pricing engine of calibration helpers, which price full volatility surfaces at every step of a calibration.
+ * <p>
+ * The characteristic function is taken from an {@link AnalyticHestonEngine}, so that the Heston, Bates and
+ * Bates double exponential models are supported by passing {@link AnalyticHestonEngine}, {@link BatesEngine} or
+ * {@link BatesDoubleExpEngine} respectively.
+ * <p>
+ * References:
+ * <li>P. Carr and D. Madan, <i>Option valuation using the fast Fourier transform</i>, Journal of Computational
+ * Finance, Volume 2, Issue 4, 61-73.</li>
+ *
+ * @author agent
+ */
+public class FFTHestonEngine
+        extends GenericModelEngine<HestonModel, OneAssetOption.Arguments, OneAssetOption.Results>
+        implements OneAssetOption.Engine {
+
+    private static final String NOT_AN_EUROPEAN_OPTION = "not an European option";
+    private static final String NON_PLAIN_PAYOFF_GIVEN = "non plain vanilla payoff given";
+
+    private static final int defaultOrder = 12;
+    private static final double defaultEta = 0.25;
+    private static final double defaultAlpha = 1.5;
+    private static final int maxCachedExpiries = 32;
+
+
+    //
+    // private final fields
+    //
+
+    private final AnalyticHestonEngine characteristicFunction;
+    private final FastFourierTransform fft;
+    private final double eta;
+    private final double alpha;
+    private final double lambda;
+    private final double kMin;
+
+    // call price grids per expiry, valid for the model parameters below
+    private final Map<Double, double[]> grids;
+    private Array parameters;
+
+
+    //
+    // public constructors
+    //
+
+    public FFTHestonEngine(final AnalyticHestonEngine characteristicFunction) {
+        this(characteristicFunction, defaultOrder, defaultEta, defaultAlpha);
+    }
+
+    /**
+     * @param characteristicFunction provides the model and its characteristic function
+     * @param order the grids hold <code>2<sup>order</sup></code> log-strikes
+     * @param eta spacing of the integration grid; log-strikes are spaced by {@latex$ 2\pi/(N\eta) }
+     * @param alpha damping of the call price; moments of order <code>alpha+1</code> of the underlying must be finite
+     */
+    public FFTHestonEngine(
+            final AnalyticHestonEngine characteristicFunction,
+            final int order,
+            final double eta,
+            final double alpha) {
+        super(characteristicFunction.model(), new OneAssetOption.ArgumentsImpl(), new OneAssetOption.ResultsImpl());
+        QL.require(order >= 2, "order must be at least 2");
+        QL.require(eta > 0.0, "eta must be positive");
+        QL.require(alpha > 0.0, "alpha must be positive");
+        this.characteristicFunction = characteristicFunction;
+        this.fft = new FastFourierTransform(order);
+        this.eta = eta;
+        this.alpha = alpha;
+        this.lambda = 2.0 * Math.PI / (fft.outputSize() * eta);
+        this.kMin = -0.5 * fft.outputSize() * lambda;
+        this.grids = new LinkedHashMap<Double, double[]>(16, 0.75f, true) {
+            private static final long serialVersionUID = 4307409427931391577L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Double, double[]> eldest) {
+                return size() > maxCachedExpiries;
+            }
+        };
+    }
+
+
+    //
+    // public methods
+    //
+
+    /**
+     * Prices a batch of options sharing type and expiry
+     *
+     * @return option values, in the same order as <code>strikes</code>
+     */
+    public double[] values(final Option.Type type, final Date maturity, final double[] strikes) {
+        final HestonProcess process = model.process();
+        final double riskFreeDiscount = process.riskFreeRate().currentLink().discount(maturity);
+        final double dividendDiscount = process.dividendYield().currentLink().discount(maturity);
+        final double spot = process.s0().currentLink().value();
+        QL.require(spot > 0.0, "negative or null underlying given");
+        final double forward = spot * dividendDiscount / riskFreeDiscount;
+        final double[] grid = grid(process.time(maturity));
+
+        final double[] values = new double[strikes.length];
+        for (int i = 0; i < strikes.length; i++) {
+            values[i] = value(grid, type, strikes[i], forward, riskFreeDiscount);
+        }
+        return values;
+    }
+
+
+    //
+    // implements PricingEngine
+    //
+
+    @Override
+    public void calculate() {
+        final OneAssetOption.ArgumentsImpl a = (OneAssetOption.ArgumentsImpl) arguments_;
+        final OneAssetOption.ResultsImpl r = (OneAssetOption.ResultsImpl) results_;
+
+        QL.require(a.exercise.type() == Exercise.Type.European, NOT_AN_EUROPEAN_OPTION);
+        QL.require(a.payoff instanceof PlainVanillaPayoff, NON_PLAIN_PAYOFF_GIVEN);
+        final PlainVanillaPayoff payoff = (PlainVanillaPayoff) a.payoff;
+
+        r.value = values(payoff.optionType(), a.exercise.lastDate(), new double[] { payoff.strike() })[0];
+    }
+
+
+    //
+    // private methods
+    //
+
+    private double value(
+            final double[] grid,
+            final Option.Type type,
+            final double strike,
+            final double forward,
+            final double riskFreeDiscount) {
+        final double call = riskFreeDiscount * forward * interpolate(grid, Math.log(strike / forward));
+        switch (type) {
+        case Call:
+            return call;
+        case Put:
+            return call - riskFreeDiscount * (forward - strike);
+        default:
+            throw new IllegalArgumentException("unknown option type");
+        }
+    }
+
+    /**
+     * Cubic interpolation of undiscounted call prices, in units of the forward, on the log-strike grid
+     */
+    private double interpolate(final double[] grid, final double k) {
+        final double x = (k - kMin) / lambda;
+        QL.require(x >= 1.0 && x <= grid.length - 2, "strike out of the range of the FFT grid");
+        final int i = Math.min((int) x, grid.length - 3);
+        final double s = x - i;
+        // Lagrange polynomial through the nodes i-1, i, i+1, i+2
+        final double w0 = -s * (s - 1.0) * (s - 2.0) / 6.0;
+        final double w1 = (s + 1.0) * (s - 1.0) * (s - 2.0) / 2.0;
+        final double w2 = -(s + 1.0) * s * (s - 2.0) / 2.0;
+        final double w3 = (s + 1.0) * s * (s - 1.0) / 6.0;
+        return w0 * grid[i - 1] + w1 * grid[i] + w2 * grid[i + 1] + w3 * grid[i + 2];
+    }
+
+    private double[] grid(/* @Time */ final double t) {
+        final Array current = model.params();
+        final Double key = Double.valueOf(t);
+        synchronized (grids) {
+            if (!AnalyticHestonEngine.sameParameters(current, parameters)) {
+                grids.clear();
+                parameters = current;
+            }
+            final double[] grid = grids.get(key);
+            if (grid != null)
+                return grid;
+        }
+        final double[] grid = callPrices(t);
+        synchronized (grids) {
+            if (AnalyticHestonEngine.sameParameters(current, parameters)) {
+                grids.put(key, grid);
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Undiscounted call prices, in units of the forward, on the log-strikes <code>kMin + m lambda</code>
+     */
+    private double[] callPrices(/* @Time */ final double t) {
+        final int n = fft.outputSize();
+        final double[] re = new double[n];
+        final double[] im = new double[n];
+        final Complex shift = new Complex(0.0, -(alpha + 1.0));
+        for (int j = 0; j < n; j++) {
+            final double u = j * eta;
+            // Simpson weights
+            final double weight = eta / 3.0 * ((j == 0) ? 1.0 : ((j % 2 == 1) ? 4.0 : 2.0));
+            final Complex phi = characteristicFunction.characteristicFunction(shift.add(u), t);
+            final Complex psi = phi.div(new Complex(alpha * alpha + alpha - u * u, (2.0 * alpha + 1.0) * u));
+            final Complex x = psi.mul(new Complex(Math.cos(-kMin * u), Math.sin(-kMin * u))).mul(weight);
+            re[j] = x.real();
+            im[j] = x.imag();
+        }
+        fft.transform(re, im);
+
+        final double[] grid = new double[n];
+        for (int m = 0; m < n; m++) {
+            grid[m] = Math.exp(-alpha * (kMin + m * lambda)) * re[m] / Math.PI;
+        }
+        return grid;
+    }
+
+}
@@ -58,26 +58,25 @@
 package org.jquantlib.pricingengines.vanilla;
 
 import org.jquantlib.QL;
-import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.exercise.Exercise;
 import org.jquantlib.instruments.Option;
+import org.jquantlib.instruments.StrikedTypePayoff;
 import org.jquantlib.instruments.VanillaOption;
 import org.jquantlib.math.Constants;
 import org.jquantlib.math.distributions.PoissonDistribution;
-import org.jquantlib.pricingengines.AnalyticEuropeanEngine;
-import org.jquantlib.processes.GeneralizedBlackScholesProcess;
+import org.jquantlib.pricingengines.BlackCalculator;
+import org.jquantlib.pricingengines.BlackFormula;
 import org.jquantlib.processes.Merton76Process;
-import org.jquantlib.quotes.Handle;
-import org.jquantlib.quotes.Quote;
-import org.jquantlib.quotes.RelinkableHandle;
 import org.jquantlib.termstructures.BlackVolTermStructure;
 import org.jquantlib.termstructures.YieldTermStructure;
-import org.jquantlib.termstructures.volatilities.BlackConstantVol;
-import org.jquantlib.termstructures.yieldcurves.FlatForward;
-import org.jquantlib.time.Calendar;
 import org.jquantlib.time.Date;
 
 /**
  * Jump-diffusion engine for vanilla options
+ * <p>
+ * The Merton series is summed by evaluating the Black formula of every Poisson term on its forward, standard
+ * deviation and discount factor, which are obtained from scalars calculated once per maturity. Term structures are
+ * neither created nor relinked, so that no observers are notified while summing the series.
  *
  * @author <Richard Gomes>
  */
@@ -87,6 +86,9 @@ public class JumpDiffusionEngine extends VanillaOption.EngineImpl {
     private static final double DEFAULT_RELATIVE_ACCURACY = 1e-4;
     private static final int DEFAULT_MAX_ITERATIONS = 100;
 
+    private static final String NOT_AN_EUROPEAN_OPTION = "not an European option";
+    private static final String NON_STRIKED_PAYOFF_GIVEN = "non-striked payoff given";
+
 
     //
     // private final fields
@@ -129,48 +131,60 @@ public class JumpDiffusionEngine extends VanillaOption.EngineImpl {
     }
 
 
-    @Override
-    public void calculate() {
-        final double /* @Real */jumpSquareVol =
-            process.logJumpVolatility().currentLink().value() * process.logJumpVolatility().currentLink().value();
-        final double /* @Real */muPlusHalfSquareVol = process.logMeanJump().currentLink().value() + 0.5 * jumpSquareVol;
-
-        // mean jump size
-        final double /* @Real */k = Math.exp(muPlusHalfSquareVol) - 1.0;
-        final double /* @Real */lambda = (k + 1.0) * process.jumpIntensity().currentLink().value();
-
-        // dummy strike
-        final double /* @Real */variance = process.blackVolatility().currentLink().blackVariance(A.exercise.lastDate(), 1.0);
-
-        final DayCounter voldc = process.blackVolatility().currentLink().dayCounter();
-        final Calendar volcal = process.blackVolatility().currentLink().calendar();
-        final Date volRefDate = process.blackVolatility().currentLink().referenceDate();
-        final double /* @Time */t = voldc.yearFraction(volRefDate, A.exercise.lastDate());
-        final double /* @Rate */riskFreeRate = -Math.log(process.riskFreeRate().currentLink().discount(A.exercise.lastDate())) / t;
-        final Date rateRefDate = process.riskFreeRate().currentLink().referenceDate();
-
-        final PoissonDistribution p = new PoissonDistribution(lambda * t);
-
-        final Handle<? extends Quote> stateVariable = process.stateVariable();
-        final Handle<YieldTermStructure> dividendTS = process.dividendYield();
-        final RelinkableHandle<YieldTermStructure> riskFreeTS =
-            new RelinkableHandle<YieldTermStructure>(process.riskFreeRate().currentLink());
-        final RelinkableHandle<BlackVolTermStructure> volTS =
-            new RelinkableHandle<BlackVolTermStructure>(process.blackVolatility().currentLink());
+    //
+    // public methods
+    //
 
-        final GeneralizedBlackScholesProcess bsProcess =
-            new GeneralizedBlackScholesProcess(stateVariable, dividendTS, riskFreeTS, volTS);
+    /**
+     * Calculates values of plain vanilla options which only differ by their strikes
+     * <p>
+     * Forwards, standard deviations, discount factors and weights of the Poisson terms are calculated once for all
+     * strikes; the series is summed until the last contribution is below the relative accuracy for every strike.
+     *
+     * @param type is the type of the options
+     * @param maturity is the exercise date of the options
+     * @param strikes are the strikes of the options
+     * @return the values of the options, in the same order of the strikes
+     */
+    public double[] values(final Option.Type type, final Date maturity, final double[] strikes) {
+        final Terms terms = new Terms(maturity);
+        final int size = strikes.length;
+        final double[] values = new double[size];
+
+        double lastContribution = 1.0;
+        int i;
+        for (i = 0; lastContribution > relativeAccuracy && i < maxIterations || i < (int)(terms.lambda*terms.t); i++) {
+            final double weight = terms.weight(i);
+            final double forward = terms.forward(i);
+            final double stdDev = terms.stdDev(i);
+            final double discount = terms.discount(i);
+            lastContribution = 0.0;
+            for (int j = 0; j < size; j++) {
+                final double value = BlackFormula.blackFormula(type, strikes[j], forward, stdDev, discount);
+                values[j] += weight * value;
+                lastContribution = Math.max(lastContribution,
+                        weight * Math.abs(value / (Math.abs(values[j]) > Constants.QL_EPSILON ? values[j] : 1.0)));
+            }
+        }
 
-        final AnalyticEuropeanEngine baseEngine = new AnalyticEuropeanEngine(bsProcess);
+        QL.ensure(i < maxIterations , "accuracy not reached");
+        return values;
+    }
 
-        final VanillaOption.ArgumentsImpl baseArguments = (VanillaOption.ArgumentsImpl) baseEngine.getArguments();
 
-        baseArguments.payoff = A.payoff;
-        baseArguments.exercise = A.exercise;
+    //
+    // overrides PricingEngine
+    //
 
-        baseArguments.validate();
+    @Override
+    public void calculate() {
+        QL.require(A.exercise.type() == Exercise.Type.European , NOT_AN_EUROPEAN_OPTION);
+        QL.require(A.payoff instanceof StrikedTypePayoff , NON_STRIKED_PAYOFF_GIVEN);
+        final StrikedTypePayoff payoff = (StrikedTypePayoff) A.payoff;
 
-        final VanillaOption.ResultsImpl baseResults = (VanillaOption.ResultsImpl) baseEngine.getResults();
+        final Terms terms = new Terms(A.exercise.lastDate());
+        final double /* @Real */lambda = terms.lambda;
+        final double /* @Time */t = terms.t;
 
         R.value = 0.0;
         greeks.delta = 0.0;
@@ -181,56 +195,65 @@ public class JumpDiffusionEngine extends VanillaOption.EngineImpl {
         greeks.dividendRho = 0.0;
 
 
-        double /* @Real */ r, v, weight, lastContribution = 1.0;
+        double /* @Real */ v, weight, lastContribution = 1.0;
         double /* @Real */ theta_correction;
+        double /* @Real */ value, delta, gamma, theta, vega, rho, dividendRho;
 
         int i;
         for (i = 0; lastContribution > relativeAccuracy && i < maxIterations || i < (int)(lambda*t); i++) {
 
             // constant vol/rate assumption. It should be relaxed
-            v = Math.sqrt((variance + i * jumpSquareVol) / t);
-            r = riskFreeRate - process.jumpIntensity().currentLink().value() * k + i * muPlusHalfSquareVol / t;
-            riskFreeTS.linkTo(new FlatForward(rateRefDate, r, voldc));
-            volTS.linkTo(new BlackConstantVol(rateRefDate, volcal, v, voldc));
-
-            baseArguments.validate();
-            baseEngine.calculate();
-
-            weight = p.op(i);
-            R.value += weight * baseResults.value;
-            greeks.delta += weight * baseResults.greeks().delta;
-            greeks.gamma += weight * baseResults.greeks().gamma;
-            greeks.vega += weight * (Math.sqrt(variance / t) / v) * baseResults.greeks().vega;
+            v = terms.volatility(i);
+            final BlackCalculator black = new BlackCalculator(payoff, terms.forward(i), terms.stdDev(i), terms.discount(i));
+
+            // same greeks as AnalyticEuropeanEngine
+            value = black.value();
+            delta = black.delta(terms.spot);
+            gamma = black.gamma(terms.spot);
+            vega = black.vega(terms.rateTime);
+            rho = black.rho(terms.rateTime);
+            dividendRho = black.dividendRho(terms.dividendTime);
+            try {
+                theta = black.theta(terms.spot, terms.rateTime);
+            } catch (final Exception e) {
+                theta = Double.NaN;
+            }
+
+            weight = terms.weight(i);
+            R.value += weight * value;
+            greeks.delta += weight * delta;
+            greeks.gamma += weight * gamma;
+            greeks.vega += weight * (Math.sqrt(terms.variance / t) / v) * vega;
             // theta modified
-            theta_correction = baseResults.greeks().vega * ((i * jumpSquareVol) / (2.0 * v * t * t)) + baseResults.greeks().rho * i
-            * muPlusHalfSquareVol / (t * t);
-            greeks.theta += weight * (baseResults.greeks().theta + theta_correction + lambda * baseResults.value);
+            theta_correction = vega * ((i * terms.jumpSquareVol) / (2.0 * v * t * t)) + rho * i
+            * terms.muPlusHalfSquareVol / (t * t);
+            greeks.theta += weight * (theta + theta_correction + lambda * value);
             if (i != 0) {
-                greeks.theta -= (p.op(i-1) * lambda * baseResults.value);
+                greeks.theta -= (terms.weight(i-1) * lambda * value);
             }
             // end theta calculation
-            greeks.rho += weight * baseResults.greeks().rho;
-            greeks.dividendRho += weight * baseResults.greeks().dividendRho;
+            greeks.rho += weight * rho;
+            greeks.dividendRho += weight * dividendRho;
 
-            lastContribution = Math.abs(baseResults.value / (Math.abs(R.value) > Constants.QL_EPSILON ? R.value : 1.0));
+            lastContribution = Math.abs(value / (Math.abs(R.value) > Constants.QL_EPSILON ? R.value : 1.0));
 
             lastContribution = Math.max(lastContribution,
-                    Math.abs(baseResults.greeks().delta / (Math.abs(greeks.delta) > Constants.QL_EPSILON ? greeks.delta : 1.0)));
+                    Math.abs(delta / (Math.abs(greeks.delta) > Constants.QL_EPSILON ? greeks.delta : 1.0)));
 
             lastContribution = Math.max(lastContribution,
-                    Math.abs(baseResults.greeks().gamma / (Math.abs(greeks.gamma) > Constants.QL_EPSILON ? greeks.gamma : 1.0)));
+                    Math.abs(gamma / (Math.abs(greeks.gamma) > Constants.QL_EPSILON ? greeks.gamma : 1.0)));
 
             lastContribution = Math.max(lastContribution,
-                    Math.abs(baseResults.greeks().theta / (Math.abs(greeks.theta) > Constants.QL_EPSILON ? greeks.theta : 1.0)));
+                    Math.abs(theta / (Math.abs(greeks.theta) > Constants.QL_EPSILON ? greeks.theta : 1.0)));
 
             lastContribution = Math.max(lastContribution,
-                    Math.abs(baseResults.greeks().vega / (Math.abs(greeks.vega) > Constants.QL_EPSILON ? greeks.vega : 1.0)));
+                    Math.abs(vega / (Math.abs(greeks.vega) > Constants.QL_EPSILON ? greeks.vega : 1.0)));
 
             lastContribution = Math.max(lastContribution,
-                    Math.abs(baseResults.greeks().rho / (Math.abs(greeks.rho) > Constants.QL_EPSILON ? greeks.rho : 1.0)));
+                    Math.abs(rho / (Math.abs(greeks.rho) > Constants.QL_EPSILON ? greeks.rho : 1.0)));
 
             lastContribution = Math.max(lastContribution,
-                    Math.abs(baseResults.greeks().dividendRho / (Math.abs(greeks.dividendRho) > Constants.QL_EPSILON ? greeks.dividendRho : 1.0)));
+                    Math.abs(dividendRho / (Math.abs(greeks.dividendRho) > Constants.QL_EPSILON ? greeks.dividendRho : 1.0)));
 
             lastContribution *= weight;
         }
@@ -238,4 +261,83 @@ public class JumpDiffusionEngine extends VanillaOption.EngineImpl {
         QL.ensure(i < maxIterations , "accuracy not reached"); // TODO: message
     }
 
+
+    //
+    // private inner classes
+    //
+
+    /**
+     * Scalars which define the Poisson terms of the Merton series for a given maturity
+     * <p>
+     * The <i>i</i>-th term is a Black-Scholes model whose volatility and risk-free rate are flat, i.e:
+     * <code>sqrt((variance + i*jumpSquareVol)/t)</code> and
+     * <code>riskFreeRate - jumpIntensity*k + i*muPlusHalfSquareVol/t</code>. Such flat curves are referred to the
+     * reference date of the risk-free curve and employ the day counter of the volatility.
+     */
+    private final class Terms {
+        private final double /* @Real */jumpSquareVol;
+        private final double /* @Real */muPlusHalfSquareVol;
+        private final double /* @Real */k;
+        private final double /* @Real */jumpIntensity;
+        private final double /* @Real */lambda;
+        private final double /* @Variance */variance;
+        private final double /* @Time */t;
+        private final double /* @Time */rateTime;
+        private final double /* @Time */dividendTime;
+        private final double /* @Rate */riskFreeRate;
+        private final double /* @Real */spot;
+        private final double /* @DiscountFactor */dividendDiscount;
+        private final PoissonDistribution p;
+
+        private Terms(final Date maturity) {
+            final double logJumpVolatility = process.logJumpVolatility().currentLink().value();
+            this.jumpSquareVol = logJumpVolatility * logJumpVolatility;
+            this.muPlusHalfSquareVol = process.logMeanJump().currentLink().value() + 0.5 * jumpSquareVol;
+
+            // mean jump size
+            this.k = Math.exp(muPlusHalfSquareVol) - 1.0;
+            this.jumpIntensity = process.jumpIntensity().currentLink().value();
+            this.lambda = (k + 1.0) * jumpIntensity;
+
+            // dummy strike
+            final BlackVolTermStructure volTS = process.blackVolatility().currentLink();
+            this.variance = volTS.blackVariance(maturity, 1.0);
+            this.t = volTS.dayCounter().yearFraction(volTS.referenceDate(), maturity);
+
+            final YieldTermStructure riskFreeTS = process.riskFreeRate().currentLink();
+            this.riskFreeRate = -Math.log(riskFreeTS.discount(maturity)) / t;
+            this.rateTime = volTS.dayCounter().yearFraction(riskFreeTS.referenceDate(), maturity);
+
+            final YieldTermStructure dividendTS = process.dividendYield().currentLink();
+            this.dividendDiscount = dividendTS.discount(maturity);
+            this.dividendTime = dividendTS.dayCounter().yearFraction(dividendTS.referenceDate(), maturity);
+
+            this.spot = process.stateVariable().currentLink().value();
+            QL.require(spot > 0.0, "negative or null underlying given");
+
+            this.p = new PoissonDistribution(lambda * t);
+        }
+
+        private double volatility(final int i) {
+            return Math.sqrt((variance + i * jumpSquareVol) / t);
+        }
+
+        private double stdDev(final int i) {
+            return volatility(i) * Math.sqrt(rateTime);
+        }
+
+        private double discount(final int i) {
+            final double /* @Rate */r = riskFreeRate - jumpIntensity * k + i * muPlusHalfSquareVol / t;
+            return Math.exp(-r * rateTime);
+        }
+
+        private double forward(final int i) {
+            return spot * dividendDiscount / discount(i);
+        }
+
+        private double weight(final int i) {
+            return p.op(i);
+        }
+    }
+
 }
@@ -94,6 +94,21 @@ public class FDAmericanEngine
         super.impl = new Impl(this);
     }
 
+    /**
+     * @param gridType is the layout of the grid of the underlying
+     *
+     * @see FDVanillaEngine.GridType
+     */
+    public FDAmericanEngine(
+            final GeneralizedBlackScholesProcess process,
+            final int timeSteps,
+            final int gridPoints,
+            final boolean timeDependent,
+            final FDVanillaEngine.GridType gridType) {
+        super(FDAmericanCondition.class, OneAssetOption.Engine.class, process, timeSteps, gridPoints, timeDependent, gridType);
+        super.impl = new Impl(this);
+    }
+
 
     //
     // private inner classes
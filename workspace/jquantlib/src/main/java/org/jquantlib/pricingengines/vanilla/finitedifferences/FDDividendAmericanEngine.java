@@ -108,6 +108,21 @@ public class FDDividendAmericanEngine
         super.impl = new Impl(this);
     }
 
+    /**
+     * @param gridType is the layout of the grid of the underlying
+     *
+     * @see FDVanillaEngine.GridType
+     */
+    public FDDividendAmericanEngine(
+            final GeneralizedBlackScholesProcess process,
+            final int timeSteps,
+            final int gridPoints,
+            final boolean timeDependent,
+            final FDVanillaEngine.GridType gridType) {
+        super(FDAmericanCondition.class, DividendVanillaOption.Engine.class, process, timeSteps, gridPoints, timeDependent, gridType);
+        super.impl = new Impl(this);
+    }
+
     //
     // private inner classes
     //
@@ -98,6 +98,7 @@ public class FDDividendEngineMerton73 extends FDDividendEngineBase {
         sMin *= scaleFactor;
         sMax *= scaleFactor;
         center *= scaleFactor;
+        concentrationPoint *= scaleFactor;
 
         intrinsicValues.scaleGrid(scaleFactor);
         initializeInitialCondition();
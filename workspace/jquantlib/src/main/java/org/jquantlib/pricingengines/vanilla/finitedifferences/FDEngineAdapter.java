@@ -106,6 +106,18 @@ implements OneAssetOption.Engine {
         }
         process.addObserver(this);
     }
+
+    public FDEngineAdapter(
+            final Class<? extends FDVanillaEngine>   classBase,
+            final Class<? extends Engine> classEngine,
+            final GeneralizedBlackScholesProcess process,
+            final int timeSteps,
+            final int gridPoints,
+            final boolean timeDependent,
+            final FDVanillaEngine.GridType gridType) {
+        this(classBase, classEngine, process, timeSteps, gridPoints, timeDependent);
+        baseInstance.setGridType(gridType);
+    }
     
 
     //
@@ -60,6 +60,21 @@ public class FDEuropeanEngine extends OneAssetOption.EngineImpl {
         process.addObserver(this);
     }
 
+    /**
+     * @param gridType is the layout of the grid of the underlying
+     *
+     * @see FDVanillaEngine.GridType
+     */
+    public FDEuropeanEngine(
+            final GeneralizedBlackScholesProcess process,
+            final int timeSteps,
+            final int gridPoints,
+            final boolean timeDependent,
+            final FDVanillaEngine.GridType gridType) {
+        this(process, timeSteps, gridPoints, timeDependent);
+        fdVanillaEngine.setGridType(gridType);
+    }
+
     public FDEuropeanEngine(final GeneralizedBlackScholesProcess stochProcess, final int binomialSteps, final int samples) {
         this(stochProcess,binomialSteps,samples,false);
     }
@@ -83,10 +98,10 @@ public class FDEuropeanEngine extends OneAssetOption.EngineImpl {
         prices.setValues( model.rollback(prices.values(), fdVanillaEngine.getResidualTime(), 0, fdVanillaEngine.timeSteps) );
 
         final OneAssetOption.ResultsImpl r = (OneAssetOption.ResultsImpl)results_;
-        r.value = prices.valueAtCenter();
+        r.value = fdVanillaEngine.valueAtCenter(prices);
         final Option.GreeksImpl greeks = r.greeks();
-        greeks.delta = prices.firstDerivativeAtCenter();
-        greeks.gamma = prices.secondDerivativeAtCenter();
+        greeks.delta = fdVanillaEngine.firstDerivativeAtCenter(prices);
+        greeks.gamma = fdVanillaEngine.secondDerivativeAtCenter(prices);
         greeks.theta = greeks.blackScholesTheta(fdVanillaEngine.process, r.value, greeks.delta, greeks.gamma);
         // final Option.MoreGreeksImpl moreGreeks = r.moreGreeks();
         r.additionalResults().put("priceCurve", prices);
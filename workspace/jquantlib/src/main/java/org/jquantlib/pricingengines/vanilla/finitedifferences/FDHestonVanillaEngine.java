@@ -0,0 +1,250 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.pricingengines.vanilla.finitedifferences;
+
+import java.util.concurrent.ExecutorService;
+
+import org.jquantlib.QL;
+import org.jquantlib.exercise.Exercise;
+import org.jquantlib.instruments.OneAssetOption;
+import org.jquantlib.instruments.Option;
+import org.jquantlib.instruments.StrikedTypePayoff;
+import org.jquantlib.math.Grid;
+import org.jquantlib.math.matrixutilities.Array;
+import org.jquantlib.methods.finitedifferences.AdiScheme;
+import org.jquantlib.methods.finitedifferences.HestonAdiOperator;
+import org.jquantlib.model.equity.HestonModel;
+import org.jquantlib.pricingengines.GenericModelEngine;
+import org.jquantlib.processes.HestonProcess;
+
+/**
+ * Finite-differences pricing engine for European and American vanilla options under the Heston model
+ * <p>
+ * The Heston PDE is solved on a (log-spot, variance) grid concentrated around the strike and the initial variance.
+ * Time stepping is performed by an ADI scheme, which solves tridiagonal systems along each grid line; independent
+ * lines can be solved concurrently by an executor given at construction. Early exercise is handled by projecting on
+ * the intrinsic value after every step.
+ * <p>
+ * Optionally, the first steps can be performed by a fully implicit Douglas scheme, which damps the oscillations
+ * caused by the non-smooth payoff and improves greeks.
+ *
+ * @see AdiScheme
+ * @see HestonAdiOperator
+ *
+ * @author agent
+ */
+public class FDHestonVanillaEngine
+        extends GenericModelEngine<HestonModel, OneAssetOption.Arguments, OneAssetOption.Results>
+        implements OneAssetOption.Engine {
+
+    private static final String NON_STRIKED_PAYOFF_GIVEN = "non-striked payoff given";
+    private static final String UNSUPPORTED_EXERCISE = "only European and American exercises are supported";
+
+    // width of the log-spot grid, measured in standard deviations
+    private static final double stdDevs = 6.0;
+    // concentration of the grids around the strike and the initial variance
+    private static final double xDensity = 0.1;
+    private static final double vDensity = 0.2;
+
+
+    //
+    // private final fields
+    //
+
+    private final int tGrid, xGrid, vGrid, dampingSteps;
+    private final AdiScheme.Type schemeType;
+    private final ExecutorService executor;
+
+
+    //
+    // public constructors
+    //
+
+    public FDHestonVanillaEngine(final HestonModel model) {
+        this(model, 100, 100, 50);
+    }
+
+    public FDHestonVanillaEngine(
+            final HestonModel model,
+            final int tGrid,
+            final int xGrid,
+            final int vGrid) {
+        this(model, tGrid, xGrid, vGrid, 0, AdiScheme.Type.HundsdorferVerwer, null);
+    }
+
+    /**
+     * @param executor solves independent grid lines concurrently, or <code>null</code> for solving them on the
+     * calling thread
+     */
+    public FDHestonVanillaEngine(
+            final HestonModel model,
+            final int tGrid,
+            final int xGrid,
+            final int vGrid,
+            final int dampingSteps,
+            final AdiScheme.Type schemeType,
+            final ExecutorService executor) {
+        super(model, new OneAssetOption.ArgumentsImpl(), new OneAssetOption.ResultsImpl());
+        QL.require(tGrid > 0 && xGrid >= 3 && vGrid >= 3, "invalid grid sizes");
+        QL.require(dampingSteps >= 0 && dampingSteps <= tGrid, "invalid number of damping steps");
+        this.tGrid = tGrid;
+        this.xGrid = xGrid;
+        this.vGrid = vGrid;
+        this.dampingSteps = dampingSteps;
+        this.schemeType = schemeType;
+        this.executor = executor;
+    }
+
+
+    //
+    // implements PricingEngine
+    //
+
+    @Override
+    public void calculate() {
+        final OneAssetOption.ArgumentsImpl a = (OneAssetOption.ArgumentsImpl) arguments_;
+        final OneAssetOption.ResultsImpl r = (OneAssetOption.ResultsImpl) results_;
+        final Option.GreeksImpl greeks = r.greeks();
+
+        QL.require(a.payoff instanceof StrikedTypePayoff, NON_STRIKED_PAYOFF_GIVEN);
+        final StrikedTypePayoff payoff = (StrikedTypePayoff) a.payoff;
+        final Exercise.Type exerciseType = a.exercise.type();
+        QL.require(exerciseType == Exercise.Type.European || exerciseType == Exercise.Type.American, UNSUPPORTED_EXERCISE);
+        final boolean american = exerciseType == Exercise.Type.American;
+
+        final HestonProcess process = model.process();
+        final double spot = process.s0().currentLink().value();
+        QL.require(spot > 0.0, "negative or null underlying given");
+        final double maturity = process.time(a.exercise.lastDate());
+        QL.require(maturity > 0.0, "expired option");
+
+        final double v0 = model.v0();
+        final double kappa = model.kappa();
+        final double theta = model.theta();
+        final double sigma = model.sigma();
+        final double rho = model.rho();
+
+        // grid layout
+        final double x0 = Math.log(spot);
+        final double xStrike = Math.log(payoff.strike());
+        final double meanVariance = (kappa * maturity > 1.0e-8)
+            ? theta + (v0 - theta) * (1.0 - Math.exp(-kappa * maturity)) / (kappa * maturity)
+            : v0;
+        final double stdDev = Math.max(Math.sqrt(Math.max(meanVariance, v0) * maturity), 0.05);
+        final double xMin = Math.min(x0, xStrike) - stdDevs * stdDev;
+        final double xMax = Math.max(x0, xStrike) + stdDevs * stdDev;
+        final Array xs = Grid.ConcentratedGrid(xMin, xMax, xGrid - 1, xStrike, xDensity);
+
+        final double vLevel = Math.max(v0, theta);
+        final double vMax = Math.max(5.0 * vLevel, v0 + stdDevs * sigma * Math.sqrt(vLevel * maturity));
+        final Array vs = Grid.ConcentratedGrid(0.0, vMax, vGrid - 1, v0, vDensity);
+
+        // terminal condition
+        final int nx = xs.size();
+        final int nv = vs.size();
+        final double[] intrinsic = new double[nx * nv];
+        for (int i = 0; i < nx; i++) {
+            final double value = payoff.get(Math.exp(xs.get(i)));
+            for (int j = 0; j < nv; j++) {
+                intrinsic[i + j * nx] = value;
+            }
+        }
+        final double[] u = intrinsic.clone();
+
+        // rollback
+        final HestonAdiOperator operator = new HestonAdiOperator(
+                xs, vs, process.riskFreeRate(), process.dividendYield(), kappa, theta, sigma, rho, executor);
+        final AdiScheme damping = new AdiScheme(AdiScheme.Type.Douglas, 1.0);
+        final AdiScheme scheme = new AdiScheme(schemeType);
+        final double dt = maturity / tGrid;
+        double t = maturity;
+        for (int step = 0; step < tGrid; step++, t -= dt) {
+            final AdiScheme evolver = (step < dampingSteps) ? damping : scheme;
+            evolver.step(operator, u, t, Math.min(dt, t));
+            if (american) {
+                for (int k = 0; k < u.length; k++) {
+                    u[k] = Math.max(u[k], intrinsic[k]);
+                }
+            }
+        }
+
+        // results are interpolated at the initial spot and variance
+        final double[] sensitivities = interpolate(xs, vs, u, x0, v0);
+        r.value = sensitivities[0];
+        greeks.delta = sensitivities[1] / spot;
+        greeks.gamma = (sensitivities[2] - sensitivities[1]) / (spot * spot);
+    }
+
+
+    //
+    // private methods
+    //
+
+    /**
+     * Interpolates quadratically in log-spot and linearly in variance.
+     *
+     * @return value, first and second derivatives with respect to log-spot
+     */
+    private static double[] interpolate(final Array xs, final Array vs, final double[] u, final double x, final double v) {
+        final int nx = xs.size();
+        final int nv = vs.size();
+
+        int j = 0;
+        while (j < nv - 2 && vs.get(j + 1) <= v) {
+            j++;
+        }
+        final double w = (v - vs.get(j)) / (vs.get(j + 1) - vs.get(j));
+
+        int i = 1;
+        while (i < nx - 2 && Math.abs(xs.get(i + 1) - x) < Math.abs(xs.get(i) - x)) {
+            i++;
+        }
+
+        final double[] lower = lagrange(xs, u, i, j * nx, x);
+        final double[] upper = lagrange(xs, u, i, (j + 1) * nx, x);
+        final double[] result = new double[3];
+        for (int k = 0; k < 3; k++) {
+            result[k] = (1.0 - w) * lower[k] + w * upper[k];
+        }
+        return result;
+    }
+
+    /**
+     * Quadratic interpolation through nodes <code>i-1, i, i+1</code> of a line.
+     *
+     * @return value, first and second derivatives at <code>x</code>
+     */
+    private static double[] lagrange(final Array xs, final double[] u, final int i, final int offset, final double x) {
+        final double x0 = xs.get(i - 1), x1 = xs.get(i), x2 = xs.get(i + 1);
+        final double u0 = u[offset + i - 1], u1 = u[offset + i], u2 = u[offset + i + 1];
+        final double d0 = (x0 - x1) * (x0 - x2);
+        final double d1 = (x1 - x0) * (x1 - x2);
+        final double d2 = (x2 - x0) * (x2 - x1);
+
+        final double value = u0 * (x - x1) * (x - x2) / d0 + u1 * (x - x0) * (x - x2) / d1 + u2 * (x - x0) * (x - x1) / d2;
+        final double first = u0 * (2.0 * x - x1 - x2) / d0 + u1 * (2.0 * x - x0 - x2) / d1 + u2 * (2.0 * x - x0 - x1) / d2;
+        final double second = 2.0 * (u0 / d0 + u1 / d1 + u2 / d2);
+        return new double[] { value, first, second };
+    }
+
+}
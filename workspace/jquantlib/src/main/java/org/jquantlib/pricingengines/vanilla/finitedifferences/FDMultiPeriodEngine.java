@@ -237,9 +237,9 @@ public abstract class FDMultiPeriodEngine extends FDVanillaEngine {
             executeIntermediateStep(0);
         }
 
-        r.value = prices.valueAtCenter();
-        greeks.delta = prices.firstDerivativeAtCenter();
-        greeks.gamma = prices.secondDerivativeAtCenter();
+        r.value = valueAtCenter(prices);
+        greeks.delta = firstDerivativeAtCenter(prices);
+        greeks.gamma = secondDerivativeAtCenter(prices);
         r.additionalResults().put("priceCurve", prices);
     }
 
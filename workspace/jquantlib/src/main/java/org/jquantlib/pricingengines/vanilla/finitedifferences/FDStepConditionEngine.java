@@ -117,9 +117,9 @@ public abstract class FDStepConditionEngine extends FDVanillaEngine {
 
         final BlackCalculator black = new BlackCalculator(striked_payoff, forwardPrice, Math.sqrt(variance), riskFreeDiscount);
 
-        r.value = prices.valueAtCenter() - controlPrices.valueAtCenter() + black.value();
-        greeks.delta = prices.firstDerivativeAtCenter() - controlPrices.firstDerivativeAtCenter() + black.delta(spot);
-        greeks.gamma = prices.secondDerivativeAtCenter() - controlPrices.secondDerivativeAtCenter() + black.gamma(spot);
+        r.value = valueAtCenter(prices) - valueAtCenter(controlPrices) + black.value();
+        greeks.delta = firstDerivativeAtCenter(prices) - firstDerivativeAtCenter(controlPrices) + black.delta(spot);
+        greeks.gamma = secondDerivativeAtCenter(prices) - secondDerivativeAtCenter(controlPrices) + black.gamma(spot);
         r.additionalResults().put("priceCurve", prices);
     }
 }
@@ -41,10 +41,37 @@ import org.jquantlib.time.Date;
  * Finite-differences pricing engine for BSM one asset options
  * <p>
  * The name is a misnomer as this is a base class for any finite difference scheme.  Its main job is to handle grid layout.
+ * <p>
+ * By default the grid is uniform in the logarithm of the underlying and centered on its current value. Alternatively,
+ * grid points can be concentrated around the strike by means of a sinh transformation, which gives the same accuracy
+ * with considerably fewer grid points. In this case, results are interpolated at the current value of the underlying.
+ *
+ * @see GridType
  *
  * @author Srinivas Hasti
  */
 public class FDVanillaEngine {
+
+    /**
+     * Layout of the grid of the underlying
+     */
+    public enum GridType {
+        /**
+         * Uniform in the logarithm of the underlying
+         */
+        LogUniform,
+
+        /**
+         * Concentrated around the strike in the logarithm of the underlying
+         */
+        Concentrated
+    }
+
+    /**
+     * Default width of the concentration region, as a fraction of the width of the grid
+     */
+    public final static double defaultConcentration = 0.1;
+
     protected GeneralizedBlackScholesProcess process;
     protected /* @Size */ int timeSteps, gridPoints;
     protected boolean timeDependent;
@@ -56,6 +83,12 @@ public class FDVanillaEngine {
     protected List<BoundaryCondition<TridiagonalOperator>> bcS;
     // temporaries
     protected /* Real */ double sMin, center, sMax;
+    protected /* Real */ double concentrationPoint;
+    protected GridType gridType;
+    protected double concentration;
+
+    // values of a curve on the current grid, reused by greeks on non-uniform grids
+    private final SampledCurve onGrid;
 
     //private double gridLogSpacing; //Not used
     private final static/* Real */double safetyZoneFactor = 1.1;
@@ -70,7 +103,10 @@ public class FDVanillaEngine {
         this.gridPoints = gridPoints;
         this.timeDependent = timeDependent;
         this.intrinsicValues = new SampledCurve(gridPoints);
+        this.onGrid = new SampledCurve(0);
         bcS = new Vector<BoundaryCondition<TridiagonalOperator>>();
+        this.gridType = GridType.LogUniform;
+        this.concentration = defaultConcentration;
     }
 
 
@@ -82,6 +118,24 @@ public class FDVanillaEngine {
         return intrinsicValues.grid();
     }
 
+    public GridType gridType() {
+        return gridType;
+    }
+
+    public void setGridType(final GridType gridType) {
+        setGridType(gridType, defaultConcentration);
+    }
+
+    /**
+     * @param concentration is the width of the concentration region as a fraction of the width of the grid; it is
+     * only meaningful for {@link GridType#Concentrated} grids
+     */
+    public void setGridType(final GridType gridType, final double concentration) {
+        QL.require(concentration > 0.0, "concentration must be positive");
+        this.gridType = gridType;
+        this.concentration = concentration;
+    }
+
 
     //
     // protected methods
@@ -132,10 +186,15 @@ public class FDVanillaEngine {
             // enforce central placement of the underlying
             sMin = center / (sMax / center);
         }
+        concentrationPoint = requiredGridValue;
     }
 
     protected void initializeInitialCondition() {
-        intrinsicValues.setLogGrid(sMin, sMax);
+        if (gridType == GridType.Concentrated) {
+            intrinsicValues.setConcentratedLogGrid(sMin, sMax, concentrationPoint, concentration);
+        } else {
+            intrinsicValues.setLogGrid(sMin, sMax);
+        }
         intrinsicValues.sample(new PayoffFunction(payoff));
     }
 
@@ -154,6 +213,33 @@ public class FDVanillaEngine {
                 NeumannBC.Side.Upper));
     }
 
+    /**
+     * Returns the value of <code>curve</code> at the current value of the underlying
+     */
+    protected double valueAtCenter(final SampledCurve curve) {
+        if (gridType == GridType.LogUniform)
+            return curve.valueAtCenter();
+        return onGrid(curve).valueAt(center);
+    }
+
+    /**
+     * Returns the first derivative of <code>curve</code> at the current value of the underlying
+     */
+    protected double firstDerivativeAtCenter(final SampledCurve curve) {
+        if (gridType == GridType.LogUniform)
+            return curve.firstDerivativeAtCenter();
+        return onGrid(curve).firstDerivativeAt(center);
+    }
+
+    /**
+     * Returns the second derivative of <code>curve</code> at the current value of the underlying
+     */
+    protected double secondDerivativeAtCenter(final SampledCurve curve) {
+        if (gridType == GridType.LogUniform)
+            return curve.secondDerivativeAtCenter();
+        return onGrid(curve).secondDerivativeAt(center);
+    }
+
     protected/* Time */double getResidualTime() {
         return process.time(exerciseDate);
     }
@@ -174,4 +260,19 @@ public class FDVanillaEngine {
         throw new UnsupportedOperationException();
     }
 
+
+
+    //
+    // private methods
+    //
+
+    /**
+     * Associates the values of <code>curve</code> to the current grid
+     */
+    private SampledCurve onGrid(final SampledCurve curve) {
+        onGrid.setGrid(grid());
+        onGrid.setValues(curve.values());
+        return onGrid;
+    }
+
 }
@@ -56,6 +56,7 @@ import org.jquantlib.termstructures.volatilities.LocalVolCurve;
 import org.jquantlib.termstructures.volatilities.LocalVolSurface;
 import org.jquantlib.time.Date;
 import org.jquantlib.time.Frequency;
+import org.jquantlib.time.TimeGrid;
 
 /**
  * Generalized Black-Scholes stochastic process
@@ -208,15 +209,7 @@ public class GeneralizedBlackScholesProcess extends StochasticProcess1D {
             final/* @Time */double t,
             final/* @Real */double x) {
         /* @Diffusion */final double sigma = diffusion(t, x);
-        // we could be more anticipatory if we know the right dt
-        // for which the drift will be used
-        /* @Time */final double t1 = t + 0.0001;
-        final YieldTermStructure yts = riskFreeRate.currentLink();
-        /* @Rate */final double r = yts.forwardRate(t, t1, Compounding.Continuous, Frequency.NoFrequency, true).rate();
-
-        final YieldTermStructure divTs = dividendYield.currentLink();
-        final double d = divTs.forwardRate(t, t1, Compounding.Continuous, Frequency.NoFrequency, true).rate();
-        return r - d - 0.5 * sigma * sigma;
+        return riskNeutralDrift(t) - 0.5 * sigma * sigma;
     }
 
     @Override
@@ -242,6 +235,68 @@ public class GeneralizedBlackScholesProcess extends StochasticProcess1D {
         return yts.dayCounter().yearFraction(yts.referenceDate(), d);
     }
 
+    //
+    // protected methods
+    //
+
+    /**
+     * Creates an evolver which calculates forward rates once per step of the time grid, as well as local volatilities
+     * when they do not depend on the underlying.
+     * <p>
+     * Only the {@link EulerDiscretization} is hard-coded; other discretizations are evolved step by step.
+     */
+    @Override
+    protected TimeGridEvolver1D newTimeGridEvolver(final TimeGrid grid) {
+        if (discretization1D == null || discretization1D.getClass() != EulerDiscretization.class)
+            return super.newTimeGridEvolver(grid);
+
+        final LocalVolTermStructure localVol = localVolatility().currentLink();
+        final boolean stateIndependent = localVol instanceof LocalConstantVol || localVol instanceof LocalVolCurve;
+        final int steps = grid.size() - 1;
+        final double[] drifts = new double[steps];
+        final double[] sqrtDts = new double[steps];
+        final double[] vols = stateIndependent ? new double[steps] : null;
+        final double x = x0();
+        for (int i = 0; i < steps; i++) {
+            final double t = grid.get(i);
+            drifts[i] = riskNeutralDrift(t);
+            sqrtDts[i] = Math.sqrt(grid.dt(i));
+            if (stateIndependent) {
+                vols[i] = localVol.localVol(t, x, true);
+            }
+        }
+
+        return new TimeGridEvolver1D(this, grid) {
+            @Override
+            public double evolve(final int i, final double x0, final double dw) {
+                final double sigma = stateIndependent ? vols[i] : localVol.localVol(grid.get(i), x0, true);
+                // same as the Euler discretization: expectation, then standard deviation
+                return apply(apply(x0, (drifts[i] - 0.5 * sigma * sigma) * grid.dt(i)), sigma * sqrtDts[i] * dw);
+            }
+        };
+    }
+
+
+    //
+    // private methods
+    //
+
+    /**
+     * Returns the difference between forward risk-free and dividend rates, as seen by {@link #drift(double, double)}
+     */
+    private double riskNeutralDrift(final/* @Time */double t) {
+        // we could be more anticipatory if we know the right dt
+        // for which the drift will be used
+        /* @Time */final double t1 = t + 0.0001;
+        final YieldTermStructure yts = riskFreeRate.currentLink();
+        /* @Rate */final double r = yts.forwardRate(t, t1, Compounding.Continuous, Frequency.NoFrequency, true).rate();
+
+        final YieldTermStructure divTs = dividendYield.currentLink();
+        final double d = divTs.forwardRate(t, t1, Compounding.Continuous, Frequency.NoFrequency, true).rate();
+        return r - d;
+    }
+
+
     //
     // implements Observer
     //
@@ -34,6 +34,7 @@ import org.jquantlib.quotes.SimpleQuote;
 import org.jquantlib.termstructures.Compounding;
 import org.jquantlib.termstructures.YieldTermStructure;
 import org.jquantlib.time.Date;
+import org.jquantlib.time.TimeGrid;
 
 // TODO: code review :: please verify against QL/C++ code
 // TODO: code review :: license, class comments, comments for access modifiers, comments for @Override
@@ -98,6 +99,13 @@ public class HestonProcess extends StochasticProcess {
         this.riskFreeRate_.addObserver(this);
         this.dividendYield_.addObserver(this);
         this.s0_.addObserver(this);
+        this.v0_.addObserver(this);
+        this.kappa_.addObserver(this);
+        this.theta_.addObserver(this);
+        this.sigma_.addObserver(this);
+        this.rho_.addObserver(this);
+
+        update();
     }
 
     // TODO: code review :: please verify against QL/C++ code
@@ -111,7 +119,7 @@ public class HestonProcess extends StochasticProcess {
         rhov_ = rho_.currentLink().value();
         sqrhov_ = Math.sqrt(1.0 - rhov_ * rhov_);
 
-        // this->StochasticProcess::update();
+        super.update();
     }
 
     public final RelinkableHandle<Quote> v0() {
@@ -176,8 +184,7 @@ public class HestonProcess extends StochasticProcess {
                         : 0.0;
 
                 final double[] result = new double[2];
-                result[0] = riskFreeRate_.currentLink().forwardRate(t, t, Compounding.Continuous).rate()
-                - dividendYield_.currentLink().forwardRate(t, t, Compounding.Continuous).rate() - 0.5 * vol * vol;
+                result[0] = riskNeutralDrift(t) - 0.5 * vol * vol;
 
                 result[1] = kappav_ * (thetav_ - ((discretization_ == Discretization.PartialTruncation) ? x1 : vol * vol));
                 return new Array(result);
@@ -214,17 +221,86 @@ public class HestonProcess extends StochasticProcess {
 
     @Override
     public Array evolve(/* @Time */final double t0, final Array x0, /* @Time */final double dt, final Array dw) {
+        return evolve(riskNeutralDrift(t0), x0, dt, Math.sqrt(dt), dw);
+    }
+
+    /**
+     * Stores the asset value after a time interval into a given array, without allocating intermediate objects
+     * <p>
+     * Forward rates are still looked up on every call; see {@link #timeGridEvolver(TimeGrid)} in order to calculate
+     * them once per step of a time grid.
+     */
+    @Override
+    public void evolveInto(
+            /* @Time */final double t0, final double[] x0, /* @Time */final double dt, final double[] dw, final double[] out) {
+        evolve(riskNeutralDrift(t0), x0[0], x0[1], dt, Math.sqrt(dt), dw[0], dw[1], out);
+    }
+
+
+    //
+    // protected methods
+    //
+
+    /**
+     * Creates an evolver which calculates forward rates once per step of the time grid
+     */
+    @Override
+    protected TimeGridEvolver newTimeGridEvolver(final TimeGrid grid) {
+        final int steps = grid.size() - 1;
+        final double[] drifts = new double[steps];
+        final double[] sqrtDts = new double[steps];
+        for (int i = 0; i < steps; i++) {
+            drifts[i] = riskNeutralDrift(grid.get(i));
+            sqrtDts[i] = Math.sqrt(grid.dt(i));
+        }
+        return new TimeGridEvolver(this, grid) {
+            @Override
+            public Array evolve(final int i, final Array x0, final Array dw) {
+                return HestonProcess.this.evolve(drifts[i], x0, grid.dt(i), sqrtDts[i], dw);
+            }
+
+            @Override
+            public void evolveInto(final int i, final double[] x0, final double[] dw, final double[] out) {
+                HestonProcess.this.evolve(drifts[i], x0[0], x0[1], grid.dt(i), sqrtDts[i], dw[0], dw[1], out);
+            }
+        };
+    }
+
+
+    //
+    // private methods
+    //
+
+    /**
+     * Returns the difference between instantaneous forward risk-free and dividend rates
+     */
+    private double riskNeutralDrift(/* @Time */final double t) {
+        return riskFreeRate_.currentLink().forwardRate(t, t, Compounding.Continuous).rate()
+        - dividendYield_.currentLink().forwardRate(t, t, Compounding.Continuous).rate();
+    }
+
+    /**
+     * @param rq is the difference between instantaneous forward risk-free and dividend rates at the start of the step
+     * @param sdt is the square root of <code>dt</code>
+     */
+    private Array evolve(final double rq, final Array x0, /* @Time */final double dt, final double sdt, final Array dw) {
         final double[] retVal = new double[2];
+        evolve(rq, x0.get(0), x0.get(1), dt, sdt, dw.get(0), dw.get(1), retVal);
+        return new Array( retVal );
+    }
+
+    /**
+     * @param retVal receives the asset value; state variables are read before it is written
+     */
+    private void evolve(
+            final double rq,
+            final double x00, final double x01,
+            /* @Time */final double dt, final double sdt,
+            final double dw0, final double dw1,
+            final double[] retVal) {
         double ncp, df, p, dy;
         double vol, vol2, mu, nu;
 
-        final double sdt = Math.sqrt(dt);
-
-        final double x00 = x0.get(0);
-        final double x01 = x0.get(1);
-        final double dw0 = dw.get(0);
-        final double dw1 = dw.get(1);
-
         switch (discretization_) {
             // For the definition of PartialTruncation, FullTruncation
             // and Reflection see Lord, R., R. Koekkoek and D. van Dijk (2006),
@@ -234,8 +310,7 @@ public class HestonProcess extends StochasticProcess {
             case PartialTruncation:
                 vol = (x01 > 0.0) ? Math.sqrt(x01) : 0.0;
                 vol2 = sigmav_ * vol;
-                mu = riskFreeRate_.currentLink().forwardRate(t0, t0, Compounding.Continuous).rate()
-                - dividendYield_.currentLink().forwardRate(t0, t0, Compounding.Continuous).rate() - 0.5 * vol * vol;
+                mu = rq - 0.5 * vol * vol;
                 nu = kappav_ * (thetav_ - x01);
 
                 retVal[0] = x00 * Math.exp(mu * dt + vol * dw0 * sdt);
@@ -244,8 +319,7 @@ public class HestonProcess extends StochasticProcess {
             case FullTruncation:
                 vol = (x01 > 0.0) ? Math.sqrt(x01) : 0.0;
                 vol2 = sigmav_ * vol;
-                mu = riskFreeRate_.currentLink().forwardRate(t0, t0, Compounding.Continuous).rate()
-                - dividendYield_.currentLink().forwardRate(t0, t0, Compounding.Continuous).rate() - 0.5 * vol * vol;
+                mu = rq - 0.5 * vol * vol;
                 nu = kappav_ * (thetav_ - vol * vol);
 
                 retVal[0] = x00 * Math.exp(mu * dt + vol * dw0 * sdt);
@@ -254,8 +328,7 @@ public class HestonProcess extends StochasticProcess {
             case Reflection:
                 vol = Math.sqrt(Math.abs(x01));
                 vol2 = sigmav_ * vol;
-                mu = riskFreeRate_.currentLink().forwardRate(t0, t0, Compounding.Continuous).rate()
-                - dividendYield_.currentLink().forwardRate(t0, t0, Compounding.Continuous).rate() - 0.5 * vol * vol;
+                mu = rq - 0.5 * vol * vol;
                 nu = kappav_ * (thetav_ - vol * vol);
 
                 retVal[0] = x00 * Math.exp(mu * dt + vol * dw0 * sdt);
@@ -268,8 +341,7 @@ public class HestonProcess extends StochasticProcess {
                 // process. For further details please read the wilmott thread
                 // "QuantLib code is very high quatlity"
                 vol = (x01 > 0.0) ? Math.sqrt(x01) : 0.0;
-                mu = riskFreeRate_.currentLink().forwardRate(t0, t0, Compounding.Continuous).rate()
-                - dividendYield_.currentLink().forwardRate(t0, t0, Compounding.Continuous).rate() - 0.5 * vol * vol;
+                mu = rq - 0.5 * vol * vol;
 
                 df = 4 * thetav_ * kappav_ / (sigmav_ * sigmav_);
                 ncp = 4 * kappav_ * Math.exp(-kappav_ * dt) / (sigmav_ * sigmav_ * (1 - Math.exp(-kappav_ * dt))) * x01;
@@ -293,8 +365,6 @@ public class HestonProcess extends StochasticProcess {
             default:
                 throw new LibraryException("unknown discretization schema"); // TODO: message
         }
-
-        return new Array( retVal );
     }
 
 }
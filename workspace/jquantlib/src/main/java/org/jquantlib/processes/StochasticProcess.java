@@ -47,6 +47,7 @@ import org.jquantlib.QL;
 import org.jquantlib.math.matrixutilities.Array;
 import org.jquantlib.math.matrixutilities.Matrix;
 import org.jquantlib.time.Date;
+import org.jquantlib.time.TimeGrid;
 import org.jquantlib.util.DefaultObservable;
 import org.jquantlib.util.Observable;
 import org.jquantlib.util.Observer;
@@ -66,6 +67,11 @@ public abstract class StochasticProcess implements Observable, Observer {
 
     private Discretization discretization;
 
+    /**
+     * Evolver of the last time grid, discarded on notifications
+     */
+    private volatile TimeGridEvolver evolver;
+
 
     //
     // protected constructors
@@ -172,6 +178,23 @@ public abstract class StochasticProcess implements Observable, Observer {
         return apply(expectation(t0,x0,dt), stdDeviation(t0,x0,dt).mul(dw));
     }
 
+    /**
+     * Stores the asset value after a time interval {@latex$ \Delta t } into a given array, as
+     * {@link #evolve(double, Array, double, Array)} would return it.
+     * <p>
+     * The default implementation delegates to {@link #evolve(double, Array, double, Array)}. Derived classes can
+     * override this method in order to evolve the process without allocating intermediate objects.
+     *
+     * @param out receives the asset value; it can be the same array as <code>x0</code> but not as <code>dw</code>
+     */
+    public void evolveInto(
+            final /*@Time*/ double t0, final double[] x0, final /*@Time*/ double dt, final double[] dw, final double[] out) /*@ReadOnly*/ {
+        final Array x = evolve(t0, new Array(x0), dt, new Array(dw));
+        for (int i = 0; i < out.length; i++) {
+            out[i] = x.get(i);
+        }
+    }
+
     /**
      * Applies a change to the asset value.
      *
@@ -193,6 +216,39 @@ public abstract class StochasticProcess implements Observable, Observer {
         throw new UnsupportedOperationException("date/time conversion not supported");
     }
 
+    /**
+     * Returns an evolver of the process over the steps of a time grid
+     * <p>
+     * Terms which do not depend on the state of the process, like forward rates, are calculated once per step of the
+     * grid instead of once per step of every path. The evolver is kept until a notification is received or an evolver
+     * of another time grid is requested.
+     *
+     * @see #newTimeGridEvolver(TimeGrid)
+     */
+    public TimeGridEvolver timeGridEvolver(final TimeGrid grid) {
+        TimeGridEvolver current = evolver;
+        if (current == null || current.grid != grid) {
+            current = newTimeGridEvolver(grid);
+            evolver = current;
+        }
+        return current;
+    }
+
+
+    //
+    // protected methods
+    //
+
+    /**
+     * Creates an evolver of the process over the steps of a time grid
+     * <p>
+     * The default implementation caches nothing and calls {@link #evolve(double, Array, double, Array)} on every
+     * step. Derived classes can override this method in order to calculate path-independent terms in advance.
+     */
+    protected TimeGridEvolver newTimeGridEvolver(final TimeGrid grid) {
+        return new TimeGridEvolver(this, grid);
+    }
+
 
     //
     // implements Observer
@@ -212,6 +268,7 @@ public abstract class StochasticProcess implements Observable, Observer {
     @Override
     //XXX::OBS public void update(final Observable o, final Object arg) {
     public void update() {
+        evolver = null;
         notifyObservers();
     }
 
@@ -264,6 +321,50 @@ public abstract class StochasticProcess implements Observable, Observer {
     }
 
 
+    //
+    // public inner classes
+    //
+
+    /**
+     * Evolves a stochastic process over the steps of a time grid
+     * <p>
+     * The <i>i</i>-th step goes from time <code>grid.get(i)</code> to time <code>grid.get(i+1)</code>.
+     *
+     * @see StochasticProcess#timeGridEvolver(TimeGrid)
+     */
+    public static class TimeGridEvolver {
+        private final StochasticProcess process;
+        protected final TimeGrid grid;
+
+        public TimeGridEvolver(final StochasticProcess process, final TimeGrid grid) {
+            this.process = process;
+            this.grid = grid;
+        }
+
+        public final TimeGrid timeGrid() {
+            return grid;
+        }
+
+        /**
+         * Returns the asset value after the <i>i</i>-th step of the time grid
+         *
+         * @see StochasticProcess#evolve(double, Array, double, Array)
+         */
+        public Array evolve(final int i, final Array x0, final Array dw) {
+            return process.evolve(grid.get(i), x0, grid.dt(i), dw);
+        }
+
+        /**
+         * Stores the asset value after the <i>i</i>-th step of the time grid into a given array
+         *
+         * @see StochasticProcess#evolveInto(double, double[], double, double[], double[])
+         */
+        public void evolveInto(final int i, final double[] x0, final double[] dw, final double[] out) {
+            process.evolveInto(grid.get(i), x0, grid.dt(i), dw, out);
+        }
+    }
+
+
     //
     // inner interfaces
     //
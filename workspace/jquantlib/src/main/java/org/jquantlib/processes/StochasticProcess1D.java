@@ -44,6 +44,7 @@ package org.jquantlib.processes;
 import org.jquantlib.QL;
 import org.jquantlib.math.matrixutilities.Array;
 import org.jquantlib.math.matrixutilities.Matrix;
+import org.jquantlib.time.TimeGrid;
 
 
 /**
@@ -156,6 +157,27 @@ public abstract class StochasticProcess1D extends StochasticProcess {
         return x0 + dx;
     }
 
+    @Override
+    public TimeGridEvolver1D timeGridEvolver(final TimeGrid grid) {
+        return (TimeGridEvolver1D) super.timeGridEvolver(grid);
+    }
+
+
+    //
+    // protected methods
+    //
+
+    /**
+     * Creates an evolver of the process over the steps of a time grid
+     * <p>
+     * The default implementation caches nothing and calls {@link #evolve(double, double, double, double)} on every
+     * step. Derived classes can override this method in order to calculate path-independent terms in advance.
+     */
+    @Override
+    protected TimeGridEvolver1D newTimeGridEvolver(final TimeGrid grid) {
+        return new TimeGridEvolver1D(this, grid);
+    }
+
 
     //
     // implements StochasticProcess
@@ -211,6 +233,14 @@ public abstract class StochasticProcess1D extends StochasticProcess {
         return new Array(1).fill( evolve(t0, x0.first(), dt, dw.first()) );//ZH: Method different than QL097, set size 1
     }
 
+    @Override
+    public final void evolveInto(
+            final /*@Time*/ double t0, final /*@Real*/ double[] x0, final /*@Time*/ double dt, final double[] dw, final double[] out) {
+        QL.require(x0.length==1 , ARRAY_1D_REQUIRED);
+        QL.require(dw.length==1 , ARRAY_1D_REQUIRED);
+        out[0] = evolve(t0, x0[0], dt, dw[0]);
+    }
+
     @Override
     public final /*@Real*/ Array apply(final /*@Real*/ Array x0, final Array dx) {
         QL.require(x0.size()==1 , ARRAY_1D_REQUIRED); // TODO: message
@@ -219,6 +249,48 @@ public abstract class StochasticProcess1D extends StochasticProcess {
     }
 
 
+    //
+    // public inner classes
+    //
+
+    /**
+     * Evolves a 1-dimensional stochastic process over the steps of a time grid
+     *
+     * @see StochasticProcess1D#timeGridEvolver(TimeGrid)
+     */
+    public static class TimeGridEvolver1D extends TimeGridEvolver {
+        private final StochasticProcess1D process;
+
+        public TimeGridEvolver1D(final StochasticProcess1D process, final TimeGrid grid) {
+            super(process, grid);
+            this.process = process;
+        }
+
+        /**
+         * Returns the asset value after the <i>i</i>-th step of the time grid
+         *
+         * @see StochasticProcess1D#evolve(double, double, double, double)
+         */
+        public /*@Real*/ double evolve(final int i, final /*@Real*/ double x0, final double dw) {
+            return process.evolve(grid.get(i), x0, grid.dt(i), dw);
+        }
+
+        @Override
+        public final Array evolve(final int i, final Array x0, final Array dw) {
+            QL.require(x0.size()==1 , ARRAY_1D_REQUIRED);
+            QL.require(dw.size()==1 , ARRAY_1D_REQUIRED);
+            return new Array(1).fill( evolve(i, x0.first(), dw.first()) );
+        }
+
+        @Override
+        public final void evolveInto(final int i, final double[] x0, final double[] dw, final double[] out) {
+            QL.require(x0.length==1 , ARRAY_1D_REQUIRED);
+            QL.require(dw.length==1 , ARRAY_1D_REQUIRED);
+            out[0] = evolve(i, x0[0], dw[0]);
+        }
+    }
+
+
     //
     // inner interfaces
     //
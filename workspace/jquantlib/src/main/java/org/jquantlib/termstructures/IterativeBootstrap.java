@@ -114,6 +114,7 @@ public class IterativeBootstrap<Curve extends PiecewiseYieldCurve> implements Bo
     }
 
     @Override
+    @SuppressWarnings("deprecation")
     public void calculate () {
 
         final int n = instruments.length;
@@ -157,17 +158,23 @@ public class IterativeBootstrap<Curve extends PiecewiseYieldCurve> implements Bo
         ts.setTimes(times);
 
         // set initial guess only if the current curve cannot be used as guess
+        final Array values;
         if (validCurve) {
             QL.ensure(ts.data().length == n+1, "dimension mismatch");
+            values = new Array(ts.data());
         } else {
-            data = new /*@Rate*/ double[n+1];
-            data[0] = traits.initialValue(ts);
+            values = new Array(n+1);
+            values.set(0, traits.initialValue(ts));
             for (int i=0; i<n; ++i) {
-                data[i+1] = traits.initialGuess();
+                values.set(i+1, traits.initialGuess());
             }
-            ts.setData(data);
         }
 
+        // the curve and its interpolations share the same values, so that
+        // guesses written by the solver are seen by the interpolation
+        data = values.$;
+        ts.setData(data);
+
         final Brent solver = new Brent ();
         final int maxIterations = traits.maxIterations();
 
@@ -176,7 +183,7 @@ public class IterativeBootstrap<Curve extends PiecewiseYieldCurve> implements Bo
             final double previousData[] = data.clone(); // TODO: verify if clone() is needed
             // restart from the previous interpolation
             if (validCurve) {
-                ts.setInterpolation(interpolator.interpolate(new Array(times), new Array(data)));
+                ts.setInterpolation(interpolator.interpolate(new Array(times), values));
             }
 
             for (int i=1; i<n+1; ++i) {
@@ -221,7 +228,7 @@ public class IterativeBootstrap<Curve extends PiecewiseYieldCurve> implements Bo
                 if (! validCurve && iteration == 0) {
                     // extend interpolation a point at a time
                     try {
-                        ts.setInterpolation(interpolator.interpolate (new Array(times, i+1), new Array(data)));
+                        ts.setInterpolation(interpolator.interpolate (new Array(times, i+1), values));
                     } catch (final Exception e) {
                         // no chance to fix it in a later iteration
                         if (ts.interpolator().global()) {
@@ -229,7 +236,7 @@ public class IterativeBootstrap<Curve extends PiecewiseYieldCurve> implements Bo
                         }
 
                         // otherwise, if the target interpolation is not usable yet
-                        ts.setInterpolation(new Linear().interpolate (new Array(times, i+1), new Array(data)));
+                        ts.setInterpolation(new Linear().interpolate (new Array(times, i+1), values));
                     }
                 }
                 // required because we just changed the data
@@ -252,7 +259,7 @@ public class IterativeBootstrap<Curve extends PiecewiseYieldCurve> implements Bo
                 break; // no need for convergence loop
             } else if (!validCurve && iteration == 0) {
                 // ensure the target interpolation is used
-                ts.setInterpolation(interpolator.interpolate (new Array(times), new Array(data)));
+                ts.setInterpolation(interpolator.interpolate (new Array(times), values));
 
                 // at least one more iteration is needed to check convergence
                 continue;
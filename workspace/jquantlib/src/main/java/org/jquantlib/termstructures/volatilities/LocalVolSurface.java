@@ -39,8 +39,11 @@
 
 package org.jquantlib.termstructures.volatilities;
 
+import java.util.Arrays;
+
 import org.jquantlib.QL;
 import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.math.matrixutilities.Array;
 import org.jquantlib.quotes.Handle;
 import org.jquantlib.quotes.Quote;
 import org.jquantlib.quotes.SimpleQuote;
@@ -59,6 +62,12 @@ import org.jquantlib.util.Visitor;
  * Local Volatility" in "Case Studies and Financial Modelling Course Notes," by
  * Jim Gatheral, Fall Term, 2003
  *
+ * <p>
+ * By default, Dupire's formula is evaluated on every call. Once {@link #enableGrid(Array, Array)} is called, local
+ * volatilities are tabulated on a grid of times and log-moneyness, which is built on first use and rebuilt after every
+ * notification received from the underlying, the yield curves or the Black volatility surface; calls are then served by
+ * interpolation on the grid, on primitive arrays.
+ *
  * @see <a href="http://www.math.nyu.edu/fellows_fin_math/gatheral/Lecture1_Fall02.pdf">This article</a>
  *
  * @author Richard Gomes
@@ -66,11 +75,32 @@ import org.jquantlib.util.Visitor;
 // TODO: this class is untested, probably unreliable.
 public class LocalVolSurface extends LocalVolTermStructure {
 
+    /**
+     * Interpolation of local volatilities on the grid
+     */
+    public enum GridInterpolation {
+        /** linear in time and in log-moneyness */
+        Bilinear,
+        /**
+         * tensor product of cubic Lagrange polynomials in time and in log-moneyness, through the 4x4 nodes which
+         * surround the point; unlike a bicubic spline, derivatives are not continuous across nodes
+         */
+        Lagrange
+    }
+
     private final Handle<BlackVolTermStructure> blackTS_;
     private final Handle<YieldTermStructure> riskFreeTS_;
     private final Handle<YieldTermStructure> dividendTS_;
     private final Handle<? extends Quote> underlying_;
 
+    private final Object lock = new Object();
+    private double[] gridTimes_;
+    private double[] gridLogMoneyness_;
+    private GridInterpolation gridInterpolation_;
+    // incremented whenever the grid is invalidated
+    private long gridVersion_;
+    private volatile LocalVolGrid grid_;
+
     public LocalVolSurface(
             final Handle<BlackVolTermStructure> blackTS,
             final Handle<YieldTermStructure> riskFreeTS,
@@ -113,6 +143,79 @@ public class LocalVolSurface extends LocalVolTermStructure {
     }
 
 
+    //
+    // public methods
+    //
+
+    /**
+     * Serves local volatilities by bilinear interpolation on a grid
+     *
+     * @see #enableGrid(Array, Array, GridInterpolation)
+     */
+    public void enableGrid(final Array times, final Array logMoneyness) {
+        enableGrid(times, logMoneyness, GridInterpolation.Bilinear);
+    }
+
+    /**
+     * Serves local volatilities by interpolation on a grid
+     * <p>
+     * Log-moneyness is measured against the forward, i.e: a node <code>(t, y)</code> holds the local volatility at the
+     * underlying level <code>F(t) exp(y)</code>. Log-forwards are interpolated linearly in time between nodes. Points
+     * outside the grid are extrapolated flat.
+     *
+     * @param times are the increasing times of the grid
+     * @param logMoneyness are the increasing log-moneyness of the grid
+     * @param interpolation is the interpolation of local volatilities between nodes
+     */
+    public void enableGrid(final Array times, final Array logMoneyness, final GridInterpolation interpolation) {
+        final int minSize = (interpolation == GridInterpolation.Lagrange) ? 4 : 2;
+        QL.require(times.size() >= minSize && logMoneyness.size() >= minSize, "not enough points on the grid");
+        QL.require(times.first() >= 0.0, "negative time given");
+        for (int i = 1; i < times.size(); i++) {
+            QL.require(times.get(i) > times.get(i-1), "times must be sorted unique");
+        }
+        for (int i = 1; i < logMoneyness.size(); i++) {
+            QL.require(logMoneyness.get(i) > logMoneyness.get(i-1), "log-moneyness must be sorted unique");
+        }
+        synchronized (lock) {
+            this.gridTimes_ = toArray(times);
+            this.gridLogMoneyness_ = toArray(logMoneyness);
+            this.gridInterpolation_ = interpolation;
+            this.grid_ = null;
+            this.gridVersion_++;
+        }
+        notifyObservers();
+    }
+
+    /**
+     * Evaluates Dupire's formula on every call
+     */
+    public void disableGrid() {
+        synchronized (lock) {
+            this.gridTimes_ = null;
+            this.gridLogMoneyness_ = null;
+            this.gridInterpolation_ = null;
+            this.grid_ = null;
+            this.gridVersion_++;
+        }
+        notifyObservers();
+    }
+
+
+    //
+    // Overrides AbstractTermStructure
+    //
+
+    @Override
+    public void update() {
+        synchronized (lock) {
+            this.grid_ = null;
+            this.gridVersion_++;
+        }
+        super.update();
+    }
+
+
     //
     // Overrides LocalVolTermStructure
     //
@@ -146,6 +249,47 @@ public class LocalVolSurface extends LocalVolTermStructure {
     protected final /*@Volatility*/ double localVolImpl(
             final /*@Time*/ double time,
             final /*@Real*/ double underlyingLevel) {
+        final LocalVolGrid grid = grid();
+        return (grid != null) ? grid.localVol(time, underlyingLevel) : dupireLocalVol(time, underlyingLevel);
+    }
+
+
+    //
+    // private methods
+    //
+
+    /**
+     * @return the grid of local volatilities, or <code>null</code> when the grid is not enabled
+     */
+    private LocalVolGrid grid() {
+        final LocalVolGrid current = grid_;
+        if (current != null)
+            return current;
+        final double[] times;
+        final double[] logMoneyness;
+        final GridInterpolation interpolation;
+        final long version;
+        synchronized (lock) {
+            if (grid_ != null || gridInterpolation_ == null)
+                return grid_;
+            times = gridTimes_;
+            logMoneyness = gridLogMoneyness_;
+            interpolation = gridInterpolation_;
+            version = gridVersion_;
+        }
+        final LocalVolGrid grid = new LocalVolGrid(times, logMoneyness, interpolation == GridInterpolation.Lagrange);
+        synchronized (lock) {
+            // market data or the grid may have changed meanwhile
+            if (gridVersion_ == version) {
+                grid_ = grid;
+            }
+        }
+        return grid;
+    }
+
+    private /*@Volatility*/ double dupireLocalVol(
+            final /*@Time*/ double time,
+            final /*@Real*/ double underlyingLevel) {
 
         // obtain local copies of objects
         final Quote u = underlying_.currentLink();
@@ -210,6 +354,162 @@ public class LocalVolSurface extends LocalVolTermStructure {
     }
 
 
+    //
+    // private static methods
+    //
+
+    private static double[] toArray(final Array array) {
+        final double[] result = new double[array.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = array.get(i);
+        }
+        return result;
+    }
+
+
+
+    //
+    // private inner classes
+    //
+
+    /**
+     * Nodes of the grid along one dimension, located in constant time when equally spaced
+     */
+    private static final class Axis {
+        private final double[] nodes;
+        private final double first;
+        private final double last;
+        private final double step;
+        private final boolean uniform;
+        // inverse denominators of the cubic Lagrange weights, 4 per first node
+        private final double[] lagrange;
+
+        private Axis(final double[] nodes) {
+            this.nodes = nodes;
+            this.first = nodes[0];
+            this.last = nodes[nodes.length-1];
+            this.step = (last - first) / (nodes.length - 1);
+            boolean uniform = true;
+            for (int i = 1; i < nodes.length; i++) {
+                uniform &= Math.abs(nodes[i] - nodes[i-1] - step) <= 1.0e-12 * (1.0 + Math.abs(step));
+            }
+            this.uniform = uniform;
+            this.lagrange = new double[4 * Math.max(0, nodes.length - 3)];
+            for (int first = 0; first + 4 <= nodes.length; first++) {
+                for (int a = 0; a < 4; a++) {
+                    double d = 1.0;
+                    for (int b = 0; b < 4; b++) {
+                        if (a != b) {
+                            d *= nodes[first + a] - nodes[first + b];
+                        }
+                    }
+                    lagrange[4 * first + a] = 1.0 / d;
+                }
+            }
+        }
+
+        /**
+         * @return the weight of node <code>first + a</code> in the cubic Lagrange polynomial through the 4 nodes
+         *         starting at <code>first</code>
+         */
+        private double lagrangeWeight(final int first, final int a, final double x) {
+            double w = lagrange[4 * first + a];
+            for (int b = 0; b < 4; b++) {
+                if (a != b) {
+                    w *= x - nodes[first + b];
+                }
+            }
+            return w;
+        }
+
+        private double clamp(final double x) {
+            return Math.max(first, Math.min(x, last));
+        }
+
+        /**
+         * @return the first of <code>points</code> consecutive nodes such that <code>x</code> lies between the middle
+         *         ones, as far as the nodes allow
+         */
+        private int locate(final double x, final int points) {
+            int i;
+            if (uniform) {
+                i = (int) ((x - first) / step);
+            } else {
+                i = Arrays.binarySearch(nodes, x);
+                if (i < 0) {
+                    i = -i - 2;
+                }
+            }
+            return Math.max(0, Math.min(i - points / 2 + 1, nodes.length - points));
+        }
+    }
+
+    /**
+     * Local volatilities tabulated on times and log-moneyness, and log-forwards on times
+     */
+    private final class LocalVolGrid {
+        private final Axis times;
+        private final Axis logMoneyness;
+        private final double[] logForwards;
+        // local volatilities, row-major by time
+        private final double[] vols;
+        private final boolean lagrange;
+
+        private LocalVolGrid(final double[] times, final double[] logMoneyness, final boolean lagrange) {
+            this.times = new Axis(times);
+            this.logMoneyness = new Axis(logMoneyness);
+            this.lagrange = lagrange;
+            this.logForwards = new double[times.length];
+            this.vols = new double[times.length * logMoneyness.length];
+
+            final double spot = underlying_.currentLink().value();
+            final YieldTermStructure dTS = dividendTS_.currentLink();
+            final YieldTermStructure rTS = riskFreeTS_.currentLink();
+            for (int j = 0; j < times.length; j++) {
+                final double t = times[j];
+                logForwards[j] = Math.log(spot * dTS.discount(t, true) / rTS.discount(t, true));
+                for (int i = 0; i < logMoneyness.length; i++) {
+                    vols[j * logMoneyness.length + i] = dupireLocalVol(t, Math.exp(logForwards[j] + logMoneyness[i]));
+                }
+            }
+        }
+
+        private /*@Volatility*/ double localVol(final /*@Time*/ double time, final /*@Real*/ double underlyingLevel) {
+            final double[] tn = times.nodes;
+            final double[] yn = logMoneyness.nodes;
+            final int n = yn.length;
+
+            final double t = times.clamp(time);
+            final int j = times.locate(t, 2);
+            final double ut = (t - tn[j]) / (tn[j+1] - tn[j]);
+            final double logForward = logForwards[j] + ut * (logForwards[j+1] - logForwards[j]);
+            final double y = logMoneyness.clamp(Math.log(underlyingLevel) - logForward);
+
+            if (!lagrange) {
+                final int i = logMoneyness.locate(y, 2);
+                final double uy = (y - yn[i]) / (yn[i+1] - yn[i]);
+                final double v0 = vols[j * n + i] + uy * (vols[j * n + i + 1] - vols[j * n + i]);
+                final double v1 = vols[(j+1) * n + i] + uy * (vols[(j+1) * n + i + 1] - vols[(j+1) * n + i]);
+                return v0 + ut * (v1 - v0);
+            }
+
+            final int j0 = times.locate(t, 4);
+            final int i0 = logMoneyness.locate(y, 4);
+            final double wy0 = logMoneyness.lagrangeWeight(i0, 0, y);
+            final double wy1 = logMoneyness.lagrangeWeight(i0, 1, y);
+            final double wy2 = logMoneyness.lagrangeWeight(i0, 2, y);
+            final double wy3 = logMoneyness.lagrangeWeight(i0, 3, y);
+            double result = 0.0;
+            for (int a = 0; a < 4; a++) {
+                final int row = (j0 + a) * n + i0;
+                result += times.lagrangeWeight(j0, a, t)
+                        * (wy0 * vols[row] + wy1 * vols[row+1] + wy2 * vols[row+2] + wy3 * vols[row+3]);
+            }
+            return result;
+        }
+    }
+
+
     //
     // implements PolymorphicVisitable
     //
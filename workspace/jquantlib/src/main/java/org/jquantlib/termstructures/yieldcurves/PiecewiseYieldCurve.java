@@ -679,97 +679,116 @@ public class PiecewiseYieldCurve<
 
     @Override
     public double discount(final Date d, final boolean extrapolate) {
+        calculate();
         return baseCurve.discount(d, extrapolate);
     }
 
     @Override
     public double discount(final Date d) {
+        calculate();
         return baseCurve.discount(d);
     }
 
     @Override
     public double discount(final double t, final boolean extrapolate) {
+        calculate();
         return baseCurve.discount(t, extrapolate);
     }
 
     @Override
     public double discount(final double t) {
+        calculate();
         return baseCurve.discount(t);
     }
 
     @Override
     public InterestRate forwardRate(final Date d1, final Date d2, final DayCounter dayCounter, final Compounding comp, final Frequency freq, final boolean extrapolate) {
+        calculate();
         return baseCurve.forwardRate(d1, d2, dayCounter, comp, freq, extrapolate);
     }
 
     @Override
     public InterestRate forwardRate(final Date d1, final Date d2, final DayCounter resultDayCounter, final Compounding comp, final Frequency freq) {
+        calculate();
         return baseCurve.forwardRate(d1, d2, resultDayCounter, comp, freq);
     }
 
     @Override
     public InterestRate forwardRate(final Date d1, final Date d2, final DayCounter resultDayCounter, final Compounding comp) {
+        calculate();
         return baseCurve.forwardRate(d1, d2, resultDayCounter, comp);
     }
 
     @Override
     public InterestRate forwardRate(final Date d, final Period p, final DayCounter dayCounter, final Compounding comp, final Frequency freq, final boolean extrapolate) {
+        calculate();
         return baseCurve.forwardRate(d, p, dayCounter, comp, freq, extrapolate);
     }
 
     @Override
     public InterestRate forwardRate(final Date d, final Period p, final DayCounter resultDayCounter, final Compounding comp, final Frequency freq) {
+        calculate();
         return baseCurve.forwardRate(d, p, resultDayCounter, comp, freq);
     }
 
     @Override
     public InterestRate forwardRate(final double time1, final double time2, final Compounding comp, final Frequency freq, final boolean extrapolate) {
+        calculate();
         return baseCurve.forwardRate(time1, time2, comp, freq, extrapolate);
     }
 
     @Override
     public InterestRate forwardRate(final double t1, final double t2, final Compounding comp, final Frequency freq) {
+        calculate();
         return baseCurve.forwardRate(t1, t2, comp, freq);
     }
 
     @Override
     public InterestRate forwardRate(final double t1, final double t2, final Compounding comp) {
+        calculate();
         return baseCurve.forwardRate(t1, t2, comp);
     }
 
     @Override
     public double parRate(final Date[] dates, final Frequency freq, final boolean extrapolate) {
+        calculate();
         return baseCurve.parRate(dates, freq, extrapolate);
     }
 
 
     @Override
     public double parRate(final double[] times, final Frequency frequency, final boolean extrapolate) {
+        calculate();
         return baseCurve.parRate(times, frequency, extrapolate);
     }
 
     @Override
     public double parRate(final int tenor, final Date startDate, final Frequency freq, final boolean extrapolate) {
+        calculate();
         return baseCurve.parRate(tenor, startDate, freq, extrapolate);
     }
 
     @Override
     public InterestRate zeroRate(final Date d, final DayCounter dayCounter, final Compounding comp, final Frequency freq, final boolean extrapolate) {
+        calculate();
         return baseCurve.zeroRate(d, dayCounter, comp, freq, extrapolate);
     }
 
     @Override
     public InterestRate zeroRate(final Date d, final DayCounter resultDayCounter, final Compounding comp, final Frequency freq) {
+        calculate();
         return baseCurve.zeroRate(d, resultDayCounter, comp, freq);
     }
 
     @Override
     public InterestRate zeroRate(final Date d, final DayCounter resultDayCounter, final Compounding comp) {
+        calculate();
         return baseCurve.zeroRate(d, resultDayCounter, comp);
     }
 
     @Override
     public InterestRate zeroRate(final double time, final Compounding comp, final Frequency freq, final boolean extrapolate) {
+        calculate();
         return baseCurve.zeroRate(time, comp, freq, extrapolate);
     }
 
@@ -790,6 +809,7 @@ public class PiecewiseYieldCurve<
 
     @Override
     public double maxTime() {
+        calculate();
         return baseCurve.maxTime();
     }
 
@@ -45,6 +45,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jquantlib.QL;
 import org.jquantlib.lang.annotation.QualityAssurance;
@@ -74,6 +75,13 @@ public class Calendar {
     public static final String UKNOWN_BUSINESS_DAY_CONVENTION = "Unknown business day convention";
 
 
+    //
+    // private static fields
+    //
+
+    private static final AtomicInteger holidaysVersion = new AtomicInteger();
+
+
     //
     // protected fields
     //
@@ -95,6 +103,21 @@ public class Calendar {
     }
 
 
+    //
+    // public static methods
+    //
+
+    /**
+     * Returns a counter which is incremented every time a holiday is added to or removed from any calendar.
+     * <p>
+     * Classes which cache dates or year fractions derived from calendars compare this counter against the value
+     * observed when the cache was filled, so that cached data is discarded only when a holiday set changes.
+     */
+    public static int holidaysVersion() {
+        return holidaysVersion.get();
+    }
+
+
     //
     // public methods
     //
@@ -175,6 +198,7 @@ public class Calendar {
         if (impl.isBusinessDay(d)) {
             impl.addedHolidays.add(d);
         }
+        holidaysVersion.incrementAndGet();
     }
 
     /**
@@ -191,6 +215,7 @@ public class Calendar {
         if (!impl.isBusinessDay(d)) {
             impl.removedHolidays.add(d);
         }
+        holidaysVersion.incrementAndGet();
     }
 
     /**
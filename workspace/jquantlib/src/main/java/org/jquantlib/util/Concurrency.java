@@ -0,0 +1,279 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jquantlib.Settings;
+import org.jquantlib.lang.exceptions.LibraryException;
+import org.jquantlib.time.Date;
+
+/**
+ * Static helpers for running independent pieces of work concurrently.
+ * <p>
+ * {@link Settings} keeps its values in a {@link ThreadLocal}, which means that a worker thread would otherwise
+ * observe its own evaluation date instead of the one of the calling thread. All tasks submitted through this class
+ * run with a copy of the caller's settings.
+ * <p>
+ * Tasks submitted from a thread which already belongs to the default executor are executed inline, so that nested
+ * parallel algorithms (a parallel calibration whose helpers employ a parallel finite-difference evolver, for instance)
+ * never starve the pool.
+ *
+ * @author agent
+ */
+public final class Concurrency {
+
+    private static volatile ExecutorService defaultExecutor;
+
+    private Concurrency() {
+        // only static methods
+    }
+
+
+    /**
+     * @return the number of processors available to the virtual machine
+     */
+    public static int parallelism() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Returns the executor shared by all parallel algorithms which are not given an executor explicitly.
+     * <p>
+     * The executor is created lazily and contains one daemon thread per available processor.
+     */
+    public static ExecutorService defaultExecutor() {
+        ExecutorService executor = defaultExecutor;
+        if (executor == null) {
+            synchronized (Concurrency.class) {
+                executor = defaultExecutor;
+                if (executor == null) {
+                    executor = Executors.newFixedThreadPool(parallelism(), new WorkerThreadFactory());
+                    defaultExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * @return <code>true</code> if the current thread belongs to the default executor
+     */
+    public static boolean isWorkerThread() {
+        return Thread.currentThread() instanceof WorkerThread;
+    }
+
+
+    /**
+     * Executes all tasks and waits until all of them complete, acting as a barrier.
+     * <p>
+     * Results are returned in the same order as the tasks, whatever the order of completion.
+     * When the executor is <code>null</code>, when there's only one task or when the caller is itself a worker
+     * thread, tasks are executed sequentially on the calling thread.
+     *
+     * @param executor is the executor which runs the tasks, possibly <code>null</code>
+     * @param tasks are the tasks to be executed
+     * @return the results of the tasks, in the same order of the tasks
+     * @throws LibraryException wrapping the first checked exception thrown by a task
+     */
+    public static <T> List<T> invokeAll(final ExecutorService executor, final List<? extends Callable<T>> tasks) {
+        final List<T> results = new ArrayList<T>(tasks.size());
+        if (executor == null || tasks.size() < 2 || isWorkerThread()) {
+            for (final Callable<T> task : tasks) {
+                results.add(call(task));
+            }
+            return results;
+        }
+
+        final SettingsSnapshot snapshot = new SettingsSnapshot();
+        final List<Callable<T>> wrapped = new ArrayList<Callable<T>>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            wrapped.add(new SettingsAwareCallable<T>(snapshot, task));
+        }
+
+        try {
+            final List<Future<T>> futures = executor.invokeAll(wrapped);
+            for (final Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LibraryException("interrupted whilst waiting for parallel tasks", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new LibraryException(cause);
+        }
+    }
+
+
+    /**
+     * Splits the range <code>[0, size)</code> in contiguous chunks and executes them concurrently.
+     * <p>
+     * The number of chunks never exceeds the number of available processors and no chunk is smaller
+     * than <code>minChunk</code>, so that small batches are processed on the calling thread.
+     *
+     * @param executor is the executor which runs the chunks, possibly <code>null</code>
+     * @param size is the number of elements to be processed
+     * @param minChunk is the minimum number of elements processed by a single task
+     * @param task processes a chunk of elements
+     */
+    public static void forEachChunk(
+            final ExecutorService executor,
+            final int size,
+            final int minChunk,
+            final RangeTask task) {
+        if (size <= 0)
+            return;
+        final int maxChunks = Math.max(1, Math.min(parallelism(), size / Math.max(1, minChunk)));
+        if (executor == null || maxChunks < 2 || isWorkerThread()) {
+            task.run(0, size);
+            return;
+        }
+        final int chunk = (size + maxChunks - 1) / maxChunks;
+        final List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(maxChunks);
+        for (int from = 0; from < size; from += chunk) {
+            final int begin = from;
+            final int end = Math.min(size, from + chunk);
+            tasks.add(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    task.run(begin, end);
+                    return null;
+                }
+            });
+        }
+        invokeAll(executor, tasks);
+    }
+
+
+    /**
+     * A piece of work over the half-open range of indices <code>[from, to)</code>
+     */
+    public interface RangeTask {
+        public void run(int from, int to);
+    }
+
+
+    //
+    // private static methods
+    //
+
+    private static <T> T call(final Callable<T> task) {
+        try {
+            return task.call();
+        } catch (final RuntimeException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new LibraryException(e);
+        }
+    }
+
+
+    //
+    // private inner classes
+    //
+
+    private static final class WorkerThread extends Thread {
+        private WorkerThread(final Runnable runnable, final String name) {
+            super(runnable, name);
+            setDaemon(true);
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            return new WorkerThread(runnable, "jquantlib-worker-" + count.incrementAndGet());
+        }
+    }
+
+    /**
+     * Copy of the thread dependent {@link Settings} of the calling thread
+     */
+    private static final class SettingsSnapshot {
+        private final long evaluationDate;
+        private final boolean negativeRates;
+        private final boolean extraSafetyChecks;
+        private final boolean todaysPayments;
+        private final boolean useIndexedCoupon;
+        private final boolean enforcesTodaysHistoricFixings;
+        private final boolean refineHighPrecisionUsingHalleysMethod;
+
+        private SettingsSnapshot() {
+            final Settings settings = new Settings();
+            this.evaluationDate = settings.evaluationDate().serialNumber();
+            this.negativeRates = settings.isNegativeRates();
+            this.extraSafetyChecks = settings.isExtraSafetyChecks();
+            this.todaysPayments = settings.isTodaysPayments();
+            this.useIndexedCoupon = settings.isUseIndexedCoupon();
+            this.enforcesTodaysHistoricFixings = settings.isEnforcesTodaysHistoricFixings();
+            this.refineHighPrecisionUsingHalleysMethod = settings.isRefineHighPrecisionUsingHalleysMethod();
+        }
+
+        private void install() {
+            final Settings settings = new Settings();
+            // changing the evaluation date notifies observers, so we do it only when needed
+            if (settings.evaluationDate().serialNumber() != evaluationDate) {
+                settings.setEvaluationDate(new Date(evaluationDate));
+            }
+            settings.setNegativeRates(negativeRates);
+            settings.setExtraSafetyChecks(extraSafetyChecks);
+            settings.setTodaysPayments(todaysPayments);
+            settings.setUseIndexedCoupon(useIndexedCoupon);
+            settings.setEnforcesTodaysHistoricFixings(enforcesTodaysHistoricFixings);
+            settings.setRefineHighPrecisionUsingHalleysMethod(refineHighPrecisionUsingHalleysMethod);
+        }
+    }
+
+    private static final class SettingsAwareCallable<T> implements Callable<T> {
+        private final SettingsSnapshot snapshot;
+        private final Callable<T> delegate;
+
+        private SettingsAwareCallable(final SettingsSnapshot snapshot, final Callable<T> delegate) {
+            this.snapshot = snapshot;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public T call() throws Exception {
+            snapshot.install();
+            return delegate.call();
+        }
+    }
+
+}
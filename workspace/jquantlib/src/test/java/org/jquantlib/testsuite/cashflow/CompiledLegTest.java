@@ -0,0 +1,296 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.testsuite.cashflow;
+
+import static org.junit.Assert.fail;
+
+import org.jquantlib.QL;
+import org.jquantlib.Settings;
+import org.jquantlib.cashflow.BlackIborCouponPricer;
+import org.jquantlib.cashflow.CashFlow;
+import org.jquantlib.cashflow.CashFlows;
+import org.jquantlib.cashflow.Coupon;
+import org.jquantlib.cashflow.FixedRateLeg;
+import org.jquantlib.cashflow.IborLeg;
+import org.jquantlib.cashflow.Leg;
+import org.jquantlib.cashflow.PricerSetter;
+import org.jquantlib.cashflow.SimpleCashFlow;
+import org.jquantlib.daycounters.Actual360;
+import org.jquantlib.daycounters.Actual365Fixed;
+import org.jquantlib.daycounters.Business252;
+import org.jquantlib.indexes.IborIndex;
+import org.jquantlib.indexes.ibor.USDLibor;
+import org.jquantlib.quotes.Handle;
+import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.termstructures.Compounding;
+import org.jquantlib.termstructures.InterestRate;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.termstructures.volatilities.optionlet.OptionletVolatilityStructure;
+import org.jquantlib.testsuite.util.Utilities;
+import org.jquantlib.time.BusinessDayConvention;
+import org.jquantlib.time.Calendar;
+import org.jquantlib.time.Date;
+import org.jquantlib.time.DateGeneration;
+import org.jquantlib.time.Frequency;
+import org.jquantlib.time.Month;
+import org.jquantlib.time.Period;
+import org.jquantlib.time.Schedule;
+import org.jquantlib.time.TimeUnit;
+import org.jquantlib.time.calendars.UnitedKingdom;
+import org.jquantlib.time.calendars.UnitedStates;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class CompiledLegTest {
+
+    private static final double tolerance = 1.0e-12;
+
+    public CompiledLegTest() {
+        QL.info("::::: "+this.getClass().getSimpleName()+" :::::");
+    }
+
+    @Test
+    public void testFixedRateLeg() {
+        QL.info("Testing cash-flow analysis functions on compiled legs...");
+
+        final Date today = new Date(15, Month.March, 2006);
+        new Settings().setEvaluationDate(today);
+
+        final Schedule schedule = new Schedule(new Date(30, Month.November, 2004), new Date(30, Month.November, 2012),
+                new Period(Frequency.Semiannual), new UnitedStates(UnitedStates.Market.GOVERNMENTBOND),
+                BusinessDayConvention.Unadjusted, BusinessDayConvention.Unadjusted, DateGeneration.Rule.Backward, false);
+        final Leg leg = new FixedRateLeg(schedule, new Actual360())
+            .withNotionals(100.0)
+            .withCouponRates(new double[] { 0.045 })
+            .withPaymentAdjustment(BusinessDayConvention.ModifiedFollowing).Leg();
+        leg.add(new SimpleCashFlow(100.0, leg.last().date()));
+
+        final YieldTermStructure curve = Utilities.flatRate(today, 0.04, new Actual365Fixed());
+        final Handle<YieldTermStructure> discountCurve = new Handle<YieldTermStructure>(curve);
+        final CashFlows cashFlows = CashFlows.getInstance();
+
+        for (final int exDividendDays : new int[] { 0, 10 }) {
+            check("NPV", cashFlows.npv(leg, discountCurve, today, today, exDividendDays),
+                    npv(leg, curve, today.add(exDividendDays)));
+            check("BPS", cashFlows.bps(leg, discountCurve, today, today, exDividendDays),
+                    bps(leg, curve, today.add(exDividendDays)));
+        }
+
+        for (final Compounding compounding : new Compounding[] { Compounding.Simple, Compounding.Compounded, Compounding.Continuous }) {
+            final InterestRate y = new InterestRate(0.05, new Actual360(), compounding, Frequency.Semiannual);
+            check("yield NPV", cashFlows.npv(leg, y, today), npv(leg, y, today));
+            // the reference modified duration is obtained by finite differences
+            final double duration = cashFlows.duration(leg, y, CashFlows.Duration.Modified, today);
+            final double expected = modifiedDuration(leg, y, today);
+            if (Math.abs(duration - expected) > 1.0e-7 * expected) {
+                fail("failed to reproduce modified duration:"
+                        + "\n    calculated: " + duration
+                        + "\n    expected:   " + expected);
+            }
+            check("convexity", cashFlows.convexity(leg, y, today), convexity(leg, y, today));
+        }
+
+        // structural changes to the leg must be noticed, and discarded compiled legs must stop observing cash flows
+        final int observers = leg.first().countObservers();
+        leg.add(new SimpleCashFlow(50.0, new Date(30, Month.November, 2013)));
+        check("NPV after adding a cash flow", cashFlows.npv(leg, discountCurve, today, today, 0), npv(leg, curve, today));
+        leg.set(leg.size()-1, new SimpleCashFlow(25.0, new Date(30, Month.November, 2013)));
+        check("NPV after replacing a cash flow", cashFlows.npv(leg, discountCurve, today, today, 0), npv(leg, curve, today));
+        if (leg.first().countObservers() != observers) {
+            fail("compiled legs were not released:"
+                    + "\n    observers: " + leg.first().countObservers()
+                    + "\n    expected:  " + observers);
+        }
+    }
+
+    @Test
+    public void testHolidayChanges() {
+        QL.info("Testing invalidation of compiled legs when holidays change...");
+
+        final Date today = new Date(15, Month.March, 2006);
+        new Settings().setEvaluationDate(today);
+
+        final Calendar calendar = new UnitedKingdom(UnitedKingdom.Market.Exchange);
+        final Business252 dayCounter = new Business252(calendar);
+        final Schedule schedule = new Schedule(new Date(15, Month.June, 2006), new Date(15, Month.June, 2009),
+                new Period(Frequency.Semiannual), calendar,
+                BusinessDayConvention.Unadjusted, BusinessDayConvention.Unadjusted, DateGeneration.Rule.Backward, false);
+        final Leg leg = new FixedRateLeg(schedule, dayCounter)
+            .withNotionals(100.0)
+            .withCouponRates(new double[] { 0.05 }).Leg();
+
+        final YieldTermStructure curve = Utilities.flatRate(today, 0.04, new Actual365Fixed());
+        final Handle<YieldTermStructure> discountCurve = new Handle<YieldTermStructure>(curve);
+        final CashFlows cashFlows = CashFlows.getInstance();
+        final InterestRate y = new InterestRate(0.05, dayCounter, Compounding.Compounded, Frequency.Semiannual);
+
+        final double before = cashFlows.bps(leg, discountCurve, today, today, 0);
+        check("BPS", before, bps(leg, curve, today));
+        check("yield NPV", cashFlows.npv(leg, y, today), npv(leg, y, today));
+
+        // business days in the first accrual period change, so that cached data must be discarded
+        final Date holiday = new Date(15, Month.September, 2006);
+        calendar.addHoliday(holiday);
+        try {
+            final double after = cashFlows.bps(leg, discountCurve, today, today, 0);
+            check("BPS after adding a holiday", after, bps(leg, curve, today));
+            if (after >= before) {
+                fail("holiday did not change the BPS:"
+                        + "\n    before: " + before
+                        + "\n    after:  " + after);
+            }
+            check("ATM rate after adding a holiday", cashFlows.atmRate(leg, discountCurve), atmRate(leg, curve, today));
+            check("yield NPV after adding a holiday", cashFlows.npv(leg, y, today), npv(leg, y, today));
+        } finally {
+            calendar.removeHoliday(holiday);
+        }
+        check("BPS after removing the holiday", cashFlows.bps(leg, discountCurve, today, today, 0), before);
+    }
+
+    @Test
+    public void testFloatingRateLeg() {
+        QL.info("Testing invalidation of compiled floating-rate legs...");
+
+        final Date today = new Date(15, Month.March, 2006);
+        new Settings().setEvaluationDate(today);
+
+        final SimpleQuote forward = new SimpleQuote(0.03);
+        final Handle<YieldTermStructure> forecastCurve =
+            new Handle<YieldTermStructure>(Utilities.flatRate(today, forward, new Actual360()));
+        final YieldTermStructure curve = Utilities.flatRate(today, 0.035, new Actual360());
+        final Handle<YieldTermStructure> discountCurve = new Handle<YieldTermStructure>(curve);
+        final IborIndex index = new USDLibor(new Period(6, TimeUnit.Months), forecastCurve);
+
+        final Schedule schedule = new Schedule(new Date(30, Month.November, 2006), new Date(30, Month.November, 2011),
+                new Period(Frequency.Semiannual), new UnitedStates(UnitedStates.Market.GOVERNMENTBOND),
+                BusinessDayConvention.ModifiedFollowing, BusinessDayConvention.ModifiedFollowing,
+                DateGeneration.Rule.Backward, false);
+        final Leg leg = new IborLeg(schedule, index)
+            .withNotionals(100.0)
+            .withPaymentDayCounter(new Actual360())
+            .withPaymentAdjustment(BusinessDayConvention.ModifiedFollowing)
+            .withFixingDays(2)
+            .withGearings(1.0)
+            .withSpreads(0.001).Leg();
+        PricerSetter.setCouponPricer(leg, new BlackIborCouponPricer(new Handle<OptionletVolatilityStructure>()));
+
+        final CashFlows cashFlows = CashFlows.getInstance();
+        final double before = cashFlows.npv(leg, discountCurve, today, new Date(), 0);
+        check("NPV", before, npv(leg, curve, today));
+
+        forward.setValue(0.05);
+        final double after = cashFlows.npv(leg, discountCurve, today, new Date(), 0);
+        check("NPV after moving the forecast curve", after, npv(leg, curve, today));
+        if (after <= before) {
+            fail("NPV did not change after moving the forecast curve:"
+                    + "\n    before: " + before
+                    + "\n    after:  " + after);
+        }
+        check("ATM rate", cashFlows.atmRate(leg, discountCurve), atmRate(leg, curve, today));
+    }
+
+
+    //
+    // private methods
+    //
+
+    private static void check(final String what, final double calculated, final double expected) {
+        if (Math.abs(calculated - expected) > tolerance * Math.max(1.0, Math.abs(expected))) {
+            fail("failed to reproduce " + what + ":"
+                    + "\n    calculated: " + calculated
+                    + "\n    expected:   " + expected);
+        }
+    }
+
+    // reference implementations, walking the leg one cash flow at a time
+
+    private static double npv(final Leg leg, final YieldTermStructure curve, final Date date) {
+        double result = 0.0;
+        for (final CashFlow cf : leg) {
+            if (!cf.hasOccurred(date)) {
+                result += cf.amount() * curve.discount(cf.date());
+            }
+        }
+        return result;
+    }
+
+    private static double bps(final Leg leg, final YieldTermStructure curve, final Date date) {
+        double result = 0.0;
+        for (final CashFlow cf : leg) {
+            if (cf instanceof Coupon && !cf.hasOccurred(date)) {
+                final Coupon c = (Coupon) cf;
+                result += c.accrualPeriod() * c.nominal() * curve.discount(c.date());
+            }
+        }
+        return 1.0e-4 * result;
+    }
+
+    private static double atmRate(final Leg leg, final YieldTermStructure curve, final Date date) {
+        return 1.0e-4 * npv(leg, curve, date) / bps(leg, curve, date);
+    }
+
+    private static double npv(final Leg leg, final InterestRate y, final Date date) {
+        double result = 0.0;
+        for (final CashFlow cf : leg) {
+            if (!cf.hasOccurred(date)) {
+                result += cf.amount() * y.discountFactor(y.dayCounter().yearFraction(date, cf.date()));
+            }
+        }
+        return result;
+    }
+
+    private static double modifiedDuration(final Leg leg, final InterestRate y, final Date date) {
+        // dP/dy by central differences
+        final double h = 1.0e-5;
+        final InterestRate up = new InterestRate(y.rate()+h, y.dayCounter(), y.compounding(), y.frequency());
+        final InterestRate down = new InterestRate(y.rate()-h, y.dayCounter(), y.compounding(), y.frequency());
+        return -(npv(leg, up, date) - npv(leg, down, date)) / (2.0*h) / npv(leg, y, date);
+    }
+
+    private static double convexity(final Leg leg, final InterestRate y, final Date date) {
+        double P = 0.0, d2Pdy2 = 0.0;
+        final int N = y.frequency().toInteger();
+        for (final CashFlow cf : leg) {
+            if (!cf.hasOccurred(date)) {
+                final double t = y.dayCounter().yearFraction(date, cf.date());
+                final double c = cf.amount();
+                final double B = y.discountFactor(t);
+                P += c * B;
+                switch (y.compounding()) {
+                case Simple:
+                    d2Pdy2 += c * 2.0 * B * B * B * t * t;
+                    break;
+                case Compounded:
+                    d2Pdy2 += c * B * t * (N * t + 1) / (N * (1 + y.rate() / N) * (1 + y.rate() / N));
+                    break;
+                default:
+                    d2Pdy2 += c * B * t * t;
+                }
+            }
+        }
+        return d2Pdy2 / P;
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.testsuite.cashflow;
+
+import static org.junit.Assert.fail;
+
+import org.jquantlib.QL;
+import org.jquantlib.Settings;
+import org.jquantlib.cashflow.FixedRateCoupon;
+import org.jquantlib.cashflow.IborCoupon;
+import org.jquantlib.daycounters.Actual360;
+import org.jquantlib.daycounters.Business252;
+import org.jquantlib.indexes.IborIndex;
+import org.jquantlib.indexes.ibor.USDLibor;
+import org.jquantlib.quotes.Handle;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.testsuite.util.Utilities;
+import org.jquantlib.time.BusinessDayConvention;
+import org.jquantlib.time.Calendar;
+import org.jquantlib.time.Date;
+import org.jquantlib.time.Month;
+import org.jquantlib.time.Period;
+import org.jquantlib.time.TimeUnit;
+import org.jquantlib.time.calendars.UnitedKingdom;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class CouponTest {
+
+    public CouponTest() {
+        QL.info("::::: "+this.getClass().getSimpleName()+" :::::");
+    }
+
+    @Test
+    public void testFixingDateCache() {
+        QL.info("Testing cached fixing dates of floating-rate coupons...");
+
+        final Date today = new Date(15, Month.March, 2006);
+        new Settings().setEvaluationDate(today);
+
+        final IborIndex index = new USDLibor(new Period(6, TimeUnit.Months),
+                new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.03, new Actual360())));
+        final Date start = new Date(15, Month.June, 2006);
+        final Date end = new Date(15, Month.December, 2006);
+        final IborCoupon coupon = new IborCoupon(end, 100.0, start, end, 2, index);
+        final Calendar calendar = index.fixingCalendar();
+
+        final Date expected = calendar.advance(start, new Period(-2, TimeUnit.Days), BusinessDayConvention.Preceding);
+        check("fixing date", coupon.fixingDate(), expected);
+        check("repeated fixing date", coupon.fixingDate(), expected);
+
+        // a new holiday on the fixing date must move it backwards
+        final Date holiday = expected.clone();
+        calendar.addHoliday(holiday);
+        try {
+            final Date moved = calendar.advance(start, new Period(-2, TimeUnit.Days), BusinessDayConvention.Preceding);
+            if (!moved.lt(expected)) {
+                fail("holiday did not move the fixing date:"
+                        + "\n    before: " + expected
+                        + "\n    after:  " + moved);
+            }
+            check("fixing date after adding a holiday", coupon.fixingDate(), moved);
+        } finally {
+            calendar.removeHoliday(holiday);
+        }
+        check("fixing date after removing the holiday", coupon.fixingDate(), expected);
+    }
+
+    @Test
+    public void testAccrualPeriodCache() {
+        QL.info("Testing cached accrual periods of coupons...");
+
+        final Calendar calendar = new UnitedKingdom(UnitedKingdom.Market.Exchange);
+        final Business252 dayCounter = new Business252(calendar);
+        final Date start = new Date(15, Month.June, 2006);
+        final Date end = new Date(15, Month.December, 2006);
+        final FixedRateCoupon coupon = new FixedRateCoupon(100.0, end, 0.05, dayCounter, start, end);
+
+        final double period = dayCounter.yearFraction(start, end);
+        check("accrual period", coupon.accrualPeriod(), period);
+        check("amount", coupon.amount(), 100.0 * 0.05 * period);
+
+        // business days between start and end change, so that cached data must be discarded
+        final Date holiday = new Date(15, Month.September, 2006);
+        calendar.addHoliday(holiday);
+        try {
+            final double shorter = dayCounter.yearFraction(start, end);
+            if (shorter >= period) {
+                fail("holiday did not change the accrual period:"
+                        + "\n    before: " + period
+                        + "\n    after:  " + shorter);
+            }
+            check("accrual period after adding a holiday", coupon.accrualPeriod(), shorter);
+            check("amount after adding a holiday", coupon.amount(), 100.0 * 0.05 * shorter);
+        } finally {
+            calendar.removeHoliday(holiday);
+        }
+        check("accrual period after removing the holiday", coupon.accrualPeriod(), period);
+    }
+
+
+    //
+    // private methods
+    //
+
+    private void check(final String what, final Date calculated, final Date expected) {
+        if (!calculated.equals(expected)) {
+            fail(what + " mismatch:"
+                    + "\n    calculated: " + calculated
+                    + "\n    expected:   " + expected);
+        }
+    }
+
+    private void check(final String what, final double calculated, final double expected) {
+        if (Math.abs(calculated - expected) > 1.0e-12) {
+            fail(what + " mismatch:"
+                    + "\n    calculated: " + calculated
+                    + "\n    expected:   " + expected);
+        }
+    }
+
+}
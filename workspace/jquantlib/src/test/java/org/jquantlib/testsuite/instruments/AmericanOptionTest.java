@@ -76,6 +76,7 @@ import org.jquantlib.pricingengines.vanilla.BjerksundStenslandApproximationEngin
 import org.jquantlib.pricingengines.vanilla.JuQuadraticApproximationEngine;
 import org.jquantlib.pricingengines.vanilla.finitedifferences.FDAmericanEngine;
 import org.jquantlib.pricingengines.vanilla.finitedifferences.FDShoutEngine;
+import org.jquantlib.pricingengines.vanilla.finitedifferences.FDVanillaEngine;
 import org.jquantlib.processes.BlackScholesMertonProcess;
 import org.jquantlib.processes.GeneralizedBlackScholesProcess;
 import org.jquantlib.quotes.Handle;
@@ -507,6 +508,48 @@ public class AmericanOptionTest {
         testFdGreeks(FDAmericanEngine.class);
     }
 
+    @Test
+    public void testFdConcentratedGrid() {
+        QL.info("Testing finite-difference engine for American options on grids concentrated around the strike...");
+
+        final Date today = new Settings().evaluationDate();
+        final DayCounter dc = new Actual360();
+        final Date exDate = today.add(timeToDays(0.5833));
+        final Exercise exercise = new AmericanExercise(today, exDate);
+
+        final BlackScholesMertonProcess stochProcess = new BlackScholesMertonProcess(
+                new Handle<Quote>(new SimpleQuote(40.0)),
+                new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.0, dc)),
+                new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.0488, dc)),
+                new Handle<BlackVolTermStructure>(Utilities.flatVol(today, 0.3, dc)));
+
+        final double strikes[] = { 35.0, 40.0, 45.0 };
+        final int timeSteps = 100;
+
+        for (final double strike : strikes) {
+            final StrikedTypePayoff payoff = new PlainVanillaPayoff(Option.Type.Put, strike);
+            final VanillaOption option = new VanillaOption(payoff, exercise);
+
+            option.setPricingEngine(new FDAmericanEngine(stochProcess, timeSteps, 801));
+            final double expected = option.NPV();
+
+            // a concentrated grid with 60 points must be at least as accurate as a uniform grid with 100 points
+            option.setPricingEngine(new FDAmericanEngine(stochProcess, timeSteps, 100));
+            final double uniformError = Math.abs(option.NPV() - expected);
+            option.setPricingEngine(new FDAmericanEngine(
+                    stochProcess, timeSteps, 60, false, FDVanillaEngine.GridType.Concentrated));
+            final double calculated = option.NPV();
+            final double error = Math.abs(calculated - expected);
+
+            if (error > uniformError) {
+                reportFailure(
+                        "value", payoff, exercise,
+                        40.0, 0.0, 0.0488, today, 0.3,
+                        expected, calculated, error, uniformError);
+            }
+        }
+    }
+
     @Test
     public void testFdShoutGreeks() {
         QL.info("Testing Greeks (delta, gamma, theta for American options using FDShoutEngine");
@@ -0,0 +1,150 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.testsuite.instruments;
+
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jquantlib.QL;
+import org.jquantlib.Settings;
+import org.jquantlib.daycounters.Actual360;
+import org.jquantlib.daycounters.ActualActual;
+import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.instruments.Bond;
+import org.jquantlib.instruments.bonds.BondPortfolioAnalytics;
+import org.jquantlib.instruments.bonds.FixedRateBond;
+import org.jquantlib.instruments.bonds.ZeroCouponBond;
+import org.jquantlib.pricingengines.bond.DiscountingBondEngine;
+import org.jquantlib.quotes.Handle;
+import org.jquantlib.termstructures.Compounding;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.testsuite.util.Utilities;
+import org.jquantlib.time.BusinessDayConvention;
+import org.jquantlib.time.Calendar;
+import org.jquantlib.time.Date;
+import org.jquantlib.time.DateGeneration.Rule;
+import org.jquantlib.time.Frequency;
+import org.jquantlib.time.Month;
+import org.jquantlib.time.Period;
+import org.jquantlib.time.Schedule;
+import org.jquantlib.time.TimeUnit;
+import org.jquantlib.time.calendars.UnitedStates;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class BondPortfolioAnalyticsTest {
+
+    public BondPortfolioAnalyticsTest() {
+        QL.info("::::: "+this.getClass().getSimpleName()+" :::::");
+    }
+
+    @Test
+    public void testPortfolio() {
+        QL.info("Testing bond portfolio analytics...");
+
+        final Date today = new Date(15, Month.March, 2006);
+        new Settings().setEvaluationDate(today);
+        final Calendar calendar = new UnitedStates(UnitedStates.Market.GOVERNMENTBOND);
+        final DayCounter dc = new ActualActual(ActualActual.Convention.ISMA);
+        final YieldTermStructure[] curves = {
+            Utilities.flatRate(today, 0.04, new Actual360()), Utilities.flatRate(today, 0.06, new Actual360()) };
+
+        final List<Bond> bonds = new ArrayList<Bond>();
+        final List<YieldTermStructure> discountCurves = new ArrayList<YieldTermStructure>();
+        int n = 0;
+        // enough bonds for being split in several chunks
+        for (int length = 1; length <= 30; length++) {
+            for (final double coupon : new double[] { 0.0, 0.02, 0.035, 0.05, 0.07, 0.09 }) {
+                final Date issue = new Date(15, Month.November, 2005);
+                final Schedule schedule = new Schedule(issue, issue.add(new Period(length, TimeUnit.Years)),
+                        new Period(Frequency.Semiannual), calendar,
+                        BusinessDayConvention.Unadjusted, BusinessDayConvention.Unadjusted, Rule.Backward, false);
+                bonds.add(new FixedRateBond(1, 100.0, schedule, new double[] { coupon }, dc,
+                        BusinessDayConvention.ModifiedFollowing, 100.0, issue));
+                discountCurves.add(curves[n++ % 2]);
+            }
+            bonds.add(new ZeroCouponBond(1, calendar, 100.0, today.add(new Period(length, TimeUnit.Years))));
+            discountCurves.add(curves[n++ % 2]);
+        }
+
+        final BondPortfolioAnalytics sequential =
+            new BondPortfolioAnalytics(dc, Compounding.Compounded, Frequency.Semiannual, null);
+        final BondPortfolioAnalytics.Results results = sequential.calculate(bonds, discountCurves);
+
+        for (int i = 0; i < bonds.size(); i++) {
+            final Bond bond = bonds.get(i);
+            bond.setPricingEngine(new DiscountingBondEngine(new Handle<YieldTermStructure>(discountCurves.get(i))));
+            final Date settlement = bond.settlementDate();
+
+            check(i, "dirty price", results.dirtyPrices[i], bond.dirtyPrice(), 1.0e-10);
+            check(i, "clean price", results.cleanPrices[i], bond.cleanPrice(), 1.0e-10);
+            check(i, "accrued amount", results.accruedAmounts[i], bond.accruedAmount(settlement), 1.0e-12);
+
+            final double yield = results.yields[i];
+            final double expectedYield = bond.yield(dc, Compounding.Compounded, Frequency.Semiannual, 1.0e-10, 100);
+            check(i, "yield", yield, expectedYield, 1.0e-8);
+
+            // finite differences of the price given a yield
+            final double h = 1.0e-5;
+            final double p0 = bond.dirtyPrice(yield, dc, Compounding.Compounded, Frequency.Semiannual, settlement);
+            final double pu = bond.dirtyPrice(yield + h, dc, Compounding.Compounded, Frequency.Semiannual, settlement);
+            final double pd = bond.dirtyPrice(yield - h, dc, Compounding.Compounded, Frequency.Semiannual, settlement);
+            check(i, "duration", results.durations[i], -(pu - pd) / (2.0 * h) / p0, 1.0e-6);
+            check(i, "convexity", results.convexities[i], (pu - 2.0 * p0 + pd) / (h * h) / p0, 1.0e-3);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final BondPortfolioAnalytics parallel =
+                new BondPortfolioAnalytics(dc, Compounding.Compounded, Frequency.Semiannual, 1.0e-8, 100, executor);
+            final BondPortfolioAnalytics.Results other = parallel.calculate(bonds, discountCurves);
+            for (int i = 0; i < bonds.size(); i++) {
+                check(i, "parallel dirty price", other.dirtyPrices[i], results.dirtyPrices[i], 0.0);
+                check(i, "parallel yield", other.yields[i], results.yields[i], 0.0);
+                check(i, "parallel convexity", other.convexities[i], results.convexities[i], 0.0);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+
+    //
+    // private methods
+    //
+
+    private void check(final int i, final String what, final double calculated, final double expected, final double tolerance) {
+        if (Math.abs(calculated - expected) > tolerance * Math.max(1.0, Math.abs(expected))) {
+            fail(what + " mismatch for bond " + i + ":"
+                    + "\n    calculated: " + calculated
+                    + "\n    expected:   " + expected);
+        }
+    }
+
+}
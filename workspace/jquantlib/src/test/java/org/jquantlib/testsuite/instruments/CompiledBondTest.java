@@ -0,0 +1,159 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.testsuite.instruments;
+
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jquantlib.QL;
+import org.jquantlib.Settings;
+import org.jquantlib.daycounters.ActualActual;
+import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.instruments.Bond;
+import org.jquantlib.instruments.bonds.CompiledBond;
+import org.jquantlib.instruments.bonds.FixedRateBond;
+import org.jquantlib.termstructures.Compounding;
+import org.jquantlib.time.BusinessDayConvention;
+import org.jquantlib.time.Calendar;
+import org.jquantlib.time.Date;
+import org.jquantlib.time.DateGeneration.Rule;
+import org.jquantlib.time.Frequency;
+import org.jquantlib.time.Month;
+import org.jquantlib.time.Period;
+import org.jquantlib.time.Schedule;
+import org.jquantlib.time.TimeUnit;
+import org.jquantlib.time.calendars.UnitedStates;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class CompiledBondTest {
+
+    private static final Compounding[] compoundings = {
+        Compounding.Simple, Compounding.Compounded, Compounding.Continuous, Compounding.SimpleThenCompounded };
+
+    public CompiledBondTest() {
+        QL.info("::::: "+this.getClass().getSimpleName()+" :::::");
+    }
+
+    @Test
+    public void testPriceAndDerivative() {
+        QL.info("Testing prices and price derivatives of compiled bonds...");
+
+        final Date today = new Date(15, Month.March, 2006);
+        new Settings().setEvaluationDate(today);
+        final DayCounter dc = new ActualActual(ActualActual.Convention.ISMA);
+        final FixedRateBond bond = bond(today, 10, 0.05);
+        final Date settlement = bond.settlementDate();
+
+        for (final Compounding compounding : compoundings) {
+            final CompiledBond compiled = bond.compiled(dc, compounding, Frequency.Semiannual, settlement);
+            for (final double y : new double[] { 0.01, 0.04, 0.09 }) {
+                final double expected = Bond.dirtyPriceFromYield(bond.notional(settlement), bond.cashflows(), y,
+                        dc, compounding, Frequency.Semiannual, settlement);
+                check(compounding + " dirty price", compiled.dirtyPrice(y), expected, 1.0e-10);
+
+                final double h = 1.0e-6;
+                final double fd = (compiled.dirtyPrice(y + h) - compiled.dirtyPrice(y - h)) / (2.0 * h);
+                check(compounding + " price derivative", compiled.dirtyPriceDerivative(y), fd, 1.0e-5);
+            }
+        }
+    }
+
+    @Test
+    public void testYield() {
+        QL.info("Testing yields of compiled bonds...");
+
+        final Date today = new Date(15, Month.March, 2006);
+        new Settings().setEvaluationDate(today);
+        final DayCounter dc = new ActualActual(ActualActual.Convention.ISMA);
+        final double accuracy = 1.0e-10;
+
+        final List<CompiledBond> bonds = new ArrayList<CompiledBond>();
+        final List<Double> expected = new ArrayList<Double>();
+        for (final int length : new int[] { 2, 5, 10, 30 }) {
+            for (final double coupon : new double[] { 0.0, 0.03, 0.08 }) {
+                final FixedRateBond bond = bond(today, length, coupon);
+                final Date settlement = bond.settlementDate();
+                for (final Compounding compounding : compoundings) {
+                    for (final double y : new double[] { 0.005, 0.04, 0.12 }) {
+                        final double price = bond.dirtyPrice(y, dc, compounding, Frequency.Annual, settlement);
+                        final CompiledBond compiled = bond.compiled(dc, compounding, Frequency.Annual, settlement);
+                        check(compounding + " yield", compiled.yield(price, accuracy, 100), y, 1.0e-8);
+                        bonds.add(compiled);
+                        expected.add(price);
+                    }
+                }
+            }
+        }
+
+        final double[] prices = new double[expected.size()];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = expected.get(i);
+        }
+        final double[] sequential = CompiledBond.yields(bonds, prices, accuracy, 100, null);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final double[] parallel = CompiledBond.yields(bonds, prices, accuracy, 100, executor);
+            for (int i = 0; i < prices.length; i++) {
+                if (Double.doubleToLongBits(parallel[i]) != Double.doubleToLongBits(sequential[i])) {
+                    fail("parallel yield differs from sequential yield:"
+                            + "\n    bond:       " + i
+                            + "\n    sequential: " + sequential[i]
+                            + "\n    parallel:   " + parallel[i]);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+
+    //
+    // private methods
+    //
+
+    private FixedRateBond bond(final Date today, final int length, final double coupon) {
+        final Calendar calendar = new UnitedStates(UnitedStates.Market.GOVERNMENTBOND);
+        final Date issue = new Date(15, Month.November, 2005);
+        final Schedule schedule = new Schedule(issue, issue.add(new Period(length, TimeUnit.Years)),
+                new Period(Frequency.Semiannual), calendar,
+                BusinessDayConvention.Unadjusted, BusinessDayConvention.Unadjusted, Rule.Backward, false);
+        return new FixedRateBond(1, 100.0, schedule, new double[] { coupon },
+                new ActualActual(ActualActual.Convention.ISMA), BusinessDayConvention.ModifiedFollowing, 100.0, issue);
+    }
+
+    private void check(final String what, final double calculated, final double expected, final double tolerance) {
+        if (Math.abs(calculated - expected) > tolerance * Math.max(1.0, Math.abs(expected))) {
+            fail(what + " mismatch:"
+                    + "\n    calculated: " + calculated
+                    + "\n    expected:   " + expected);
+        }
+    }
+
+}
@@ -68,6 +68,7 @@ import org.jquantlib.pricingengines.vanilla.AnalyticDividendEuropeanEngine;
 import org.jquantlib.pricingengines.vanilla.finitedifferences.FDDividendAmericanEngine;
 import org.jquantlib.pricingengines.vanilla.finitedifferences.FDDividendEuropeanEngine;
 import org.jquantlib.pricingengines.vanilla.finitedifferences.FDEngineAdapter;
+import org.jquantlib.pricingengines.vanilla.finitedifferences.FDVanillaEngine;
 import org.jquantlib.processes.BlackScholesMertonProcess;
 import org.jquantlib.processes.GeneralizedBlackScholesProcess;
 import org.jquantlib.quotes.Handle;
@@ -607,6 +608,62 @@ public class DividendOptionTest {
     }
 
 
+    @Test
+    public void testFdAmericanConcentratedGrid() {
+        QL.info("Testing finite-differences dividend American option on grids concentrated around the strike...");
+        final Date today = Date.todaysDate();
+        new Settings().setEvaluationDate(today);
+
+        final DayCounter dc = new Actual360();
+        final Exercise exercise = new AmericanExercise(today, today.add(new Period(1, TimeUnit.Years)));
+        final BlackScholesMertonProcess stochProcess = new BlackScholesMertonProcess(
+                new Handle<Quote>(new SimpleQuote(100.0)),
+                new Handle<YieldTermStructure>(Utilities.flatRate(0.0, dc)),
+                new Handle<YieldTermStructure>(Utilities.flatRate(0.05, dc)),
+                new Handle<BlackVolTermStructure>(Utilities.flatVol(0.25, dc)));
+
+        final List<Date> dividendDates = new ArrayList<Date>();
+        final List</* @Real */ Double> dividends = new ArrayList<Double>();
+        dividendDates.add(today.add(new Period(3, TimeUnit.Months)));
+        dividends.add(2.0);
+        dividendDates.add(today.add(new Period(9, TimeUnit.Months)));
+        dividends.add(2.0);
+
+        /* @Real */ final double strikes[] = { 90.0, 100.0, 110.0 };
+        final int timeSteps = 100;
+
+        for (final double strike : strikes) {
+            final StrikedTypePayoff payoff = new PlainVanillaPayoff(Option.Type.Put, strike);
+            final DividendVanillaOption option = new DividendVanillaOption(payoff, exercise, dividendDates, dividends);
+
+            option.setPricingEngine(new FDDividendAmericanEngine(stochProcess, timeSteps, 801));
+            final double expected = option.NPV();
+            final double expectedDelta = option.delta();
+
+            option.setPricingEngine(new FDDividendAmericanEngine(stochProcess, timeSteps, 100));
+            final double uniformError = Math.abs(option.NPV() - expected);
+            option.setPricingEngine(new FDDividendAmericanEngine(
+                    stochProcess, timeSteps, 60, false, FDVanillaEngine.GridType.Concentrated));
+            final double calculated = option.NPV();
+            final double calculatedDelta = option.delta();
+
+            // a concentrated grid with 60 points must be at least as accurate as a uniform grid with 100 points
+            final double error = Math.abs(calculated - expected);
+            if (error > uniformError) {
+                fail("value mismatch on concentrated grid for strike " + strike + ":"
+                        + "\n    calculated:    " + calculated
+                        + "\n    expected:      " + expected
+                        + "\n    error:         " + error
+                        + "\n    uniform error: " + uniformError);
+            }
+            if (Math.abs(calculatedDelta - expectedDelta) > 1.0e-3) {
+                fail("delta mismatch on concentrated grid for strike " + strike + ":"
+                        + "\n    calculated: " + calculatedDelta
+                        + "\n    expected:   " + expectedDelta);
+            }
+        }
+    }
+
     @Test
     public void testFdEuropeanDegenerate() {
 
@@ -0,0 +1,163 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.testsuite.instruments;
+
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jquantlib.QL;
+import org.jquantlib.Settings;
+import org.jquantlib.instruments.Instrument;
+import org.jquantlib.instruments.scenarios.HistoricalSimulation;
+import org.jquantlib.instruments.scenarios.HistoricalSimulation.ShiftType;
+import org.jquantlib.instruments.scenarios.Market;
+import org.jquantlib.math.statistics.RiskStatistics;
+import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.testsuite.util.OptionMarketFactory;
+import org.jquantlib.time.Date;
+import org.jquantlib.time.Month;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class HistoricalSimulationTest {
+
+    private static final ShiftType[] shiftTypes = { ShiftType.Relative, ShiftType.Absolute, ShiftType.Absolute, ShiftType.Absolute };
+    private static final double[] quantities = { 10.0, -5.0, 3.0, 7.0, -2.0, 4.0 };
+
+    public HistoricalSimulationTest() {
+        QL.info("::::: "+this.getClass().getSimpleName()+" :::::");
+    }
+
+    @Test
+    public void testHistoricalSimulation() {
+        QL.info("Testing historical simulation...");
+
+        final Date today = new Date(15, Month.March, 2006);
+        new Settings().setEvaluationDate(today);
+        final Market.Factory factory = new OptionMarketFactory(today, quantities.length);
+
+        // a random walk of spot, rates and volatility
+        final Random random = new Random(3);
+        final double[][] history = new double[251][];
+        history[0] = new double[] { 100.0, 0.01, 0.04, 0.25 };
+        for (int k = 1; k < history.length; k++) {
+            final double[] h = history[k - 1];
+            history[k] = new double[] {
+                h[0] * Math.exp(0.015 * random.nextGaussian()),
+                h[1] + 0.0005 * random.nextGaussian(),
+                h[2] + 0.0005 * random.nextGaussian(),
+                Math.max(0.05, h[3] + 0.005 * random.nextGaussian()) };
+        }
+        final double[][] scenarios = HistoricalSimulation.scenarios(history, 1, shiftTypes);
+        if (scenarios.length != history.length - 1)
+            fail("number of scenarios mismatch:"
+                    + "\n    calculated: " + scenarios.length
+                    + "\n    expected:   " + (history.length - 1));
+        checkValue("relative shift", scenarios[7][0], history[8][0] / history[7][0] - 1.0, 1.0e-15);
+        checkValue("absolute shift", scenarios[7][3], history[8][3] - history[7][3], 1.0e-15);
+
+        // reference: quotes set by hand on a single market, one scenario after the other
+        final Market market = factory.create();
+        final List<SimpleQuote> quotes = market.quotes();
+        final List<? extends Instrument> instruments = market.instruments();
+        final double[] baseQuotes = new double[quotes.size()];
+        final double[] baseValues = new double[instruments.size()];
+        for (int j = 0; j < baseQuotes.length; j++) {
+            baseQuotes[j] = quotes.get(j).value();
+        }
+        for (int i = 0; i < baseValues.length; i++) {
+            baseValues[i] = quantities[i] * instruments.get(i).NPV();
+        }
+        final double[][] expected = new double[scenarios.length][instruments.size()];
+        final double[] expectedTotal = new double[scenarios.length];
+        for (int s = 0; s < scenarios.length; s++) {
+            quotes.get(0).setValue(baseQuotes[0] * (1.0 + scenarios[s][0]));
+            for (int j = 1; j < baseQuotes.length; j++) {
+                quotes.get(j).setValue(baseQuotes[j] + scenarios[s][j]);
+            }
+            for (int i = 0; i < baseValues.length; i++) {
+                expected[s][i] = quantities[i] * instruments.get(i).NPV() - baseValues[i];
+                expectedTotal[s] += expected[s][i];
+            }
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (final ExecutorService e : new ExecutorService[] { null, executor }) {
+                final HistoricalSimulation simulation = new HistoricalSimulation(factory, shiftTypes, quantities, e);
+                final HistoricalSimulation.Results results = simulation.calculate(scenarios);
+
+                final double[] calculatedBase = results.baseValues();
+                for (int i = 0; i < baseValues.length; i++) {
+                    checkValue("base value", calculatedBase[i], baseValues[i], 1.0e-12);
+                }
+                final double[] total = results.portfolioProfitAndLoss();
+                for (int s = 0; s < scenarios.length; s++) {
+                    checkValue("portfolio P&L", total[s], expectedTotal[s], 1.0e-10);
+                    for (int i = 0; i < baseValues.length; i++) {
+                        checkValue("instrument P&L", results.profitAndLoss(s, i), expected[s][i], 1.0e-10);
+                    }
+                }
+
+                final RiskStatistics expectedStatistics = new RiskStatistics();
+                expectedStatistics.addSequence(expectedTotal);
+                final RiskStatistics statistics = results.statistics();
+                checkValue("value-at-risk", statistics.valueAtRisk(0.99), expectedStatistics.valueAtRisk(0.99), 1.0e-10);
+                checkValue("expected shortfall", statistics.expectedShortfall(0.95), expectedStatistics.expectedShortfall(0.95), 1.0e-10);
+                checkValue("instrument mean P&L", results.statistics(2).mean(), mean(expected, 2), 1.0e-10);
+
+                if (!(results.scenariosPerSecond() > 0.0) || results.revaluationsPerSecond() != results.scenariosPerSecond() * quantities.length)
+                    fail("invalid throughput: " + results.scenariosPerSecond() + " scenarios per second");
+                QL.info("historical simulation of " + scenarios.length + " scenarios: "
+                        + (long) results.scenariosPerSecond() + " scenarios per second"
+                        + (e == null ? " (sequential)" : " (concurrent)"));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+
+    private static double mean(final double[][] values, final int column) {
+        double sum = 0.0;
+        for (final double[] row : values) {
+            sum += row[column];
+        }
+        return sum / values.length;
+    }
+
+    private static void checkValue(final String what, final double calculated, final double expected, final double tolerance) {
+        if (Math.abs(calculated - expected) > tolerance * Math.max(1.0, Math.abs(expected))) {
+            fail(what + " mismatch:"
+                    + "\n    calculated: " + calculated
+                    + "\n    expected:   " + expected);
+        }
+    }
+
+}
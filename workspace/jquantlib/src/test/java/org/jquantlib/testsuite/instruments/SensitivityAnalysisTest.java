@@ -0,0 +1,261 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.testsuite.instruments;
+
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jquantlib.QL;
+import org.jquantlib.Settings;
+import org.jquantlib.daycounters.Actual360;
+import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.instruments.Bond;
+import org.jquantlib.instruments.Instrument;
+import org.jquantlib.instruments.OneAssetOption;
+import org.jquantlib.instruments.bonds.ZeroCouponBond;
+import org.jquantlib.instruments.scenarios.Market;
+import org.jquantlib.instruments.scenarios.SensitivityAnalysis;
+import org.jquantlib.math.interpolations.factories.LogLinear;
+import org.jquantlib.pricingengines.bond.DiscountingBondEngine;
+import org.jquantlib.quotes.Handle;
+import org.jquantlib.quotes.Quote;
+import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.termstructures.IterativeBootstrap;
+import org.jquantlib.termstructures.RateHelper;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.termstructures.yieldcurves.DepositRateHelper;
+import org.jquantlib.termstructures.yieldcurves.Discount;
+import org.jquantlib.termstructures.yieldcurves.PiecewiseYieldCurve;
+import org.jquantlib.testsuite.util.OptionMarketFactory;
+import org.jquantlib.time.BusinessDayConvention;
+import org.jquantlib.time.Calendar;
+import org.jquantlib.time.Date;
+import org.jquantlib.time.Month;
+import org.jquantlib.time.Period;
+import org.jquantlib.time.TimeUnit;
+import org.jquantlib.time.calendars.Target;
+import org.jquantlib.util.LazyObject;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class SensitivityAnalysisTest {
+
+    private static final double[] quantities = { 10.0, -5.0, 3.0, 7.0, -2.0, 4.0, 1.0 };
+
+    public SensitivityAnalysisTest() {
+        QL.info("::::: "+this.getClass().getSimpleName()+" :::::");
+        System.setProperty("EXPERIMENTAL", "true");
+    }
+
+    @Test
+    public void testGreeks() {
+        QL.info("Testing bump and reprice sensitivities against analytic greeks...");
+
+        final Date today = new Date(15, Month.March, 2006);
+        new Settings().setEvaluationDate(today);
+        final Market.Factory factory = new OptionMarketFactory(today, quantities.length);
+
+        // analytic greeks, in the order of the quotes: spot, dividend yield, risk-free rate, volatility
+        final List<? extends Instrument> options = factory.create().instruments();
+        final double[][] expected = new double[4][options.size()];
+        for (int i = 0; i < options.size(); i++) {
+            final OneAssetOption option = (OneAssetOption) options.get(i);
+            expected[0][i] = quantities[i] * option.delta();
+            expected[1][i] = quantities[i] * option.dividendRho();
+            expected[2][i] = quantities[i] * option.rho();
+            expected[3][i] = quantities[i] * option.vega();
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            double[][] sequential = null;
+            for (final ExecutorService e : new ExecutorService[] { null, executor }) {
+                final SensitivityAnalysis analysis = new SensitivityAnalysis(factory, 1.0e-5, true, quantities, e);
+                final SensitivityAnalysis.Results results = analysis.calculate();
+                if (results.size() != expected.length)
+                    fail("number of pillars mismatch:"
+                            + "\n    calculated: " + results.size()
+                            + "\n    expected:   " + expected.length);
+
+                final double[] portfolio = results.portfolioSensitivities();
+                for (int p = 0; p < results.size(); p++) {
+                    double total = 0.0;
+                    for (int i = 0; i < options.size(); i++) {
+                        checkValue("sensitivity to quote " + p + " of option " + i,
+                                results.sensitivity(p, i), expected[p][i], 1.0e-5);
+                        total += results.sensitivity(p, i);
+                    }
+                    checkValue("portfolio sensitivity to quote " + p, portfolio[p], total, 1.0e-12);
+                }
+
+                // all pillars are bumped from the same base market, whatever the thread
+                final double[][] matrix = results.matrix();
+                if (sequential == null) {
+                    sequential = matrix;
+                } else {
+                    for (int p = 0; p < matrix.length; p++) {
+                        for (int i = 0; i < matrix[p].length; i++) {
+                            checkValue("concurrent sensitivity", matrix[p][i], sequential[p][i], 1.0e-12);
+                        }
+                    }
+                }
+            }
+
+            // forward differences on a subset of quotes
+            final SensitivityAnalysis forward = new SensitivityAnalysis(factory, 1.0e-6, false, quantities, executor);
+            final SensitivityAnalysis.Results results = forward.calculate(new int[] { 3, 2 });
+            if (results.pillar(0) != 3 || results.pillar(1) != 2)
+                fail("pillars not preserved");
+            for (int i = 0; i < options.size(); i++) {
+                checkValue("forward vega", results.sensitivity(0, i), expected[3][i], 1.0e-4);
+                checkValue("forward rho", results.sensitivity(1, i), expected[2][i], 1.0e-4);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+
+    @Test
+    public void testCurvePillars() {
+        QL.info("Testing bucketed sensitivities to the pillars of a bootstrapped curve...");
+
+        final Date today = new Date(15, Month.March, 2006);
+        new Settings().setEvaluationDate(today);
+        final Market.Factory factory = new DepositCurveMarketFactory();
+        final double shift = 1.0e-4;
+        final double[] bondQuantities = { 2.0, -1.0, 3.0, 1.0 };
+
+        // each pillar bumped on a market bootstrapped from scratch
+        final double[][] expected = new double[DepositCurveMarketFactory.tenors.length][];
+        for (int p = 0; p < expected.length; p++) {
+            final Market market = factory.create();
+            final List<? extends Instrument> bonds = market.instruments();
+            expected[p] = new double[bonds.size()];
+            for (int i = 0; i < bonds.size(); i++) {
+                expected[p][i] = bonds.get(i).NPV();
+            }
+            final SimpleQuote quote = market.quotes().get(p);
+            quote.setValue(quote.value() + shift);
+            for (int i = 0; i < bonds.size(); i++) {
+                expected[p][i] = bondQuantities[i] * (bonds.get(i).NPV() - expected[p][i]) / shift;
+            }
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (final ExecutorService e : new ExecutorService[] { null, executor }) {
+                final SensitivityAnalysis analysis = new SensitivityAnalysis(factory, shift, false, bondQuantities, e);
+                final SensitivityAnalysis.Results results = analysis.calculate();
+                for (int p = 0; p < results.size(); p++) {
+                    for (int i = 0; i < bondQuantities.length; i++) {
+                        checkValue("sensitivity to pillar " + p + " of bond " + i,
+                                results.sensitivity(p, i), expected[p][i], 1.0e-6);
+                    }
+                }
+
+                // a bond only depends on the pillars which surround its maturity
+                if (results.sensitivity(1, 0) == 0.0 || results.sensitivity(0, 0) == 0.0)
+                    fail("bond maturing in 2 months not sensitive to the 1 and 3 months pillars");
+                if (results.sensitivity(3, 0) != 0.0 || results.sensitivity(4, 0) != 0.0)
+                    fail("bond maturing in 2 months sensitive to the 9 and 12 months pillars");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+
+    private static void checkValue(final String what, final double calculated, final double expected, final double tolerance) {
+        if (Math.abs(calculated - expected) > tolerance * Math.max(1.0, Math.abs(expected))) {
+            fail(what + " mismatch:"
+                    + "\n    calculated: " + calculated
+                    + "\n    expected:   " + expected);
+        }
+    }
+
+
+    /**
+     * Builds markets of zero coupon bonds discounted on a curve bootstrapped from deposit quotes
+     */
+    private static class DepositCurveMarketFactory implements Market.Factory {
+
+        private static final int[] tenors = { 1, 3, 6, 9, 12 };
+        private static final double[] rates = { 0.030, 0.032, 0.034, 0.036, 0.038 };
+        private static final int[] maturities = { 2, 5, 8, 11 };
+
+        @Override
+        public Market create() {
+            final Calendar calendar = new Target();
+            final DayCounter dc = new Actual360();
+            final Date today = new Settings().evaluationDate();
+
+            final List<SimpleQuote> quotes = new ArrayList<SimpleQuote>();
+            final RateHelper[] helpers = new RateHelper[tenors.length];
+            for (int k = 0; k < tenors.length; k++) {
+                final SimpleQuote quote = new SimpleQuote(rates[k]);
+                quotes.add(quote);
+                helpers[k] = new DepositRateHelper(new Handle<Quote>(quote), new Period(tenors[k], TimeUnit.Months),
+                        2, calendar, BusinessDayConvention.ModifiedFollowing, true, dc);
+            }
+            final PiecewiseYieldCurve<Discount, LogLinear, IterativeBootstrap> curve =
+                new PiecewiseYieldCurve<Discount, LogLinear, IterativeBootstrap>(
+                        Discount.class, LogLinear.class, IterativeBootstrap.class,
+                        calendar.advance(today, 2, TimeUnit.Days), helpers, dc);
+            final DiscountingBondEngine engine = new DiscountingBondEngine(new Handle<YieldTermStructure>(curve));
+
+            final List<Bond> bonds = new ArrayList<Bond>();
+            for (final int maturity : maturities) {
+                final Bond bond = new ZeroCouponBond(2, calendar, 100.0, today.add(new Period(maturity, TimeUnit.Months)));
+                bond.setPricingEngine(engine);
+                bonds.add(bond);
+            }
+            final List<LazyObject> curves = Arrays.<LazyObject>asList(curve);
+
+            return new Market() {
+                @Override
+                public List<SimpleQuote> quotes() {
+                    return quotes;
+                }
+
+                @Override
+                public List<? extends Instrument> instruments() {
+                    return bonds;
+                }
+
+                @Override
+                public List<? extends LazyObject> curves() {
+                    return curves;
+                }
+            };
+        }
+    }
+
+}
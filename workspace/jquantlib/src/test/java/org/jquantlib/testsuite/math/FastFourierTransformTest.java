@@ -0,0 +1,101 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.testsuite.math;
+
+import static org.junit.Assert.fail;
+
+import org.jquantlib.QL;
+import org.jquantlib.math.FastFourierTransform;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class FastFourierTransformTest {
+
+    public FastFourierTransformTest() {
+        QL.info("::::: "+this.getClass().getSimpleName()+" :::::");
+    }
+
+    @Test
+    public void testSimple() {
+        QL.info("Testing complex direct FFT...");
+
+        final double[] re = { 1.0, 2.0, 3.0, 4.0, 0.0, 0.0, 0.0, 0.0 };
+        final double[] im = { 1.0, 2.0, 3.0, 4.0, 0.0, 0.0, 0.0, 0.0 };
+        final FastFourierTransform fft = new FastFourierTransform(FastFourierTransform.minOrder(4) + 1);
+        fft.transform(re, im);
+
+        final double[] expectedRe = { 10.0, 6.828427124746190, -4.0, 3.656854249492380,
+                                      -2.0, 1.171572875253810, 0.0, -7.656854249492380 };
+        final double[] expectedIm = { 10.0, -7.656854249492380, 0.0, 1.171572875253810,
+                                      -2.0, 3.656854249492380, -4.0, 6.828427124746190 };
+        for (int i = 0; i < re.length; i++) {
+            if (Math.abs(re[i] - expectedRe[i]) > 1.0e-12 || Math.abs(im[i] - expectedIm[i]) > 1.0e-12) {
+                fail("FFT result " + i + ":"
+                        + "\n    expected:   (" + expectedRe[i] + "," + expectedIm[i] + ")"
+                        + "\n    calculated: (" + re[i] + "," + im[i] + ")");
+            }
+        }
+    }
+
+    @Test
+    public void testInverse() {
+        QL.info("Testing inverse FFT against a direct transform...");
+
+        final int order = 6;
+        final int n = 1 << order;
+        final double[] re = new double[n];
+        final double[] im = new double[n];
+        for (int i = 0; i < n; i++) {
+            re[i] = Math.sin(0.3 * i) + 0.01 * i;
+            im[i] = Math.cos(1.7 * i);
+        }
+        final double[] re0 = re.clone();
+        final double[] im0 = im.clone();
+
+        final FastFourierTransform fft = new FastFourierTransform(order);
+        fft.transform(re, im);
+
+        // compare against the definition
+        for (int k = 0; k < n; k++) {
+            double sumRe = 0.0, sumIm = 0.0;
+            for (int j = 0; j < n; j++) {
+                final double angle = -2.0 * Math.PI * j * k / n;
+                sumRe += re0[j] * Math.cos(angle) - im0[j] * Math.sin(angle);
+                sumIm += re0[j] * Math.sin(angle) + im0[j] * Math.cos(angle);
+            }
+            if (Math.abs(re[k] - sumRe) > 1.0e-10 || Math.abs(im[k] - sumIm) > 1.0e-10) {
+                fail("FFT differs from discrete Fourier transform at " + k);
+            }
+        }
+
+        fft.inverseTransform(re, im);
+        for (int i = 0; i < n; i++) {
+            if (Math.abs(re[i] / n - re0[i]) > 1.0e-12 || Math.abs(im[i] / n - im0[i]) > 1.0e-12) {
+                fail("inverse FFT does not recover input at " + i);
+            }
+        }
+    }
+
+}
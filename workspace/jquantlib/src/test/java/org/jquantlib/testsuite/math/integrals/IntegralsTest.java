@@ -13,6 +13,8 @@ import org.jquantlib.math.functions.Sin;
 import org.jquantlib.math.functions.Square;
 import org.jquantlib.math.integrals.GaussKronrodAdaptive;
 import org.jquantlib.math.integrals.GaussKronrodNonAdaptive;
+import org.jquantlib.math.integrals.GaussLaguerreIntegration;
+import org.jquantlib.math.integrals.GaussLobattoIntegral;
 import org.jquantlib.math.integrals.Integrator;
 import org.jquantlib.math.integrals.SegmentIntegral;
 import org.jquantlib.math.integrals.SimpsonIntegral;
@@ -87,13 +89,36 @@ public class IntegralsTest {
     }
 
 
-//TODO: http://bugs.jquantlib.org/view.php?id=453
-//    @Test
-//    public void testGaussLobatto() {
-//        QL.info("Testing adaptive Gauss-Lobatto integration...");
-//        final int maxEvaluations = 1000;
-//        testSeveral(new GaussLobattoIntegral(maxEvaluations, tolerance));
-//    }
+    @Test
+    public void testGaussLobatto() {
+        QL.info("Testing adaptive Gauss-Lobatto integration...");
+        final int maxEvaluations = 1000;
+        testSeveral(new GaussLobattoIntegral(maxEvaluations, tolerance));
+    }
+
+    @Test
+    public void testGaussLaguerre() {
+        QL.info("Testing Gauss-Laguerre integration...");
+        final GaussLaguerreIntegration integration = new GaussLaguerreIntegration(32);
+        double factorial = 1.0;
+        for (int k = 0; k <= 10; k++) {
+            if (k > 0) {
+                factorial *= k;
+            }
+            final int power = k;
+            final double calculated = integration.op(new Ops.DoubleOp() {
+                @Override
+                public double op(final double x) {
+                    return Math.pow(x, power) * Math.exp(-x);
+                }
+            });
+            if (Math.abs(calculated - factorial) > tolerance * factorial) {
+                fail("integrating x^" + k + " exp(-x) on [0, inf)\n"
+                        + "    calculated: " + calculated + "\n"
+                        + "    expected:   " + factorial);
+            }
+        }
+    }
 
     @Test
     public void testGaussKronrodNonAdaptive() {
@@ -0,0 +1,224 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.testsuite.math.optimization;
+
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jquantlib.QL;
+import org.jquantlib.math.matrixutilities.Array;
+import org.jquantlib.math.matrixutilities.Matrix;
+import org.jquantlib.math.optimization.CostFunction;
+import org.jquantlib.math.optimization.EndCriteria;
+import org.jquantlib.math.optimization.LevenbergMarquardt;
+import org.jquantlib.math.optimization.NoConstraint;
+import org.jquantlib.math.optimization.Problem;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class LevenbergMarquardtTest {
+
+    // y = a exp(-b t) + c
+    private static final double a = 2.5;
+    private static final double b = 1.3;
+    private static final double c = 0.5;
+
+    public LevenbergMarquardtTest() {
+        QL.info("::::: "+this.getClass().getSimpleName()+" :::::");
+        System.setProperty("EXPERIMENTAL", "true");
+    }
+
+    @Test
+    public void testExponentialFit() {
+        QL.info("Testing Levenberg-Marquardt on an exponential fit...");
+
+        final Array x = minimize(new LevenbergMarquardt(), new ExponentialFit());
+        check(x, "forward-difference Jacobian");
+    }
+
+    @Test
+    public void testAnalyticJacobian() {
+        QL.info("Testing Levenberg-Marquardt with a user supplied Jacobian...");
+
+        final ExponentialFit function = new ExponentialFit();
+        final Array x = minimize(new LevenbergMarquardt(1.0e-8, 1.0e-8, 1.0e-8, true), function);
+        check(x, "analytic Jacobian");
+        if (function.jacobianCalls == 0) {
+            fail("user supplied Jacobian was not used");
+        }
+    }
+
+    @Test
+    public void testConcurrentJacobian() {
+        QL.info("Testing concurrent evaluation of the forward-difference Jacobian...");
+
+        final Array sequential = minimize(new LevenbergMarquardt(), new ExponentialFit());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final LevenbergMarquardt method = new LevenbergMarquardt();
+            method.setExecutor(executor);
+            final Array concurrent = minimize(method, new ExponentialFit());
+            for (int i = 0; i < sequential.size(); i++) {
+                if (sequential.get(i) != concurrent.get(i)) {
+                    fail("concurrent and sequential minimizations differ:"
+                            + "\n    parameter:  " + i
+                            + "\n    sequential: " + sequential.get(i)
+                            + "\n    concurrent: " + concurrent.get(i));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSerialisedJacobian() {
+        QL.info("Testing that cost functions which are not thread safe are evaluated on a single thread...");
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final LevenbergMarquardt method = new LevenbergMarquardt();
+            method.setExecutor(executor);
+            final ExponentialFit function = new ExponentialFit(false);
+            check(minimize(method, function), "a cost function which is not thread safe");
+            if (function.maxConcurrentCalls != 1) {
+                fail("cost function evaluated concurrently:"
+                        + "\n    concurrent calls: " + function.maxConcurrentCalls);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+
+    //
+    // private methods
+    //
+
+    private Array minimize(final LevenbergMarquardt method, final CostFunction function) {
+        final Problem problem = new Problem(function, new NoConstraint(), new Array(new double[] { 1.0, 1.0, 0.0 }));
+        method.minimize(problem, new EndCriteria(1000, 100, 1.0e-12, 1.0e-12, 1.0e-12));
+        final int info = method.getInfo();
+        if (info < 1 || info > 4) {
+            fail("minimization did not converge: info " + info);
+        }
+        return problem.currentValue();
+    }
+
+    private void check(final Array x, final String description) {
+        final double expected[] = { a, b, c };
+        final double tolerance = 1.0e-6;
+        for (int i = 0; i < expected.length; i++) {
+            if (Math.abs(x.get(i) - expected[i]) > tolerance) {
+                fail("failed to recover parameters using " + description + ":"
+                        + "\n    parameter:  " + i
+                        + "\n    calculated: " + x.get(i)
+                        + "\n    expected:   " + expected[i]);
+            }
+        }
+    }
+
+
+    //
+    // private inner classes
+    //
+
+    private static class ExponentialFit extends CostFunction {
+
+        private static final int size = 20;
+
+        private final double[] t = new double[size];
+        private final double[] y = new double[size];
+        private final boolean threadSafe;
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile int jacobianCalls;
+        private volatile int maxConcurrentCalls;
+
+        public ExponentialFit() {
+            this(true);
+        }
+
+        public ExponentialFit(final boolean threadSafe) {
+            this.threadSafe = threadSafe;
+            for (int i = 0; i < size; i++) {
+                t[i] = 0.25 * i;
+                y[i] = a * Math.exp(-b * t[i]) + c;
+            }
+        }
+
+        @Override
+        public Array values(final Array x) {
+            final int concurrent = calls.incrementAndGet();
+            synchronized (this) {
+                maxConcurrentCalls = Math.max(maxConcurrentCalls, concurrent);
+            }
+            try {
+                final Array result = new Array(size);
+                for (int i = 0; i < size; i++) {
+                    result.set(i, x.get(0) * Math.exp(-x.get(1) * t[i]) + x.get(2) - y[i]);
+                }
+                return result;
+            } finally {
+                calls.decrementAndGet();
+            }
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return threadSafe;
+        }
+
+        @Override
+        public boolean hasAnalyticJacobian() {
+            return true;
+        }
+
+        @Override
+        public double value(final Array x) {
+            final Array v = values(x);
+            double sum = 0.0;
+            for (int i = 0; i < size; i++) {
+                sum += v.get(i) * v.get(i);
+            }
+            return sum;
+        }
+
+        @Override
+        public void jacobian(final Matrix jac, final Array x) {
+            jacobianCalls++;
+            for (int i = 0; i < size; i++) {
+                final double e = Math.exp(-x.get(1) * t[i]);
+                jac.set(i, 0, e);
+                jac.set(i, 1, -x.get(0) * t[i] * e);
+                jac.set(i, 2, 1.0);
+            }
+        }
+    }
+
+}
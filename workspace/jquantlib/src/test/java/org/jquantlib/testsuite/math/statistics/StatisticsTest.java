@@ -42,16 +42,26 @@ package org.jquantlib.testsuite.math.statistics;
 
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.jquantlib.QL;
 import org.jquantlib.lang.annotation.Real;
 import org.jquantlib.math.matrixutilities.Array;
+import org.jquantlib.math.matrixutilities.Matrix;
 import org.jquantlib.math.statistics.ConvergenceStatistics;
 import org.jquantlib.math.statistics.GenericRiskStatistics;
 import org.jquantlib.math.statistics.GenericSequenceStatistics;
 import org.jquantlib.math.statistics.IncrementalStatistics;
 import org.jquantlib.math.statistics.RiskStatistics;
+import org.jquantlib.math.statistics.SequenceStatistics;
+import org.jquantlib.util.Concurrency;
 import org.jquantlib.util.Pair;
 import org.junit.Test;
 
@@ -99,9 +109,333 @@ public class StatisticsTest {
         checkConvergence(new RiskStatistics(), "Statistics");
         checkConvergence(new IncrementalStatistics(), "IncrementalStatistics");
     }
+
+    @Test
+    public void testPercentiles() {
+        QL.info("Testing percentiles of weighted and unweighted samples ...");
+
+        final Random random = new Random(42);
+        final int N = 1001;
+        final double[] values = new double[N];
+        final double[] weights = new double[N];
+        for (int i = 0; i < N; i++) {
+            // repeated values on purpose
+            values[i] = Math.floor(random.nextGaussian() * 200.0) / 10.0;
+            weights[i] = random.nextDouble();
+        }
+        final double[] ones = new double[N];
+        Arrays.fill(ones, 1.0);
+
+        final RiskStatistics unweighted = new RiskStatistics();
+        unweighted.addSequence(values);
+        final RiskStatistics weighted = new RiskStatistics();
+        weighted.addSequence(values, weights);
+
+        for (final double percent : new double[] { 0.0005, 0.01, 0.05, 0.25, 0.5, 0.9, 0.95, 0.999, 1.0 }) {
+            checkPercentile("percentile", unweighted.percentile(percent), percentile(values, ones, percent, false), 0.0);
+            checkPercentile("top percentile", unweighted.topPercentile(percent), percentile(values, ones, percent, true), 0.0);
+            checkPercentile("weighted percentile", weighted.percentile(percent), percentile(values, weights, percent, false), 0.0);
+            checkPercentile("weighted top percentile", weighted.topPercentile(percent), percentile(values, weights, percent, true), 0.0);
+        }
+
+        // selection reorders samples, which must not affect other statistics
+        double sum = 0.0, min = values[0], max = values[0];
+        for (final double v : values) {
+            sum += v;
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        checkPercentile("mean", unweighted.mean(), sum / N, 0.0);
+        checkPercentile("min", unweighted.min(), min, 0.0);
+        checkPercentile("max", unweighted.max(), max, 0.0);
+    }
     
     
     
+    @Test
+    public void testRiskMeasures() {
+        QL.info("Testing risk measures ...");
+
+        final Random random = new Random(7);
+        final int N = 10000;
+        final double[] values = new double[N];
+        final double[] weights = new double[N];
+        for (int i = 0; i < N; i++) {
+            values[i] = random.nextGaussian() * 0.02 + 0.001;
+            weights[i] = 0.5 + random.nextDouble();
+        }
+
+        for (final boolean weighted : new boolean[] { false, true }) {
+            final RiskStatistics s = new RiskStatistics();
+            if (weighted) {
+                s.addSequence(values, weights);
+            } else {
+                s.addSequence(values);
+            }
+            final double centile = 0.99;
+            final double target = -0.01;
+
+            // reference values by their definitions
+            final double threshold = -s.valueAtRisk(centile);
+            double esNum = 0.0, esDen = 0.0, rNum = 0.0, aNum = 0.0, below = 0.0, total = 0.0;
+            int n = 0;
+            for (int i = 0; i < N; i++) {
+                final double w = weighted ? weights[i] : 1.0;
+                total += w;
+                if (values[i] < threshold) {
+                    esNum += values[i] * w;
+                    esDen += w;
+                }
+                if (values[i] < target) {
+                    rNum += (values[i] - target) * (values[i] - target) * w;
+                    aNum += (target - values[i]) * w;
+                    below += w;
+                    n++;
+                }
+            }
+            final double expectedShortfall = -Math.min(esNum / esDen, 0.0);
+            final double regret = (n / (n - 1.0)) * rNum / below;
+            final double shortfall = below / total;
+            final double averageShortfall = aNum / below;
+
+            checkPercentile("expected shortfall", s.expectedShortfall(centile), expectedShortfall, 1.0e-12);
+            checkPercentile("regret", s.regret(target), regret, 1.0e-12);
+            checkPercentile("shortfall", s.shortfall(target), shortfall, 1.0e-12);
+            checkPercentile("average shortfall", s.averageShortfall(target), averageShortfall, 1.0e-12);
+
+            final GenericRiskStatistics.RiskMeasures measures = s.riskMeasures(centile, target);
+            checkPercentile("fused value-at-risk", measures.valueAtRisk, s.valueAtRisk(centile), 0.0);
+            checkPercentile("fused expected shortfall", measures.expectedShortfall, expectedShortfall, 1.0e-12);
+            checkPercentile("fused regret", measures.regret, regret, 1.0e-12);
+            checkPercentile("fused shortfall", measures.shortfall, shortfall, 1.0e-12);
+            checkPercentile("fused average shortfall", measures.averageShortfall, averageShortfall, 1.0e-12);
+        }
+    }
+
+    @Test
+    public void testMerge() {
+        QL.info("Testing merge of statistics accumulated by concurrent threads ...");
+
+        final Random random = new Random(11);
+        final int N = 20000;
+        final int dimension = 3;
+        final double[][] samples = new double[N][dimension];
+        final double[] weights = new double[N];
+        for (int i = 0; i < N; i++) {
+            // skewed data far from zero, in order to exercise high moments
+            final double z = random.nextGaussian();
+            samples[i][0] = 1000.0 + Math.exp(0.5 * z);
+            samples[i][1] = -0.3 + 0.1 * random.nextGaussian();
+            samples[i][2] = 0.5 * samples[i][1] + z;
+            weights[i] = 0.5 + random.nextDouble();
+        }
+
+        // single-threaded accumulation
+        final IncrementalStatistics single = new IncrementalStatistics();
+        final SequenceStatistics singleSequence = new SequenceStatistics(dimension);
+        for (int i = 0; i < N; i++) {
+            single.add(samples[i][0] - 1000.0 + samples[i][1], weights[i]);
+            singleSequence.add(samples[i], weights[i]);
+        }
+
+        // each thread accumulates its own chunk
+        final int chunks = 7;
+        final List<Callable<Object[]>> tasks = new ArrayList<Callable<Object[]>>();
+        for (int c = 0; c < chunks; c++) {
+            final int from = c * N / chunks;
+            final int to = (c + 1) * N / chunks;
+            tasks.add(new Callable<Object[]>() {
+                @Override
+                public Object[] call() {
+                    final IncrementalStatistics s = new IncrementalStatistics();
+                    final SequenceStatistics ss = new SequenceStatistics(dimension);
+                    for (int i = from; i < to; i++) {
+                        s.add(samples[i][0] - 1000.0 + samples[i][1], weights[i]);
+                        ss.add(samples[i], weights[i]);
+                    }
+                    return new Object[] { s, ss };
+                }
+            });
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Object[]> partials;
+        try {
+            partials = Concurrency.invokeAll(executor, tasks);
+        } finally {
+            executor.shutdown();
+        }
+        final IncrementalStatistics merged = new IncrementalStatistics();
+        final SequenceStatistics mergedSequence = new SequenceStatistics();
+        for (final Object[] partial : partials) {
+            merged.merge((IncrementalStatistics) partial[0]);
+            mergedSequence.merge((SequenceStatistics) partial[1]);
+        }
+
+        final double tolerance = 1.0e-10;
+        if (merged.samples() != single.samples())
+            fail("merged sample number mismatch:"
+                    + "\n    calculated: " + merged.samples()
+                    + "\n    expected:   " + single.samples());
+        checkPercentile("merged weight sum", merged.weightSum(), single.weightSum(), tolerance);
+        checkPercentile("merged mean", merged.mean(), single.mean(), tolerance);
+        checkPercentile("merged variance", merged.variance(), single.variance(), tolerance);
+        checkPercentile("merged skewness", merged.skewness(), single.skewness(), tolerance);
+        checkPercentile("merged kurtosis", merged.kurtosis(), single.kurtosis(), tolerance);
+        checkPercentile("merged downside variance", merged.downsideVariance(), single.downsideVariance(), tolerance);
+        checkPercentile("merged min", merged.min(), single.min(), 0.0);
+        checkPercentile("merged max", merged.max(), single.max(), 0.0);
+
+        // merging sample-based statistics
+        final RiskStatistics sampled = new RiskStatistics();
+        for (int i = 0; i < N; i++) {
+            sampled.add(samples[i][0] - 1000.0 + samples[i][1], weights[i]);
+        }
+        checkPercentile("sampled mean", sampled.mean(), single.mean(), tolerance);
+        checkPercentile("sampled skewness", sampled.skewness(), single.skewness(), 1.0e-8);
+        checkPercentile("sampled kurtosis", sampled.kurtosis(), single.kurtosis(), 1.0e-8);
+        final IncrementalStatistics folded = new IncrementalStatistics();
+        folded.merge(sampled);
+        checkPercentile("folded variance", folded.variance(), single.variance(), tolerance);
+
+        final Array mean = mergedSequence.mean();
+        final Array expectedMean = singleSequence.mean();
+        final Matrix covariance = mergedSequence.covariance();
+        final Matrix expectedCovariance = singleSequence.covariance();
+        final Array percentile = mergedSequence.percentile(0.95);
+        final Array expectedPercentile = singleSequence.percentile(0.95);
+        for (int i = 0; i < dimension; i++) {
+            checkPercentile("merged sequence mean", mean.get(i), expectedMean.get(i), tolerance);
+            checkPercentile("merged sequence percentile", percentile.get(i), expectedPercentile.get(i), 0.0);
+            for (int j = 0; j < dimension; j++) {
+                checkPercentile("merged sequence covariance",
+                        covariance.get(i, j), expectedCovariance.get(i, j), 1.0e-8);
+            }
+        }
+    }
+
+    @Test
+    public void testSequenceCovariance() {
+        QL.info("Testing covariance of sequence statistics ...");
+
+        checkSequenceCovariance(5, 3000, true);
+        // many tiles per rank-k update
+        checkSequenceCovariance(600, 80, false);
+    }
+
+    private void checkSequenceCovariance(final int dimension, final int N, final boolean weighted) {
+        final Random random = new Random(dimension);
+        final double[][] samples = new double[N][dimension];
+        final double[] weights = new double[N];
+        for (int k = 0; k < N; k++) {
+            final double common = random.nextGaussian();
+            for (int i = 0; i < dimension; i++) {
+                samples[k][i] = 100.0 + i + 0.5 * common + (0.1 + 0.01 * i) * random.nextGaussian();
+            }
+            weights[k] = weighted ? 0.5 + random.nextDouble() : 1.0;
+        }
+
+        // two-pass reference
+        double weightSum = 0.0;
+        final double[] mean = new double[dimension];
+        for (int k = 0; k < N; k++) {
+            weightSum += weights[k];
+            for (int i = 0; i < dimension; i++) {
+                mean[i] += weights[k] * samples[k][i];
+            }
+        }
+        for (int i = 0; i < dimension; i++) {
+            mean[i] /= weightSum;
+        }
+        final double[][] expected = new double[dimension][dimension];
+        for (int k = 0; k < N; k++) {
+            for (int i = 0; i < dimension; i++) {
+                final double di = weights[k] * (samples[k][i] - mean[i]);
+                for (int j = 0; j < dimension; j++) {
+                    expected[i][j] += di * (samples[k][j] - mean[j]);
+                }
+            }
+        }
+        for (int i = 0; i < dimension; i++) {
+            for (int j = 0; j < dimension; j++) {
+                expected[i][j] *= N / (N - 1.0) / weightSum;
+            }
+        }
+
+        // one sample at a time
+        final SequenceStatistics single = new SequenceStatistics(dimension);
+        for (int k = 0; k < N; k++) {
+            single.add(samples[k], weights[k]);
+        }
+
+        // blocks of different sizes, merged from separate instances
+        final SequenceStatistics blocks = new SequenceStatistics();
+        final SequenceStatistics other = new SequenceStatistics();
+        int from = 0;
+        for (int size = 1; from < N; size = 2 * size + 1) {
+            final int to = Math.min(N, from + size);
+            final double[][] block = Arrays.copyOfRange(samples, from, to);
+            final double[] blockWeights = Arrays.copyOfRange(weights, from, to);
+            final SequenceStatistics target = (size % 4 == 1) ? blocks : other;
+            if (weighted) {
+                target.addSequences(block, blockWeights);
+            } else {
+                target.addSequences(block);
+            }
+            from = to;
+        }
+        blocks.merge(other);
+
+        final Matrix calculatedSingle = single.covariance();
+        final Matrix calculatedBlocks = blocks.covariance();
+        if (blocks.samples() != N)
+            fail("sample number mismatch:"
+                    + "\n    calculated: " + blocks.samples()
+                    + "\n    expected:   " + N);
+        for (int i = 0; i < dimension; i++) {
+            for (int j = 0; j < dimension; j++) {
+                checkPercentile("covariance", calculatedSingle.get(i, j), expected[i][j], 1.0e-10);
+                checkPercentile("rank-k covariance", calculatedBlocks.get(i, j), expected[i][j], 1.0e-10);
+            }
+        }
+    }
+
+    /**
+     * Reference percentile, scanning samples sorted by value as the original implementation did
+     */
+    private double percentile(final double[] values, final double[] weights, final double percent, final boolean top) {
+        final int N = values.length;
+        final Integer[] index = new Integer[N];
+        for (int i = 0; i < N; i++) {
+            index[i] = i;
+        }
+        Arrays.sort(index, new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer i, final Integer j) {
+                return Double.compare(values[i], values[j]);
+            }
+        });
+        double sampleWeight = 0.0;
+        for (final double w : weights) {
+            sampleWeight += w;
+        }
+        final double target = percent * sampleWeight;
+        int k = top ? N - 1 : 0;
+        double integral = weights[index[k]];
+        while (integral < target && k != (top ? 0 : N - 1)) {
+            k += top ? -1 : 1;
+            integral += weights[index[k]];
+        }
+        return values[index[k]];
+    }
+
+    private void checkPercentile(final String what, final double calculated, final double expected, final double tolerance) {
+        if (Math.abs(calculated - expected) > tolerance * Math.abs(expected) + 1.0e-12) {
+            fail(what + " mismatch:"
+                    + "\n    calculated: " + calculated
+                    + "\n    expected:   " + expected);
+        }
+    }
+
     private void check(final GenericRiskStatistics s, final String name) {
         for (int i = 0; i<data.size(); i++)
             s.add(data.get(i), weights.get(i));
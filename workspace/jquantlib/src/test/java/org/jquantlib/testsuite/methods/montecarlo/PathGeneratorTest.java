@@ -0,0 +1,214 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.testsuite.methods.montecarlo;
+
+import static org.junit.Assert.fail;
+
+import org.jquantlib.QL;
+import org.jquantlib.Settings;
+import org.jquantlib.daycounters.Actual365Fixed;
+import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.math.matrixutilities.Array;
+import org.jquantlib.math.randomnumbers.RandomNumberGenerator;
+import org.jquantlib.math.randomnumbers.RandomSequenceGeneratorIntf;
+import org.jquantlib.methods.montecarlo.Path;
+import org.jquantlib.methods.montecarlo.PathGenerator;
+import org.jquantlib.methods.montecarlo.Sample;
+import org.jquantlib.processes.BlackScholesMertonProcess;
+import org.jquantlib.processes.HestonProcess;
+import org.jquantlib.processes.StochasticProcess;
+import org.jquantlib.processes.StochasticProcess1D;
+import org.jquantlib.quotes.Handle;
+import org.jquantlib.quotes.Quote;
+import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.termstructures.BlackVolTermStructure;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.testsuite.util.Utilities;
+import org.jquantlib.time.Date;
+import org.jquantlib.time.TimeGrid;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class PathGeneratorTest {
+
+    private final Date today;
+    private final DayCounter dc;
+    private final SimpleQuote rate;
+    private final Handle<Quote> spot;
+    private final Handle<YieldTermStructure> rTS, qTS;
+    private final TimeGrid grid;
+
+    public PathGeneratorTest() {
+        QL.info("::::: "+this.getClass().getSimpleName()+" :::::");
+        System.setProperty("EXPERIMENTAL", "true");
+        this.today = new Settings().evaluationDate();
+        this.dc = new Actual365Fixed();
+        this.rate = new SimpleQuote(0.05);
+        this.spot = new Handle<Quote>(new SimpleQuote(100.0));
+        this.rTS = new Handle<YieldTermStructure>(Utilities.flatRate(today, rate, dc));
+        this.qTS = new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.02, dc));
+        this.grid = new TimeGrid(2.0, 24);
+    }
+
+    @Test
+    public void testBlackScholesEvolver() {
+        QL.info("Testing time grid evolver of Black-Scholes process...");
+
+        final BlackScholesMertonProcess process = blackScholesProcess();
+        final StochasticProcess1D.TimeGridEvolver1D evolver = process.timeGridEvolver(grid);
+        double x = process.x0();
+        for (int i = 0; i < grid.size() - 1; i++) {
+            final double dw = normal(i);
+            final double expected = process.evolve(grid.get(i), x, grid.dt(i), dw);
+            final double calculated = evolver.evolve(i, x, dw);
+            if (calculated != expected) {
+                fail("step " + i + " mismatch:"
+                        + "\n    calculated: " + calculated
+                        + "\n    expected:   " + expected);
+            }
+            x = expected;
+        }
+    }
+
+    @Test
+    public void testHestonEvolver() {
+        QL.info("Testing time grid evolver of Heston process...");
+
+        final HestonProcess process = new HestonProcess(rTS, qTS, spot, 0.04, 1.5, 0.05, 0.4, -0.6);
+        final StochasticProcess.TimeGridEvolver evolver = process.timeGridEvolver(grid);
+        Array x = process.initialValues();
+        for (int i = 0; i < grid.size() - 1; i++) {
+            final Array dw = new Array(new double[] { normal(i), normal(i + 7) });
+            final Array expected = process.evolve(grid.get(i), x, grid.dt(i), dw);
+            final Array calculated = evolver.evolve(i, x, dw);
+            for (int j = 0; j < expected.size(); j++) {
+                if (calculated.get(j) != expected.get(j)) {
+                    fail("step " + i + ", component " + j + " mismatch:"
+                            + "\n    calculated: " + calculated.get(j)
+                            + "\n    expected:   " + expected.get(j));
+                }
+            }
+            x = expected;
+        }
+    }
+
+    @Test
+    public void testEvolverInvalidation() {
+        QL.info("Testing time grid evolver invalidation on market changes...");
+
+        final BlackScholesMertonProcess process = blackScholesProcess();
+        final StochasticProcess1D.TimeGridEvolver1D evolver = process.timeGridEvolver(grid);
+        if (process.timeGridEvolver(grid) != evolver) {
+            fail("evolver not cached for the same time grid");
+        }
+        final double before = evolver.evolve(0, 100.0, 0.5);
+
+        rate.setValue(0.07);
+        final StochasticProcess1D.TimeGridEvolver1D updated = process.timeGridEvolver(grid);
+        final double calculated = updated.evolve(0, 100.0, 0.5);
+        final double expected = process.evolve(grid.get(0), 100.0, grid.dt(0), 0.5);
+        if (calculated != expected || calculated == before) {
+            fail("evolved value mismatch after rate change:"
+                    + "\n    calculated: " + calculated
+                    + "\n    expected:   " + expected
+                    + "\n    before:     " + before);
+        }
+    }
+
+    @Test
+    public void testPathGenerator() {
+        QL.info("Testing path generator against step by step evolution...");
+
+        final BlackScholesMertonProcess process = blackScholesProcess();
+        final PathGenerator<?, RandomSequenceGeneratorIntf> generator =
+            new PathGenerator<RandomNumberGenerator, RandomSequenceGeneratorIntf>(
+                process, grid, new FixedSequenceGenerator(grid.size() - 1), false);
+
+        for (final boolean antithetic : new boolean[] { false, true }) {
+            final Path path = generator.next(antithetic).value();
+            double x = process.x0();
+            for (int i = 1; i < path.length(); i++) {
+                final double dw = antithetic ? -normal(i - 1) : normal(i - 1);
+                x = process.evolve(grid.get(i - 1), x, grid.dt(i - 1), dw);
+                if (path.getValues_(i) != x) {
+                    fail((antithetic ? "antithetic " : "") + "path value " + i + " mismatch:"
+                            + "\n    calculated: " + path.getValues_(i)
+                            + "\n    expected:   " + x);
+                }
+            }
+        }
+    }
+
+
+    //
+    // private methods
+    //
+
+    private BlackScholesMertonProcess blackScholesProcess() {
+        return new BlackScholesMertonProcess(spot, qTS, rTS,
+                new Handle<BlackVolTermStructure>(Utilities.flatVol(today, 0.25, dc)));
+    }
+
+    private static double normal(final int i) {
+        return Math.sin(1.0 + 3.0 * i);
+    }
+
+
+    //
+    // private inner classes
+    //
+
+    private static class FixedSequenceGenerator implements RandomSequenceGeneratorIntf {
+        private final double[] values;
+
+        private FixedSequenceGenerator(final int dimension) {
+            this.values = new double[dimension];
+            for (int i = 0; i < dimension; i++) {
+                values[i] = normal(i);
+            }
+        }
+
+        @Override
+        public Sample<double[]> nextSequence() {
+            return lastSequence();
+        }
+
+        @Override
+        public Sample<double[]> lastSequence() {
+            return new Sample<double[]>(values.clone(), 1.0);
+        }
+
+        @Override
+        public long[] nextInt32Sequence() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int dimension() {
+            return values.length;
+        }
+    }
+
+}
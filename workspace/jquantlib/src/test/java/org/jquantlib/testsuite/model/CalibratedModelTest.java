@@ -0,0 +1,177 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.testsuite.model;
+
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jquantlib.QL;
+import org.jquantlib.Settings;
+import org.jquantlib.daycounters.Actual365Fixed;
+import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.math.matrixutilities.Array;
+import org.jquantlib.math.optimization.EndCriteria;
+import org.jquantlib.math.optimization.LevenbergMarquardt;
+import org.jquantlib.math.optimization.NoConstraint;
+import org.jquantlib.model.CalibratedModel;
+import org.jquantlib.model.CalibrationHelper;
+import org.jquantlib.model.equity.HestonModel;
+import org.jquantlib.model.equity.HestonModelHelper;
+import org.jquantlib.pricingengines.vanilla.AnalyticHestonEngine;
+import org.jquantlib.processes.HestonProcess;
+import org.jquantlib.quotes.Handle;
+import org.jquantlib.quotes.Quote;
+import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.testsuite.util.Utilities;
+import org.jquantlib.time.Date;
+import org.jquantlib.time.Period;
+import org.jquantlib.time.TimeUnit;
+import org.jquantlib.time.calendars.NullCalendar;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class CalibratedModelTest {
+
+    public CalibratedModelTest() {
+        QL.info("::::: "+this.getClass().getSimpleName()+" :::::");
+        System.setProperty("EXPERIMENTAL", "true");
+    }
+
+    @Test
+    public void testConcurrentCostFunction() {
+        QL.info("Testing concurrent evaluation of calibration helpers...");
+
+        final Date today = new Settings().evaluationDate();
+        final HestonCalibration calibration = new HestonCalibration(today);
+        final CalibratedModel model = calibration.createModel();
+        final List<CalibrationHelper> helpers = calibration.createHelpers(model);
+
+        final Array params = model.params();
+        final Array other = model.params();
+        other.set(0, 0.06);
+        other.set(2, 0.3);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (final Array p : new Array[] { params, other, params }) {
+                model.setExecutor(null, null);
+                final double sequential = model.value(p, helpers);
+                model.setExecutor(executor, calibration);
+                final double concurrent = model.value(p, helpers);
+                if (sequential != concurrent || Double.isNaN(sequential)) {
+                    fail("concurrent and sequential cost functions differ:"
+                            + "\n    sequential: " + sequential
+                            + "\n    concurrent: " + concurrent);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentCalibration() {
+        QL.info("Testing concurrent calibration on model replicas...");
+
+        final Date today = new Settings().evaluationDate();
+        final HestonCalibration calibration = new HestonCalibration(today);
+        final EndCriteria endCriteria = new EndCriteria(400, 40, 1.0e-8, 1.0e-8, 1.0e-8);
+
+        final CalibratedModel sequential = calibration.createModel();
+        sequential.calibrate(calibration.createHelpers(sequential), new LevenbergMarquardt(),
+                endCriteria, new NoConstraint(), null);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final CalibratedModel concurrent = calibration.createModel();
+            concurrent.setExecutor(executor, calibration);
+            concurrent.calibrate(calibration.createHelpers(concurrent), new LevenbergMarquardt(),
+                    endCriteria, new NoConstraint(), null);
+
+            final Array expected = sequential.params();
+            final Array calculated = concurrent.params();
+            for (int i = 0; i < expected.size(); i++) {
+                if (calculated.get(i) != expected.get(i)) {
+                    fail("concurrent and sequential calibrations differ:"
+                            + "\n    parameter:  " + i
+                            + "\n    sequential: " + expected.get(i)
+                            + "\n    concurrent: " + calculated.get(i));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+
+    //
+    // private inner classes
+    //
+
+    /**
+     * Heston model calibrated to a strip of vanilla options; each replica gets its own model and engines
+     */
+    private static final class HestonCalibration implements CalibratedModel.ReplicaFactory {
+        private static final int months[] = { 1, 3, 6, 12, 24, 36 };
+        private static final double strikes[] = { 70.0, 85.0, 100.0, 115.0, 130.0 };
+
+        private final Handle<YieldTermStructure> rTS;
+        private final Handle<YieldTermStructure> qTS;
+
+        private HestonCalibration(final Date today) {
+            final DayCounter dc = new Actual365Fixed();
+            this.rTS = new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.04, dc));
+            this.qTS = new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.01, dc));
+        }
+
+        @Override
+        public CalibratedModel createModel() {
+            final Handle<Quote> spot = new Handle<Quote>(new SimpleQuote(100.0));
+            return new HestonModel(new HestonProcess(rTS, qTS, spot, 0.04, 1.5, 0.05, 0.4, -0.6));
+        }
+
+        @Override
+        public List<CalibrationHelper> createHelpers(final CalibratedModel model) {
+            final AnalyticHestonEngine engine = new AnalyticHestonEngine((HestonModel) model);
+            final List<CalibrationHelper> helpers = new ArrayList<CalibrationHelper>();
+            for (final int length : months) {
+                for (final double strike : strikes) {
+                    final HestonModelHelper helper = new HestonModelHelper(
+                            new Period(length, TimeUnit.Months), new NullCalendar(), 100.0, strike,
+                            new Handle<Quote>(new SimpleQuote(0.15 + 0.001 * strike)), rTS, qTS);
+                    helper.setPricingEngine(engine);
+                    helpers.add(helper);
+                }
+            }
+            return helpers;
+        }
+    }
+
+}
@@ -40,9 +40,18 @@
 package org.jquantlib.testsuite.model.volatility;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
 
 import org.jquantlib.QL;
+import org.jquantlib.math.IntervalPrice;
 import org.jquantlib.model.volatility.ConstantEstimator;
+import org.jquantlib.model.volatility.EwmaVolatilityEstimator;
+import org.jquantlib.model.volatility.GarmanKlassSigma1;
+import org.jquantlib.model.volatility.LocalVolatilityEstimator;
+import org.jquantlib.model.volatility.ParkinsonSigma;
+import org.jquantlib.model.volatility.RollingVolatilityEstimator;
 import org.jquantlib.model.volatility.SimpleLocalEstimator;
 import org.jquantlib.model.volatility.VolatilityCompositor;
 import org.jquantlib.time.Date;
@@ -88,4 +97,133 @@ public class EstimatorsTest {
         assertNotNull(value) ;
     }
 
+    @Test
+    public void testIncrementalUpdate() {
+        QL.info("Testing incremental update of local volatility estimators...");
+
+        final double yearFraction = 1/252.0;
+        final IntervalPrice[] bars = bars(50);
+        final TimeSeries<IntervalPrice> series = new TimeSeries<IntervalPrice>(IntervalPrice.class);
+        final Date start = new Date(3, Month.January, 2005);
+        for (int i=0; i<bars.length; i++) {
+            series.put(start.add(i), bars[i]);
+        }
+
+        final GarmanKlassSigma1 estimator = new GarmanKlassSigma1(yearFraction, 0.2);
+        final TimeSeries<Double> batch = estimator.calculate(series);
+        if (batch.size() != bars.length-1) {
+            fail("unexpected number of estimates: " + batch.size());
+        }
+
+        // the same estimator instance is reused after being reset
+        estimator.reset();
+        if (!Double.isNaN(estimator.update(bars[0]))) {
+            fail("estimate available before the previous close is known");
+        }
+        int i = 1;
+        for (final Double expected : batch.values()) {
+            final IntervalPrice prev = bars[i-1];
+            final IntervalPrice curr = bars[i];
+            final double c = Math.log(curr.close()/curr.open());
+            final double g = Math.log(curr.open()/prev.close());
+            final double reference = Math.sqrt((0.5*g*g/0.2 + 0.5*c*c/0.8) / yearFraction);
+            final double calculated = estimator.update(curr);
+            if (calculated != expected || Math.abs(calculated - reference) > 1.0e-12) {
+                fail("incremental and batch estimates differ:"
+                        + "\n    quote:       " + i
+                        + "\n    incremental: " + calculated
+                        + "\n    batch:       " + expected
+                        + "\n    reference:   " + reference);
+            }
+            i++;
+        }
+    }
+
+    @Test
+    public void testRollingWindow() {
+        QL.info("Testing rolling window volatility estimator...");
+
+        final double yearFraction = 1/252.0;
+        final int size = 20;
+        final IntervalPrice[] bars = bars(500);
+        final ParkinsonSigma local = new ParkinsonSigma(yearFraction);
+        final RollingVolatilityEstimator<IntervalPrice> rolling =
+            new RollingVolatilityEstimator<IntervalPrice>(new ParkinsonSigma(yearFraction), size);
+
+        final double[] squares = new double[bars.length];
+        for (int i=0; i<bars.length; i++) {
+            final double s = local.update(bars[i]);
+            squares[i] = s*s;
+            final double calculated = rolling.update(bars[i]);
+            if (i < size-1) {
+                if (!Double.isNaN(calculated)) {
+                    fail("estimate available before the window is full: " + i);
+                }
+                continue;
+            }
+            double sum = 0.0;
+            for (int j=i-size+1; j<=i; j++) {
+                sum += squares[j];
+            }
+            final double expected = Math.sqrt(sum/size);
+            if (Math.abs(calculated - expected) > 1.0e-12 * expected) {
+                fail("failed to reproduce rolling window volatility:"
+                        + "\n    quote:      " + i
+                        + "\n    calculated: " + calculated
+                        + "\n    expected:   " + expected);
+            }
+        }
+    }
+
+    @Test
+    public void testEwma() {
+        QL.info("Testing exponentially weighted volatility estimator...");
+
+        final double yearFraction = 1/252.0;
+        final double lambda = 0.94;
+        final double[] prices = new double[200];
+        final Random random = new Random(17L);
+        prices[0] = 100.0;
+        for (int i=1; i<prices.length; i++) {
+            prices[i] = prices[i-1] * Math.exp(0.01 * random.nextGaussian());
+        }
+
+        final LocalVolatilityEstimator<Double> ewma =
+            new EwmaVolatilityEstimator<Double>(new SimpleLocalEstimator(yearFraction), lambda);
+        if (!Double.isNaN(ewma.update(prices[0]))) {
+            fail("estimate available before the first return");
+        }
+        for (int i=1; i<prices.length; i++) {
+            final double calculated = ewma.update(prices[i]);
+            // explicit weights: the first squared return carries the remaining weight
+            double variance = 0.0;
+            for (int j=i; j>=1; j--) {
+                final double r = Math.log(prices[j]/prices[j-1]);
+                final double weight = (j == 1) ? Math.pow(lambda, i-1) : (1.0-lambda) * Math.pow(lambda, i-j);
+                variance += weight * r * r / yearFraction;
+            }
+            final double expected = Math.sqrt(variance);
+            if (Math.abs(calculated - expected) > 1.0e-12 * expected) {
+                fail("failed to reproduce exponentially weighted volatility:"
+                        + "\n    quote:      " + i
+                        + "\n    calculated: " + calculated
+                        + "\n    expected:   " + expected);
+            }
+        }
+    }
+
+    private static IntervalPrice[] bars(final int size) {
+        final Random random = new Random(42L);
+        final IntervalPrice[] bars = new IntervalPrice[size];
+        double close = 100.0;
+        for (int i=0; i<size; i++) {
+            final double open = close * Math.exp(0.002 * random.nextGaussian());
+            close = open * Math.exp(0.01 * random.nextGaussian());
+            final double high = Math.max(open, close) * Math.exp(0.005 * Math.abs(random.nextGaussian()));
+            final double low  = Math.min(open, close) * Math.exp(-0.005 * Math.abs(random.nextGaussian()));
+            bars[i] = new IntervalPrice(open, close, high, low);
+        }
+        return bars;
+    }
+
 }
@@ -0,0 +1,136 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.testsuite.model.volatility;
+
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jquantlib.QL;
+import org.jquantlib.model.volatility.Garch11;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class Garch11Test {
+
+    public Garch11Test() {
+        QL.info("::::: "+this.getClass().getSimpleName()+" :::::");
+        System.setProperty("EXPERIMENTAL", "true");
+    }
+
+    @Test
+    public void testCalibration() {
+        QL.info("Testing GARCH(1,1) maximum likelihood calibration...");
+
+        final double alpha = 0.08;
+        final double beta = 0.90;
+        final double v = 1.0e-4;
+        final double[] returns = simulate(alpha, beta, v, 10000, 1234L);
+
+        final Garch11 model = new Garch11(returns);
+        final double tolerance = 0.03;
+        if (Math.abs(model.alpha() - alpha) > tolerance || Math.abs(model.beta() - beta) > tolerance) {
+            fail("failed to recover GARCH(1,1) parameters:"
+                    + "\n    calculated alpha: " + model.alpha()
+                    + "\n    expected alpha:   " + alpha
+                    + "\n    calculated beta:  " + model.beta()
+                    + "\n    expected beta:    " + beta);
+        }
+
+        // calibrated parameters must be a local minimum of the likelihood function
+        final double omega = model.omega();
+        final double cost = Garch11.costFunction(returns, model.alpha(), model.beta(), omega);
+        final double h = 1.0e-3;
+        final double[][] bumps = { { h, 0.0 }, { -h, 0.0 }, { 0.0, h }, { 0.0, -h } };
+        for (final double[] bump : bumps) {
+            final double a = model.alpha() + bump[0];
+            final double b = model.beta() + bump[1];
+            final double bumped = Garch11.costFunction(returns, a, b, (1.0 - a - b) * model.v());
+            if (bumped < cost) {
+                fail("calibrated parameters do not minimize the likelihood function:"
+                        + "\n    alpha:         " + a
+                        + "\n    beta:          " + b
+                        + "\n    cost:          " + bumped
+                        + "\n    calibrated:    " + cost);
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentCalibration() {
+        QL.info("Testing concurrent calibration of GARCH(1,1) models...");
+
+        final List<double[]> series = new ArrayList<double[]>();
+        for (int i = 0; i < 8; i++) {
+            series.add(simulate(0.05 + 0.01 * i, 0.85, 2.0e-4, 1000, i));
+        }
+
+        final List<Garch11> sequential = Garch11.calibrate(series, null);
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final List<Garch11> concurrent = Garch11.calibrate(series, executor);
+            for (int i = 0; i < series.size(); i++) {
+                final Garch11 expected = new Garch11(series.get(i));
+                final Garch11 s = sequential.get(i);
+                final Garch11 c = concurrent.get(i);
+                if (s.alpha() != expected.alpha() || s.beta() != expected.beta()
+                        || c.alpha() != expected.alpha() || c.beta() != expected.beta()) {
+                    fail("batch calibration differs from single calibration:"
+                            + "\n    series:            " + i
+                            + "\n    single alpha:      " + expected.alpha()
+                            + "\n    sequential alpha:  " + s.alpha()
+                            + "\n    concurrent alpha:  " + c.alpha()
+                            + "\n    single beta:       " + expected.beta()
+                            + "\n    sequential beta:   " + s.beta()
+                            + "\n    concurrent beta:   " + c.beta());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+
+    //
+    // private methods
+    //
+
+    private static double[] simulate(final double alpha, final double beta, final double v, final int size, final long seed) {
+        final Random random = new Random(seed);
+        final double omega = (1.0 - alpha - beta) * v;
+        final double[] returns = new double[size];
+        double sigma2 = v;
+        for (int i = 0; i < size; i++) {
+            returns[i] = Math.sqrt(sigma2) * random.nextGaussian();
+            sigma2 = omega + alpha * returns[i] * returns[i] + beta * sigma2;
+        }
+        return returns;
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.testsuite.operators;
+
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import org.jquantlib.QL;
+import org.jquantlib.math.matrixutilities.Array;
+import org.jquantlib.methods.finitedifferences.BoundaryCondition;
+import org.jquantlib.methods.finitedifferences.BoundaryConditionSet;
+import org.jquantlib.methods.finitedifferences.DPlusMinus;
+import org.jquantlib.methods.finitedifferences.DirichletBC;
+import org.jquantlib.methods.finitedifferences.StandardSystemFiniteDifferenceModel;
+import org.jquantlib.methods.finitedifferences.TridiagonalOperator;
+import org.jquantlib.util.Concurrency;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class ParallelEvolverTest {
+
+    public ParallelEvolverTest() {
+        QL.info("::::: "+this.getClass().getSimpleName()+" :::::");
+    }
+
+    @Test
+    public void testConcurrentLayersMatchSequential() {
+        QL.info("Testing concurrent evolution of a system of layers...");
+
+        final int layers = 8;
+        final int gridPoints = 101;
+
+        final List<Array> sequential = rollback(layers, gridPoints, null);
+        final List<Array> concurrent = rollback(layers, gridPoints, Concurrency.defaultExecutor());
+
+        for (int i = 0; i < layers; i++) {
+            for (int j = 0; j < gridPoints; j++) {
+                final double expected = sequential.get(i).get(j);
+                final double calculated = concurrent.get(i).get(j);
+                if (expected != calculated) {
+                    fail("layer " + i + ", node " + j + ":"
+                            + "\n    sequential: " + expected
+                            + "\n    concurrent: " + calculated);
+                }
+            }
+        }
+    }
+
+    private List<Array> rollback(final int layers, final int gridPoints, final ExecutorService executor) {
+        final double h = 1.0 / (gridPoints - 1);
+        final List<TridiagonalOperator> operators = new ArrayList<TridiagonalOperator>();
+        final BoundaryConditionSet<BoundaryCondition<TridiagonalOperator>> bcs =
+            new BoundaryConditionSet<BoundaryCondition<TridiagonalOperator>>();
+        final List<Array> values = new ArrayList<Array>();
+
+        for (int i = 0; i < layers; i++) {
+            // a heat equation per layer, with a different diffusion coefficient each
+            operators.add((TridiagonalOperator) new DPlusMinus(gridPoints, h).multiply(-0.1 * (i + 1)));
+            final List<BoundaryCondition<TridiagonalOperator>> bc = new ArrayList<BoundaryCondition<TridiagonalOperator>>();
+            bc.add(new DirichletBC(0.0, BoundaryCondition.Side.Lower));
+            bc.add(new DirichletBC(0.0, BoundaryCondition.Side.Upper));
+            bcs.push_back(bc);
+
+            final Array initial = new Array(gridPoints);
+            for (int j = 0; j < gridPoints; j++) {
+                initial.set(j, Math.sin(Math.PI * j * h));
+            }
+            values.add(initial);
+        }
+
+        final StandardSystemFiniteDifferenceModel model =
+            new StandardSystemFiniteDifferenceModel(operators, bcs, new ArrayList<Double>(), executor);
+        return model.rollback(values, 1.0, 0.0, 50, null);
+    }
+
+}
@@ -0,0 +1,211 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.testsuite.pricingengines;
+
+import static org.junit.Assert.fail;
+
+import org.jquantlib.QL;
+import org.jquantlib.Settings;
+import org.jquantlib.daycounters.Actual365Fixed;
+import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.exercise.EuropeanExercise;
+import org.jquantlib.exercise.Exercise;
+import org.jquantlib.instruments.EuropeanOption;
+import org.jquantlib.instruments.Option;
+import org.jquantlib.instruments.PlainVanillaPayoff;
+import org.jquantlib.instruments.StrikedTypePayoff;
+import org.jquantlib.math.matrixutilities.Array;
+import org.jquantlib.model.equity.HestonModel;
+import org.jquantlib.pricingengines.AnalyticEuropeanEngine;
+import org.jquantlib.pricingengines.vanilla.AnalyticHestonEngine;
+import org.jquantlib.pricingengines.vanilla.finitedifferences.FDHestonVanillaEngine;
+import org.jquantlib.processes.BlackScholesMertonProcess;
+import org.jquantlib.processes.HestonProcess;
+import org.jquantlib.quotes.Handle;
+import org.jquantlib.quotes.Quote;
+import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.termstructures.BlackVolTermStructure;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.testsuite.util.Utilities;
+import org.jquantlib.time.Date;
+import org.jquantlib.time.Period;
+import org.jquantlib.time.TimeUnit;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class AnalyticHestonEngineTest {
+
+    public AnalyticHestonEngineTest() {
+        QL.info("::::: "+this.getClass().getSimpleName()+" :::::");
+        System.setProperty("EXPERIMENTAL", "true");
+    }
+
+    @Test
+    public void testBlackScholesLimit() {
+        QL.info("Testing analytic Heston engine against Black-Scholes for vanishing vol-of-vol...");
+
+        final Date today = new Settings().evaluationDate();
+        final DayCounter dc = new Actual365Fixed();
+
+        final Handle<Quote> spot = new Handle<Quote>(new SimpleQuote(100.0));
+        final Handle<YieldTermStructure> rTS = new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.05, dc));
+        final Handle<YieldTermStructure> qTS = new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.02, dc));
+        final Handle<BlackVolTermStructure> volTS = new Handle<BlackVolTermStructure>(Utilities.flatVol(today, 0.20, dc));
+
+        final HestonProcess hestonProcess = new HestonProcess(rTS, qTS, spot, 0.04, 1.0, 0.04, 1.0e-4, 0.0);
+        final HestonModel model = new HestonModel(hestonProcess);
+        final BlackScholesMertonProcess bsProcess = new BlackScholesMertonProcess(spot, qTS, rTS, volTS);
+
+        final Option.Type types[] = { Option.Type.Call, Option.Type.Put };
+        final double strikes[] = { 60.0, 80.0, 100.0, 120.0, 150.0 };
+        final int years[] = { 1, 5 };
+        final double tolerance = 1.0e-6;
+
+        for (final Option.Type type : types) {
+            for (final double strike : strikes) {
+                for (final int length : years) {
+                    final StrikedTypePayoff payoff = new PlainVanillaPayoff(type, strike);
+                    final Exercise exercise = new EuropeanExercise(today.add(new Period(length, TimeUnit.Years)));
+
+                    final EuropeanOption option = new EuropeanOption(payoff, exercise);
+                    option.setPricingEngine(new AnalyticEuropeanEngine(bsProcess));
+                    final double expected = option.NPV();
+                    final double expectedDelta = option.delta();
+                    option.setPricingEngine(new AnalyticHestonEngine(model));
+                    final double calculated = option.NPV();
+                    final double calculatedDelta = option.delta();
+
+                    if (Math.abs(calculated - expected) > tolerance
+                            || Math.abs(calculatedDelta - expectedDelta) > tolerance) {
+                        fail(type + " option with strike " + strike + " and maturity " + length + "y:"
+                                + "\n    expected value:   " + expected
+                                + "\n    calculated value: " + calculated
+                                + "\n    expected delta:   " + expectedDelta
+                                + "\n    calculated delta: " + calculatedDelta
+                                + "\n    tolerance:        " + tolerance);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIntegrationSchemesAndFiniteDifferences() {
+        QL.info("Testing analytic Heston engine integration schemes against each other and finite differences...");
+
+        final Date today = new Settings().evaluationDate();
+        final DayCounter dc = new Actual365Fixed();
+        final Date maturity = today.add(new Period(1, TimeUnit.Years));
+
+        final Handle<Quote> spot = new Handle<Quote>(new SimpleQuote(100.0));
+        final Handle<YieldTermStructure> rTS = new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.05, dc));
+        final Handle<YieldTermStructure> qTS = new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.0, dc));
+
+        final HestonProcess process = new HestonProcess(rTS, qTS, spot, 0.04, 1.5, 0.04, 0.3, -0.7);
+        final HestonModel model = new HestonModel(process);
+        final double discount = rTS.currentLink().discount(maturity);
+
+        final double strikes[] = { 70.0, 85.0, 100.0, 115.0, 130.0 };
+        for (final double strike : strikes) {
+            final EuropeanOption call = new EuropeanOption(
+                    new PlainVanillaPayoff(Option.Type.Call, strike), new EuropeanExercise(maturity));
+            final EuropeanOption put = new EuropeanOption(
+                    new PlainVanillaPayoff(Option.Type.Put, strike), new EuropeanExercise(maturity));
+
+            call.setPricingEngine(new AnalyticHestonEngine(model));
+            put.setPricingEngine(new AnalyticHestonEngine(model));
+            final double laguerre = put.NPV();
+
+            // put-call parity
+            final double parity = call.NPV() - put.NPV() - (100.0 - strike * discount);
+            if (Math.abs(parity) > 1.0e-8) {
+                fail("put-call parity violated at strike " + strike + ": " + parity);
+            }
+
+            put.setPricingEngine(new AnalyticHestonEngine(model, 1.0e-10, 10000));
+            final double lobatto = put.NPV();
+            if (Math.abs(laguerre - lobatto) > 1.0e-6) {
+                fail("Gauss-Laguerre and Gauss-Lobatto integrations differ at strike " + strike + ":"
+                        + "\n    Gauss-Laguerre: " + laguerre
+                        + "\n    Gauss-Lobatto:  " + lobatto);
+            }
+
+            put.setPricingEngine(new FDHestonVanillaEngine(model, 100, 200, 100));
+            final double fd = put.NPV();
+            if (Math.abs(laguerre - fd) > 2.0e-2) {
+                fail("analytic and finite-differences prices differ at strike " + strike + ":"
+                        + "\n    analytic:           " + laguerre
+                        + "\n    finite differences: " + fd);
+            }
+        }
+    }
+
+    @Test
+    public void testCachedIntegration() {
+        QL.info("Testing analytic Heston engine cache of strike-independent values...");
+
+        final Date today = new Settings().evaluationDate();
+        final DayCounter dc = new Actual365Fixed();
+        final Date maturity = today.add(new Period(2, TimeUnit.Years));
+
+        final Handle<Quote> spot = new Handle<Quote>(new SimpleQuote(100.0));
+        final Handle<YieldTermStructure> rTS = new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.03, dc));
+        final Handle<YieldTermStructure> qTS = new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.01, dc));
+
+        final HestonModel model = new HestonModel(new HestonProcess(rTS, qTS, spot, 0.05, 2.0, 0.04, 0.5, -0.5));
+        final HestonModel reference = new HestonModel(new HestonProcess(rTS, qTS, spot, 0.03, 1.0, 0.06, 0.4, -0.3));
+
+        // one engine shared by a whole smile
+        final AnalyticHestonEngine engine = new AnalyticHestonEngine(model);
+        final EuropeanOption options[] = new EuropeanOption[9];
+        for (int i = 0; i < options.length; i++) {
+            options[i] = new EuropeanOption(
+                    new PlainVanillaPayoff(Option.Type.Call, 60.0 + 10.0 * i), new EuropeanExercise(maturity));
+            options[i].setPricingEngine(engine);
+            options[i].NPV();
+        }
+
+        // after a change of parameters, cached values must be discarded
+        final Array params = model.params();
+        final Array newParams = reference.params();
+        for (int i = 0; i < params.size(); i++) {
+            params.set(i, newParams.get(i));
+        }
+        model.setParams(params);
+
+        for (final EuropeanOption option : options) {
+            option.setPricingEngine(engine);
+            final double cached = option.NPV();
+            option.setPricingEngine(new AnalyticHestonEngine(reference));
+            final double expected = option.NPV();
+            if (Math.abs(cached - expected) > 1.0e-12) {
+                fail("stale cached values after a change of model parameters:"
+                        + "\n    expected:   " + expected
+                        + "\n    calculated: " + cached);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.testsuite.pricingengines;
+
+import static org.junit.Assert.fail;
+
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jquantlib.QL;
+import org.jquantlib.instruments.Option;
+import org.jquantlib.instruments.PlainVanillaPayoff;
+import org.jquantlib.lang.exceptions.LibraryException;
+import org.jquantlib.pricingengines.BatchBlackCalculator;
+import org.jquantlib.pricingengines.BatchBlackCalculator.Output;
+import org.jquantlib.pricingengines.BlackCalculator;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class BatchBlackCalculatorTest {
+
+    public BatchBlackCalculatorTest() {
+        QL.info("::::: "+this.getClass().getSimpleName()+" :::::");
+    }
+
+    @Test
+    public void testAgainstBlackCalculator() {
+        QL.info("Testing batch Black calculator against BlackCalculator...");
+
+        final int size = 20000;
+        final Random random = new Random(17);
+        final double[] spot = new double[size];
+        final double[] forward = new double[size];
+        final double[] strike = new double[size];
+        final double[] stdDev = new double[size];
+        final double[] discount = new double[size];
+        final double[] time = new double[size];
+        final boolean[] call = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            time[i] = 0.05 + 5.0 * random.nextDouble();
+            spot[i] = 50.0 + 100.0 * random.nextDouble();
+            discount[i] = Math.exp(-0.05 * random.nextDouble() * time[i]);
+            forward[i] = spot[i] * Math.exp(0.04 * time[i]) * discount[i];
+            strike[i] = spot[i] * (0.5 + random.nextDouble());
+            stdDev[i] = (0.05 + 0.5 * random.nextDouble()) * Math.sqrt(time[i]);
+            call[i] = random.nextBoolean();
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final BatchBlackCalculator.Results sequential = new BatchBlackCalculator(null).calculate(
+                    EnumSet.allOf(Output.class), forward, strike, stdDev, discount, call, spot, time);
+            final BatchBlackCalculator.Results concurrent = new BatchBlackCalculator(executor).calculate(
+                    EnumSet.allOf(Output.class), forward, strike, stdDev, discount, call, spot, time);
+
+            for (int i = 0; i < size; i++) {
+                final PlainVanillaPayoff payoff = new PlainVanillaPayoff(call[i] ? Option.Type.Call : Option.Type.Put, strike[i]);
+                final BlackCalculator black = new BlackCalculator(payoff, forward[i], stdDev[i], discount[i]);
+                check(sequential, Output.Value, i, black.value());
+                check(sequential, Output.Delta, i, black.delta(spot[i]));
+                check(sequential, Output.DeltaForward, i, black.deltaForward());
+                check(sequential, Output.Gamma, i, black.gamma(spot[i]));
+                check(sequential, Output.GammaForward, i, black.gammaForward());
+                check(sequential, Output.Vega, i, black.vega(time[i]));
+                check(sequential, Output.Rho, i, black.rho(time[i]));
+                check(sequential, Output.DividendRho, i, black.dividendRho(time[i]));
+                check(sequential, Output.Theta, i, black.theta(spot[i], time[i]));
+                check(sequential, Output.ItmCashProbability, i, black.itmCashProbability());
+                check(sequential, Output.StrikeSensitivity, i, black.strikeSensitivity());
+                for (final Output output : Output.values()) {
+                    check(concurrent, output, i, sequential.get(output)[i]);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSelectedOutputs() {
+        QL.info("Testing batch Black calculator with selected outputs...");
+
+        final double[] forward = { 100.0, 100.0, 100.0 };
+        final double[] strike = { 90.0, 100.0, 110.0 };
+        final double[] stdDev = { 0.2, 0.0, 0.3 };
+        final double[] discount = { 0.95, 0.95, 0.95 };
+        final boolean[] call = { true, false, true };
+
+        // neither spots nor times are required for these outputs
+        final BatchBlackCalculator calculator = new BatchBlackCalculator(null);
+        final BatchBlackCalculator.Results results = calculator.calculate(
+                EnumSet.of(Output.Value, Output.DeltaForward), forward, strike, stdDev, discount, call, null, null);
+        for (final Output output : Output.values()) {
+            final boolean requested = output == Output.Value || output == Output.DeltaForward;
+            if (results.contains(output) != requested || (results.get(output) != null) != requested)
+                fail(output + (requested ? " not calculated" : " calculated but not requested"));
+        }
+        for (int i = 0; i < forward.length; i++) {
+            final PlainVanillaPayoff payoff = new PlainVanillaPayoff(call[i] ? Option.Type.Call : Option.Type.Put, strike[i]);
+            check(results, Output.Value, i, new BlackCalculator(payoff, forward[i], stdDev[i], discount[i]).value());
+        }
+
+        // results are overwritten when reused
+        forward[0] = 120.0;
+        calculator.calculate(forward, strike, stdDev, discount, call, null, null, results);
+        final PlainVanillaPayoff payoff = new PlainVanillaPayoff(Option.Type.Call, strike[0]);
+        check(results, Output.Value, 0, new BlackCalculator(payoff, forward[0], stdDev[0], discount[0]).value());
+
+        // theta is not available at maturity
+        final BatchBlackCalculator.Results theta = calculator.calculate(EnumSet.of(Output.Theta),
+                forward, strike, stdDev, discount, call, new double[] { 100.0, 100.0, 100.0 }, new double[] { 1.0, 0.0, 1.0 });
+        if (!Double.isNaN(theta.get(Output.Theta)[1]) || Double.isNaN(theta.get(Output.Theta)[0]))
+            fail("theta at maturity should be NaN, other thetas should be available");
+
+        // spots are required for spot greeks
+        try {
+            calculator.calculate(EnumSet.of(Output.Delta), forward, strike, stdDev, discount, call, null, null);
+            fail("spots should be required by delta");
+        } catch (final LibraryException e) {
+            // expected
+        }
+    }
+
+
+    private static void check(final BatchBlackCalculator.Results results, final Output output, final int i, final double expected) {
+        final double calculated = results.get(output)[i];
+        if (Double.isNaN(expected) ? !Double.isNaN(calculated)
+                : Math.abs(calculated - expected) > 1.0e-13 * Math.max(1.0, Math.abs(expected))) {
+            fail(output + " of option " + i + " mismatch:"
+                    + "\n    calculated: " + calculated
+                    + "\n    expected:   " + expected);
+        }
+    }
+
+}
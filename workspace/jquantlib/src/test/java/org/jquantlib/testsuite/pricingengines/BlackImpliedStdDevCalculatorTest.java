@@ -0,0 +1,187 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+package org.jquantlib.testsuite.pricingengines;
+
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jquantlib.QL;
+import org.jquantlib.Settings;
+import org.jquantlib.daycounters.Actual365Fixed;
+import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.exercise.EuropeanExercise;
+import org.jquantlib.instruments.EuropeanOption;
+import org.jquantlib.instruments.Option;
+import org.jquantlib.instruments.PlainVanillaPayoff;
+import org.jquantlib.pricingengines.AnalyticEuropeanEngine;
+import org.jquantlib.pricingengines.BlackCalculator;
+import org.jquantlib.pricingengines.BlackImpliedStdDevCalculator;
+import org.jquantlib.processes.BlackScholesMertonProcess;
+import org.jquantlib.quotes.Handle;
+import org.jquantlib.quotes.Quote;
+import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.termstructures.BlackVolTermStructure;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.testsuite.util.Utilities;
+import org.jquantlib.time.Date;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class BlackImpliedStdDevCalculatorTest {
+
+    public BlackImpliedStdDevCalculatorTest() {
+        QL.info("::::: "+this.getClass().getSimpleName()+" :::::");
+    }
+
+    @Test
+    public void testRoundTrip() {
+        QL.info("Testing implied standard deviations of prices given by BlackCalculator...");
+
+        final int size = 20000;
+        final Random random = new Random(23);
+        final double[] forward = new double[size];
+        final double[] strike = new double[size];
+        final double[] stdDev = new double[size];
+        final double[] discount = new double[size];
+        final double[] price = new double[size];
+        final boolean[] call = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            final double time = 0.01 + 10.0 * random.nextDouble();
+            forward[i] = 50.0 + 100.0 * random.nextDouble();
+            strike[i] = forward[i] * Math.exp(random.nextGaussian() * 0.5);
+            stdDev[i] = (0.02 + random.nextDouble()) * Math.sqrt(time);
+            discount[i] = Math.exp(-0.05 * time);
+            call[i] = random.nextBoolean();
+            final PlainVanillaPayoff payoff = new PlainVanillaPayoff(call[i] ? Option.Type.Call : Option.Type.Put, strike[i]);
+            // BlackCalculator can return slightly negative values for worthless options
+            price[i] = Math.max(new BlackCalculator(payoff, forward[i], stdDev[i], discount[i]).value(), 0.0);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final double[] sequential = new BlackImpliedStdDevCalculator(null).calculate(forward, strike, price, discount, call);
+            final double[] concurrent = new BlackImpliedStdDevCalculator(executor).calculate(forward, strike, price, discount, call);
+            for (int i = 0; i < size; i++) {
+                final double single = BlackImpliedStdDevCalculator.impliedStdDev(
+                        call[i] ? Option.Type.Call : Option.Type.Put, strike[i], forward[i], price[i], discount[i]);
+                if (Double.compare(single, sequential[i]) != 0 || Double.compare(concurrent[i], sequential[i]) != 0) {
+                    fail("implied standard deviation of option " + i + " mismatch:"
+                            + "\n    sequential: " + sequential[i]
+                            + "\n    concurrent: " + concurrent[i]
+                            + "\n    single:     " + single);
+                }
+
+                // BlackCalculator prices are accurate to a few ulps of the forward, which tiny time values do not resolve
+                final double undiscounted = price[i] / discount[i];
+                final double intrinsic = Math.max((call[i] ? 1.0 : -1.0) * (forward[i] - strike[i]), 0.0);
+                if (undiscounted - intrinsic < 1.0e-6 * forward[i]) continue;
+                final double tolerance = 1.0e-12 * Math.max(1.0, forward[i] / (stdDev[i] * vega(forward[i], strike[i], stdDev[i])));
+                if (Math.abs(sequential[i] - stdDev[i]) > tolerance * stdDev[i]) {
+                    fail("implied standard deviation of option " + i + " mismatch:"
+                            + "\n    forward:    " + forward[i]
+                            + "\n    strike:     " + strike[i]
+                            + "\n    price:      " + price[i]
+                            + "\n    calculated: " + sequential[i]
+                            + "\n    expected:   " + stdDev[i]);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnattainablePrices() {
+        QL.info("Testing implied standard deviations of unattainable prices...");
+
+        final double[] forward = { 100.0, 100.0, 100.0, 100.0, 100.0, 100.0 };
+        final double[] strike = { 90.0, 110.0, 110.0, 90.0, 110.0, 90.0 };
+        final double[] price = { 9.0, 100.0, 10.0, 0.0, 0.0, 0.0 };
+        final double[] discount = { 1.0, 1.0, 1.0, 1.0, 1.0, 1.0 };
+        final boolean[] call = { true, true, false, true, true, false };
+        final double[] expected = { Double.NaN, Double.NaN, 0.0, Double.NaN, 0.0, 0.0 };
+
+        final double[] stdDev = new BlackImpliedStdDevCalculator(null).calculate(forward, strike, price, discount, call);
+        for (int i = 0; i < expected.length; i++) {
+            if (Double.isNaN(expected[i]) ? !Double.isNaN(stdDev[i]) : stdDev[i] != expected[i]) {
+                fail("implied standard deviation of option " + i + " mismatch:"
+                        + "\n    calculated: " + stdDev[i]
+                        + "\n    expected:   " + expected[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testVanillaOption() {
+        QL.info("Testing implied volatility of European options...");
+
+        final Date today = new Settings().evaluationDate();
+        final DayCounter dc = new Actual365Fixed();
+        final SimpleQuote vol = new SimpleQuote(0.0);
+        final BlackScholesMertonProcess process = new BlackScholesMertonProcess(
+                new Handle<Quote>(new SimpleQuote(100.0)),
+                new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.02, dc)),
+                new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.05, dc)),
+                new Handle<BlackVolTermStructure>(Utilities.flatVol(today, vol, dc)));
+
+        final double strikes[] = { 60.0, 95.0, 100.0, 110.0, 180.0 };
+        final int lengths[] = { 7, 90, 720, 3650 };
+        final double vols[] = { 0.05, 0.20, 0.80 };
+        for (final Option.Type type : new Option.Type[] { Option.Type.Call, Option.Type.Put }) {
+            for (final double strike : strikes) {
+                for (final int length : lengths) {
+                    final EuropeanOption option = new EuropeanOption(
+                            new PlainVanillaPayoff(type, strike), new EuropeanExercise(today.add(length)));
+                    option.setPricingEngine(new AnalyticEuropeanEngine(process));
+                    for (final double v : vols) {
+                        vol.setValue(v);
+                        final double value = option.NPV();
+                        // flat price vs vol
+                        if (option.vega() < 1.0e-2) continue;
+                        final double implied = option.impliedVolatility(value, process, 1.0e-6, 100);
+                        if (Math.abs(implied - v) > 1.0e-10) {
+                            fail(type + " option with strike " + strike + " and maturity " + length + " days:"
+                                    + "\n    price:              " + value
+                                    + "\n    implied volatility: " + implied
+                                    + "\n    expected:           " + v);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Derivative of the undiscounted Black price with respect to the standard deviation
+     */
+    private static double vega(final double forward, final double strike, final double stdDev) {
+        final double d1 = Math.log(forward / strike) / stdDev + 0.5 * stdDev;
+        return forward * Math.exp(-0.5 * d1 * d1) / Math.sqrt(2.0 * Math.PI);
+    }
+
+}
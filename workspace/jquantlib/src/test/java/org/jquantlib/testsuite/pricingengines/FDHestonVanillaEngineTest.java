@@ -0,0 +1,156 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.testsuite.pricingengines;
+
+import static org.junit.Assert.fail;
+
+import org.jquantlib.QL;
+import org.jquantlib.Settings;
+import org.jquantlib.daycounters.Actual365Fixed;
+import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.exercise.AmericanExercise;
+import org.jquantlib.exercise.EuropeanExercise;
+import org.jquantlib.exercise.Exercise;
+import org.jquantlib.instruments.EuropeanOption;
+import org.jquantlib.instruments.Option;
+import org.jquantlib.instruments.PlainVanillaPayoff;
+import org.jquantlib.instruments.StrikedTypePayoff;
+import org.jquantlib.instruments.VanillaOption;
+import org.jquantlib.methods.finitedifferences.AdiScheme;
+import org.jquantlib.model.equity.HestonModel;
+import org.jquantlib.pricingengines.AnalyticEuropeanEngine;
+import org.jquantlib.pricingengines.vanilla.finitedifferences.FDHestonVanillaEngine;
+import org.jquantlib.processes.BlackScholesMertonProcess;
+import org.jquantlib.processes.HestonProcess;
+import org.jquantlib.quotes.Handle;
+import org.jquantlib.quotes.Quote;
+import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.termstructures.BlackVolTermStructure;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.testsuite.util.Utilities;
+import org.jquantlib.time.Date;
+import org.jquantlib.time.Period;
+import org.jquantlib.time.TimeUnit;
+import org.jquantlib.util.Concurrency;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class FDHestonVanillaEngineTest {
+
+    public FDHestonVanillaEngineTest() {
+        QL.info("::::: "+this.getClass().getSimpleName()+" :::::");
+        System.setProperty("EXPERIMENTAL", "true");
+    }
+
+    @Test
+    public void testBlackScholesLimit() {
+        QL.info("Testing FD Heston engine against Black-Scholes for vanishing vol-of-vol...");
+
+        final Date today = new Settings().evaluationDate();
+        final DayCounter dc = new Actual365Fixed();
+        final Date maturity = today.add(new Period(1, TimeUnit.Years));
+
+        final Handle<Quote> spot = new Handle<Quote>(new SimpleQuote(100.0));
+        final Handle<YieldTermStructure> rTS = new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.05, dc));
+        final Handle<YieldTermStructure> qTS = new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.02, dc));
+        final Handle<BlackVolTermStructure> volTS = new Handle<BlackVolTermStructure>(Utilities.flatVol(today, 0.20, dc));
+
+        final HestonProcess hestonProcess = new HestonProcess(rTS, qTS, spot, 0.04, 1.0, 0.04, 1.0e-4, 0.0);
+        final HestonModel model = new HestonModel(hestonProcess);
+        final BlackScholesMertonProcess bsProcess = new BlackScholesMertonProcess(spot, qTS, rTS, volTS);
+
+        final Option.Type types[] = { Option.Type.Call, Option.Type.Put };
+        final double strikes[] = { 80.0, 100.0, 120.0 };
+        final double tolerance = 2.0e-2;
+
+        for (final Option.Type type : types) {
+            for (final double strike : strikes) {
+                final StrikedTypePayoff payoff = new PlainVanillaPayoff(type, strike);
+                final Exercise exercise = new EuropeanExercise(maturity);
+
+                final EuropeanOption option = new EuropeanOption(payoff, exercise);
+                option.setPricingEngine(new AnalyticEuropeanEngine(bsProcess));
+                final double expected = option.NPV();
+                option.setPricingEngine(new FDHestonVanillaEngine(model, 100, 200, 50));
+                final double calculated = option.NPV();
+
+                if (Math.abs(calculated - expected) > tolerance) {
+                    fail(type + " option with strike " + strike + ":"
+                            + "\n    expected:   " + expected
+                            + "\n    calculated: " + calculated
+                            + "\n    tolerance:  " + tolerance);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAmericanAndConcurrentPricing() {
+        QL.info("Testing FD Heston engine for American options and concurrent line solving...");
+
+        final Date today = new Settings().evaluationDate();
+        final DayCounter dc = new Actual365Fixed();
+        final Date maturity = today.add(new Period(1, TimeUnit.Years));
+
+        final Handle<Quote> spot = new Handle<Quote>(new SimpleQuote(100.0));
+        final Handle<YieldTermStructure> rTS = new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.05, dc));
+        final Handle<YieldTermStructure> qTS = new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.0, dc));
+
+        final HestonProcess process = new HestonProcess(rTS, qTS, spot, 0.04, 1.5, 0.04, 0.3, -0.7);
+        final HestonModel model = new HestonModel(process);
+
+        final StrikedTypePayoff payoff = new PlainVanillaPayoff(Option.Type.Put, 100.0);
+
+        final VanillaOption european = new VanillaOption(payoff, new EuropeanExercise(maturity));
+        european.setPricingEngine(new FDHestonVanillaEngine(
+                model, 50, 100, 40, 0, AdiScheme.Type.HundsdorferVerwer, null));
+        final double sequential = european.NPV();
+        european.setPricingEngine(new FDHestonVanillaEngine(
+                model, 50, 100, 40, 0, AdiScheme.Type.HundsdorferVerwer, Concurrency.defaultExecutor()));
+        final double concurrent = european.NPV();
+        if (sequential != concurrent) {
+            fail("concurrent and sequential line solving differ:"
+                    + "\n    sequential: " + sequential
+                    + "\n    concurrent: " + concurrent);
+        }
+
+        final VanillaOption american = new VanillaOption(payoff, new AmericanExercise(today, maturity));
+        american.setPricingEngine(new FDHestonVanillaEngine(model, 50, 100, 40));
+        final double americanValue = american.NPV();
+        final double intrinsic = payoff.get(100.0);
+        if (americanValue < concurrent - 1.0e-8 || americanValue < intrinsic) {
+            fail("American put value below European or intrinsic value:"
+                    + "\n    American: " + americanValue
+                    + "\n    European: " + concurrent
+                    + "\n    intrinsic: " + intrinsic);
+        }
+        if (american.delta() >= 0.0 || american.gamma() <= 0.0) {
+            fail("unexpected American put greeks:"
+                    + "\n    delta: " + american.delta()
+                    + "\n    gamma: " + american.gamma());
+        }
+    }
+
+}
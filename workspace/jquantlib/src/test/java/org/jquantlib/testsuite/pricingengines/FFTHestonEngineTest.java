@@ -0,0 +1,232 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.testsuite.pricingengines;
+
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jquantlib.QL;
+import org.jquantlib.Settings;
+import org.jquantlib.daycounters.Actual365Fixed;
+import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.exercise.EuropeanExercise;
+import org.jquantlib.instruments.EuropeanOption;
+import org.jquantlib.instruments.Option;
+import org.jquantlib.instruments.PlainVanillaPayoff;
+import org.jquantlib.model.CalibrationHelper;
+import org.jquantlib.model.equity.BatesDoubleExpModel;
+import org.jquantlib.model.equity.BatesModel;
+import org.jquantlib.model.equity.HestonModel;
+import org.jquantlib.model.equity.HestonModelHelper;
+import org.jquantlib.pricingengines.vanilla.AnalyticHestonEngine;
+import org.jquantlib.pricingengines.vanilla.BatesDoubleExpEngine;
+import org.jquantlib.pricingengines.vanilla.BatesEngine;
+import org.jquantlib.pricingengines.vanilla.FFTHestonEngine;
+import org.jquantlib.pricingengines.vanilla.JumpDiffusionEngine;
+import org.jquantlib.processes.HestonProcess;
+import org.jquantlib.processes.Merton76Process;
+import org.jquantlib.quotes.Handle;
+import org.jquantlib.quotes.Quote;
+import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.termstructures.BlackVolTermStructure;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.testsuite.util.Utilities;
+import org.jquantlib.time.Date;
+import org.jquantlib.time.Period;
+import org.jquantlib.time.TimeUnit;
+import org.jquantlib.time.calendars.NullCalendar;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class FFTHestonEngineTest {
+
+    private final Date today;
+    private final DayCounter dc;
+    private final Handle<Quote> spot;
+    private final Handle<YieldTermStructure> rTS, qTS;
+
+    public FFTHestonEngineTest() {
+        QL.info("::::: "+this.getClass().getSimpleName()+" :::::");
+        System.setProperty("EXPERIMENTAL", "true");
+        this.today = new Settings().evaluationDate();
+        this.dc = new Actual365Fixed();
+        this.spot = new Handle<Quote>(new SimpleQuote(100.0));
+        this.rTS = new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.04, dc));
+        this.qTS = new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.01, dc));
+    }
+
+    @Test
+    public void testHeston() {
+        QL.info("Testing FFT engine against analytic Heston engine...");
+        final HestonModel model = new HestonModel(new HestonProcess(rTS, qTS, spot, 0.04, 1.5, 0.05, 0.4, -0.6));
+        compare(new AnalyticHestonEngine(model));
+    }
+
+    @Test
+    public void testBates() {
+        QL.info("Testing FFT engine against analytic Bates engine...");
+        final BatesModel model = new BatesModel(
+                new HestonProcess(rTS, qTS, spot, 0.04, 1.5, 0.05, 0.4, -0.6), 0.3, -0.1, 0.15);
+        compare(new BatesEngine(model));
+    }
+
+    @Test
+    public void testBatesDoubleExp() {
+        QL.info("Testing FFT engine against analytic Bates double exponential engine...");
+        final BatesDoubleExpModel model = new BatesDoubleExpModel(
+                new HestonProcess(rTS, qTS, spot, 0.04, 1.5, 0.05, 0.4, -0.6), 0.5, 0.05, 0.1, 0.3);
+        compare(new BatesDoubleExpEngine(model));
+    }
+
+    @Test
+    public void testBatesDoubleExpConstantIntensity() {
+        QL.info("Testing Bates double exponential engine with deterministic jump intensity without mean reversion...");
+
+        final HestonProcess process = new HestonProcess(rTS, qTS, spot, 0.04, 1.5, 0.05, 0.4, -0.6);
+        final BatesDoubleExpModel constant = new BatesDoubleExpModel(process, 0.5, 0.05, 0.1, 0.3);
+        final BatesDoubleExpModel deterministic =
+            new BatesDoubleExpModel.BatesDoubleExpDetJumpModel(process, 0.5, 0.05, 0.1, 0.3, 1.0e-20, 0.2);
+
+        final Date maturity = today.add(new Period(2, TimeUnit.Years));
+        final double strikes[] = { 70.0, 100.0, 130.0 };
+        for (final double strike : strikes) {
+            final EuropeanOption option = new EuropeanOption(
+                    new PlainVanillaPayoff(Option.Type.Call, strike), new EuropeanExercise(maturity));
+            option.setPricingEngine(new BatesDoubleExpEngine(constant));
+            final double expected = option.NPV();
+            option.setPricingEngine(new BatesDoubleExpEngine(deterministic));
+            final double calculated = option.NPV();
+            if (Double.isNaN(calculated) || Math.abs(calculated - expected) > 1.0e-8) {
+                fail("call with strike " + strike + ":"
+                        + "\n    constant intensity:      " + expected
+                        + "\n    deterministic intensity: " + calculated);
+            }
+        }
+    }
+
+    @Test
+    public void testBatesAgainstMerton() {
+        QL.info("Testing Bates engine against Merton jump-diffusion for vanishing vol-of-vol...");
+
+        final double lambda = 0.4, nu = -0.05, delta = 0.2;
+        final BatesModel model = new BatesModel(
+                new HestonProcess(rTS, qTS, spot, 0.04, 1.0, 0.04, 1.0e-4, 0.0), lambda, nu, delta);
+        final Merton76Process process = new Merton76Process(
+                spot, qTS, rTS,
+                new Handle<BlackVolTermStructure>(Utilities.flatVol(today, 0.20, dc)),
+                new Handle<Quote>(new SimpleQuote(lambda)),
+                new Handle<Quote>(new SimpleQuote(nu)),
+                new Handle<Quote>(new SimpleQuote(delta)));
+
+        final Date maturity = today.add(new Period(2, TimeUnit.Years));
+        final double strikes[] = { 70.0, 100.0, 130.0 };
+        for (final double strike : strikes) {
+            final EuropeanOption option = new EuropeanOption(
+                    new PlainVanillaPayoff(Option.Type.Put, strike), new EuropeanExercise(maturity));
+            option.setPricingEngine(new JumpDiffusionEngine(process, 1.0e-10));
+            final double expected = option.NPV();
+            option.setPricingEngine(new BatesEngine(model));
+            final double calculated = option.NPV();
+            if (Math.abs(calculated - expected) > 1.0e-5) {
+                fail("put with strike " + strike + ":"
+                        + "\n    Merton:  " + expected
+                        + "\n    Bates:   " + calculated);
+            }
+        }
+    }
+
+    @Test
+    public void testCalibrationHelpers() {
+        QL.info("Testing FFT engine as calibration helper backend...");
+
+        final HestonModel model = new HestonModel(new HestonProcess(rTS, qTS, spot, 0.04, 1.5, 0.05, 0.4, -0.6));
+        final FFTHestonEngine fft = new FFTHestonEngine(new AnalyticHestonEngine(model));
+        final AnalyticHestonEngine analytic = new AnalyticHestonEngine(model);
+
+        final int months[] = { 3, 6, 12, 24 };
+        final double strikes[] = { 80.0, 90.0, 100.0, 110.0, 120.0 };
+        final List<CalibrationHelper> helpers = new ArrayList<CalibrationHelper>();
+        for (final int length : months) {
+            for (final double strike : strikes) {
+                final HestonModelHelper helper = new HestonModelHelper(
+                        new Period(length, TimeUnit.Months), new NullCalendar(), 100.0, strike,
+                        new Handle<Quote>(new SimpleQuote(0.2)), rTS, qTS);
+                helper.setPricingEngine(analytic);
+                final double expected = helper.modelValue();
+                helper.setPricingEngine(fft);
+                final double calculated = helper.modelValue();
+                if (Math.abs(calculated - expected) > 1.0e-5) {
+                    fail("helper with maturity " + length + "M and strike " + strike + ":"
+                            + "\n    analytic: " + expected
+                            + "\n    FFT:      " + calculated);
+                }
+                helpers.add(helper);
+            }
+        }
+
+        // objective function evaluated on the FFT backend
+        final double error = model.value(model.params(), helpers);
+        if (Double.isNaN(error) || error <= 0.0) {
+            fail("unexpected calibration error: " + error);
+        }
+    }
+
+
+    //
+    // private methods
+    //
+
+    private void compare(final AnalyticHestonEngine analytic) {
+        final FFTHestonEngine fft = new FFTHestonEngine(analytic);
+        final Option.Type types[] = { Option.Type.Call, Option.Type.Put };
+        final double strikes[] = { 60.0, 80.0, 95.0, 100.0, 105.0, 120.0, 150.0 };
+        final int months[] = { 3, 12, 60 };
+        final double tolerance = 1.0e-5;
+
+        for (final int length : months) {
+            final Date maturity = today.add(new Period(length, TimeUnit.Months));
+            for (final Option.Type type : types) {
+                final double[] batch = fft.values(type, maturity, strikes);
+                for (int i = 0; i < strikes.length; i++) {
+                    final EuropeanOption option = new EuropeanOption(
+                            new PlainVanillaPayoff(type, strikes[i]), new EuropeanExercise(maturity));
+                    option.setPricingEngine(analytic);
+                    final double expected = option.NPV();
+                    option.setPricingEngine(fft);
+                    final double calculated = option.NPV();
+                    if (Math.abs(calculated - expected) > tolerance || calculated != batch[i]) {
+                        fail(type + " option with strike " + strikes[i] + " and maturity " + length + "M:"
+                                + "\n    analytic: " + expected
+                                + "\n    FFT:      " + calculated
+                                + "\n    batch:    " + batch[i]);
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -483,6 +483,44 @@ public class JumpDiffusionEngineTest {
     }
 
 
+    @Test
+    public void testValuesAcrossStrikes() {
+        QL.info("Testing jump-diffusion values across strikes...");
+
+        final DayCounter dc = new Actual360();
+        final Date today = new Settings().evaluationDate();
+
+        final Merton76Process stochProcess = new Merton76Process(
+                new Handle<Quote>(new SimpleQuote(100.0)),
+                new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.02, dc)),
+                new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.05, dc)),
+                new Handle<BlackVolTermStructure>(Utilities.flatVol(today, 0.20, dc)),
+                new Handle<Quote>(new SimpleQuote(2.0)),
+                new Handle<Quote>(new SimpleQuote(-0.10)),
+                new Handle<Quote>(new SimpleQuote(0.25)));
+        final JumpDiffusionEngine engine = new JumpDiffusionEngine(stochProcess, 1e-10);
+
+        final Option.Type types[] = { Option.Type.Put, Option.Type.Call };
+        final double strikes[] = { 50.0, 80.0, 95.0, 100.0, 105.0, 120.0, 150.0 };
+        final Date exDate = today.add(360);
+        final Exercise exercise = new EuropeanExercise(exDate);
+
+        for (final Option.Type type : types) {
+            final double[] calculated = engine.values(type, exDate, strikes);
+            for (int j = 0; j < strikes.length; j++) {
+                final EuropeanOption option = new EuropeanOption(new PlainVanillaPayoff(type, strikes[j]), exercise);
+                option.setPricingEngine(engine);
+                final double expected = option.NPV();
+                if (Math.abs(calculated[j] - expected) > 1.0e-10) {
+                    Assert.fail(type + " option with strike " + strikes[j] + " value mismatch:"
+                            + "\n    calculated: " + calculated[j]
+                            + "\n    expected:   " + expected);
+                }
+            }
+        }
+    }
+
+
     //
     // private inner classes
     //
@@ -0,0 +1,131 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.testsuite.processes;
+
+import static org.junit.Assert.fail;
+
+import org.jquantlib.QL;
+import org.jquantlib.Settings;
+import org.jquantlib.daycounters.Actual365Fixed;
+import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.math.matrixutilities.Array;
+import org.jquantlib.processes.BlackScholesMertonProcess;
+import org.jquantlib.processes.HestonProcess;
+import org.jquantlib.processes.StochasticProcess;
+import org.jquantlib.quotes.Handle;
+import org.jquantlib.quotes.Quote;
+import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.termstructures.BlackVolTermStructure;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.testsuite.util.Utilities;
+import org.jquantlib.time.Date;
+import org.jquantlib.time.TimeGrid;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class StochasticProcessTest {
+
+    private final Date today;
+    private final DayCounter dc;
+    private final Handle<YieldTermStructure> rTS, qTS;
+    private final TimeGrid grid;
+
+    public StochasticProcessTest() {
+        QL.info("::::: "+this.getClass().getSimpleName()+" :::::");
+        System.setProperty("EXPERIMENTAL", "true");
+        this.today = new Settings().evaluationDate();
+        this.dc = new Actual365Fixed();
+        this.rTS = new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.05, dc));
+        this.qTS = new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.02, dc));
+        this.grid = new TimeGrid(2.0, 24);
+    }
+
+    @Test
+    public void testBlackScholesEvolveInto() {
+        QL.info("Testing allocation-free evolution of Black-Scholes process...");
+        final BlackScholesMertonProcess process = blackScholesProcess(100.0, 0.25);
+        check("Black-Scholes", process, process.timeGridEvolver(grid));
+    }
+
+    @Test
+    public void testHestonEvolveInto() {
+        QL.info("Testing allocation-free evolution of Heston process...");
+        final HestonProcess process = new HestonProcess(
+                rTS, qTS, new Handle<Quote>(new SimpleQuote(100.0)), 0.04, 1.5, 0.05, 0.4, -0.6);
+        check("Heston", process, process.timeGridEvolver(grid));
+    }
+
+
+    //
+    // private methods
+    //
+
+    /**
+     * Evolves the process along the time grid through {@link StochasticProcess#evolve(double, Array, double, Array)}
+     * and compares every step against the allocation-free methods, also evolving in place
+     */
+    private void check(final String name, final StochasticProcess process, final StochasticProcess.TimeGridEvolver evolver) {
+        final int size = process.size();
+        Array x = process.initialValues();
+        final double[] out = new double[size];
+        final double[] inPlace = new double[size];
+        for (int j = 0; j < size; j++) {
+            inPlace[j] = x.get(j);
+        }
+        final double[] stepped = inPlace.clone();
+        final double[] dw = new double[process.factors()];
+        for (int i = 0; i < grid.size() - 1; i++) {
+            for (int j = 0; j < dw.length; j++) {
+                dw[j] = Math.sin(1.0 + 3.0 * i + 7.0 * j);
+            }
+            final double[] x0 = new double[size];
+            for (int j = 0; j < size; j++) {
+                x0[j] = x.get(j);
+            }
+            final Array expected = process.evolve(grid.get(i), x, grid.dt(i), new Array(dw));
+            process.evolveInto(grid.get(i), x0, grid.dt(i), dw, out);
+            process.evolveInto(grid.get(i), inPlace, grid.dt(i), dw, inPlace);
+            evolver.evolveInto(i, stepped, dw, stepped);
+            for (int j = 0; j < size; j++) {
+                final double[] calculated = { out[j], inPlace[j], stepped[j] };
+                final String[] what = { "evolveInto", "in place evolveInto", "time grid evolveInto" };
+                for (int k = 0; k < calculated.length; k++) {
+                    if (calculated[k] != expected.get(j)) {
+                        fail(name + " " + what[k] + " at step " + i + ", component " + j + " mismatch:"
+                                + "\n    calculated: " + calculated[k]
+                                + "\n    expected:   " + expected.get(j));
+                    }
+                }
+            }
+            x = expected;
+        }
+    }
+
+    private BlackScholesMertonProcess blackScholesProcess(final double spot, final double vol) {
+        return new BlackScholesMertonProcess(new Handle<Quote>(new SimpleQuote(spot)), qTS, rTS,
+                new Handle<BlackVolTermStructure>(Utilities.flatVol(today, vol, dc)));
+    }
+
+}
@@ -0,0 +1,185 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.testsuite.termstructures.volatilities;
+
+import static org.junit.Assert.fail;
+
+import org.jquantlib.QL;
+import org.jquantlib.Settings;
+import org.jquantlib.daycounters.Actual365Fixed;
+import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.math.matrixutilities.Array;
+import org.jquantlib.quotes.Handle;
+import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.termstructures.BlackVarianceTermStructure;
+import org.jquantlib.termstructures.BlackVolTermStructure;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.termstructures.volatilities.LocalVolSurface;
+import org.jquantlib.testsuite.util.Utilities;
+import org.jquantlib.time.Date;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class LocalVolSurfaceTest {
+
+    private final DayCounter dc = new Actual365Fixed();
+    private final Date today = new Settings().evaluationDate();
+
+    public LocalVolSurfaceTest() {
+        QL.info("::::: "+this.getClass().getSimpleName()+" :::::");
+    }
+
+    @Test
+    public void testGridAgainstDupire() {
+        QL.info("Testing local volatilities interpolated on a grid against Dupire's formula...");
+
+        final SimpleQuote spot = new SimpleQuote(100.0);
+        final LocalVolSurface direct = localVolSurface(spot);
+        final LocalVolSurface bilinear = localVolSurface(spot);
+        bilinear.enableGrid(grid(0.1, 2.0, 96), grid(-0.5, 0.5, 101));
+        final LocalVolSurface lagrange = localVolSurface(spot);
+        lagrange.enableGrid(grid(0.1, 2.0, 20), grid(-0.5, 0.5, 21), LocalVolSurface.GridInterpolation.Lagrange);
+        // times which are not equally spaced
+        final Array times = new Array(40);
+        for (int i = 0; i < times.size(); i++) {
+            times.set(i, 0.1 + 1.9 * Math.pow(i / 39.0, 1.5));
+        }
+        final LocalVolSurface uneven = localVolSurface(spot);
+        uneven.enableGrid(times, grid(-0.5, 0.5, 41), LocalVolSurface.GridInterpolation.Lagrange);
+
+        for (double t = 0.13; t < 2.0; t += 0.17) {
+            for (double k = 65.0; k < 150.0; k += 3.7) {
+                // Dupire's formula bumps log-moneyness proportionally, which is too noisy close to the forward
+                if (Math.abs(Math.log(k / 100.0) + 0.01 * t) < 0.05) {
+                    continue;
+                }
+                final double expected = direct.localVol(t, k);
+                check("bilinear local vol", t, k, bilinear.localVol(t, k), expected, 2.0e-3);
+                check("Lagrange local vol", t, k, lagrange.localVol(t, k), expected, 2.0e-3);
+                check("Lagrange local vol on uneven times", t, k, uneven.localVol(t, k), expected, 2.0e-3);
+            }
+        }
+    }
+
+    @Test
+    public void testGridInvalidation() {
+        QL.info("Testing invalidation of the grid of local volatilities...");
+
+        final SimpleQuote spot = new SimpleQuote(100.0);
+        final LocalVolSurface direct = localVolSurface(spot);
+        final LocalVolSurface cached = localVolSurface(spot);
+        final Array times = grid(0.1, 2.0, 20);
+        cached.enableGrid(times, grid(-0.5, 0.5, 21));
+
+        final double t = times.get(5);
+        final double y = 0.1;
+        for (final double s : new double[] { 100.0, 90.0, 120.0 }) {
+            spot.setValue(s);
+            // a node of the grid, where no interpolation error is expected
+            final double k = s * Math.exp(-0.01 * t + y);
+            check("local vol after spot " + s, t, k, cached.localVol(t, k), direct.localVol(t, k), 1.0e-4);
+        }
+
+        cached.disableGrid();
+        final double k = 103.0;
+        check("local vol without grid", 0.37, k, cached.localVol(0.37, k), direct.localVol(0.37, k), 0.0);
+    }
+
+
+    //
+    // private methods
+    //
+
+    private LocalVolSurface localVolSurface(final SimpleQuote spot) {
+        // risk-free 3% and dividend 4%: forwards are spot*exp(-0.01 t)
+        return new LocalVolSurface(
+                new Handle<BlackVolTermStructure>(new SmileSurface(today, dc)),
+                new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.03, dc)),
+                new Handle<YieldTermStructure>(Utilities.flatRate(today, 0.04, dc)),
+                new Handle<SimpleQuote>(spot));
+    }
+
+    private static Array grid(final double first, final double last, final int size) {
+        final Array grid = new Array(size);
+        for (int i = 0; i < size; i++) {
+            grid.set(i, first + (last - first) * i / (size - 1));
+        }
+        return grid;
+    }
+
+    private static void check(final String what, final double t, final double k,
+            final double calculated, final double expected, final double tolerance) {
+        if (Math.abs(calculated - expected) > tolerance) {
+            fail(what + " mismatch at t=" + t + " k=" + k + ":"
+                    + "\n    calculated: " + calculated
+                    + "\n    expected:   " + expected);
+        }
+    }
+
+
+    //
+    // private inner classes
+    //
+
+    /**
+     * Smooth smile whose skew and convexity flatten with time
+     */
+    private static class SmileSurface extends BlackVarianceTermStructure {
+        private final DayCounter dc;
+
+        public SmileSurface(final Date referenceDate, final DayCounter dc) {
+            super(referenceDate);
+            this.dc = dc;
+        }
+
+        @Override
+        public DayCounter dayCounter() {
+            return dc;
+        }
+
+        @Override
+        public Date maxDate() {
+            return Date.maxDate();
+        }
+
+        @Override
+        public double minStrike() {
+            return 0.0;
+        }
+
+        @Override
+        public double maxStrike() {
+            return Double.MAX_VALUE;
+        }
+
+        @Override
+        protected double blackVarianceImpl(final double t, final double strike) {
+            final double m = Math.log(strike / 100.0) / Math.sqrt(1.0 + t);
+            final double vol = 0.20 - 0.10 * m + 0.15 * m * m;
+            return vol * vol * t;
+        }
+    }
+
+}
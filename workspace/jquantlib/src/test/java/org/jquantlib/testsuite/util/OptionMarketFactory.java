@@ -0,0 +1,116 @@
+/*
+ Copyright (C) 2026 agent
+
+ This source code is release under the BSD License.
+
+ This file is part of JQuantLib, a free-software/open-source library
+ for financial quantitative analysts and developers - http://jquantlib.org/
+
+ JQuantLib is free software: you can redistribute it and/or modify it
+ under the terms of the JQuantLib license.  You should have received a
+ copy of the license along with this program; if not, please email
+ <jquant-devel@lists.sourceforge.net>. The license is also available online at
+ <http://www.jquantlib.org/index.php/LICENSE.TXT>.
+
+ This program is distributed in the hope that it will be useful, but WITHOUT
+ ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ FOR A PARTICULAR PURPOSE.  See the license for more details.
+
+ JQuantLib is based on QuantLib. http://quantlib.org/
+ When applicable, the original copyright notice follows this notice.
+ */
+
+package org.jquantlib.testsuite.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jquantlib.daycounters.Actual360;
+import org.jquantlib.daycounters.DayCounter;
+import org.jquantlib.exercise.EuropeanExercise;
+import org.jquantlib.instruments.EuropeanOption;
+import org.jquantlib.instruments.Instrument;
+import org.jquantlib.instruments.Option;
+import org.jquantlib.instruments.PlainVanillaPayoff;
+import org.jquantlib.instruments.VanillaOption;
+import org.jquantlib.instruments.scenarios.Market;
+import org.jquantlib.pricingengines.AnalyticEuropeanEngine;
+import org.jquantlib.processes.BlackScholesMertonProcess;
+import org.jquantlib.quotes.Handle;
+import org.jquantlib.quotes.Quote;
+import org.jquantlib.quotes.SimpleQuote;
+import org.jquantlib.termstructures.BlackVolTermStructure;
+import org.jquantlib.termstructures.YieldTermStructure;
+import org.jquantlib.time.Date;
+import org.jquantlib.time.Period;
+import org.jquantlib.time.TimeUnit;
+import org.jquantlib.util.LazyObject;
+
+/**
+ * Builds markets of European options on a single underlying, priced by the analytic engine from spot, dividend
+ * yield, risk-free rate and volatility quotes, in this order.
+ * <p>
+ * Options alternate between calls and puts, with strikes 90, 100 and 110 and maturities increasing by 3 months.
+ *
+ * @author agent
+ */
+public class OptionMarketFactory implements Market.Factory {
+
+    private final Date today;
+    private final int size;
+
+    public OptionMarketFactory(final Date today, final int size) {
+        this.today = today;
+        this.size = size;
+    }
+
+    @Override
+    public Market create() {
+        final DayCounter dc = new Actual360();
+        final SimpleQuote spot = new SimpleQuote(100.0);
+        final SimpleQuote qRate = new SimpleQuote(0.01);
+        final SimpleQuote rRate = new SimpleQuote(0.04);
+        final SimpleQuote vol = new SimpleQuote(0.25);
+        final YieldTermStructure qTS = Utilities.flatRate(today, qRate, dc);
+        final YieldTermStructure rTS = Utilities.flatRate(today, rRate, dc);
+        final BlackVolTermStructure volTS = Utilities.flatVol(today, vol, dc);
+        final BlackScholesMertonProcess process = new BlackScholesMertonProcess(
+                new Handle<Quote>(spot),
+                new Handle<YieldTermStructure>(qTS),
+                new Handle<YieldTermStructure>(rTS),
+                new Handle<BlackVolTermStructure>(volTS));
+        final AnalyticEuropeanEngine engine = new AnalyticEuropeanEngine(process);
+
+        final List<VanillaOption> options = new ArrayList<VanillaOption>();
+        final double[] strikes = { 90.0, 100.0, 110.0 };
+        for (int k = 0; k < size; k++) {
+            final Option.Type type = (k % 2 == 0) ? Option.Type.Call : Option.Type.Put;
+            final Date maturity = today.add(new Period(3 * (k + 1), TimeUnit.Months));
+            final VanillaOption option = new EuropeanOption(
+                    new PlainVanillaPayoff(type, strikes[k % strikes.length]), new EuropeanExercise(maturity));
+            option.setPricingEngine(engine);
+            options.add(option);
+        }
+        final List<SimpleQuote> quotes = Arrays.asList(spot, qRate, rRate, vol);
+
+        return new Market() {
+            @Override
+            public List<SimpleQuote> quotes() {
+                return quotes;
+            }
+
+            @Override
+            public List<? extends Instrument> instruments() {
+                return options;
+            }
+
+            @Override
+            public List<? extends LazyObject> curves() {
+                return Collections.emptyList();
+            }
+        };
+    }
+
+}